@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.benchmarks;
+
+import com.codahale.metrics.MetricRegistry;
+import org.eclipse.kapua.broker.artemis.plugin.security.context.Acl;
+import org.eclipse.kapua.broker.artemis.plugin.security.metric.LoginMetric;
+import org.eclipse.kapua.client.security.bean.AuthAcl;
+import org.eclipse.kapua.client.security.bean.AuthAcl.Action;
+import org.eclipse.kapua.client.security.bean.KapuaPrincipalImpl;
+import org.eclipse.kapua.commons.metric.MetricsServiceImpl;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.service.authentication.KapuaPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmarks the {@link Acl} checks done by the broker on every publish and subscribe of a device.
+ * <p>
+ * The {@link AuthAcl}s are the ones given to a device connected with a user without the device manage and data manage permissions.
+ *
+ * @since 2.1.0
+ */
+public class AclBenchmark extends AbstractBenchmark {
+
+    private static final String CLASSIFIER = "$EDC";
+
+    private KapuaPrincipal principal;
+    private Acl acl;
+
+    private String telemetryAddress;
+    private String otherClientTelemetryAddress;
+    private String controlAddress;
+
+    @Setup
+    public void setup() throws Exception {
+        principal = new KapuaPrincipalImpl(new KapuaEid(BigInteger.ONE), "gateway-user", BenchmarkData.CLIENT_ID);
+
+        String account = BenchmarkData.ACCOUNT_NAME;
+        String clientId = BenchmarkData.CLIENT_ID;
+        List<AuthAcl> authAcls = new ArrayList<>();
+        authAcls.add(new AuthAcl(CLASSIFIER + "/" + account + "/" + clientId + "/#", Action.all));
+        authAcls.add(new AuthAcl(account + "/" + clientId + "/#", Action.all));
+        authAcls.add(new AuthAcl(CLASSIFIER + "/" + account + "/+/+/REPLY/#", Action.writeAdmin));
+        authAcls.add(new AuthAcl(CLASSIFIER + "/" + account + "/+/+/NOTIFY/" + clientId + "/#", Action.writeAdmin));
+
+        acl = new Acl(new LoginMetric(new MetricsServiceImpl(new MetricRegistry()), "benchmarks"), principal, authAcls);
+
+        telemetryAddress = account + "/" + clientId + "/" + String.join("/", BenchmarkData.SEMANTIC_PARTS);
+        otherClientTelemetryAddress = account + "/other-gateway/" + String.join("/", BenchmarkData.SEMANTIC_PARTS);
+        controlAddress = CLASSIFIER + "/" + account + "/" + clientId + "/#";
+    }
+
+    @Benchmark
+    public boolean canWrite() {
+        return acl.canWrite(principal, telemetryAddress);
+    }
+
+    @Benchmark
+    public boolean canWriteDenied() {
+        return acl.canWrite(principal, otherClientTelemetryAddress);
+    }
+
+    @Benchmark
+    public boolean canRead() {
+        return acl.canRead(principal, controlAddress);
+    }
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.benchmarks;
+
+import org.eclipse.kapua.service.device.call.message.kura.KuraPayload;
+import org.eclipse.kapua.service.device.call.message.kura.KuraPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Sample data shared by the benchmarks.
+ * <p>
+ * The samples look like the telemetry published by a Kura gateway: a few metrics of each supported type, a position and a small body.
+ *
+ * @since 2.1.0
+ */
+final class BenchmarkData {
+
+    static final String ACCOUNT_NAME = "kapua-sys";
+    static final String CLIENT_ID = "gateway-0001";
+    static final String[] SEMANTIC_PARTS = {"heater", "sensors", "temperature"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates a {@link KuraPayload} with the given number of metrics.
+     *
+     * @param metricCount The number of metrics.
+     * @return The new {@link KuraPayload}.
+     * @since 2.1.0
+     */
+    static KuraPayload newKuraPayload(int metricCount) {
+        KuraPayload kuraPayload = new KuraPayload();
+        kuraPayload.setTimestamp(new Date());
+        kuraPayload.setPosition(newKuraPosition());
+        kuraPayload.setBody("{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8));
+
+        for (int i = 0; i < metricCount; i++) {
+            kuraPayload.addMetric("metric_" + i, newMetricValue(i));
+        }
+
+        return kuraPayload;
+    }
+
+    private static KuraPosition newKuraPosition() {
+        KuraPosition kuraPosition = new KuraPosition();
+        kuraPosition.setLatitude(45.9389);
+        kuraPosition.setLongitude(13.5447);
+        kuraPosition.setAltitude(120.0);
+        kuraPosition.setPrecision(1.5);
+        kuraPosition.setHeading(90.0);
+        kuraPosition.setSpeed(0.0);
+        kuraPosition.setTimestamp(new Date());
+        kuraPosition.setSatellites(8);
+        kuraPosition.setStatus(4);
+        return kuraPosition;
+    }
+
+    private static Object newMetricValue(int index) {
+        switch (index % 6) {
+            case 0:
+                return 21.5 + index;
+            case 1:
+                return (long) index * 1_000_000L;
+            case 2:
+                return index;
+            case 3:
+                return (float) index / 3;
+            case 4:
+                return index % 2 == 0;
+            default:
+                return "value-" + index;
+        }
+    }
+}
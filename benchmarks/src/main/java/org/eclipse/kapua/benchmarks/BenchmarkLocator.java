@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.benchmarks;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.name.Names;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.KapuaObjectFactory;
+import org.eclipse.kapua.service.KapuaService;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link KapuaLocator} backed by a Guice {@link Injector} holding only the bindings needed by a benchmark.
+ * <p>
+ * Some of the benchmarked code (i.e. the JAXB xml registries and adapters) looks up its collaborators with {@link KapuaLocator#getInstance()}.
+ * Each benchmark runs in its own forked JVM, so it is enough to {@link #install(Module...)} the bindings in the setup of the benchmark.
+ *
+ * @since 2.1.0
+ */
+public class BenchmarkLocator extends KapuaLocator {
+
+    private static Injector injector;
+
+    /**
+     * Creates the {@link Injector} from the given {@link Module}s and makes this the {@link KapuaLocator} instance.
+     *
+     * @param modules The {@link Module}s with the bindings needed by the benchmark.
+     * @return The created {@link Injector}.
+     * @since 2.1.0
+     */
+    public static synchronized Injector install(Module... modules) {
+        injector = Guice.createInjector(modules);
+
+        System.setProperty(LOCATOR_CLASS_NAME_SYSTEM_PROPERTY, BenchmarkLocator.class.getName());
+        KapuaLocator.clearInstance();
+        KapuaLocator.getInstance();
+
+        return injector;
+    }
+
+    @Override
+    public <S extends KapuaService> S getService(Class<S> serviceClass) {
+        return injector.getInstance(serviceClass);
+    }
+
+    @Override
+    public <F extends KapuaObjectFactory> F getFactory(Class<F> factoryClass) {
+        return injector.getInstance(factoryClass);
+    }
+
+    @Override
+    public List<KapuaService> getServices() {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public <T> T getComponent(Class<T> componentClass) {
+        return injector.getInstance(componentClass);
+    }
+
+    @Override
+    public <T> T getComponent(Class<T> componentClass, String named) {
+        return injector.getInstance(Key.get(componentClass, Names.named(named)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getComponent(Type type) {
+        return (T) injector.getInstance(Key.get(type));
+    }
+}
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.benchmarks;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.message.internal.KapuaPositionImpl;
+import org.eclipse.kapua.message.internal.device.data.KapuaDataChannelImpl;
+import org.eclipse.kapua.message.internal.device.data.KapuaDataPayloadImpl;
+import org.eclipse.kapua.service.datastore.internal.DatastoreCacheManager;
+import org.eclipse.kapua.service.datastore.internal.MessageIngestPlan;
+import org.eclipse.kapua.service.datastore.internal.MessageIngestPlanner;
+import org.eclipse.kapua.service.datastore.internal.PlannedDatastoreMessage;
+import org.eclipse.kapua.service.datastore.internal.converter.ModelContextImpl;
+import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreUtils;
+import org.eclipse.kapua.service.datastore.internal.model.DatastoreMessageImpl;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
+import org.eclipse.kapua.service.datastore.model.DatastoreMessage;
+import org.eclipse.kapua.service.elasticsearch.client.QueryConverter;
+import org.eclipse.kapua.service.storable.model.id.StorableIdFactoryImpl;
+import org.eclipse.kapua.service.storable.model.query.StorableFetchStyle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Benchmarks the conversion of the {@link DatastoreMessage} from and to the Elasticsearch document, and the resolution of its data index name,
+ * which are done for every stored and every fetched message, along with the lookup of its {@link MessageIngestPlan}.
+ *
+ * @since 2.1.0
+ */
+public class DatastoreMessageBenchmark extends AbstractBenchmark {
+
+    private static final String DATASTORE_ID = "AYvFp3mRqWzXb9e2Tt0c";
+    private static final String INDEX_NAME = "1-data-message-2023-42";
+
+    @Param({"10", "100"})
+    public int metricCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private DatastoreUtils datastoreUtils;
+    private MessageIngestPlanner messageIngestPlanner;
+    private ModelContextImpl modelContext;
+
+    private DatastoreMessage datastoreMessage;
+    private Map<String, Object> document;
+    private byte[] documentSource;
+
+    @Setup
+    public void setup() throws Exception {
+        DatastoreSettings datastoreSettings = new DatastoreSettings();
+        datastoreUtils = new DatastoreUtils(datastoreSettings);
+        messageIngestPlanner = new MessageIngestPlanner(datastoreUtils, new DatastoreCacheManager(datastoreSettings));
+        modelContext = new ModelContextImpl(new StorableIdFactoryImpl(), datastoreUtils);
+
+        datastoreMessage = newDatastoreMessage(metricCount);
+
+        // Round trip through JSON, so that the document looks like the _source returned by Elasticsearch
+        documentSource = objectMapper.writeValueAsBytes(modelContext.marshal(datastoreMessage));
+        document = objectMapper.readValue(documentSource, new TypeReference<HashMap<String, Object>>() { });
+        document.put(modelContext.getIdKeyName(), DATASTORE_ID);
+        document.put(QueryConverter.QUERY_FETCH_STYLE_KEY, StorableFetchStyle.SOURCE_FULL);
+    }
+
+    @Benchmark
+    public Map<String, Object> marshal() throws Exception {
+        return modelContext.marshal(datastoreMessage);
+    }
+
+    @Benchmark
+    public Map<String, Object> marshalWithIngestPlan() throws Exception {
+        return modelContext.marshal(new PlannedDatastoreMessage(datastoreMessage, messageIngestPlanner.getPlan(datastoreMessage)));
+    }
+
+    @Benchmark
+    public DatastoreMessage unmarshal() throws Exception {
+        return modelContext.unmarshal(DatastoreMessage.class, document);
+    }
+
+    @Benchmark
+    public DatastoreMessage unmarshalFromParser() throws Exception {
+        try (JsonParser sourceParser = objectMapper.getFactory().createParser(documentSource)) {
+            sourceParser.nextToken();
+            return modelContext.unmarshal(DatastoreMessage.class, DATASTORE_ID, INDEX_NAME, StorableFetchStyle.SOURCE_FULL, sourceParser);
+        }
+    }
+
+    @Benchmark
+    public String getDataIndexName() {
+        return datastoreUtils.getDataIndexName(datastoreMessage.getScopeId(), datastoreMessage.getTimestamp().getTime(), DatastoreUtils.INDEXING_WINDOW_OPTION_WEEK);
+    }
+
+    @Benchmark
+    public MessageIngestPlan getIngestPlan() {
+        return messageIngestPlanner.getPlan(datastoreMessage);
+    }
+
+    @Benchmark
+    public String getDataIndexNameFromIngestPlan() {
+        return messageIngestPlanner.getPlan(datastoreMessage).getDataIndexName(datastoreMessage.getTimestamp().getTime(), DatastoreUtils.INDEXING_WINDOW_OPTION_WEEK);
+    }
+
+    private static DatastoreMessage newDatastoreMessage(int metricCount) {
+        Date now = new Date();
+
+        KapuaDataChannelImpl channel = new KapuaDataChannelImpl();
+        channel.setSemanticParts(Arrays.asList(BenchmarkData.SEMANTIC_PARTS));
+
+        KapuaDataPayloadImpl payload = new KapuaDataPayloadImpl();
+        payload.setMetrics(BenchmarkData.newKuraPayload(metricCount).getMetrics());
+        payload.setBody("{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8));
+
+        KapuaPositionImpl position = new KapuaPositionImpl();
+        position.setLatitude(45.9389);
+        position.setLongitude(13.5447);
+        position.setAltitude(120.0);
+        position.setTimestamp(now);
+
+        DatastoreMessageImpl message = new DatastoreMessageImpl();
+        message.setId(UUID.randomUUID());
+        message.setScopeId(new KapuaEid(BigInteger.ONE));
+        message.setDeviceId(new KapuaEid(BigInteger.TEN));
+        message.setClientId(BenchmarkData.CLIENT_ID);
+        message.setChannel(channel);
+        message.setPayload(payload);
+        message.setPosition(position);
+        message.setTimestamp(now);
+        message.setReceivedOn(now);
+        message.setSentOn(now);
+        message.setCapturedOn(now);
+        return message;
+    }
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.benchmarks;
+
+import com.google.inject.AbstractModule;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.crypto.CryptoUtil;
+import org.eclipse.kapua.commons.crypto.CryptoUtilImpl;
+import org.eclipse.kapua.commons.crypto.setting.CryptoSettings;
+import org.eclipse.kapua.commons.util.xml.XmlUtil;
+import org.eclipse.kapua.model.config.metatype.KapuaTad;
+import org.eclipse.kapua.model.config.metatype.KapuaTdesignate;
+import org.eclipse.kapua.model.config.metatype.KapuaTicon;
+import org.eclipse.kapua.model.config.metatype.KapuaTmetadata;
+import org.eclipse.kapua.model.config.metatype.KapuaTobject;
+import org.eclipse.kapua.model.config.metatype.KapuaTocd;
+import org.eclipse.kapua.model.config.metatype.KapuaToption;
+import org.eclipse.kapua.model.config.metatype.KapuaTscalar;
+import org.eclipse.kapua.service.device.call.kura.model.configuration.KuraDeviceComponentConfiguration;
+import org.eclipse.kapua.service.device.call.kura.model.configuration.KuraDeviceConfiguration;
+import org.eclipse.kapua.service.device.management.configuration.DeviceComponentConfiguration;
+import org.eclipse.kapua.service.device.management.configuration.DeviceConfiguration;
+import org.eclipse.kapua.service.device.management.configuration.DeviceConfigurationFactory;
+import org.eclipse.kapua.service.device.management.configuration.internal.DeviceConfigurationFactoryImpl;
+import org.eclipse.persistence.jaxb.JAXBContextFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import javax.xml.bind.JAXBContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmarks the {@link XmlUtil} marshalling and unmarshalling of the device configurations,
+ * both in the Kura format exchanged with the device and in the Kapua format exposed by the device management.
+ *
+ * @since 2.1.0
+ */
+public class DeviceConfigurationXmlBenchmark extends AbstractBenchmark {
+
+    private static final int PROPERTY_COUNT = 10;
+
+    @Param({"1", "20"})
+    public int componentCount;
+
+    private XmlUtil xmlUtil;
+
+    private KuraDeviceConfiguration kuraDeviceConfiguration;
+    private String kuraDeviceConfigurationXml;
+
+    private DeviceConfiguration deviceConfiguration;
+    private String deviceConfigurationXml;
+
+    @Setup
+    public void setup() throws Exception {
+        // The xml registries and the property adapters look up their collaborators from the KapuaLocator
+        BenchmarkLocator.install(new AbstractModule() {
+
+            @Override
+            protected void configure() {
+                bind(CryptoUtil.class).toInstance(new CryptoUtilImpl(new CryptoSettings()));
+                bind(DeviceConfigurationFactory.class).to(DeviceConfigurationFactoryImpl.class);
+            }
+        });
+
+        JAXBContext jaxbContext = newJAXBContext();
+        xmlUtil = new XmlUtil(() -> jaxbContext);
+
+        kuraDeviceConfiguration = new KuraDeviceConfiguration();
+        deviceConfiguration = new DeviceConfigurationFactoryImpl().newConfigurationInstance();
+        for (int i = 0; i < componentCount; i++) {
+            String componentId = "org.eclipse.kura.component." + i;
+
+            KuraDeviceComponentConfiguration kuraComponentConfiguration = new KuraDeviceComponentConfiguration();
+            kuraComponentConfiguration.setComponentId(componentId);
+            kuraComponentConfiguration.setDefinition(newDefinition(componentId));
+            kuraComponentConfiguration.setProperties(newProperties());
+            kuraDeviceConfiguration.getConfigurations().add(kuraComponentConfiguration);
+
+            DeviceComponentConfiguration componentConfiguration = new DeviceConfigurationFactoryImpl().newComponentConfigurationInstance(componentId);
+            componentConfiguration.setName(componentId);
+            componentConfiguration.setDefinition(newDefinition(componentId));
+            componentConfiguration.setProperties(newProperties());
+            deviceConfiguration.addComponentConfiguration(componentConfiguration);
+        }
+
+        kuraDeviceConfigurationXml = xmlUtil.marshal(kuraDeviceConfiguration);
+        deviceConfigurationXml = xmlUtil.marshal(deviceConfiguration);
+    }
+
+    @Benchmark
+    public String marshalKuraDeviceConfiguration() throws Exception {
+        return xmlUtil.marshal(kuraDeviceConfiguration);
+    }
+
+    @Benchmark
+    public KuraDeviceConfiguration unmarshalKuraDeviceConfiguration() throws Exception {
+        return xmlUtil.unmarshal(kuraDeviceConfigurationXml, KuraDeviceConfiguration.class);
+    }
+
+    @Benchmark
+    public String marshalDeviceConfiguration() throws Exception {
+        return xmlUtil.marshal(deviceConfiguration);
+    }
+
+    @Benchmark
+    public DeviceConfiguration unmarshalDeviceConfiguration() throws Exception {
+        return xmlUtil.unmarshal(deviceConfigurationXml, DeviceConfiguration.class);
+    }
+
+    private static JAXBContext newJAXBContext() throws KapuaException {
+        try {
+            return JAXBContextFactory.createContext(new Class<?>[]{
+                    KapuaTmetadata.class,
+                    KapuaTocd.class,
+                    KapuaTad.class,
+                    KapuaTicon.class,
+                    KapuaTscalar.class,
+                    KapuaToption.class,
+                    KapuaTdesignate.class,
+                    KapuaTobject.class,
+                    DeviceConfiguration.class,
+                    DeviceComponentConfiguration.class,
+                    KuraDeviceConfiguration.class,
+                    KuraDeviceComponentConfiguration.class
+            }, null);
+        } catch (Exception e) {
+            throw KapuaException.internalError(e, "Error creating JAXBContext!");
+        }
+    }
+
+    private static KapuaTocd newDefinition(String componentId) {
+        List<KapuaTad> ads = new ArrayList<>();
+        for (int i = 0; i < PROPERTY_COUNT; i++) {
+            KapuaTad ad = new KapuaTad();
+            ad.setId("property." + i);
+            ad.setName("property." + i);
+            ad.setDescription("Description of the property " + i);
+            ad.setType(i % 2 == 0 ? KapuaTscalar.STRING : KapuaTscalar.INTEGER);
+            ad.setCardinality(0);
+            ad.setRequired(true);
+            ad.setDefault(i % 2 == 0 ? "default" : "0");
+            ads.add(ad);
+        }
+
+        KapuaTocd ocd = new KapuaTocd();
+        ocd.setId(componentId);
+        ocd.setName(componentId);
+        ocd.setDescription("Configuration of " + componentId);
+        ocd.setAD(ads);
+        return ocd;
+    }
+
+    private static Map<String, Object> newProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        for (int i = 0; i < PROPERTY_COUNT; i++) {
+            properties.put("property." + i, i % 2 == 0 ? "value-" + i : (Object) i);
+        }
+        return properties;
+    }
+}
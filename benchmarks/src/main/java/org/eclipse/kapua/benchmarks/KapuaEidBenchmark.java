@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.benchmarks;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.math.BigInteger;
+
+/**
+ * Benchmarks the conversion of {@link KapuaEid} from and to the compact form, which is used in every REST path, cache key and broker session.
+ *
+ * @since 2.1.0
+ */
+public class KapuaEidBenchmark extends AbstractBenchmark {
+
+    private KapuaEid kapuaEid;
+    private String compactId;
+
+    @Setup
+    public void setup() {
+        kapuaEid = new KapuaEid(new BigInteger("8574893247593245"));
+        compactId = kapuaEid.toCompactId();
+    }
+
+    @Benchmark
+    public KapuaEid parseCompactId() {
+        return KapuaEid.parseCompactId(compactId);
+    }
+
+    @Benchmark
+    public String toCompactId() {
+        return kapuaEid.toCompactId();
+    }
+}
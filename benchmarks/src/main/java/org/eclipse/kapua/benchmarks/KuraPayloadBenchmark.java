@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.benchmarks;
+
+import org.eclipse.kapua.service.device.call.message.kura.KuraPayload;
+import org.eclipse.kapua.service.device.call.message.kura.utils.GZIPUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.io.IOException;
+
+/**
+ * Benchmarks the Protobuf encoding and decoding of the {@link KuraPayload}, which is done for every message received from or sent to a Kura device.
+ *
+ * @since 2.1.0
+ */
+public class KuraPayloadBenchmark extends AbstractBenchmark {
+
+    /**
+     * Whether the payload is gzip compressed, as Kura does for large payloads.
+     */
+    @Param({"false", "true"})
+    public boolean compressed;
+
+    @Param({"10", "100"})
+    public int metricCount;
+
+    private KuraPayload kuraPayload;
+    private byte[] encodedPayload;
+
+    @Setup
+    public void setup() throws IOException {
+        kuraPayload = BenchmarkData.newKuraPayload(metricCount);
+
+        encodedPayload = kuraPayload.toByteArray();
+        if (compressed) {
+            encodedPayload = GZIPUtils.compress(encodedPayload);
+        }
+    }
+
+    @Benchmark
+    public byte[] toByteArray() throws IOException {
+        byte[] bytes = kuraPayload.toByteArray();
+        return compressed ? GZIPUtils.compress(bytes) : bytes;
+    }
+
+    @Benchmark
+    public KuraPayload readFromByteArray() throws Exception {
+        KuraPayload payload = new KuraPayload();
+        payload.readFromByteArray(encodedPayload);
+        return payload;
+    }
+}
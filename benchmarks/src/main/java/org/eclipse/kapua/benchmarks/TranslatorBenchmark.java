@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.benchmarks;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.name.Names;
+import org.eclipse.kapua.commons.metric.MetricsService;
+import org.eclipse.kapua.commons.metric.MetricsServiceImpl;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.message.KapuaMessageFactory;
+import org.eclipse.kapua.message.device.data.KapuaDataMessage;
+import org.eclipse.kapua.message.device.data.KapuaDataMessageFactory;
+import org.eclipse.kapua.message.internal.KapuaMessageFactoryImpl;
+import org.eclipse.kapua.message.internal.device.data.KapuaDataMessageFactoryImpl;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.account.Account;
+import org.eclipse.kapua.service.account.AccountService;
+import org.eclipse.kapua.service.device.call.message.kura.data.KuraDataMessage;
+import org.eclipse.kapua.service.device.registry.Device;
+import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
+import org.eclipse.kapua.translator.Translator;
+import org.eclipse.kapua.translator.TranslatorHub;
+import org.eclipse.kapua.translator.TranslatorHubImpl;
+import org.eclipse.kapua.translator.jms.kura.data.TranslatorDataJmsKura;
+import org.eclipse.kapua.translator.kura.kapua.TranslatorDataKuraKapua;
+import org.eclipse.kapua.translator.kura.kapua.TranslatorKuraKapuaUtils;
+import org.eclipse.kapua.translator.kura.kapua.TranslatorKuraKapuaUtilsImpl;
+import org.eclipse.kapua.transport.message.jms.JmsMessage;
+import org.eclipse.kapua.transport.message.jms.JmsPayload;
+import org.eclipse.kapua.transport.message.jms.JmsTopic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.lang.reflect.Proxy;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Benchmarks the translation of a telemetry message received from the broker, from {@link JmsMessage} to {@link KuraDataMessage} to {@link KapuaDataMessage},
+ * with the {@link Translator}s looked up from the {@link TranslatorHub} as the consumers do.
+ * <p>
+ * The {@link Account} and the {@link Device} are served by stubbed services, and after the first message they come from the resolution cache of the translator.
+ *
+ * @since 2.1.0
+ */
+public class TranslatorBenchmark extends AbstractBenchmark {
+
+    @Param({"10", "100"})
+    public int metricCount;
+
+    private TranslatorHub translatorHub;
+    private JmsTopic jmsTopic;
+    private byte[] jmsBody;
+
+    @Setup
+    public void setup() {
+        Injector injector = Guice.createInjector(new AbstractModule() {
+
+            @Override
+            protected void configure() {
+                Multibinder<Translator> translators = Multibinder.newSetBinder(binder(), Translator.class);
+                translators.addBinding().to(TranslatorDataJmsKura.class);
+                translators.addBinding().to(TranslatorDataKuraKapua.class);
+                bind(TranslatorHub.class).to(TranslatorHubImpl.class);
+
+                bind(KapuaMessageFactory.class).to(KapuaMessageFactoryImpl.class);
+                bind(KapuaDataMessageFactory.class).to(KapuaDataMessageFactoryImpl.class);
+                bind(TranslatorKuraKapuaUtils.class).toInstance(new TranslatorKuraKapuaUtilsImpl(new KapuaMessageFactoryImpl(), "$EDC"));
+
+                bind(MetricsService.class).toInstance(new MetricsServiceImpl(new MetricRegistry()));
+                bindConstant().annotatedWith(Names.named("metricModuleName")).to("benchmarks");
+
+                KapuaId scopeId = new KapuaEid(BigInteger.ONE);
+                Account account = stub(Account.class, "getId", scopeId);
+                Device device = stub(Device.class, "getId", new KapuaEid(BigInteger.TEN));
+                bind(AccountService.class).toInstance(stub(AccountService.class, "findByName", account));
+                bind(DeviceRegistryService.class).toInstance(stub(DeviceRegistryService.class, "findByClientId", device));
+            }
+        });
+
+        translatorHub = injector.getInstance(TranslatorHub.class);
+        List<String> topicParts = new ArrayList<>();
+        topicParts.add(BenchmarkData.ACCOUNT_NAME);
+        topicParts.add(BenchmarkData.CLIENT_ID);
+        topicParts.addAll(Arrays.asList(BenchmarkData.SEMANTIC_PARTS));
+        jmsTopic = new JmsTopic(topicParts.toArray(new String[0]));
+        jmsBody = BenchmarkData.newKuraPayload(metricCount).toByteArray();
+    }
+
+    @Benchmark
+    public KapuaDataMessage jmsToKapua() throws Exception {
+        Translator<JmsMessage, KuraDataMessage> translatorFromJms = translatorHub.getTranslatorFor(JmsMessage.class, KuraDataMessage.class);
+        KuraDataMessage kuraDataMessage = translatorFromJms.translate(new JmsMessage(jmsTopic, new Date(), new JmsPayload(jmsBody)));
+
+        Translator<KuraDataMessage, KapuaDataMessage> translatorToKapua = translatorHub.getTranslatorFor(KuraDataMessage.class, KapuaDataMessage.class);
+        return translatorToKapua.translate(kuraDataMessage);
+    }
+
+    /**
+     * Creates a stub of the given interface which answers the given method with the given value and fails on any other method.
+     *
+     * @param type        The interface to stub.
+     * @param methodName  The name of the stubbed method.
+     * @param returnValue The value returned by the stubbed method.
+     * @param <T>         The type of the interface.
+     * @return The stub.
+     * @since 2.1.0
+     */
+    private static <T> T stub(Class<T> type, String methodName, Object returnValue) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().equals(methodName)) {
+                return returnValue;
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return type.getSimpleName() + " stub";
+                }
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+        }));
+    }
+}
@@ -44,6 +44,7 @@ public class ArtemisSecurityModule extends AbstractKapuaModule {
         bind(PluginUtility.class).in(Singleton.class);
         bind(RunWithLock.class).in(Singleton.class);
         bind(AddressAccessTracker.class).in(Singleton.class);
+        bind(IngestionRateLimiter.class).in(Singleton.class);
     }
 
     @Provides
@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.artemis.plugin.security;
+
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
+import org.apache.activemq.artemis.spi.core.remoting.Connection;
+import org.eclipse.kapua.broker.artemis.plugin.security.metric.IngestionMetric;
+import org.eclipse.kapua.broker.artemis.plugin.security.metric.IngestionMetric.AccountIngestionMetric;
+import org.eclipse.kapua.broker.artemis.plugin.security.setting.BrokerSetting;
+import org.eclipse.kapua.broker.artemis.plugin.security.setting.BrokerSettingKey;
+import org.eclipse.kapua.client.security.bean.IngestionRateLimit;
+import org.eclipse.kapua.client.security.bean.IngestionRateLimit.Action;
+import org.eclipse.kapua.client.security.context.SessionContext;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces the telemetry {@link IngestionRateLimit}s of the accounts on publish.
+ * <p>
+ * Each account has an {@link IngestionTokenBucket} shared by all its connections and each device has its own {@link IngestionTokenBucket} for the device rate.
+ * The buckets are looked up on each publish with the {@link IngestionRateLimit} of the connection, and replaced when the limits have changed,
+ * so the connections of an account share the same bucket once they are authenticated with the new limits. The device buckets are kept by client id
+ * after the disconnection of the device, so a device reconnecting does not start with a new burst. The buckets are forgotten once they are full,
+ * since a full bucket behaves as a new one.
+ * <p>
+ * The buckets are local to the broker: the rate limits apply to the connections of each broker, so an account connected to several brokers
+ * can receive up to its rate limits on each of them.
+ * <p>
+ * The messages over the rate limits are delayed by not reading the connection of the publishing device until they are within the rate limits
+ * (the broker threads are never blocked), or dropped if they would wait longer than the configured maximum delay.
+ * Depending on the {@link Action} of the account they can also be dropped or diverted straight away.
+ *
+ * @since 2.1.0
+ */
+public class IngestionRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionRateLimiter.class);
+
+    private static final long DEFAULT_MAX_DELAY = 5000;
+    private static final long EXPIRY_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+    public enum Outcome {
+        ACCEPTED,
+        DELAYED,
+        DROPPED,
+        DIVERTED
+    }
+
+    private final IngestionMetric ingestionMetric;
+    private final long maxDelay;
+
+    private final Map<KapuaId, IngestionTokenBucket> accountBuckets = new ConcurrentHashMap<>();
+    private final Map<DeviceKey, IngestionTokenBucket> deviceBuckets = new ConcurrentHashMap<>();
+    private final Map<String, PausedConnection> pausedConnections = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService resumer;
+
+    @Inject
+    public IngestionRateLimiter(BrokerSetting brokerSetting, IngestionMetric ingestionMetric) {
+        this.ingestionMetric = ingestionMetric;
+        this.maxDelay = TimeUnit.MILLISECONDS.toNanos(Math.max(0, brokerSetting.getLong(BrokerSettingKey.INGESTION_RATE_LIMIT_MAX_DELAY, DEFAULT_MAX_DELAY)));
+        this.resumer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ingestion-rate-limit-resumer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        resumer.scheduleWithFixedDelay(this::expireBuckets, EXPIRY_INTERVAL, EXPIRY_INTERVAL, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Takes the tokens of a telemetry message published on the given connection.
+     * <p>
+     * If the message has to wait for its tokens the connection is not read until the wait is over.
+     *
+     * @param connection     The {@link RemotingConnection} the message has been published on.
+     * @param connectionId   The connection id.
+     * @param sessionContext The {@link SessionContext} of the connection, with the {@link IngestionRateLimit} of the account.
+     * @return The {@link Outcome} of the message.
+     * @since 2.1.0
+     */
+    public Outcome acquire(RemotingConnection connection, String connectionId, SessionContext sessionContext) {
+        IngestionRateLimit ingestionRateLimit = sessionContext.getIngestionRateLimit();
+        AccountIngestionMetric metric = ingestionMetric.getAccountMetric(sessionContext.getAccountName());
+
+        Action action = ingestionRateLimit.getAction() != null ? ingestionRateLimit.getAction() : Action.delay;
+        long maxWait = Action.delay.equals(action) ? maxDelay : 0;
+        long now = System.nanoTime();
+        long wait = 0;
+        // the device bucket first, so a device over its own rate does not take the tokens of the other devices of the account
+        IngestionTokenBucket deviceBucket = null;
+        if (ingestionRateLimit.getDeviceRate() > 0) {
+            deviceBucket = getBucket(deviceBuckets, new DeviceKey(sessionContext.getScopeId(), sessionContext.getClientId()), ingestionRateLimit.getDeviceRate(), 0, now);
+            wait = deviceBucket.acquire(now, maxWait);
+        }
+        if (wait != IngestionTokenBucket.REJECTED && ingestionRateLimit.getRate() > 0) {
+            long accountWait = getBucket(accountBuckets, sessionContext.getScopeId(), ingestionRateLimit.getRate(), ingestionRateLimit.getBurst(), now).acquire(now, maxWait);
+            if (accountWait == IngestionTokenBucket.REJECTED) {
+                // the message is not accepted, so it does not count for the device rate either
+                if (deviceBucket != null) {
+                    deviceBucket.release();
+                }
+                wait = IngestionTokenBucket.REJECTED;
+            } else {
+                wait = Math.max(wait, accountWait);
+            }
+        }
+
+        if (wait == 0) {
+            metric.getAccepted().inc();
+            return Outcome.ACCEPTED;
+        } else if (wait == IngestionTokenBucket.REJECTED) {
+            if (Action.divert.equals(action)) {
+                metric.getDiverted().inc();
+                return Outcome.DIVERTED;
+            }
+            metric.getDropped().inc();
+            return Outcome.DROPPED;
+        }
+        pause(connection, connectionId, now + wait);
+        metric.getDelayed().inc();
+        ingestionMetric.getDelay().update(TimeUnit.NANOSECONDS.toMillis(wait));
+        return Outcome.DELAYED;
+    }
+
+    /**
+     * Forgets the pause of the given connection.
+     * <p>
+     * The buckets of the device are kept, so its rate limit still applies if it reconnects.
+     *
+     * @param connectionId The connection id.
+     * @since 2.1.0
+     */
+    public void removeConnection(String connectionId) {
+        pausedConnections.remove(connectionId);
+    }
+
+    private void pause(RemotingConnection connection, String connectionId, long resumeAt) {
+        // the messages still published during the pause already waited for their tokens, they only move the end of the pause to their own wait
+        pausedConnections.compute(connectionId, (id, pausedConnection) -> {
+            if (pausedConnection != null) {
+                if (resumeAt - pausedConnection.resumeAt > 0) {
+                    pausedConnection.resumeAt = resumeAt;
+                }
+                return pausedConnection;
+            }
+            Connection transportConnection = connection.getTransportConnection();
+            transportConnection.setAutoRead(false);
+            long wait = resumeAt - System.nanoTime();
+            logger.debug("Connection {} over the ingestion rate limits, paused for {} ms", id, TimeUnit.NANOSECONDS.toMillis(wait));
+            resumer.schedule(() -> resume(id), wait, TimeUnit.NANOSECONDS);
+            return new PausedConnection(transportConnection, resumeAt);
+        });
+    }
+
+    private void resume(String connectionId) {
+        pausedConnections.computeIfPresent(connectionId, (id, pausedConnection) -> {
+            long wait = pausedConnection.resumeAt - System.nanoTime();
+            if (wait > 0) {
+                resumer.schedule(() -> resume(id), wait, TimeUnit.NANOSECONDS);
+                return pausedConnection;
+            }
+            pausedConnection.transportConnection.setAutoRead(true);
+            return null;
+        });
+    }
+
+    private <K> IngestionTokenBucket getBucket(Map<K, IngestionTokenBucket> buckets, K key, int rate, int burst, long now) {
+        IngestionTokenBucket bucket = buckets.get(key);
+        if (bucket != null && bucket.hasLimits(rate, burst)) {
+            return bucket;
+        }
+        // the limits have changed (or it is the first message), the bucket is replaced for all the connections
+        return buckets.compute(key, (k, current) -> current != null && current.hasLimits(rate, burst) ? current : new IngestionTokenBucket(rate, burst, now));
+    }
+
+    private void expireBuckets() {
+        long now = System.nanoTime();
+        accountBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        deviceBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    /**
+     * The key of the {@link IngestionTokenBucket} of a device.
+     *
+     * @since 2.1.0
+     */
+    private static class DeviceKey {
+
+        private final KapuaId scopeId;
+        private final String clientId;
+
+        private DeviceKey(KapuaId scopeId, String clientId) {
+            this.scopeId = scopeId;
+            this.clientId = clientId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            DeviceKey other = (DeviceKey) o;
+            return Objects.equals(scopeId, other.scopeId) && Objects.equals(clientId, other.clientId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scopeId, clientId);
+        }
+    }
+
+    /**
+     * A connection which is not read until the wait of its messages is over.
+     *
+     * @since 2.1.0
+     */
+    private static class PausedConnection {
+
+        private final Connection transportConnection;
+        // only accessed in the compute functions of the paused connections map
+        private long resumeAt;
+
+        private PausedConnection(Connection transportConnection, long resumeAt) {
+            this.transportConnection = transportConnection;
+            this.resumeAt = resumeAt;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.artemis.plugin.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket of the telemetry ingestion rate limits.
+ * <p>
+ * The bucket is implemented as a generic cell rate algorithm: instead of counting the tokens it keeps the theoretical arrival time of the next message,
+ * which is advanced by the emission interval (1 second / rate) for each accepted message. A message is within the rate if it does not arrive earlier
+ * than the theoretical arrival time minus the burst tolerance, so a single compare-and-set is enough to accept it.
+ * <p>
+ * Times are {@link System#nanoTime()} values and are only compared through their differences.
+ *
+ * @since 2.1.0
+ */
+public class IngestionTokenBucket {
+
+    /**
+     * Returned by {@link #acquire(long, long)} when the message is rejected.
+     */
+    public static final long REJECTED = -1;
+
+    private final int rate;
+    private final int burst;
+    private final long emissionInterval;
+    private final long tolerance;
+
+    private final AtomicLong theoreticalArrivalTime;
+
+    /**
+     * Constructor.
+     *
+     * @param rate  The messages per second, greater than 0.
+     * @param burst The messages which can be accepted at once, or 0 to accept at once the messages of one second.
+     * @param now   The current {@link System#nanoTime()}.
+     * @since 2.1.0
+     */
+    public IngestionTokenBucket(int rate, int burst, long now) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("The rate must be greater than 0");
+        }
+        this.rate = rate;
+        this.burst = burst;
+        this.emissionInterval = Math.max(1, TimeUnit.SECONDS.toNanos(1) / rate);
+        this.tolerance = emissionInterval * (Math.max(1, burst > 0 ? burst : rate) - 1);
+        this.theoreticalArrivalTime = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token for a message.
+     * <p>
+     * The token is taken if the message is within the rate, or if it would be within the rate after waiting at most the given time.
+     *
+     * @param now     The current {@link System#nanoTime()}.
+     * @param maxWait The maximum time in nanoseconds the message can wait for its token, 0 to take only an available token.
+     * @return The time in nanoseconds to wait before the message is within the rate, 0 if it already is, or {@link #REJECTED} if the token has not been taken.
+     * @since 2.1.0
+     */
+    public long acquire(long now, long maxWait) {
+        while (true) {
+            long current = theoreticalArrivalTime.get();
+            long start = current - now > 0 ? current : now;
+            long wait = start - tolerance - now;
+            if (wait > maxWait) {
+                return REJECTED;
+            }
+            if (theoreticalArrivalTime.compareAndSet(current, start + emissionInterval)) {
+                return wait > 0 ? wait : 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #acquire(long, long)} for a message which has not been accepted.
+     *
+     * @since 2.1.0
+     */
+    public void release() {
+        theoreticalArrivalTime.addAndGet(-emissionInterval);
+    }
+
+    /**
+     * Checks whether the bucket is full, that is whether it behaves as a new bucket with the same limits.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     * @return {@code true} if no token is missing from the bucket, {@code false} otherwise.
+     * @since 2.1.0
+     */
+    public boolean isFull(long now) {
+        return theoreticalArrivalTime.get() - now <= 0;
+    }
+
+    /**
+     * Checks whether the bucket has been created with the given limits.
+     *
+     * @param rate  The messages per second.
+     * @param burst The messages which can be accepted at once.
+     * @return {@code true} if the limits are the ones of the bucket, {@code false} otherwise.
+     * @since 2.1.0
+     */
+    public boolean hasLimits(int rate, int burst) {
+        return this.rate == rate && this.burst == burst;
+    }
+}
@@ -14,6 +14,11 @@ package org.eclipse.kapua.broker.artemis.plugin.security;
 
 import javax.inject.Inject;
 
+import com.codahale.metrics.Timer.Context;
+import org.eclipse.kapua.broker.artemis.plugin.security.metric.LockMetric;
+import org.eclipse.kapua.broker.artemis.plugin.security.setting.BrokerSetting;
+import org.eclipse.kapua.broker.artemis.plugin.security.setting.BrokerSettingKey;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -23,6 +28,9 @@ import java.util.stream.Stream;
 
 /**
  * Helper class to run code encapsulated into a lock/unlock block
+ * <p>
+ * The locks are striped by key: the number of stripes and their fairness are configured by {@link BrokerSettingKey#LOCK_STRIPES} and {@link BrokerSettingKey#LOCK_FAIR},
+ * and the time spent waiting for a lock is tracked by {@link LockMetric}.
  */
 public class RunWithLock {
 
@@ -31,19 +39,22 @@ public class RunWithLock {
         INTERNAL
     }
 
-    //TODO make it configurable?
-    //TODO how many threads are available?
-    private static final int LOCKS_SIZE = 128;
+    private static final int DEFAULT_LOCKS_SIZE = 128;
+    private final int locksSize;
     private final Map<LockType, Lock[]> locks;
+    private final LockMetric lockMetric;
 
     @Inject
-    public RunWithLock() {
+    public RunWithLock(BrokerSetting brokerSetting, LockMetric lockMetric) {
+        this.lockMetric = lockMetric;
+        locksSize = Math.max(1, brokerSetting.getInt(BrokerSettingKey.LOCK_STRIPES, DEFAULT_LOCKS_SIZE));
+        boolean fair = brokerSetting.getBoolean(BrokerSettingKey.LOCK_FAIR, false);
         locks = new HashMap<>();
         //init lock map
         Stream.of(LockType.values()).forEach(value -> {
-            Lock[] tmp = new Lock[LOCKS_SIZE];
-            for (int i = 0; i < LOCKS_SIZE; i++) {
-                tmp[i] = new ReentrantLock(true);
+            Lock[] tmp = new Lock[locksSize];
+            for (int i = 0; i < locksSize; i++) {
+                tmp[i] = new ReentrantLock(fair);
             }
             locks.put(value, tmp);
         });
@@ -61,8 +72,10 @@ public class RunWithLock {
      */
     public <T> T run(LockType type, String key, Callable<T> callable) throws Exception {
         Lock lock = getLock(type, key);
+        Context waitContext = lockMetric.getWaitTime(type).time();
         try {
             lock.lock();
+            waitContext.stop();
             return callable.call();
         } finally {
             lock.unlock();
@@ -70,7 +83,7 @@ public class RunWithLock {
     }
 
     private Lock getLock(LockType type, String connectionId) {
-        return locks.get(type)[Math.abs(connectionId.hashCode() % LOCKS_SIZE)];
+        return locks.get(type)[Math.abs(connectionId.hashCode() % locksSize)];
     }
 
 }
@@ -202,6 +202,7 @@ public class SecurityPlugin implements ActiveMQSecurityManager5 {
             SessionContext sessionContext = new SessionContext(principal, authResponse.getAccountName(), connectionInfo, authResponse.getKapuaConnectionId(),
                     serverContext.getBrokerIdentity().getBrokerId(), serverContext.getBrokerIdentity().getBrokerHost(),
                     authResponse.isAdmin(), authResponse.isMissing());
+            sessionContext.setIngestionRateLimit(authResponse.getIngestionRateLimit());
 
             //update client id with account|clientId (see pattern)
             remotingConnection.setClientID(fullClientId);
@@ -12,7 +12,6 @@
  *******************************************************************************/
 package org.eclipse.kapua.broker.artemis.plugin.security;
 
-import java.util.Base64;
 import java.util.Map;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
@@ -27,7 +26,6 @@ import org.apache.activemq.artemis.core.server.plugin.ActiveMQServerPlugin;
 import org.apache.activemq.artemis.core.transaction.Transaction;
 import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
 import org.apache.activemq.artemis.utils.critical.CriticalComponent;
-import org.apache.commons.lang3.SerializationUtils;
 import org.eclipse.kapua.KapuaRuntimeException;
 import org.eclipse.kapua.broker.artemis.plugin.security.connector.AcceptorHandler;
 import org.eclipse.kapua.broker.artemis.plugin.security.event.BrokerEvent;
@@ -46,6 +44,7 @@ import org.eclipse.kapua.client.security.context.SessionContext;
 import org.eclipse.kapua.client.security.context.Utils;
 import org.eclipse.kapua.commons.core.ServiceModuleBundle;
 import org.eclipse.kapua.commons.metric.CommonsMetric;
+import org.eclipse.kapua.commons.security.KapuaSessionCodec;
 import org.eclipse.kapua.commons.setting.system.SystemSetting;
 import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
 import org.eclipse.kapua.commons.util.KapuaDateUtils;
@@ -85,7 +84,15 @@ public class ServerPlugin implements ActiveMQServerPlugin {
         Broker("BRK"),
         Control("CTR"),
         Telemetry("TEL"),
-        System("SYS");
+        System("SYS"),
+        /**
+         * Telemetry over the ingestion rate limits of the account, discarded by the broker (see {@link #discard(Message)})
+         */
+        Dropped("DRP"),
+        /**
+         * Telemetry over the ingestion rate limits of the account, read by the overflow telemetry consumers
+         */
+        Overflow("OVF");
 
         private String asUrl;
 
@@ -108,6 +115,7 @@ public class ServerPlugin implements ActiveMQServerPlugin {
     private final SubscribeMetric subscribeMetric;
     private final BrokerSetting brokerSetting;
     private final PluginUtility pluginUtility;
+    private final IngestionRateLimiter ingestionRateLimiter;
 
     protected BrokerEventHandler brokerEventHandler;
     protected AcceptorHandler acceptorHandler;
@@ -123,6 +131,7 @@ public class ServerPlugin implements ActiveMQServerPlugin {
         subscribeMetric = kapuaLocator.getComponent(SubscribeMetric.class);
         this.brokerSetting = kapuaLocator.getComponent(BrokerSetting.class);
         this.pluginUtility = kapuaLocator.getComponent(PluginUtility.class);
+        this.ingestionRateLimiter = kapuaLocator.getComponent(IngestionRateLimiter.class);
         this.publishInfoMessageSizeLimit = brokerSetting.getInt(BrokerSettingKey.PUBLISHED_MESSAGE_SIZE_LOG_THRESHOLD, DEFAULT_PUBLISHED_MESSAGE_SIZE_LOG_THRESHOLD);
         serverContext = kapuaLocator.getComponent(ServerContext.class);
         deviceConnectionEventListenerService = kapuaLocator.getComponent(DeviceConnectionEventListenerService.class);
@@ -241,9 +250,10 @@ public class ServerPlugin implements ActiveMQServerPlugin {
         try {
             String address = message.getAddress();
             int messageSize = message.getEncodeSize();
+            String connectionId = pluginUtility.getConnectionId(session.getRemotingConnection());
             SessionContext sessionContext;
             try {
-                sessionContext = serverContext.getSecurityContext().getSessionContextWithCacheFallback(pluginUtility.getConnectionId(session.getRemotingConnection()));
+                sessionContext = serverContext.getSecurityContext().getSessionContextWithCacheFallback(connectionId);
             } catch (Exception e) {
                 //do not disclose internals so throw generic security exception
                 //anyway this exception shouldn't occur
@@ -252,10 +262,21 @@ public class ServerPlugin implements ActiveMQServerPlugin {
             logger.debug("Publishing message on address {} from clientId: {} - clientIp: {}", address, sessionContext.getClientId(), sessionContext.getClientIp());
             message.putStringProperty(MessageConstants.HEADER_KAPUA_CLIENT_ID, sessionContext.getClientId());
             message.putStringProperty(MessageConstants.HEADER_KAPUA_CONNECTOR_NAME, sessionContext.getConnectorName());
-            message.putStringProperty(MessageConstants.HEADER_KAPUA_SESSION, Base64.getEncoder().encodeToString(SerializationUtils.serialize(sessionContext.getKapuaSession())));
+            message.putStringProperty(MessageConstants.HEADER_KAPUA_SESSION, KapuaSessionCodec.encode(sessionContext.getKapuaSession()));
             message.putLongProperty(MessageConstants.HEADER_KAPUA_RECEIVED_TIMESTAMP, KapuaDateUtils.getKapuaSysDate().getEpochSecond());
-            message.putStringProperty(MessageConstants.HEADER_KAPUA_MESSAGE_TYPE, getMessgeType(address));
+            String messageType = getMessgeType(address);
+            if (sessionContext.getIngestionRateLimit() != null && !sessionContext.isInternal() && MessageType.Telemetry.getAsUrl().equals(messageType)) {
+                messageType = getRateLimitedMessageType(session, connectionId, sessionContext);
+                if (MessageType.Dropped.getAsUrl().equals(messageType)) {
+                    discard(message);
+                }
+            }
+            message.putStringProperty(MessageConstants.HEADER_KAPUA_MESSAGE_TYPE, messageType);
             message.putStringProperty(MessageConstants.HEADER_KAPUA_ACCOUNT_NAME, sessionContext.getAccountName());
+            if (!sessionContext.isInternal() && MessageType.Control.getAsUrl().equals(messageType)) {
+                // the control messages of a device are delivered in order to a single consumer of the shared subscriptions (i.e. the life cycle consumers)
+                message.setGroupID(Utils.getFullClientId(sessionContext));
+            }
             if (!sessionContext.isInternal()) {
                 if (isLwt(address)) {
                     //handle the missing message case
@@ -263,7 +284,9 @@ public class ServerPlugin implements ActiveMQServerPlugin {
                     sessionContext.setMissing(true);
                 }
                 // FIX #164
-                message.putStringProperty(MessageConstants.HEADER_KAPUA_CONNECTION_ID, Base64.getEncoder().encodeToString(SerializationUtils.serialize(sessionContext.getKapuaConnectionId())));
+                if (sessionContext.getKapuaConnectionId() != null) {
+                    message.putStringProperty(MessageConstants.HEADER_KAPUA_CONNECTION_ID, sessionContext.getKapuaConnectionId().toCompactId());
+                }
                 message.putBooleanProperty(MessageConstants.HEADER_KAPUA_BROKER_CONTEXT, false);
                 if (publishInfoMessageSizeLimit < messageSize) {
                     logger.info("Published message size over threshold. size: {} - destination: {} - account id: {} - username: {} - clientId: {}",
@@ -287,6 +310,29 @@ public class ServerPlugin implements ActiveMQServerPlugin {
         }
     }
 
+    private String getRateLimitedMessageType(ServerSession session, String connectionId, SessionContext sessionContext) {
+        switch (ingestionRateLimiter.acquire(session.getRemotingConnection(), connectionId, sessionContext)) {
+            case DROPPED:
+                logger.debug("Telemetry message over the ingestion rate limits dropped. account: {} - clientId: {}", sessionContext.getAccountName(), sessionContext.getClientId());
+                return MessageType.Dropped.getAsUrl();
+            case DIVERTED:
+                return MessageType.Overflow.getAsUrl();
+            default:
+                return MessageType.Telemetry.getAsUrl();
+        }
+    }
+
+    /**
+     * Discards the message: it is routed to none of the queues bound to its address, so it reaches no subscriber.
+     * <p>
+     * The publish itself succeeds, so the client is not disconnected as it would be if the message was rejected (i.e. with a security exception).
+     *
+     * @param message The {@link Message} to discard.
+     */
+    static void discard(Message message) {
+        message.putExtraBytesProperty(Message.HDR_ROUTE_TO_IDS, new byte[0]);
+    }
+
     private boolean isLwt(String originalTopic) {
         return originalTopic != null && originalTopic.endsWith(MISSING_TOPIC_SUFFIX);
     }
@@ -428,6 +474,7 @@ public class ServerPlugin implements ActiveMQServerPlugin {
         try {
             String connectionId = pluginUtility.getConnectionId(connection);
             serverContext.getSecurityContext().updateConnectionTokenOnDisconnection(connectionId);
+            ingestionRateLimiter.removeConnection(connectionId);
             logger.info("### cleanUpConnectionData connection: {} - reason: {} - Error: {}", connectionId, reason, exception != null ? exception.getMessage() : "N/A");
             if (exception != null && logger.isDebugEnabled()) {
                 logger.debug("### cleanUpConnectionData error", exception);
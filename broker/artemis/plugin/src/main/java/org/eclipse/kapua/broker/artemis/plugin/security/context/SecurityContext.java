@@ -231,6 +231,12 @@ public final class SecurityContext {
     }
 
     public SessionContext getSessionContextWithCacheFallback(String connectionId) throws Exception {
+        //lock free lookup for the established connections (the most common case, since this is called on every publish)
+        SessionContext activeSessionContext = sessionContextMap.get(connectionId);
+        if (activeSessionContext != null) {
+            return activeSessionContext;
+        }
+        //the connection is being cleaned (or it's already cleaned) so lock to read a consistent state between map and cache
         return runWithLock.run(LockType.INTERNAL, connectionId, () -> {
             SessionContext sessionContext = sessionContextMap.get(connectionId);
             if (sessionContext == null) {
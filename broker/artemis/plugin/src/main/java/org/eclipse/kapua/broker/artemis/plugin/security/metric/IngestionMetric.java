@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.artemis.plugin.security.metric;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import org.eclipse.kapua.commons.metric.MetricsLabel;
+import org.eclipse.kapua.commons.metric.MetricsService;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Metrics of the telemetry ingestion rate limits, by account.
+ *
+ * @since 2.1.0
+ */
+@Singleton
+public class IngestionMetric {
+
+    public static final String INGESTION = "ingestion";
+
+    public static final String ACCEPTED = "accepted";
+    public static final String DELAYED = "delayed";
+    public static final String DROPPED = "dropped";
+    public static final String DIVERTED = "diverted";
+    public static final String DELAY = "delay";
+
+    private final MetricsService metricsService;
+    private final String metricModuleName;
+
+    // the registry lookup is too expensive for the publish path, so the metrics of the accounts are kept here
+    private final Map<String, AccountIngestionMetric> accountMetrics = new ConcurrentHashMap<>();
+
+    private final Histogram delay;
+
+    @Inject
+    private IngestionMetric(MetricsService metricsService,
+                            @Named("metricModuleName")
+                            String metricModuleName) {
+        this.metricsService = metricsService;
+        this.metricModuleName = metricModuleName;
+        delay = metricsService.getHistogram(metricModuleName, INGESTION, DELAY, MetricsLabel.TIME, MetricsLabel.MILLI_SECONDS);
+    }
+
+    public AccountIngestionMetric getAccountMetric(String accountName) {
+        return accountMetrics.computeIfAbsent(accountName, AccountIngestionMetric::new);
+    }
+
+    public Histogram getDelay() {
+        return delay;
+    }
+
+    /**
+     * Metrics of the telemetry ingestion rate limits of an account.
+     *
+     * @since 2.1.0
+     */
+    public class AccountIngestionMetric {
+
+        private final Counter accepted;
+        private final Counter delayed;
+        private final Counter dropped;
+        private final Counter diverted;
+
+        private AccountIngestionMetric(String accountName) {
+            accepted = metricsService.getCounter(metricModuleName, INGESTION, accountName, ACCEPTED);
+            delayed = metricsService.getCounter(metricModuleName, INGESTION, accountName, DELAYED);
+            dropped = metricsService.getCounter(metricModuleName, INGESTION, accountName, DROPPED);
+            diverted = metricsService.getCounter(metricModuleName, INGESTION, accountName, DIVERTED);
+        }
+
+        public Counter getAccepted() {
+            return accepted;
+        }
+
+        public Counter getDelayed() {
+            return delayed;
+        }
+
+        public Counter getDropped() {
+            return dropped;
+        }
+
+        public Counter getDiverted() {
+            return diverted;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.artemis.plugin.security.metric;
+
+import com.codahale.metrics.Timer;
+import org.eclipse.kapua.broker.artemis.plugin.security.RunWithLock.LockType;
+import org.eclipse.kapua.commons.metric.MetricsLabel;
+import org.eclipse.kapua.commons.metric.MetricsService;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Singleton
+public class LockMetric {
+
+    public static final String LOCK = "lock";
+
+    public static final String WAIT = "wait";
+
+    private final Map<LockType, Timer> waitTime = new EnumMap<>(LockType.class);
+
+    @Inject
+    private LockMetric(MetricsService metricsService,
+                       @Named("metricModuleName")
+                       String metricModuleName) {
+        for (LockType lockType : LockType.values()) {
+            waitTime.put(lockType, metricsService.getTimer(metricModuleName, LOCK, lockType.name().toLowerCase(), WAIT, MetricsLabel.TIME, MetricsLabel.SECONDS));
+        }
+    }
+
+    public Timer getWaitTime(LockType lockType) {
+        return waitTime.get(lockType);
+    }
+
+}
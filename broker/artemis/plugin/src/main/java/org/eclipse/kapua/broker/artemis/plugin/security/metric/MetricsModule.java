@@ -22,5 +22,7 @@ public class MetricsModule extends AbstractKapuaModule {
         bind(LoginMetric.class).in(Singleton.class);
         bind(PublishMetric.class).in(Singleton.class);
         bind(SubscribeMetric.class).in(Singleton.class);
+        bind(LockMetric.class).in(Singleton.class);
+        bind(IngestionMetric.class).in(Singleton.class);
     }
 }
@@ -77,7 +77,19 @@ public enum BrokerSettingKey implements SettingKey {
     /**
      * Scope id cache ttl (in seconds)
      */
-    CACHE_SCOPE_ID_TTL("broker.cache.scope_id.ttl");
+    CACHE_SCOPE_ID_TTL("broker.cache.scope_id.ttl"),
+    /**
+     * Number of lock stripes used to serialize the operations on the same connection
+     */
+    LOCK_STRIPES("broker.lock.stripes"),
+    /**
+     * Whether the lock stripes use a fair ordering policy
+     */
+    LOCK_FAIR("broker.lock.fair"),
+    /**
+     * Maximum time (in milliseconds) a telemetry message over the ingestion rate limits of its account is delayed before being dropped
+     */
+    INGESTION_RATE_LIMIT_MAX_DELAY("broker.ingestion_rate_limit.max_delay");
 
     private String key;
 
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.artemis.plugin.security;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
+import org.apache.activemq.artemis.spi.core.remoting.Connection;
+import org.eclipse.kapua.broker.artemis.plugin.security.IngestionRateLimiter.Outcome;
+import org.eclipse.kapua.broker.artemis.plugin.security.metric.IngestionMetric;
+import org.eclipse.kapua.broker.artemis.plugin.security.metric.IngestionMetric.AccountIngestionMetric;
+import org.eclipse.kapua.broker.artemis.plugin.security.setting.BrokerSetting;
+import org.eclipse.kapua.client.security.bean.IngestionRateLimit;
+import org.eclipse.kapua.client.security.bean.IngestionRateLimit.Action;
+import org.eclipse.kapua.client.security.context.SessionContext;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+@Category(JUnitTests.class)
+public class IngestionRateLimiterTest {
+
+    private static final String MAX_DELAY = "broker.ingestion_rate_limit.max_delay";
+    private static final String ACCOUNT_NAME = "account-1";
+
+    private AccountIngestionMetric accountMetric;
+    private IngestionRateLimiter ingestionRateLimiter;
+
+    @Before
+    public void initialize() {
+        accountMetric = Mockito.mock(AccountIngestionMetric.class);
+        Mockito.when(accountMetric.getAccepted()).thenReturn(new Counter());
+        Mockito.when(accountMetric.getDelayed()).thenReturn(new Counter());
+        Mockito.when(accountMetric.getDropped()).thenReturn(new Counter());
+        Mockito.when(accountMetric.getDiverted()).thenReturn(new Counter());
+        IngestionMetric ingestionMetric = Mockito.mock(IngestionMetric.class);
+        Mockito.when(ingestionMetric.getAccountMetric(ACCOUNT_NAME)).thenReturn(accountMetric);
+        Mockito.when(ingestionMetric.getDelay()).thenReturn(Mockito.mock(Histogram.class));
+
+        System.setProperty(MAX_DELAY, "500");
+        ingestionRateLimiter = new IngestionRateLimiter(new BrokerSetting(), ingestionMetric);
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(MAX_DELAY);
+    }
+
+    @Test
+    public void acquireAcceptedTest() {
+        SessionContext sessionContext = newSessionContext("client-1", new IngestionRateLimit(0, 0, 10, Action.drop));
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals("Expected and actual values should be the same!", Outcome.ACCEPTED, ingestionRateLimiter.acquire(newConnection(), "connection-1", sessionContext));
+        }
+        Assert.assertEquals("Expected and actual values should be the same!", 10, accountMetric.getAccepted().getCount());
+    }
+
+    @Test
+    public void acquireDelayedTest() throws InterruptedException {
+        // one message every 200 ms
+        SessionContext sessionContext = newSessionContext("client-1", new IngestionRateLimit(0, 0, 5, Action.delay));
+        RemotingConnection connection = newConnection();
+        Connection transportConnection = connection.getTransportConnection();
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals("Expected and actual values should be the same!", Outcome.ACCEPTED, ingestionRateLimiter.acquire(connection, "connection-1", sessionContext));
+        }
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.DELAYED, ingestionRateLimiter.acquire(connection, "connection-1", sessionContext));
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.DELAYED, ingestionRateLimiter.acquire(connection, "connection-1", sessionContext));
+        Assert.assertEquals("Expected and actual values should be the same!", 2, accountMetric.getDelayed().getCount());
+        Mockito.verify(transportConnection, Mockito.times(1)).setAutoRead(false);
+
+        // the pause is extended to the wait of the last delayed message
+        Thread.sleep(300);
+        Mockito.verify(transportConnection, Mockito.never()).setAutoRead(true);
+        Mockito.verify(transportConnection, Mockito.timeout(2000)).setAutoRead(true);
+    }
+
+    @Test
+    public void acquireDelayedOverMaxDelayTest() {
+        // one message every second, over the maximum delay
+        SessionContext sessionContext = newSessionContext("client-1", new IngestionRateLimit(0, 0, 1, Action.delay));
+        RemotingConnection connection = newConnection();
+
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.ACCEPTED, ingestionRateLimiter.acquire(connection, "connection-1", sessionContext));
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.DROPPED, ingestionRateLimiter.acquire(connection, "connection-1", sessionContext));
+        Mockito.verify(connection.getTransportConnection(), Mockito.never()).setAutoRead(false);
+    }
+
+    @Test
+    public void acquireDroppedTest() {
+        SessionContext sessionContext = newSessionContext("client-1", new IngestionRateLimit(0, 0, 1, Action.drop));
+        RemotingConnection connection = newConnection();
+
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.ACCEPTED, ingestionRateLimiter.acquire(connection, "connection-1", sessionContext));
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.DROPPED, ingestionRateLimiter.acquire(connection, "connection-1", sessionContext));
+        Assert.assertEquals("Expected and actual values should be the same!", 1, accountMetric.getDropped().getCount());
+        Mockito.verify(connection.getTransportConnection(), Mockito.never()).setAutoRead(false);
+    }
+
+    @Test
+    public void acquireDivertedTest() {
+        SessionContext sessionContext = newSessionContext("client-1", new IngestionRateLimit(1, 0, 0, Action.divert));
+
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.ACCEPTED, ingestionRateLimiter.acquire(newConnection(), "connection-1", sessionContext));
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.DIVERTED, ingestionRateLimiter.acquire(newConnection(), "connection-1", sessionContext));
+        Assert.assertEquals("Expected and actual values should be the same!", 1, accountMetric.getDiverted().getCount());
+    }
+
+    @Test
+    public void acquireAccountSharedTest() {
+        IngestionRateLimit ingestionRateLimit = new IngestionRateLimit(2, 0, 0, Action.drop);
+
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.ACCEPTED, ingestionRateLimiter.acquire(newConnection(), "connection-1", newSessionContext("client-1", ingestionRateLimit)));
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.ACCEPTED, ingestionRateLimiter.acquire(newConnection(), "connection-1", newSessionContext("client-1", ingestionRateLimit)));
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.DROPPED, ingestionRateLimiter.acquire(newConnection(), "connection-2", newSessionContext("client-2", ingestionRateLimit)));
+    }
+
+    @Test
+    public void acquireAccountLimitsChangedTest() {
+        SessionContext sessionContext = newSessionContext("client-1", new IngestionRateLimit(1, 0, 2, Action.drop));
+        RemotingConnection connection = newConnection();
+
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.ACCEPTED, ingestionRateLimiter.acquire(connection, "connection-1", sessionContext));
+        // rejected by the account bucket, the token of the device bucket is given back
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.DROPPED, ingestionRateLimiter.acquire(connection, "connection-1", sessionContext));
+
+        // the account bucket is replaced with the new limits, the device bucket is kept
+        Mockito.when(sessionContext.getIngestionRateLimit()).thenReturn(new IngestionRateLimit(100, 0, 2, Action.drop));
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.ACCEPTED, ingestionRateLimiter.acquire(connection, "connection-1", sessionContext));
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.DROPPED, ingestionRateLimiter.acquire(connection, "connection-1", sessionContext));
+    }
+
+    @Test
+    public void acquireReconnectedTest() {
+        IngestionRateLimit ingestionRateLimit = new IngestionRateLimit(0, 0, 1, Action.drop);
+
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.ACCEPTED, ingestionRateLimiter.acquire(newConnection(), "connection-1", newSessionContext("client-1", ingestionRateLimit)));
+        ingestionRateLimiter.removeConnection("connection-1");
+
+        // the device bucket is kept, the device does not get a new burst
+        Assert.assertEquals("Expected and actual values should be the same!", Outcome.DROPPED, ingestionRateLimiter.acquire(newConnection(), "connection-2", newSessionContext("client-1", ingestionRateLimit)));
+    }
+
+    private SessionContext newSessionContext(String clientId, IngestionRateLimit ingestionRateLimit) {
+        SessionContext sessionContext = Mockito.mock(SessionContext.class);
+        Mockito.when(sessionContext.getScopeId()).thenReturn(KapuaId.ONE);
+        Mockito.when(sessionContext.getAccountName()).thenReturn(ACCOUNT_NAME);
+        Mockito.when(sessionContext.getClientId()).thenReturn(clientId);
+        Mockito.when(sessionContext.getIngestionRateLimit()).thenReturn(ingestionRateLimit);
+        return sessionContext;
+    }
+
+    private RemotingConnection newConnection() {
+        Connection transportConnection = Mockito.mock(Connection.class);
+        RemotingConnection connection = Mockito.mock(RemotingConnection.class);
+        Mockito.when(connection.getTransportConnection()).thenReturn(transportConnection);
+        return connection;
+    }
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.artemis.plugin.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(JUnitTests.class)
+public class IngestionTokenBucketTest {
+
+    private static final long NOW = 1_000_000_000L;
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testBurst() {
+        IngestionTokenBucket bucket = new IngestionTokenBucket(10, 3, NOW);
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(0, bucket.acquire(NOW, 0));
+        }
+        Assert.assertEquals(IngestionTokenBucket.REJECTED, bucket.acquire(NOW, 0));
+        // one token every 100 ms
+        Assert.assertEquals(IngestionTokenBucket.REJECTED, bucket.acquire(NOW + 99 * MILLIS, 0));
+        Assert.assertEquals(0, bucket.acquire(NOW + 100 * MILLIS, 0));
+        Assert.assertEquals(IngestionTokenBucket.REJECTED, bucket.acquire(NOW + 100 * MILLIS, 0));
+    }
+
+    @Test
+    public void testDefaultBurst() {
+        IngestionTokenBucket bucket = new IngestionTokenBucket(5, 0, NOW);
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(0, bucket.acquire(NOW, 0));
+        }
+        Assert.assertEquals(IngestionTokenBucket.REJECTED, bucket.acquire(NOW, 0));
+    }
+
+    @Test
+    public void testWait() {
+        IngestionTokenBucket bucket = new IngestionTokenBucket(10, 1, NOW);
+
+        Assert.assertEquals(0, bucket.acquire(NOW, 150 * MILLIS));
+        Assert.assertEquals(100 * MILLIS, bucket.acquire(NOW, 150 * MILLIS));
+        // the next token would come after 200 ms
+        Assert.assertEquals(IngestionTokenBucket.REJECTED, bucket.acquire(NOW, 150 * MILLIS));
+        Assert.assertEquals(150 * MILLIS, bucket.acquire(NOW + 50 * MILLIS, 150 * MILLIS));
+    }
+
+    @Test
+    public void testIdleDoesNotAccumulate() {
+        IngestionTokenBucket bucket = new IngestionTokenBucket(10, 2, NOW);
+
+        long later = NOW + TimeUnit.MINUTES.toNanos(1);
+        Assert.assertEquals(0, bucket.acquire(later, 0));
+        Assert.assertEquals(0, bucket.acquire(later, 0));
+        Assert.assertEquals(IngestionTokenBucket.REJECTED, bucket.acquire(later, 0));
+    }
+
+    @Test
+    public void testNanoTimeOverflow() {
+        long now = Long.MAX_VALUE - 50 * MILLIS;
+        IngestionTokenBucket bucket = new IngestionTokenBucket(10, 1, now);
+
+        Assert.assertEquals(0, bucket.acquire(now, 0));
+        Assert.assertEquals(IngestionTokenBucket.REJECTED, bucket.acquire(now + 99 * MILLIS, 0));
+        Assert.assertEquals(0, bucket.acquire(now + 100 * MILLIS, 0));
+    }
+
+    @Test
+    public void testRelease() {
+        IngestionTokenBucket bucket = new IngestionTokenBucket(10, 1, NOW);
+
+        Assert.assertTrue(bucket.isFull(NOW));
+        Assert.assertEquals(0, bucket.acquire(NOW, 0));
+        Assert.assertFalse(bucket.isFull(NOW));
+        bucket.release();
+        Assert.assertTrue(bucket.isFull(NOW));
+        Assert.assertEquals(0, bucket.acquire(NOW, 0));
+        Assert.assertTrue(bucket.isFull(NOW + 100 * MILLIS));
+    }
+
+    @Test
+    public void testHasLimits() {
+        IngestionTokenBucket bucket = new IngestionTokenBucket(10, 2, NOW);
+
+        Assert.assertTrue(bucket.hasLimits(10, 2));
+        Assert.assertFalse(bucket.hasLimits(10, 0));
+        Assert.assertFalse(bucket.hasLimits(20, 2));
+    }
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.artemis.plugin.security;
+
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.ServerSession;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.core.server.plugin.ActiveMQServerMessagePlugin;
+import org.apache.activemq.artemis.core.transaction.Transaction;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Publishes through an embedded broker whose plugin discards the messages as the {@link ServerPlugin} does with the telemetry dropped by the ingestion rate limits.
+ */
+@Category(JUnitTests.class)
+public class ServerPluginDiscardTest {
+
+    private static final String DROP_PROPERTY = "drop";
+    private static final String ADDRESS = "account-1.client-1.topic";
+
+    private EmbeddedActiveMQ broker;
+    private ServerLocator serverLocator;
+    private ClientSession clientSession;
+
+    @Before
+    public void initialize() throws Exception {
+        ConfigurationImpl configuration = new ConfigurationImpl();
+        configuration.setPersistenceEnabled(false);
+        configuration.setSecurityEnabled(false);
+        configuration.addAcceptorConfiguration("in-vm", "vm://0");
+        configuration.registerBrokerPlugin(new ActiveMQServerMessagePlugin() {
+
+            @Override
+            public void beforeSend(ServerSession session, Transaction tx, Message message, boolean direct, boolean noAutoCreateQueue) {
+                if (message.getBooleanProperty(DROP_PROPERTY)) {
+                    ServerPlugin.discard(message);
+                }
+            }
+        });
+        broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(configuration);
+        broker.start();
+
+        serverLocator = ActiveMQClient.createServerLocator("vm://0");
+        ClientSessionFactory clientSessionFactory = serverLocator.createSessionFactory();
+        clientSession = clientSessionFactory.createSession();
+        // a subscription on the address and a wildcard one
+        clientSession.createQueue(QueueConfiguration.of("subscription").setAddress(ADDRESS).setRoutingType(RoutingType.MULTICAST).setDurable(false));
+        clientSession.createQueue(QueueConfiguration.of("wildcardSubscription").setAddress("account-1.#").setRoutingType(RoutingType.MULTICAST).setDurable(false));
+        clientSession.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        clientSession.close();
+        serverLocator.close();
+        broker.stop();
+    }
+
+    @Test
+    public void discardTest() throws Exception {
+        ClientProducer producer = clientSession.createProducer(ADDRESS);
+        producer.send(newMessage(true));
+        producer.send(newMessage(false));
+
+        for (String queue : new String[] {"subscription", "wildcardSubscription"}) {
+            ClientConsumer consumer = clientSession.createConsumer(queue);
+            ClientMessage received = consumer.receive(5000);
+            Assert.assertNotNull("Expected not null value!", received);
+            Assert.assertFalse("The discarded message should not be received!", received.getBooleanProperty(DROP_PROPERTY));
+            Assert.assertNull("Null expected!", consumer.receiveImmediate());
+            consumer.close();
+        }
+    }
+
+    private ClientMessage newMessage(boolean drop) {
+        ClientMessage message = clientSession.createMessage(false);
+        message.putBooleanProperty(DROP_PROPERTY, drop);
+        return message;
+    }
+}
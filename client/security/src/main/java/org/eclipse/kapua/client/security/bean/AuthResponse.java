@@ -75,6 +75,9 @@ public class AuthResponse implements Response {
     @JsonProperty("acls")
     private List<AuthAcl> acls;
 
+    @JsonProperty("ingestionRateLimit")
+    private IngestionRateLimit ingestionRateLimit;
+
     @JsonProperty("resultCode")
     private String resultCode;
 
@@ -232,6 +235,14 @@ public class AuthResponse implements Response {
         this.acls = acls;
     }
 
+    public IngestionRateLimit getIngestionRateLimit() {
+        return ingestionRateLimit;
+    }
+
+    public void setIngestionRateLimit(IngestionRateLimit ingestionRateLimit) {
+        this.ingestionRateLimit = ingestionRateLimit;
+    }
+
     public String getResultCode() {
         return resultCode;
     }
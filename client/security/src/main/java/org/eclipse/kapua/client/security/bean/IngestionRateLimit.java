@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.client.security.bean;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The telemetry ingestion rate limits of an account, sent to the broker with the {@link AuthResponse} of the connections of the account.
+ *
+ * @since 2.1.0
+ */
+public class IngestionRateLimit {
+
+    public enum Action {
+        delay,
+        drop,
+        divert
+    }
+
+    @JsonProperty("rate")
+    private int rate;
+
+    @JsonProperty("burst")
+    private int burst;
+
+    @JsonProperty("deviceRate")
+    private int deviceRate;
+
+    @JsonProperty("action")
+    private Action action;
+
+    public IngestionRateLimit() {
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rate       The messages per second of the account, 0 if unlimited.
+     * @param burst      The messages of the account which can be received at once above the account rate, 0 to use the rate.
+     * @param deviceRate The messages per second of each device of the account, 0 if unlimited.
+     * @param action     The {@link Action} on the messages over the rates.
+     * @since 2.1.0
+     */
+    public IngestionRateLimit(int rate, int burst, int deviceRate, Action action) {
+        this.rate = rate;
+        this.burst = burst;
+        this.deviceRate = deviceRate;
+        this.action = action;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public int getDeviceRate() {
+        return deviceRate;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    /**
+     * Checks whether at least one of the rates is limited.
+     *
+     * @return {@code true} if the account or the devices rate is limited, {@code false} otherwise.
+     * @since 2.1.0
+     */
+    @JsonIgnore
+    public boolean isLimited() {
+        return rate > 0 || deviceRate > 0;
+    }
+
+    @Override
+    public String toString() {
+        return rate + "/" + deviceRate + "/" + burst + ":" + action;
+    }
+}
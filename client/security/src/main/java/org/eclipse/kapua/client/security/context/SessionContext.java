@@ -17,6 +17,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.eclipse.kapua.client.security.bean.ConnectionInfo;
+import org.eclipse.kapua.client.security.bean.IngestionRateLimit;
 import org.eclipse.kapua.commons.model.id.KapuaEid;
 import org.eclipse.kapua.commons.security.KapuaSession;
 import org.eclipse.kapua.model.id.KapuaId;
@@ -47,6 +48,7 @@ public class SessionContext {
     private String transportProtocol;
     private Certificate[] certificates;
     private KapuaSession kapuaSession;
+    private IngestionRateLimit ingestionRateLimit;
 
     private Map<String, Object> properties = new HashMap<>();
 
@@ -157,6 +159,14 @@ public class SessionContext {
         return certificates;
     }
 
+    public IngestionRateLimit getIngestionRateLimit() {
+        return ingestionRateLimit;
+    }
+
+    public void setIngestionRateLimit(IngestionRateLimit ingestionRateLimit) {
+        this.ingestionRateLimit = ingestionRateLimit;
+    }
+
     private void setProperty(String key, Object value) {
         properties.put(key, value);
     }
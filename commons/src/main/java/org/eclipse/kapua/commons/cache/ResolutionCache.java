@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.cache;
+
+import com.codahale.metrics.Counter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.metric.MetricsService;
+import org.eclipse.kapua.model.KapuaEntity;
+import org.eclipse.kapua.model.id.KapuaId;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded local cache of {@link KapuaEntity}s resolved by a lookup key (i.e. an account by its name, or a device by its scope id and client id).
+ * <p>
+ * It is meant for the message processing paths, where the same lookups are repeated for every message coming from the same device.
+ * Entries expire after the configured ttl and can be invalidated by {@link KapuaEntity#getId()} when the entity changes (see {@link ResolutionCacheInvalidator}).
+ * Lookups that do not find the entity are not cached, so that an entity created afterwards is found on the next lookup.
+ * <p>
+ * The cached {@link KapuaEntity}s are shared by all the callers. The resolver checks the access of the caller on a miss,
+ * so the lookups that check the access must provide an {@link AccessCheck} to check it again on a hit.
+ *
+ * @param <K> The lookup key type.
+ * @param <V> The {@link KapuaEntity} type.
+ * @since 2.1.0
+ */
+public class ResolutionCache<K, V extends KapuaEntity> {
+
+    public static final String RESOLUTION_CACHE = "resolution_cache";
+
+    /**
+     * Checks the access of the caller to a cached {@link KapuaEntity}.
+     *
+     * @param <V> The {@link KapuaEntity} type.
+     * @since 2.1.0
+     */
+    @FunctionalInterface
+    public interface AccessCheck<V> {
+
+        /**
+         * Checks the access of the caller to the given {@link KapuaEntity}.
+         *
+         * @param entity The cached {@link KapuaEntity}.
+         * @throws KapuaException if the caller cannot access the {@link KapuaEntity}.
+         * @since 2.1.0
+         */
+        void check(V entity) throws KapuaException;
+    }
+
+    private final Cache<K, V> cache;
+    private final ConcurrentMap<KapuaId, Set<K>> keysByEntityId = new ConcurrentHashMap<>();
+
+    private final Counter cacheHit;
+    private final Counter cacheMiss;
+    private final Counter cacheRemoval;
+
+    /**
+     * Constructor.
+     *
+     * @param sizeMax        The maximum number of entries.
+     * @param expireAfter    The ttl of the entries, in seconds.
+     * @param metricsService The {@link MetricsService} used to register the hit/miss metrics.
+     * @param module         The metric module name.
+     * @param name           The name of this cache, used in the metric names.
+     * @since 2.1.0
+     */
+    public ResolutionCache(int sizeMax, int expireAfter, MetricsService metricsService, String module, String name) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(sizeMax)
+                .expireAfterWrite(expireAfter, TimeUnit.SECONDS)
+                .removalListener(this::onRemoval)
+                .build();
+
+        this.cacheHit = metricsService.getCounter(module, RESOLUTION_CACHE, name, "hit");
+        this.cacheMiss = metricsService.getCounter(module, RESOLUTION_CACHE, name, "miss");
+        this.cacheRemoval = metricsService.getCounter(module, RESOLUTION_CACHE, name, "removed");
+    }
+
+    /**
+     * Gets the {@link KapuaEntity} cached for the given key, or resolves it with the given resolver if not cached.
+     * <p>
+     * To be used only when the resolver does not check the access of the caller.
+     *
+     * @param key      The lookup key.
+     * @param resolver The resolver to be invoked on cache miss.
+     * @return The {@link KapuaEntity}, or {@code null} if the resolver does not find it.
+     * @throws KapuaException if the resolver fails.
+     * @since 2.1.0
+     */
+    public V get(K key, Callable<V> resolver) throws KapuaException {
+        return get(key, resolver, null);
+    }
+
+    /**
+     * Gets the {@link KapuaEntity} cached for the given key, checking the access of the caller with the given {@link AccessCheck},
+     * or resolves it with the given resolver if not cached.
+     *
+     * @param key         The lookup key.
+     * @param resolver    The resolver to be invoked on cache miss.
+     * @param accessCheck The {@link AccessCheck} to be invoked on cache hit, or {@code null} if the access does not need to be checked.
+     * @return The {@link KapuaEntity}, or {@code null} if the resolver does not find it.
+     * @throws KapuaException if the resolver fails or the caller cannot access the cached {@link KapuaEntity}.
+     * @since 2.1.0
+     */
+    public V get(K key, Callable<V> resolver, AccessCheck<V> accessCheck) throws KapuaException {
+        V entity = cache.getIfPresent(key);
+        if (entity != null) {
+            cacheHit.inc();
+            if (accessCheck != null) {
+                accessCheck.check(entity);
+            }
+            return entity;
+        }
+
+        cacheMiss.inc();
+        try {
+            entity = resolver.call();
+        } catch (KapuaException ke) {
+            throw ke;
+        } catch (Exception e) {
+            throw KapuaException.internalError(e);
+        }
+
+        if (entity != null) {
+            V previous = cache.asMap().put(key, entity);
+            if (previous != null && !previous.getId().equals(entity.getId())) {
+                unindex(previous.getId(), key);
+            }
+            keysByEntityId.computeIfAbsent(entity.getId(), id -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        return entity;
+    }
+
+    /**
+     * Removes all the entries that resolve to the {@link KapuaEntity} with the given {@link KapuaEntity#getId()}.
+     *
+     * @param entityId The {@link KapuaEntity#getId()} to remove.
+     * @since 2.1.0
+     */
+    public void invalidate(KapuaId entityId) {
+        Set<K> keys = keysByEntityId.remove(entityId);
+        if (keys == null) {
+            return;
+        }
+
+        for (K key : keys) {
+            V entity = cache.getIfPresent(key);
+            // The key could have been resolved again to another entity in the meantime
+            if (entity != null && entityId.equals(entity.getId())) {
+                cache.invalidate(key);
+                cacheRemoval.inc();
+            }
+        }
+    }
+
+    /**
+     * Removes all the entries.
+     *
+     * @since 2.1.0
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private void onRemoval(RemovalNotification<K, V> notification) {
+        // Replaced entries are unindexed by get, only if they resolved to another entity
+        if (notification.getCause() != RemovalCause.REPLACED && notification.getKey() != null && notification.getValue() != null) {
+            unindex(notification.getValue().getId(), notification.getKey());
+        }
+    }
+
+    private void unindex(KapuaId entityId, K key) {
+        keysByEntityId.computeIfPresent(entityId, (id, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.cache;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.core.ServiceModule;
+import org.eclipse.kapua.event.ServiceEvent;
+import org.eclipse.kapua.event.ServiceEventBus;
+import org.eclipse.kapua.event.ServiceEventBusListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link ServiceModule} that invalidates {@link ResolutionCache} entries when a service event is received for the cached entity.
+ * <p>
+ * The subscription name is unique for each instance, so that every running instance receives the events and invalidates its own local caches.
+ *
+ * @since 2.1.0
+ */
+public class ResolutionCacheInvalidator implements ServiceModule, ServiceEventBusListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResolutionCacheInvalidator.class);
+
+    private final ServiceEventBus serviceEventBus;
+    private final String address;
+    private final List<ResolutionCache<?, ?>> resolutionCaches;
+
+    /**
+     * Constructor.
+     *
+     * @param serviceEventBus  The {@link ServiceEventBus} to subscribe to.
+     * @param address          The address where the service of the cached entities publishes its events.
+     * @param resolutionCaches The {@link ResolutionCache}s to invalidate.
+     * @since 2.1.0
+     */
+    public ResolutionCacheInvalidator(ServiceEventBus serviceEventBus, String address, ResolutionCache<?, ?>... resolutionCaches) {
+        this.serviceEventBus = serviceEventBus;
+        this.address = address;
+        this.resolutionCaches = Arrays.asList(resolutionCaches);
+    }
+
+    @Override
+    public void start() throws KapuaException {
+        String subscriptionName = String.format("%s-%s-%s", address, ResolutionCache.RESOLUTION_CACHE, UUID.randomUUID());
+        LOG.info("Subscribing resolution cache invalidation to address {} - name {}", address, subscriptionName);
+        serviceEventBus.subscribe(address, subscriptionName, this);
+    }
+
+    @Override
+    public void stop() throws KapuaException {
+        // Nothing to do. The subscription is not durable and it is closed with the ServiceEventBus.
+    }
+
+    @Override
+    public void onKapuaEvent(ServiceEvent kapuaEvent) throws KapuaException {
+        if (kapuaEvent == null || kapuaEvent.getEntityId() == null) {
+            return;
+        }
+        LOG.debug("Invalidating resolution cache entries for {} {} on {}", kapuaEvent.getEntityType(), kapuaEvent.getEntityId(), kapuaEvent.getOperation());
+        resolutionCaches.forEach(resolutionCache -> resolutionCache.invalidate(kapuaEvent.getEntityId()));
+    }
+}
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.jpa;
+
+import org.eclipse.kapua.KapuaIllegalArgumentException;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.query.KapuaQuery;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Continuation token of a {@link KapuaQuery}, used to page the results by keyset instead of by offset.
+ * <p>
+ * It holds the value of the sort attribute and the {@link KapuaId} of the last result of the previous page.
+ * It is encoded as an opaque URL-safe string, which also holds the name of the sort attribute so that it cannot be used with a different {@link KapuaQuery#getSortCriteria()}.
+ *
+ * @since 2.1.0
+ */
+public final class ContinuationToken {
+
+    private static final String CONTINUATION_TOKEN = "continuationToken";
+
+    private static final char SEPARATOR = '\u0000';
+    private static final char NULL_VALUE = 'N';
+    private static final char NOT_NULL_VALUE = 'V';
+
+    private final String sortAttributeName;
+    private final Object sortValue;
+    private final BigInteger lastId;
+
+    /**
+     * Constructor.
+     *
+     * @param sortAttributeName The name of the sort attribute.
+     * @param sortValue         The value of the sort attribute of the last result. {@link KapuaId}s are held as their {@link KapuaId#getId()}.
+     * @param lastId            The {@link KapuaId#getId()} of the last result.
+     * @since 2.1.0
+     */
+    public ContinuationToken(String sortAttributeName, Object sortValue, BigInteger lastId) {
+        this.sortAttributeName = sortAttributeName;
+        this.sortValue = sortValue instanceof KapuaId ? ((KapuaId) sortValue).getId() : sortValue;
+        this.lastId = lastId;
+    }
+
+    /**
+     * Gets the name of the sort attribute.
+     *
+     * @return The name of the sort attribute.
+     * @since 2.1.0
+     */
+    public String getSortAttributeName() {
+        return sortAttributeName;
+    }
+
+    /**
+     * Gets the value of the sort attribute of the last result.
+     *
+     * @return The value of the sort attribute of the last result, or {@code null} if the value is {@code null}.
+     * @since 2.1.0
+     */
+    public Object getSortValue() {
+        return sortValue;
+    }
+
+    /**
+     * Gets the {@link KapuaId#getId()} of the last result.
+     *
+     * @return The {@link KapuaId#getId()} of the last result.
+     * @since 2.1.0
+     */
+    public BigInteger getLastId() {
+        return lastId;
+    }
+
+    /**
+     * Encodes this {@link ContinuationToken}.
+     *
+     * @return The encoded {@link ContinuationToken}.
+     * @since 2.1.0
+     */
+    public String encode() {
+        StringBuilder token = new StringBuilder()
+                .append(sortAttributeName)
+                .append(SEPARATOR);
+
+        if (sortValue == null) {
+            token.append(NULL_VALUE);
+        } else {
+            token.append(NOT_NULL_VALUE).append(valueToString(sortValue));
+        }
+
+        token.append(SEPARATOR)
+                .append(lastId);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes the given continuation token.
+     *
+     * @param continuationToken The continuation token to decode.
+     * @param sortAttributeName The name of the sort attribute of the {@link KapuaQuery}.
+     * @param sortValueType     The type of the sort attribute. {@link KapuaId}s are decoded as their {@link KapuaId#getId()}.
+     * @return The decoded {@link ContinuationToken}.
+     * @throws KapuaIllegalArgumentException if the continuation token is not valid or if it has been returned by a {@link KapuaQuery} with a different sort attribute.
+     * @since 2.1.0
+     */
+    public static ContinuationToken decode(String continuationToken, String sortAttributeName, Class<?> sortValueType) throws KapuaIllegalArgumentException {
+        try {
+            String token = new String(Base64.getUrlDecoder().decode(continuationToken), StandardCharsets.UTF_8);
+
+            int sortValueStart = token.indexOf(SEPARATOR);
+            int lastIdStart = token.lastIndexOf(SEPARATOR);
+            if (sortValueStart < 0 || lastIdStart <= sortValueStart) {
+                throw new KapuaIllegalArgumentException(CONTINUATION_TOKEN, continuationToken);
+            }
+
+            if (!sortAttributeName.equals(token.substring(0, sortValueStart))) {
+                throw new KapuaIllegalArgumentException(CONTINUATION_TOKEN, continuationToken);
+            }
+
+            String sortValue = token.substring(sortValueStart + 1, lastIdStart);
+            BigInteger lastId = new BigInteger(token.substring(lastIdStart + 1));
+
+            if (sortValue.isEmpty()) {
+                throw new KapuaIllegalArgumentException(CONTINUATION_TOKEN, continuationToken);
+            }
+            if (sortValue.charAt(0) == NULL_VALUE) {
+                return new ContinuationToken(sortAttributeName, null, lastId);
+            }
+            return new ContinuationToken(sortAttributeName, valueFromString(sortValue.substring(1), sortValueType), lastId);
+        } catch (KapuaIllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new KapuaIllegalArgumentException(CONTINUATION_TOKEN, continuationToken);
+        }
+    }
+
+    private static String valueToString(Object value) {
+        if (value instanceof Date) {
+            return Long.toString(((Date) value).getTime());
+        } else if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        return value.toString();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object valueFromString(String value, Class<?> type) {
+        if (String.class.equals(type)) {
+            return value;
+        } else if (KapuaId.class.isAssignableFrom(type) || BigInteger.class.equals(type)) {
+            return new BigInteger(value);
+        } else if (Date.class.isAssignableFrom(type)) {
+            return new Date(Long.parseLong(value));
+        } else if (Long.class.equals(type) || long.class.equals(type)) {
+            return Long.valueOf(value);
+        } else if (Integer.class.equals(type) || int.class.equals(type)) {
+            return Integer.valueOf(value);
+        } else if (Short.class.equals(type) || short.class.equals(type)) {
+            return Short.valueOf(value);
+        } else if (Double.class.equals(type) || double.class.equals(type)) {
+            return Double.valueOf(value);
+        } else if (Float.class.equals(type) || float.class.equals(type)) {
+            return Float.valueOf(value);
+        } else if (BigDecimal.class.equals(type)) {
+            return new BigDecimal(value);
+        } else if (Boolean.class.equals(type) || boolean.class.equals(type)) {
+            return Boolean.valueOf(value);
+        } else if (type.isEnum()) {
+            return Enum.valueOf((Class<? extends Enum>) type, value);
+        }
+        throw new IllegalArgumentException("Unsupported sort attribute type: " + type.getName());
+    }
+}
@@ -12,14 +12,24 @@
  *******************************************************************************/
 package org.eclipse.kapua.commons.jpa;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.persistence.Embedded;
 import javax.persistence.EntityExistsException;
@@ -39,6 +49,7 @@ import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.ManagedType;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -63,6 +74,10 @@ import org.eclipse.kapua.model.query.predicate.OrPredicate;
 import org.eclipse.kapua.model.query.predicate.QueryPredicate;
 import org.eclipse.kapua.storage.KapuaEntityRepository;
 import org.eclipse.kapua.storage.TxContext;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.jpa.JpaQuery;
+import org.eclipse.persistence.queries.CursoredStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -77,8 +92,10 @@ public class KapuaEntityJpaRepository<E extends KapuaEntity, C extends E, L exte
     private static final String SQL_ERROR_CODE_CONSTRAINT_VIOLATION = "23505";
     private final KapuaJpaRepositoryConfiguration configuration;
     private static final String ATTRIBUTE_SEPARATOR = ".";
+    private static final String KAPUA_EID_ATTRIBUTE = "eid";
     private static final String ATTRIBUTE_SEPARATOR_ESCAPED = "\\.";
     private static final String COMPARE_ERROR_MESSAGE = "Trying to compare a non-comparable value";
+    private static final int STREAM_PAGE_SIZE = 100;
 
     /**
      * @param concreteClass
@@ -152,6 +169,96 @@ public class KapuaEntityJpaRepository<E extends KapuaEntity, C extends E, L exte
     public L query(TxContext txContext, KapuaQuery listQuery) throws KapuaException {
         final EntityManager em = JpaAwareTxContext.extractEntityManager(txContext);
 
+        String sortAttributeName = getSortAttributeName(listQuery);
+        boolean sortById = AbstractKapuaEntity_.ID.equals(sortAttributeName);
+
+        // QUERY!
+        TypedQuery<C> query = createSelectQuery(em, listQuery);
+
+        // Set limit
+        if (listQuery.getLimit() != null) {
+            query.setMaxResults(listQuery.getLimit() + 1);
+        }
+
+        // Finally querying!
+        List<C> result = query.getResultList();
+        final L resultContainer = listSupplier.get();
+
+        // Check limit exceeded
+        if (listQuery.getLimit() != null &&
+                result.size() > listQuery.getLimit()) {
+            result.remove(listQuery.getLimit().intValue());
+            resultContainer.setLimitExceeded(true);
+
+            if (!result.isEmpty()) {
+                resultContainer.setNextContinuationToken(nextContinuationToken(em, result.get(result.size() - 1), sortById, sortAttributeName));
+            }
+        }
+
+        if (Boolean.TRUE.equals(listQuery.getAskTotalCount())) {
+            resultContainer.setTotalCount(count(txContext, listQuery));
+        }
+
+        // Set results
+        resultContainer.addItems(result);
+        return resultContainer;
+    }
+
+    @Override
+    public Stream<E> stream(TxContext txContext, KapuaQuery listQuery) throws KapuaException {
+        final EntityManager em = JpaAwareTxContext.extractEntityManager(txContext);
+
+        TypedQuery<C> query = createSelectQuery(em, listQuery);
+
+        // Set limit
+        if (listQuery.getLimit() != null) {
+            query.setMaxResults(listQuery.getLimit());
+        }
+
+        // Read the results through a cursor, a page of rows at a time, without registering them in the persistence context
+        query.setHint(QueryHints.READ_ONLY, HintValues.TRUE);
+        query.setHint(QueryHints.CURSOR, HintValues.TRUE);
+        query.setHint(QueryHints.CURSOR_PAGE_SIZE, STREAM_PAGE_SIZE);
+        query.setHint(QueryHints.JDBC_FETCH_SIZE, STREAM_PAGE_SIZE);
+
+        CursoredStream cursor = (CursoredStream) query.unwrap(JpaQuery.class).getResultCursor();
+        Iterator<E> iterator = new Iterator<E>() {
+
+            private int readCount;
+
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public E next() {
+                E next = (E) cursor.next();
+                // The cursor keeps the results read so far until they are released
+                if (++readCount % STREAM_PAGE_SIZE == 0) {
+                    cursor.releasePrevious();
+                }
+                return next;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(cursor::close);
+    }
+
+    /**
+     * Creates the {@link TypedQuery} which selects the {@link KapuaEntity}es matching the given {@link KapuaQuery}.
+     * <p>
+     * The results are ordered by the sort attribute and then by {@link KapuaEntity#getId()}, and start from the {@link KapuaQuery#getContinuationToken()} or the {@link KapuaQuery#getOffset()}.
+     * The limit is left to the caller.
+     *
+     * @param em        The {@link EntityManager} of the transaction.
+     * @param listQuery The {@link KapuaQuery} to perform.
+     * @return The {@link TypedQuery} to execute.
+     * @throws KapuaException if the {@link KapuaQuery} is not valid.
+     * @since 2.1.0
+     */
+    private TypedQuery<C> createSelectQuery(EntityManager em, KapuaQuery listQuery) throws KapuaException {
         CriteriaBuilder cb = em.getCriteriaBuilder();
         CriteriaQuery<C> criteriaSelectQuery = cb.createQuery(concreteClass);
         // FROM
@@ -201,60 +308,68 @@ public class KapuaEntityJpaRepository<E extends KapuaEntity, C extends E, L exte
                 entityRoot,
                 entityRoot.getModel());
 
-        if (expr != null) {
-            criteriaSelectQuery.where(expr);
-        }
         // ORDER BY
         // Default to the KapuaEntity id if no ordering is specified.
-        Order order;
+        // The KapuaEntity id is always the last ordering, so that the order is stable and can be continued with the continuation token.
+        String sortAttributeName = getSortAttributeName(listQuery);
+        boolean descending = false;
         if (listQuery.getSortCriteria() != null || listQuery.getDefaultSortCriteria() != null) {
             FieldSortCriteria sortCriteria = (FieldSortCriteria) MoreObjects.firstNonNull(listQuery.getSortCriteria(), listQuery.getDefaultSortCriteria());
 
-            if (SortOrder.DESCENDING.equals(sortCriteria.getSortOrder())) {
-                order = cb.desc(extractAttribute(entityRoot, sortCriteria.getAttributeName()));
-            } else {
-                order = cb.asc(extractAttribute(entityRoot, sortCriteria.getAttributeName()));
-            }
-        } else {
-            order = cb.asc(entityRoot.get(entityType.getSingularAttribute(AbstractKapuaEntity_.ID)));
+            descending = SortOrder.DESCENDING.equals(sortCriteria.getSortOrder());
         }
-        criteriaSelectQuery.orderBy(order);
 
-        //S
-        // QUERY!
-        TypedQuery<C> query = em.createQuery(criteriaSelectQuery);
+        Path<?> sortPath = extractAttribute(entityRoot, sortAttributeName);
+        Path<BigInteger> idPath = entityRoot.get(entityType.getSingularAttribute(AbstractKapuaEntity_.ID)).get(KAPUA_EID_ATTRIBUTE);
+        boolean sortById = AbstractKapuaEntity_.ID.equals(sortAttributeName);
 
-        // Populate query parameters
-        binds.forEach(query::setParameter); // Whoah! This is very magic!
+        List<Order> orders = new ArrayList<>();
+        orders.add(descending ? cb.desc(sortPath) : cb.asc(sortPath));
+        if (!sortById) {
+            orders.add(descending ? cb.desc(idPath) : cb.asc(idPath));
+        }
+        criteriaSelectQuery.orderBy(orders);
 
-        // Set offset
-        if (listQuery.getOffset() != null) {
-            query.setFirstResult(listQuery.getOffset());
+        // Continue after the last result of the previous page
+        if (listQuery.getContinuationToken() != null) {
+            ContinuationToken continuationToken = ContinuationToken.decode(listQuery.getContinuationToken(), sortAttributeName, sortPath.getJavaType());
+
+            Expression<Boolean> continuationExpr = sortById ?
+                    afterLastId(cb, idPath, continuationToken.getLastId(), descending) :
+                    afterContinuationToken(cb, sortPath, idPath, continuationToken, descending);
+
+            expr = expr != null ? cb.and(expr, continuationExpr) : continuationExpr;
         }
 
-        // Set limit
-        if (listQuery.getLimit() != null) {
-            query.setMaxResults(listQuery.getLimit() + 1);
+        if (expr != null) {
+            criteriaSelectQuery.where(expr);
         }
 
-        // Finally querying!
-        List<C> result = query.getResultList();
-        final L resultContainer = listSupplier.get();
+        TypedQuery<C> query = em.createQuery(criteriaSelectQuery);
 
-        // Check limit exceeded
-        if (listQuery.getLimit() != null &&
-                result.size() > listQuery.getLimit()) {
-            result.remove(listQuery.getLimit().intValue());
-            resultContainer.setLimitExceeded(true);
-        }
+        // Populate query parameters
+        binds.forEach(query::setParameter); // Whoah! This is very magic!
 
-        if (Boolean.TRUE.equals(listQuery.getAskTotalCount())) {
-            resultContainer.setTotalCount(count(txContext, listQuery));
+        // Set offset. The continuation token replaces it
+        if (listQuery.getOffset() != null && listQuery.getContinuationToken() == null) {
+            query.setFirstResult(listQuery.getOffset());
         }
 
-        // Set results
-        resultContainer.addItems(result);
-        return resultContainer;
+        return query;
+    }
+
+    /**
+     * Gets the name of the attribute by which the results of the {@link KapuaQuery} are sorted.
+     *
+     * @param listQuery The {@link KapuaQuery} to perform.
+     * @return The name of the sort attribute, defaulting to {@link KapuaEntity#getId()} if no ordering is specified.
+     * @since 2.1.0
+     */
+    private static String getSortAttributeName(KapuaQuery listQuery) {
+        if (listQuery.getSortCriteria() != null || listQuery.getDefaultSortCriteria() != null) {
+            return ((FieldSortCriteria) MoreObjects.firstNonNull(listQuery.getSortCriteria(), listQuery.getDefaultSortCriteria())).getAttributeName();
+        }
+        return AbstractKapuaEntity_.ID;
     }
 
     @Override
@@ -455,6 +570,14 @@ public class KapuaEntityJpaRepository<E extends KapuaEntity, C extends E, L exte
         } else {
             attribute = entityType.getAttribute(attrName);
         }
+        boolean comparableAttribute = ArrayUtils.contains(attribute.getJavaType().getInterfaces(), Comparable.class);
+
+        // KapuaIds are compared by their numeric value, which allows to page results by their ids
+        if (attributeValue instanceof KapuaEid && isComparisonOperator(attrPred.getOperator())) {
+            attrName = attrName + ATTRIBUTE_SEPARATOR + KAPUA_EID_ATTRIBUTE;
+            attributeValue = ((KapuaEid) attributeValue).getId();
+            comparableAttribute = true;
+        }
 
         // Convert old Object[] support to List<?>
         if (attributeValue instanceof Object[]) {
@@ -524,7 +647,7 @@ public class KapuaEntityJpaRepository<E extends KapuaEntity, C extends E, L exte
                 break;
 
             case GREATER_THAN:
-                if (attributeValue instanceof Comparable && ArrayUtils.contains(attribute.getJavaType().getInterfaces(), Comparable.class)) {
+                if (attributeValue instanceof Comparable && comparableAttribute) {
                     Comparable comparableAttrValue = (Comparable<?>) attributeValue;
                     Expression<? extends Comparable> comparableExpression = extractAttribute(entityRoot, attrName);
                     expr = cb.greaterThan(comparableExpression, comparableAttrValue);
@@ -534,7 +657,7 @@ public class KapuaEntityJpaRepository<E extends KapuaEntity, C extends E, L exte
                 break;
 
             case GREATER_THAN_OR_EQUAL:
-                if (attributeValue instanceof Comparable && ArrayUtils.contains(attribute.getJavaType().getInterfaces(), Comparable.class)) {
+                if (attributeValue instanceof Comparable && comparableAttribute) {
                     Expression<? extends Comparable> comparableExpression = extractAttribute(entityRoot, attrName);
                     Comparable comparableAttrValue = (Comparable<?>) attributeValue;
                     expr = cb.greaterThanOrEqualTo(comparableExpression, comparableAttrValue);
@@ -544,7 +667,7 @@ public class KapuaEntityJpaRepository<E extends KapuaEntity, C extends E, L exte
                 break;
 
             case LESS_THAN:
-                if (attributeValue instanceof Comparable && ArrayUtils.contains(attribute.getJavaType().getInterfaces(), Comparable.class)) {
+                if (attributeValue instanceof Comparable && comparableAttribute) {
                     Expression<? extends Comparable> comparableExpression = extractAttribute(entityRoot, attrName);
                     Comparable comparableAttrValue = (Comparable<?>) attributeValue;
                     expr = cb.lessThan(comparableExpression, comparableAttrValue);
@@ -553,7 +676,7 @@ public class KapuaEntityJpaRepository<E extends KapuaEntity, C extends E, L exte
                 }
                 break;
             case LESS_THAN_OR_EQUAL:
-                if (attributeValue instanceof Comparable && ArrayUtils.contains(attribute.getJavaType().getInterfaces(), Comparable.class)) {
+                if (attributeValue instanceof Comparable && comparableAttribute) {
                     Expression<? extends Comparable> comparableExpression = extractAttribute(entityRoot, attrName);
                     Comparable comparableAttrValue = (Comparable<?>) attributeValue;
                     expr = cb.lessThanOrEqualTo(comparableExpression, comparableAttrValue);
@@ -570,6 +693,137 @@ public class KapuaEntityJpaRepository<E extends KapuaEntity, C extends E, L exte
         return expr;
     }
 
+    /**
+     * Builds the {@link Expression} that selects the results that come after the given last {@link KapuaEntity#getId()}.
+     *
+     * @param cb         The {@link CriteriaBuilder}.
+     * @param idPath     The {@link Path} of the {@link KapuaEntity#getId()}.
+     * @param lastId     The {@link KapuaEntity#getId()} of the last result of the previous page.
+     * @param descending Whether results are sorted in descending order.
+     * @return The {@link Expression} that selects the results of the next page.
+     * @since 2.1.0
+     */
+    private static Predicate afterLastId(CriteriaBuilder cb, Path<BigInteger> idPath, BigInteger lastId, boolean descending) {
+        return descending ? cb.lessThan(idPath, lastId) : cb.greaterThan(idPath, lastId);
+    }
+
+    /**
+     * Builds the {@link Expression} that selects the results that come after the given {@link ContinuationToken}, sorting by the sort attribute and then by {@link KapuaEntity#getId()}.
+     * <p>
+     * {@code null} values of the sort attribute are expected to come first in ascending order and last in descending order.
+     *
+     * @param cb                The {@link CriteriaBuilder}.
+     * @param sortPath          The {@link Path} of the sort attribute.
+     * @param idPath            The {@link Path} of the {@link KapuaEntity#getId()}.
+     * @param continuationToken The {@link ContinuationToken} of the previous page.
+     * @param descending        Whether results are sorted in descending order.
+     * @return The {@link Expression} that selects the results of the next page.
+     * @since 2.1.0
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate afterContinuationToken(CriteriaBuilder cb, Path<?> sortPath, Path<BigInteger> idPath, ContinuationToken continuationToken, boolean descending) {
+        Predicate afterLastId = afterLastId(cb, idPath, continuationToken.getLastId(), descending);
+
+        Expression<Comparable> sortExpression = KapuaId.class.isAssignableFrom(sortPath.getJavaType()) ?
+                sortPath.get(KAPUA_EID_ATTRIBUTE) :
+                (Expression<Comparable>) sortPath;
+
+        if (continuationToken.getSortValue() == null) {
+            Predicate afterLastNull = cb.and(cb.isNull(sortExpression), afterLastId);
+            return descending ? afterLastNull : cb.or(afterLastNull, cb.isNotNull(sortExpression));
+        }
+
+        Comparable sortValue = (Comparable) continuationToken.getSortValue();
+
+        Predicate afterSortValue = cb.or(
+                descending ? cb.lessThan(sortExpression, sortValue) : cb.greaterThan(sortExpression, sortValue),
+                cb.and(cb.equal(sortExpression, sortValue), afterLastId)
+        );
+        return descending ? cb.or(afterSortValue, cb.isNull(sortExpression)) : afterSortValue;
+    }
+
+    /**
+     * Builds the continuation token of the page which ends with the given entity.
+     * <p>
+     * The continuation token is an optimization of the next page query, so if it cannot be built the error is logged and no continuation token is returned:
+     * the next page can still be queried with the {@link KapuaQuery#getOffset()}.
+     *
+     * @param em                The {@link EntityManager}.
+     * @param lastResult        The last entity of the page.
+     * @param sortById          Whether the results are sorted by {@link KapuaEntity#getId()}.
+     * @param sortAttributeName The sort attribute name.
+     * @return The encoded {@link ContinuationToken}, or {@code null} if it cannot be built.
+     * @since 2.1.0
+     */
+    private String nextContinuationToken(EntityManager em, C lastResult, boolean sortById, String sortAttributeName) {
+        try {
+            Object lastSortValue = sortById ? lastResult.getId() : readAttributeValue(em, lastResult, sortAttributeName);
+            return new ContinuationToken(sortAttributeName, lastSortValue, lastResult.getId().getId()).encode();
+        } catch (KapuaException | RuntimeException e) {
+            logger.warn("Cannot build the continuation token of {} sorted by {}. The next page can only be queried with the offset", concreteClass.getSimpleName(), sortAttributeName, e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the value of the given attribute from the given entity, using the JPA metamodel.
+     *
+     * @param em            The {@link EntityManager}.
+     * @param entity        The entity to read from.
+     * @param attributeName The attribute name. It can be the path of an attribute of an embedded attribute (i.e. {@code "embedded.attribute"}).
+     * @return The value of the attribute.
+     * @throws KapuaException if the value cannot be read.
+     * @since 2.1.0
+     */
+    private Object readAttributeValue(EntityManager em, Object entity, String attributeName) throws KapuaException {
+        Object value = entity;
+        ManagedType<?> managedType = em.getMetamodel().managedType(concreteClass);
+        try {
+            for (String pathComponent : attributeName.split(ATTRIBUTE_SEPARATOR_ESCAPED)) {
+                if (value == null) {
+                    return null;
+                }
+                if (managedType == null) {
+                    throw KapuaException.internalError("Cannot read attribute: " + attributeName);
+                }
+
+                Attribute<?, ?> attribute = managedType.getAttribute(pathComponent);
+                Member member = attribute.getJavaMember();
+                if (member instanceof Field) {
+                    Field field = (Field) member;
+                    field.setAccessible(true);
+                    value = field.get(value);
+                } else {
+                    value = ((Method) member).invoke(value);
+                }
+
+                managedType = attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC ? null : em.getMetamodel().managedType(attribute.getJavaType());
+            }
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            throw KapuaException.internalError(e, "Cannot read attribute: " + attributeName);
+        }
+        return value;
+    }
+
+    /**
+     * Checks whether the given {@link AttributePredicate.Operator} compares the values.
+     *
+     * @param operator The {@link AttributePredicate.Operator} to check.
+     * @return {@code true} if it is one of the greater than or less than operators, {@code false} otherwise.
+     * @since 2.1.0
+     */
+    private static boolean isComparisonOperator(AttributePredicate.Operator operator) {
+        switch (operator) {
+            case GREATER_THAN:
+            case GREATER_THAN_OR_EQUAL:
+            case LESS_THAN:
+            case LESS_THAN_OR_EQUAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     /**
      * Utility method that selects the correct {@link Root} attribute.
      * <p>
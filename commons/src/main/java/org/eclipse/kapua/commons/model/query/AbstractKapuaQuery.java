@@ -47,6 +47,7 @@ public abstract class AbstractKapuaQuery implements KapuaQuery {
     private Integer offset;
     private Integer limit;
     private Boolean askTotalCount;
+    private String continuationToken;
 
     /**
      * Constructor.
@@ -82,6 +83,7 @@ public abstract class AbstractKapuaQuery implements KapuaQuery {
         setOffset(query.getOffset());
         setSortCriteria(query.getSortCriteria());
         setAskTotalCount(query.getAskTotalCount());
+        setContinuationToken(query.getContinuationToken());
     }
 
     @Override
@@ -168,6 +170,16 @@ public abstract class AbstractKapuaQuery implements KapuaQuery {
         this.askTotalCount = askTotalCount;
     }
 
+    @Override
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    @Override
+    public void setContinuationToken(String continuationToken) {
+        this.continuationToken = continuationToken;
+    }
+
     // Predicate factory
     @Override
     public <T> AttributePredicate<T> attributePredicate(String attributeName, T attributeValue) {
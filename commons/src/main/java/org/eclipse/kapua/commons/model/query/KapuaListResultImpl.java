@@ -37,6 +37,7 @@ public class KapuaListResultImpl<E extends KapuaEntity> implements KapuaListResu
     private ArrayList<E> items;
     private boolean limitExceeded;
     private Long totalCount;
+    private String nextContinuationToken;
 
     /**
      * Constructor.
@@ -131,4 +132,14 @@ public class KapuaListResultImpl<E extends KapuaEntity> implements KapuaListResu
         this.totalCount = totalCount;
     }
 
+    @Override
+    public String getNextContinuationToken() {
+        return nextContinuationToken;
+    }
+
+    @Override
+    public void setNextContinuationToken(String nextContinuationToken) {
+        this.nextContinuationToken = nextContinuationToken;
+    }
+
 }
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.security;
+
+import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.setting.system.SystemSetting;
+import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
+import org.eclipse.kapua.model.id.KapuaId;
+
+/**
+ * Encodes a {@link KapuaSession} to a compact token to be carried along with a message, and decodes it back.
+ * <p>
+ * The token carries only the identity of the {@link KapuaSession} (scope id, user id and trusted mode) in the form {@code <version>:<scopeId>:<userId>:<t|u>},
+ * where the ids are in their {@link KapuaId#toCompactId()} form. Access tokens and OpenID tokens are not carried.
+ * <p>
+ * Decoded tokens are kept in a bounded local cache, so that messages coming from the same connection do not parse the token again.
+ * Each {@link #decode(String)} returns a new {@link KapuaSession} instance, since {@link KapuaSession}s are bound to the processing thread.
+ *
+ * @since 2.1.0
+ */
+public final class KapuaSessionCodec {
+
+    private static final String TOKEN_VERSION = "1";
+    private static final String SEPARATOR = ":";
+    private static final String TRUSTED = "t";
+    private static final String UNTRUSTED = "u";
+
+    private static final LocalCache<String, KapuaSession> DECODED_SESSIONS =
+            new LocalCache<>(SystemSetting.getInstance().getInt(SystemSettingKey.SESSION_TOKEN_LOCAL_CACHE_SIZE_MAXIMUM, 10000), null);
+
+    private KapuaSessionCodec() {
+    }
+
+    /**
+     * Encodes the given {@link KapuaSession} to a token.
+     *
+     * @param kapuaSession The {@link KapuaSession} to encode.
+     * @return The encoded token.
+     * @since 2.1.0
+     */
+    public static String encode(KapuaSession kapuaSession) {
+        return TOKEN_VERSION + SEPARATOR +
+                encodeId(kapuaSession.getScopeId()) + SEPARATOR +
+                encodeId(kapuaSession.getUserId()) + SEPARATOR +
+                (kapuaSession.isTrustedMode() ? TRUSTED : UNTRUSTED);
+    }
+
+    /**
+     * Checks whether the given value looks like a token produced by {@link #encode(KapuaSession)}.
+     *
+     * @param value The value to check.
+     * @return {@code true} if the value is a token, {@code false} otherwise.
+     * @since 2.1.0
+     */
+    public static boolean isToken(String value) {
+        return value != null && value.startsWith(TOKEN_VERSION + SEPARATOR);
+    }
+
+    /**
+     * Decodes the given token to a new {@link KapuaSession}.
+     *
+     * @param token The token to decode.
+     * @return The decoded {@link KapuaSession}.
+     * @throws IllegalArgumentException if the token is not valid.
+     * @since 2.1.0
+     */
+    public static KapuaSession decode(String token) {
+        if (token == null) {
+            throw new IllegalArgumentException("Session token cannot be null");
+        }
+
+        KapuaSession decodedSession = DECODED_SESSIONS.get(token);
+        if (decodedSession == null) {
+            String[] tokenParts = token.split(SEPARATOR, -1);
+            if (tokenParts.length != 4 || !TOKEN_VERSION.equals(tokenParts[0]) || !(TRUSTED.equals(tokenParts[3]) || UNTRUSTED.equals(tokenParts[3]))) {
+                throw new IllegalArgumentException("Invalid session token: " + token);
+            }
+
+            decodedSession = new KapuaSession(null, decodeId(tokenParts[1]), decodeId(tokenParts[2]));
+            decodedSession.setTrustedMode(TRUSTED.equals(tokenParts[3]));
+            DECODED_SESSIONS.put(token, decodedSession);
+        }
+
+        KapuaSession kapuaSession = new KapuaSession(null, decodedSession.getScopeId(), decodedSession.getUserId());
+        kapuaSession.setTrustedMode(decodedSession.isTrustedMode());
+        return kapuaSession;
+    }
+
+    private static String encodeId(KapuaId kapuaId) {
+        return kapuaId != null ? kapuaId.toCompactId() : "";
+    }
+
+    private static KapuaId decodeId(String compactId) {
+        return compactId.isEmpty() ? null : KapuaEid.parseCompactId(compactId);
+    }
+}
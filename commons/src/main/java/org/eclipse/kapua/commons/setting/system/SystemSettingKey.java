@@ -375,6 +375,10 @@ public enum SystemSettingKey implements SettingKey {
      * Size of the local cache for the KapuaTmetadata
      */
     TMETADATA_LOCAL_CACHE_SIZE_MAXIMUM("commons.cache.local.tmetadata.maxsize"),
+    /**
+     * Size of the local cache for the decoded KapuaSession tokens
+     */
+    SESSION_TOKEN_LOCAL_CACHE_SIZE_MAXIMUM("commons.cache.local.sessionToken.maxsize"),
     /**
      * Provide the CacheManager config file URL
      */
@@ -34,6 +34,7 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class KapuaEntityInMemoryRepository<E extends KapuaEntity, L extends KapuaListResult<E>> implements KapuaEntityRepository<E, L> {
     protected final List<E> entities;
@@ -92,6 +93,11 @@ public class KapuaEntityInMemoryRepository<E extends KapuaEntity, L extends Kapu
         return res;
     }
 
+    @Override
+    public Stream<E> stream(TxContext txContext, KapuaQuery kapuaQuery) throws KapuaException {
+        return query(txContext, kapuaQuery).getItems().stream();
+    }
+
     @Override
     public long count(TxContext txContext, KapuaQuery kapuaQuery) throws KapuaException {
         final Predicate<E> scopePredicate = extractScopePredicate(kapuaQuery);
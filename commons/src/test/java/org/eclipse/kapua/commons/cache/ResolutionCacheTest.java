@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.cache;
+
+import com.codahale.metrics.MetricRegistry;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.metric.MetricsServiceImpl;
+import org.eclipse.kapua.commons.model.AbstractKapuaEntity;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Category(JUnitTests.class)
+public class ResolutionCacheTest {
+
+    private static final KapuaId ENTITY_ID = new KapuaEid(BigInteger.TEN);
+
+    private MetricRegistry metricRegistry;
+    private ResolutionCache<String, ActualKapuaEntity> resolutionCache;
+    private AtomicInteger resolutions;
+
+    private static class ActualKapuaEntity extends AbstractKapuaEntity {
+
+        ActualKapuaEntity(KapuaId id) {
+            setId(id);
+        }
+
+        @Override
+        public String getType() {
+            return "actual";
+        }
+    }
+
+    @Before
+    public void createInstanceOfClasses() {
+        metricRegistry = new MetricRegistry();
+        resolutionCache = new ResolutionCache<>(100, 60, new MetricsServiceImpl(metricRegistry), "module", "test");
+        resolutions = new AtomicInteger();
+    }
+
+    private ActualKapuaEntity resolve() {
+        resolutions.incrementAndGet();
+        return new ActualKapuaEntity(ENTITY_ID);
+    }
+
+    @Test
+    public void getResolvesOnceTest() throws KapuaException {
+        ActualKapuaEntity first = resolutionCache.get("key", this::resolve);
+        ActualKapuaEntity second = resolutionCache.get("key", this::resolve);
+
+        Assert.assertSame("Expected and actual values should be the same!", first, second);
+        Assert.assertEquals("Resolver should be invoked once", 1, resolutions.get());
+        Assert.assertEquals("Expected and actual values should be the same!", 1, metricRegistry.counter("module.resolution_cache.test.hit.count").getCount());
+        Assert.assertEquals("Expected and actual values should be the same!", 1, metricRegistry.counter("module.resolution_cache.test.miss.count").getCount());
+    }
+
+    @Test
+    public void getDoesNotCacheNullTest() throws KapuaException {
+        Assert.assertNull("Null expected", resolutionCache.get("key", () -> null));
+
+        resolutionCache.get("key", this::resolve);
+        Assert.assertEquals("Resolver should be invoked after a null resolution", 1, resolutions.get());
+    }
+
+    @Test
+    public void invalidateTest() throws KapuaException {
+        resolutionCache.get("key", this::resolve);
+        resolutionCache.get("otherKey", this::resolve);
+
+        resolutionCache.invalidate(new KapuaEid(BigInteger.ONE));
+        resolutionCache.get("key", this::resolve);
+        Assert.assertEquals("Entries of other entities should not be invalidated", 2, resolutions.get());
+
+        resolutionCache.invalidate(ENTITY_ID);
+        resolutionCache.get("key", this::resolve);
+        resolutionCache.get("otherKey", this::resolve);
+        Assert.assertEquals("All the entries of the entity should be invalidated", 4, resolutions.get());
+    }
+
+    @Test
+    public void invalidateReplacedEntityTest() throws KapuaException {
+        KapuaId otherEntityId = new KapuaEid(BigInteger.ONE);
+        resolutionCache.get("key", this::resolve);
+        resolutionCache.invalidateAll();
+        resolutionCache.get("key", () -> new ActualKapuaEntity(otherEntityId));
+
+        resolutionCache.invalidate(ENTITY_ID);
+        Assert.assertEquals("Entries resolved to another entity should not be invalidated", otherEntityId, resolutionCache.get("key", this::resolve).getId());
+
+        resolutionCache.invalidate(otherEntityId);
+        Assert.assertEquals("Expected and actual values should be the same!", ENTITY_ID, resolutionCache.get("key", this::resolve).getId());
+    }
+
+    @Test
+    public void accessCheckOnHitTest() throws KapuaException {
+        AtomicInteger accessChecks = new AtomicInteger();
+        resolutionCache.get("key", this::resolve, entity -> accessChecks.incrementAndGet());
+        Assert.assertEquals("Access should not be checked again on a miss", 0, accessChecks.get());
+
+        resolutionCache.get("key", this::resolve, entity -> accessChecks.incrementAndGet());
+        Assert.assertEquals("Access should be checked on a hit", 1, accessChecks.get());
+    }
+
+    @Test(expected = KapuaException.class)
+    public void accessCheckDeniedOnHitTest() throws KapuaException {
+        resolutionCache.get("key", this::resolve);
+        resolutionCache.get("key", this::resolve, entity -> {
+            throw KapuaException.internalError("access denied");
+        });
+    }
+
+    @Test(expected = KapuaException.class)
+    public void getWrapsResolverExceptionTest() throws KapuaException {
+        resolutionCache.get("key", () -> {
+            throw new IllegalStateException("resolution failure");
+        });
+    }
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.jpa;
+
+import org.eclipse.kapua.KapuaIllegalArgumentException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.query.SortOrder;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.util.Date;
+
+@Category(JUnitTests.class)
+public class ContinuationTokenTest {
+
+    private static final BigInteger LAST_ID = BigInteger.valueOf(1234567890L);
+
+    private ContinuationToken roundTrip(String sortAttributeName, Object sortValue, Class<?> sortValueType) throws KapuaIllegalArgumentException {
+        String encoded = new ContinuationToken(sortAttributeName, sortValue, LAST_ID).encode();
+        return ContinuationToken.decode(encoded, sortAttributeName, sortValueType);
+    }
+
+    @Test
+    public void stringValueTest() throws KapuaIllegalArgumentException {
+        ContinuationToken token = roundTrip("clientId", "client-\u0000-1", String.class);
+
+        Assert.assertEquals("Expected and actual values should be the same.", "clientId", token.getSortAttributeName());
+        Assert.assertEquals("Expected and actual values should be the same.", "client-\u0000-1", token.getSortValue());
+        Assert.assertEquals("Expected and actual values should be the same.", LAST_ID, token.getLastId());
+    }
+
+    @Test
+    public void dateValueTest() throws KapuaIllegalArgumentException {
+        Date date = new Date(1500000000123L);
+
+        Assert.assertEquals("Expected and actual values should be the same.", date, roundTrip("createdOn", date, Date.class).getSortValue());
+    }
+
+    @Test
+    public void enumValueTest() throws KapuaIllegalArgumentException {
+        Assert.assertEquals("Expected and actual values should be the same.", SortOrder.DESCENDING, roundTrip("sortOrder", SortOrder.DESCENDING, SortOrder.class).getSortValue());
+    }
+
+    @Test
+    public void kapuaIdValueTest() throws KapuaIllegalArgumentException {
+        Assert.assertEquals("Expected and actual values should be the same.", BigInteger.TEN, roundTrip("scopeId", new KapuaEid(BigInteger.TEN), KapuaId.class).getSortValue());
+    }
+
+    @Test
+    public void numberValueTest() throws KapuaIllegalArgumentException {
+        Assert.assertEquals("Expected and actual values should be the same.", 42, roundTrip("optlock", 42, int.class).getSortValue());
+        Assert.assertEquals("Expected and actual values should be the same.", 42L, roundTrip("size", 42L, Long.class).getSortValue());
+    }
+
+    @Test
+    public void nullValueTest() throws KapuaIllegalArgumentException {
+        ContinuationToken token = roundTrip("displayName", null, String.class);
+
+        Assert.assertNull("Null expected.", token.getSortValue());
+        Assert.assertEquals("Expected and actual values should be the same.", LAST_ID, token.getLastId());
+    }
+
+    @Test
+    public void urlSafeTest() {
+        String encoded = new ContinuationToken("clientId", "??>>??", LAST_ID).encode();
+
+        Assert.assertTrue("True expected.", encoded.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test(expected = KapuaIllegalArgumentException.class)
+    public void differentSortAttributeTest() throws KapuaIllegalArgumentException {
+        String encoded = new ContinuationToken("clientId", "client-1", LAST_ID).encode();
+
+        ContinuationToken.decode(encoded, "displayName", String.class);
+    }
+
+    @Test(expected = KapuaIllegalArgumentException.class)
+    public void invalidTokenTest() throws KapuaIllegalArgumentException {
+        ContinuationToken.decode("not a token", "clientId", String.class);
+    }
+
+    @Test(expected = KapuaIllegalArgumentException.class)
+    public void invalidValueTest() throws KapuaIllegalArgumentException {
+        String encoded = new ContinuationToken("createdOn", "not a date", LAST_ID).encode();
+
+        ContinuationToken.decode(encoded, "createdOn", Date.class);
+    }
+}
@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.jpa;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.configuration.KapuaConfigurableServiceSchemaUtils;
+import org.eclipse.kapua.commons.liquibase.KapuaLiquibaseClient;
+import org.eclipse.kapua.commons.model.AbstractCommonServiceTest;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.model.misc.CollisionEntity;
+import org.eclipse.kapua.commons.model.misc.CollisionEntityJpaRepository;
+import org.eclipse.kapua.commons.model.misc.CollisionIdGenerator;
+import org.eclipse.kapua.commons.model.query.AbstractKapuaQuery;
+import org.eclipse.kapua.model.KapuaEntityAttributes;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.query.KapuaQuery;
+import org.eclipse.kapua.model.query.SortOrder;
+import org.eclipse.kapua.model.query.predicate.AttributePredicate;
+import org.eclipse.kapua.model.query.predicate.QueryPredicate;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.storage.TxManager;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tests the comparison of the {@link KapuaEid}s in the {@link AttributePredicate}s of {@link KapuaEntityJpaRepository}, which is used to page results by their ids,
+ * and the results streamed by {@link KapuaEntityJpaRepository#stream(org.eclipse.kapua.storage.TxContext, KapuaQuery)}.
+ */
+@Category(JUnitTests.class)
+public class KapuaEntityJpaRepositoryTest extends AbstractCommonServiceTest {
+
+    private static final String DEFAULT_TEST_FILTER = "test_*_create.sql";
+    private static final long FIRST_ID = 50001;
+    private static final int ENTITY_COUNT = 6;
+
+    private static TxManager txManager;
+    private static CollisionEntityJpaRepository repo;
+
+    @BeforeClass
+    public static void setUp() throws KapuaException {
+        new KapuaLiquibaseClient("jdbc:h2:mem:kapua;MODE=MySQL;DB_CLOSE_DELAY=-1", "kapua", "kapua").update();
+        scriptSession(DEFAULT_TEST_PATH, DEFAULT_TEST_FILTER);
+        txManager = new KapuaJpaTxManagerFactory(1).create("kapua-commons-unit-test");
+        repo = new CollisionEntityJpaRepository(new KapuaJpaRepositoryConfiguration());
+
+        // ids from FIRST_ID to FIRST_ID + ENTITY_COUNT - 1
+        CollisionEntity.initializeCollisionIdGenerator(new CollisionIdGenerator(FIRST_ID - 1, 1, 1));
+        txManager.execute(tx -> {
+            for (int i = 0; i < ENTITY_COUNT; i++) {
+                repo.create(tx, new CollisionEntity("KapuaEntityJpaRepositoryTest - " + i));
+            }
+            return null;
+        });
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        scriptSession(DEFAULT_TEST_PATH, DROP_TEST_FILTER);
+        KapuaConfigurableServiceSchemaUtils.dropSchemaObjects(DEFAULT_COMMONS_PATH);
+    }
+
+    @Test
+    public void queryIdGreaterThanTest() throws KapuaException {
+        Assert.assertEquals("Expected and actual values should be the same!", ids(50004, 50005, 50006), queryIds(AttributePredicate.Operator.GREATER_THAN, 50003));
+    }
+
+    @Test
+    public void queryIdGreaterThanOrEqualTest() throws KapuaException {
+        Assert.assertEquals("Expected and actual values should be the same!", ids(50003, 50004, 50005, 50006), queryIds(AttributePredicate.Operator.GREATER_THAN_OR_EQUAL, 50003));
+    }
+
+    @Test
+    public void queryIdLessThanTest() throws KapuaException {
+        Assert.assertEquals("Expected and actual values should be the same!", ids(50001, 50002), queryIds(AttributePredicate.Operator.LESS_THAN, 50003));
+    }
+
+    @Test
+    public void queryIdLessThanOrEqualTest() throws KapuaException {
+        Assert.assertEquals("Expected and actual values should be the same!", ids(50001, 50002, 50003), queryIds(AttributePredicate.Operator.LESS_THAN_OR_EQUAL, 50003));
+    }
+
+    @Test
+    public void queryIdRangeTest() throws KapuaException {
+        // the range of a partition of a step: from (inclusive) and to (exclusive)
+        KapuaQuery query = newQuery();
+        query.setPredicate(query.andPredicate(
+                query.attributePredicate(KapuaEntityAttributes.ENTITY_ID, newId(50002), AttributePredicate.Operator.GREATER_THAN_OR_EQUAL),
+                query.attributePredicate(KapuaEntityAttributes.ENTITY_ID, newId(50005), AttributePredicate.Operator.LESS_THAN)
+        ));
+
+        Assert.assertEquals("Expected and actual values should be the same!", ids(50002, 50003, 50004), queryIds(query));
+        Assert.assertEquals("Expected and actual values should be the same!", 3, txManager.execute(tx -> repo.count(tx, query)).longValue());
+    }
+
+    @Test
+    public void queryIdKeysetPagesTest() throws KapuaException {
+        // pages of 4 results, each page after the last id of the previous one
+        KapuaQuery firstPageQuery = newQuery();
+        firstPageQuery.setPredicate(idsOfTest(firstPageQuery));
+        firstPageQuery.setLimit(4);
+        List<KapuaId> firstPage = queryIds(firstPageQuery);
+        Assert.assertEquals("Expected and actual values should be the same!", ids(50001, 50002, 50003, 50004), firstPage);
+
+        KapuaQuery secondPageQuery = newQuery();
+        secondPageQuery.setPredicate(secondPageQuery.andPredicate(
+                idsOfTest(secondPageQuery),
+                secondPageQuery.attributePredicate(KapuaEntityAttributes.ENTITY_ID, firstPage.get(firstPage.size() - 1), AttributePredicate.Operator.GREATER_THAN)
+        ));
+        secondPageQuery.setLimit(4);
+        Assert.assertEquals("Expected and actual values should be the same!", ids(50005, 50006), queryIds(secondPageQuery));
+    }
+
+    @Test
+    public void streamTest() throws KapuaException {
+        KapuaQuery query = newQuery();
+        query.setPredicate(idsOfTest(query));
+        query.setSortCriteria(query.fieldSortCriteria(KapuaEntityAttributes.ENTITY_ID, SortOrder.DESCENDING));
+
+        List<KapuaId> streamedIds = txManager.executeReadOnly(tx -> {
+            try (Stream<CollisionEntity> entities = repo.stream(tx, query)) {
+                return entities.map(CollisionEntity::getId).collect(Collectors.toList());
+            }
+        });
+
+        Assert.assertEquals("Expected and actual values should be the same!", ids(50006, 50005, 50004, 50003, 50002, 50001), streamedIds);
+    }
+
+    @Test
+    public void streamLimitTest() throws KapuaException {
+        KapuaQuery query = newQuery();
+        query.setPredicate(query.andPredicate(
+                idsOfTest(query),
+                query.attributePredicate(KapuaEntityAttributes.ENTITY_ID, newId(50002), AttributePredicate.Operator.GREATER_THAN)
+        ));
+        query.setSortCriteria(query.fieldSortCriteria(KapuaEntityAttributes.ENTITY_ID, SortOrder.ASCENDING));
+        query.setLimit(2);
+
+        List<KapuaId> streamedIds = txManager.executeReadOnly(tx -> {
+            try (Stream<CollisionEntity> entities = repo.stream(tx, query)) {
+                return entities.map(CollisionEntity::getId).collect(Collectors.toList());
+            }
+        });
+
+        Assert.assertEquals("Expected and actual values should be the same!", ids(50003, 50004), streamedIds);
+    }
+
+    @Test
+    public void executeReadOnlyNotCommittedTest() throws KapuaException {
+        KapuaQuery query = newQuery();
+        long count = txManager.execute(tx -> repo.count(tx, query));
+
+        txManager.executeReadOnly(tx -> repo.create(tx, new CollisionEntity("KapuaEntityJpaRepositoryTest - read only")));
+
+        Assert.assertEquals("Expected and actual values should be the same!", count, txManager.execute(tx -> repo.count(tx, query)).longValue());
+    }
+
+    private List<KapuaId> queryIds(AttributePredicate.Operator operator, long id) throws KapuaException {
+        KapuaQuery query = newQuery();
+        query.setPredicate(query.andPredicate(
+                idsOfTest(query),
+                query.attributePredicate(KapuaEntityAttributes.ENTITY_ID, newId(id), operator)
+        ));
+        return queryIds(query);
+    }
+
+    private List<KapuaId> queryIds(KapuaQuery query) throws KapuaException {
+        query.setSortCriteria(query.fieldSortCriteria(KapuaEntityAttributes.ENTITY_ID, SortOrder.ASCENDING));
+        return txManager.execute(tx -> repo.query(tx, query)).getItems()
+                .stream()
+                .map(CollisionEntity::getId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Selects the entities created by this test.
+     */
+    private static QueryPredicate idsOfTest(KapuaQuery query) {
+        return query.andPredicate(
+                query.attributePredicate(KapuaEntityAttributes.ENTITY_ID, newId(FIRST_ID), AttributePredicate.Operator.GREATER_THAN_OR_EQUAL),
+                query.attributePredicate(KapuaEntityAttributes.ENTITY_ID, newId(FIRST_ID + ENTITY_COUNT - 1), AttributePredicate.Operator.LESS_THAN_OR_EQUAL)
+        );
+    }
+
+    private static KapuaQuery newQuery() {
+        return new AbstractKapuaQuery(KapuaId.ONE) {
+        };
+    }
+
+    private static List<KapuaId> ids(long... ids) {
+        return Arrays.stream(ids)
+                .mapToObj(KapuaEntityJpaRepositoryTest::newId)
+                .collect(Collectors.toList());
+    }
+
+    private static KapuaId newId(long id) {
+        return new KapuaEid(BigInteger.valueOf(id));
+    }
+}
@@ -48,7 +48,7 @@ public class IdGeneratorTest extends AbstractCommonServiceTest {
     private static final Logger LOGGER = LoggerFactory.getLogger(IdGeneratorTest.class);
 
     public static final String DEFAULT_TEST_PATH = "./src/test/sql/H2/";
-    public static final String DEFAULT_TEST_FILTER = "test_*.sql";
+    public static final String DEFAULT_TEST_FILTER = "test_*_create.sql";
     public static final String DEFAULT_COMMONS_PATH = "../commons";
     public static final String DROP_TEST_FILTER = "test_*_drop.sql";
     private static TxManager txManager;
@@ -190,4 +190,13 @@ public class AbstractKapuaQueryTest {
         kapuaQuery.setAskTotalCount(false);
         Assert.assertEquals("Actual and expected values are not the same!", false, kapuaQuery.getAskTotalCount());
     }
+
+    @Test
+    public void getContinuationTokenTest() {
+        AbstractKapuaQuery kapuaQuery = new ActualKapuaQuery();
+        Assert.assertNull("Null expected!", kapuaQuery.getContinuationToken());
+        kapuaQuery.setContinuationToken("token");
+        Assert.assertEquals("Actual and expected values are not the same!", "token", kapuaQuery.getContinuationToken());
+        Assert.assertEquals("Actual and expected values are not the same!", "token", new ActualKapuaQuery(kapuaQuery).getContinuationToken());
+    }
 }
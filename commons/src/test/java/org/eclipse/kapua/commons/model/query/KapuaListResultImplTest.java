@@ -248,6 +248,16 @@ public class KapuaListResultImplTest {
         Assert.assertEquals(new Long(10L), kapuaListResult.getTotalCount());
     }
 
+    @Test
+    public void setGetNextContinuationTokenTest() {
+        KapuaListResultImpl<AbstractKapuaEntity> kapuaListResult = new KapuaListResultImpl<>();
+        Assert.assertNull(kapuaListResult.getNextContinuationToken());
+
+        kapuaListResult.setNextContinuationToken("token");
+
+        Assert.assertEquals("token", kapuaListResult.getNextContinuationToken());
+    }
+
     @Test
     public void sortComparatorTest() {
         int testSize = 10;
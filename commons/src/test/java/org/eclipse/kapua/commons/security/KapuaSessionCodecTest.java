@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.security;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+
+@Category(JUnitTests.class)
+public class KapuaSessionCodecTest {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.valueOf(42));
+    private static final KapuaId USER_ID = new KapuaEid(BigInteger.valueOf(1234567890123L));
+
+    @Test
+    public void encodeDecodeTrustedSessionTest() {
+        KapuaSession kapuaSession = new KapuaSession(null, SCOPE_ID, USER_ID);
+        kapuaSession.setTrustedMode(true);
+
+        String token = KapuaSessionCodec.encode(kapuaSession);
+        Assert.assertTrue("Encoded session should be recognized as a token", KapuaSessionCodec.isToken(token));
+
+        KapuaSession decodedSession = KapuaSessionCodec.decode(token);
+        Assert.assertEquals("Expected and actual values should be the same!", SCOPE_ID, decodedSession.getScopeId());
+        Assert.assertEquals("Expected and actual values should be the same!", USER_ID, decodedSession.getUserId());
+        Assert.assertTrue("Decoded session should be trusted", decodedSession.isTrustedMode());
+        Assert.assertNull("Decoded session should not have an access token", decodedSession.getAccessToken());
+    }
+
+    @Test
+    public void encodeDecodeUntrustedSessionWithoutUserTest() {
+        KapuaSession kapuaSession = new KapuaSession(null, SCOPE_ID, null);
+
+        KapuaSession decodedSession = KapuaSessionCodec.decode(KapuaSessionCodec.encode(kapuaSession));
+        Assert.assertEquals("Expected and actual values should be the same!", SCOPE_ID, decodedSession.getScopeId());
+        Assert.assertNull("Decoded session should not have a user id", decodedSession.getUserId());
+        Assert.assertFalse("Decoded session should not be trusted", decodedSession.isTrustedMode());
+    }
+
+    @Test
+    public void decodeReturnsNewInstancesTest() {
+        String token = KapuaSessionCodec.encode(new KapuaSession(null, SCOPE_ID, USER_ID));
+
+        Assert.assertNotSame("Each decode should return a new instance", KapuaSessionCodec.decode(token), KapuaSessionCodec.decode(token));
+    }
+
+    @Test
+    public void isTokenTest() {
+        Assert.assertFalse("Null should not be a token", KapuaSessionCodec.isToken(null));
+        Assert.assertFalse("Java serialized sessions should not be a token", KapuaSessionCodec.isToken("rO0ABXNyAC1vcmcuZWNsaXBzZS5rYXB1YQ=="));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeNullTokenTest() {
+        KapuaSessionCodec.decode(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeWrongVersionTokenTest() {
+        KapuaSessionCodec.decode("2:Kg:AR9xD9fL:t");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeMalformedTokenTest() {
+        KapuaSessionCodec.decode("1:Kg:t");
+    }
+}
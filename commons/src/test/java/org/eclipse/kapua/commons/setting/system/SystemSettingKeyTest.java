@@ -90,6 +90,7 @@ public class SystemSettingKeyTest {
         systemSettings.put(SystemSettingKey.SETTINGS_HOTSWAP, "commons.settings.hotswap");
         systemSettings.put(SystemSettingKey.CACHING_PROVIDER, "commons.cache.provider.classname");
         systemSettings.put(SystemSettingKey.TMETADATA_LOCAL_CACHE_SIZE_MAXIMUM, "commons.cache.local.tmetadata.maxsize");
+        systemSettings.put(SystemSettingKey.SESSION_TOKEN_LOCAL_CACHE_SIZE_MAXIMUM, "commons.cache.local.sessionToken.maxsize");
         systemSettings.put(SystemSettingKey.CACHE_CONFIG_URL, "commons.cache.config.url");
         systemSettings.put(SystemSettingKey.CACHE_TTL, "commons.cache.config.ttl");
         systemSettings.put(SystemSettingKey.JCACHE_EXPIRY_POLICY, "commons.cache.config.expiryPolicy");
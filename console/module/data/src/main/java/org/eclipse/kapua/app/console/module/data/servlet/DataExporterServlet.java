@@ -18,13 +18,11 @@ import org.eclipse.kapua.KapuaUnauthenticatedException;
 import org.eclipse.kapua.app.console.module.api.setting.ConsoleSetting;
 import org.eclipse.kapua.app.console.module.api.setting.ConsoleSettingKeys;
 import org.eclipse.kapua.app.console.module.api.shared.util.GwtKapuaCommonsModelConverter;
-import org.eclipse.kapua.app.console.module.data.shared.util.KapuaGwtDataModelConverter;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.service.datastore.MessageStoreFactory;
 import org.eclipse.kapua.service.datastore.MessageStoreService;
 import org.eclipse.kapua.service.datastore.internal.mediator.MessageField;
 import org.eclipse.kapua.service.datastore.model.DatastoreMessage;
-import org.eclipse.kapua.service.datastore.model.MessageListResult;
 import org.eclipse.kapua.service.datastore.model.query.MessageQuery;
 import org.eclipse.kapua.service.datastore.model.query.predicate.DatastorePredicateFactory;
 import org.eclipse.kapua.service.storable.model.query.SortDirection;
@@ -40,8 +38,11 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
 
 public class DataExporterServlet extends HttpServlet {
 
@@ -132,32 +133,24 @@ public class DataExporterServlet extends HttpServlet {
             }
 
             query.setPredicate(predicate);
-            MessageListResult result;
-            long totalCount = 0;
-            totalCount = KapuaGwtDataModelConverter.countEsDataCap10k(MESSAGE_STORE_SERVICE, query);
 
-            long totalOffset = 0;
-            query.setLimit(250);
+            // Messages are read in pages following the last one, so the export is not limited by the datastore max result window
             int maxRows = MAX_PAGE_SIZE * MAX_PAGES;
-
-            do {
-                int internalOffset = 0;
-                do {
-                    query.setOffset(internalOffset);
-                    result = MESSAGE_STORE_SERVICE.query(query);
-                    dataExporter.append(result.getItems());
-                    internalOffset += result.getSize();
-                } while (internalOffset < MAX_PAGE_SIZE && !result.isEmpty());
-                totalOffset += internalOffset;
-                if (!result.isEmpty()) {
-                    DatastoreMessage lastMessage = result.getItems().get(result.getSize() - 1);
-                    Date lastMessageDate = lastMessage.getTimestamp();
-                    predicate.getPredicates().remove(datePredicate);
-                    datePredicate = DATASTORE_PREDICATE_FACTORY.newRangePredicate(MessageField.TIMESTAMP, lastMessageDate, end);
-                    predicate.getPredicates().add(datePredicate);
+            query.setLimit(maxRows + 1);
+            Iterator<DatastoreMessage> messages = MESSAGE_STORE_SERVICE.iterate(query);
+
+            List<DatastoreMessage> messagesPage = new ArrayList<>(QUERY_PAGE);
+            int exportedRows = 0;
+            while (exportedRows < maxRows && messages.hasNext()) {
+                messagesPage.add(messages.next());
+                exportedRows++;
+                if (messagesPage.size() == QUERY_PAGE) {
+                    dataExporter.append(messagesPage);
+                    messagesPage.clear();
                 }
-            } while (totalOffset < Long.min(totalCount, maxRows));
-            if (totalOffset >= maxRows) {
+            }
+            dataExporter.append(messagesPage);
+            if (messages.hasNext()) {
                 dataExporter.append(MessageFormat.format("Warning! The query returned more than {0} results. Please refine the time range.", maxRows));
             }
             dataExporter.close();
@@ -55,7 +55,7 @@ public class SpringBridge {
         return KapuaLocator.getInstance().getComponent(DeviceLifeCycleService.class);
     }
 
-    @Bean
+    @Bean(destroyMethod = "close")
     JobDeviceManagementTriggerManagerService jobDeviceManagementTriggerManagerService() {
         return KapuaLocator.getInstance().getComponent(JobDeviceManagementTriggerManagerService.class);
     }
@@ -15,6 +15,9 @@ package org.eclipse.kapua.consumer.lifecycle.listener;
 import org.apache.camel.spi.UriEndpoint;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.consumer.lifecycle.MetricsLifecycle;
+import org.eclipse.kapua.consumer.lifecycle.setting.LifecycleSetting;
+import org.eclipse.kapua.consumer.lifecycle.setting.LifecycleSettingKey;
+import org.eclipse.kapua.message.KapuaMessage;
 import org.eclipse.kapua.message.device.lifecycle.KapuaAppsMessage;
 import org.eclipse.kapua.message.device.lifecycle.KapuaBirthMessage;
 import org.eclipse.kapua.message.device.lifecycle.KapuaDisconnectMessage;
@@ -26,6 +29,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Device messages listener (device life cycle).
@@ -33,96 +37,183 @@ import javax.inject.Inject;
  * Manage:<br>
  * - BIRTH/DC/LWT/APPS device messages<br>
  * Republish of the lifecycle messages (once processed by the broker) isn't supported yet (see #136).
+ * <p>
+ * When the device threads are enabled (thread count greater than 0) the messages are processed through a {@link DeviceOrderedExecutor},
+ * so the messages of the same device are applied one at a time and in the order they are received, while the consumer thread moves on to the next message.
+ * The broker delivers all the messages of a device to the same consumer (see the message group set by the broker plugin on the control messages),
+ * so they are received in the order they have been published.
+ * Each method returns a {@link CompletableFuture} completed once the message has been processed, so the message is acknowledged only afterwards.
  *
  * @since 1.0.0
  */
 @UriEndpoint(title = "device message processor", syntax = "bean:deviceMessageListener", scheme = "bean")
-public class DeviceMessageListener {
+public class DeviceMessageListener implements AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(DeviceMessageListener.class);
 
+    private static final int DEFAULT_DEVICE_THREADS = 5;
+
     private final DeviceLifeCycleService deviceLifeCycleService;
     private final JobDeviceManagementTriggerManagerService jobDeviceManagementTriggerManagerService;
 
     private final MetricsLifecycle metrics;
 
+    private final DeviceOrderedExecutor deviceOrderedExecutor;
+
+    /**
+     * Constructor.
+     * <p>
+     * The number of device threads is read from {@link LifecycleSettingKey#DEVICE_THREADS}.
+     *
+     * @param metricsLifecycle                         The {@link MetricsLifecycle}.
+     * @param deviceLifeCycleService                   The {@link DeviceLifeCycleService}.
+     * @param jobDeviceManagementTriggerManagerService The {@link JobDeviceManagementTriggerManagerService}.
+     * @param lifecycleSetting                         The {@link LifecycleSetting}.
+     * @since 2.1.0
+     */
     @Inject
-    public DeviceMessageListener(MetricsLifecycle metricsLifecycle, DeviceLifeCycleService deviceLifeCycleService, JobDeviceManagementTriggerManagerService jobDeviceManagementTriggerManagerService) {
+    public DeviceMessageListener(MetricsLifecycle metricsLifecycle, DeviceLifeCycleService deviceLifeCycleService, JobDeviceManagementTriggerManagerService jobDeviceManagementTriggerManagerService,
+            LifecycleSetting lifecycleSetting) {
+        this(metricsLifecycle, deviceLifeCycleService, jobDeviceManagementTriggerManagerService, lifecycleSetting.getInt(LifecycleSettingKey.DEVICE_THREADS, DEFAULT_DEVICE_THREADS));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param metricsLifecycle                         The {@link MetricsLifecycle}.
+     * @param deviceLifeCycleService                   The {@link DeviceLifeCycleService}.
+     * @param jobDeviceManagementTriggerManagerService The {@link JobDeviceManagementTriggerManagerService}.
+     * @param deviceThreads                            The number of threads processing the messages of the devices. If lower or equal to 0 the messages are processed by the consumer thread.
+     * @since 2.1.0
+     */
+    public DeviceMessageListener(MetricsLifecycle metricsLifecycle, DeviceLifeCycleService deviceLifeCycleService, JobDeviceManagementTriggerManagerService jobDeviceManagementTriggerManagerService, int deviceThreads) {
         this.metrics = metricsLifecycle;
         this.deviceLifeCycleService = deviceLifeCycleService;
         this.jobDeviceManagementTriggerManagerService = jobDeviceManagementTriggerManagerService;
+        this.deviceOrderedExecutor = deviceThreads > 0 ? new DeviceOrderedExecutor(deviceThreads) : null;
     }
 
     /**
      * Process a birth message.
+     * <p>
+     * The jobs triggered by the device connection may be started together with the ones of other devices connecting shortly after,
+     * so the returned {@link CompletableFuture} completes once they have been started, without holding any thread meanwhile.
      *
      * @param birthMessage The birth message to process.
+     * @return The {@link CompletableFuture} completed when the message has been processed and the jobs triggered by the device connection have been started.
      * @since 1.0.0
      */
-    public void processBirthMessage(CamelKapuaMessage<KapuaBirthMessage> birthMessage) {
-        try {
-            deviceLifeCycleService.birth(birthMessage.getConnectionId(), birthMessage.getMessage());
-            metrics.getDeviceBirthMessage().inc();
-        } catch (KapuaException e) {
-            metrics.getDeviceErrorMessage().inc();
-            LOG.error("Error while processing device birth life-cycle event", e);
-        }
-
-        //TODO EXT-CAMEL only for test remove when jobs will be defined in their own container
-        try {
-            KapuaBirthMessage kapuaBirthMessage = birthMessage.getMessage();
+    public CompletableFuture<Void> processBirthMessage(CamelKapuaMessage<KapuaBirthMessage> birthMessage) {
+        return process(birthMessage.getMessage(), () -> {
+            try {
+                deviceLifeCycleService.birth(birthMessage.getConnectionId(), birthMessage.getMessage());
+                metrics.getDeviceBirthMessage().inc();
+            } catch (KapuaException e) {
+                metrics.getDeviceErrorMessage().inc();
+                LOG.error("Error while processing device birth life-cycle event", e);
+            }
+        }).thenCompose(processed -> {
+            //TODO EXT-CAMEL only for test remove when jobs will be defined in their own container
+            // After the device task, since the jobs may be started together with the ones of other devices
+            try {
+                KapuaBirthMessage kapuaBirthMessage = birthMessage.getMessage();
 
-            jobDeviceManagementTriggerManagerService.processOnConnect(kapuaBirthMessage.getScopeId(), kapuaBirthMessage.getDeviceId());
-        } catch (Exception e) {
+                return jobDeviceManagementTriggerManagerService.processOnConnectAsync(kapuaBirthMessage.getScopeId(), kapuaBirthMessage.getDeviceId());
+            } catch (Exception e) {
+                LOG.error("Error while processing device birth to trigger jobs", e);
+                return CompletableFuture.completedFuture(null);
+            }
+        }).exceptionally(e -> {
             LOG.error("Error while processing device birth to trigger jobs", e);
-        }
+            return null;
+        });
     }
 
     /**
      * Process a disconnect message.
      *
      * @param disconnectMessage The disconnect message to process.
+     * @return The {@link CompletableFuture} completed when the message has been processed.
      * @since 1.0.0
      */
-    public void processDisconnectMessage(CamelKapuaMessage<KapuaDisconnectMessage> disconnectMessage) {
-        try {
-            deviceLifeCycleService.death(disconnectMessage.getConnectionId(), disconnectMessage.getMessage());
-            metrics.getDeviceDisconnectMessage().inc();
-        } catch (KapuaException e) {
-            metrics.getDeviceErrorMessage().inc();
-            LOG.error("Error while processing device disconnect life-cycle event", e);
-        }
+    public CompletableFuture<Void> processDisconnectMessage(CamelKapuaMessage<KapuaDisconnectMessage> disconnectMessage) {
+        return process(disconnectMessage.getMessage(), () -> {
+            try {
+                deviceLifeCycleService.death(disconnectMessage.getConnectionId(), disconnectMessage.getMessage());
+                metrics.getDeviceDisconnectMessage().inc();
+            } catch (KapuaException e) {
+                metrics.getDeviceErrorMessage().inc();
+                LOG.error("Error while processing device disconnect life-cycle event", e);
+            }
+        });
     }
 
     /**
      * Process an application message.
      *
      * @param appsMessage The apps message to process.
+     * @return The {@link CompletableFuture} completed when the message has been processed.
      * @since 1.0.0
      */
-    public void processAppsMessage(CamelKapuaMessage<KapuaAppsMessage> appsMessage) {
-        try {
-            deviceLifeCycleService.applications(appsMessage.getConnectionId(), appsMessage.getMessage());
-            metrics.getDeviceAppsMessage().inc();
-        } catch (KapuaException e) {
-            metrics.getDeviceErrorMessage().inc();
-            LOG.error("Error while processing device apps life-cycle event", e);
-        }
+    public CompletableFuture<Void> processAppsMessage(CamelKapuaMessage<KapuaAppsMessage> appsMessage) {
+        return process(appsMessage.getMessage(), () -> {
+            try {
+                deviceLifeCycleService.applications(appsMessage.getConnectionId(), appsMessage.getMessage());
+                metrics.getDeviceAppsMessage().inc();
+            } catch (KapuaException e) {
+                metrics.getDeviceErrorMessage().inc();
+                LOG.error("Error while processing device apps life-cycle event", e);
+            }
+        });
     }
 
     /**
      * Process a missing message.
      *
      * @param missingMessage The missing message to process.
+     * @return The {@link CompletableFuture} completed when the message has been processed.
      * @since 1.0.0
      */
-    public void processMissingMessage(CamelKapuaMessage<KapuaMissingMessage> missingMessage) {
-        try {
-            deviceLifeCycleService.missing(missingMessage.getConnectionId(), missingMessage.getMessage());
-            metrics.getDeviceMissingMessage().inc();
-        } catch (KapuaException e) {
-            metrics.getDeviceErrorMessage().inc();
-            LOG.error("Error while processing device missing life-cycle event", e);
+    public CompletableFuture<Void> processMissingMessage(CamelKapuaMessage<KapuaMissingMessage> missingMessage) {
+        return process(missingMessage.getMessage(), () -> {
+            try {
+                deviceLifeCycleService.missing(missingMessage.getConnectionId(), missingMessage.getMessage());
+                metrics.getDeviceMissingMessage().inc();
+            } catch (KapuaException e) {
+                metrics.getDeviceErrorMessage().inc();
+                LOG.error("Error while processing device missing life-cycle event", e);
+            }
+        });
+    }
+
+    /**
+     * Processes the message of a device, after the previous messages of the same device if the device threads are enabled.
+     * <p>
+     * The processing of the message handles its own failures, a failure to hand it off is logged and the message is not processed.
+     *
+     * @param message   The {@link KapuaMessage} to process.
+     * @param processor The processing of the message.
+     * @return The {@link CompletableFuture} completed when the message has been processed.
+     * @since 2.1.0
+     */
+    private CompletableFuture<Void> process(KapuaMessage<?, ?> message, Runnable processor) {
+        if (deviceOrderedExecutor == null) {
+            processor.run();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return deviceOrderedExecutor.submit(message.getScopeId(), message.getClientId(), processor)
+                .exceptionally(e -> {
+                    metrics.getDeviceErrorMessage().inc();
+                    LOG.error("Error while processing the life-cycle message of device: {}", message.getClientId(), e);
+                    return null;
+                });
+    }
+
+    @Override
+    public void close() {
+        if (deviceOrderedExecutor != null) {
+            deviceOrderedExecutor.close();
         }
     }
 }
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.consumer.lifecycle.listener;
+
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.commons.security.KapuaSession;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor which runs the tasks of the same device one at a time, in the order they are submitted, without blocking the submitting thread.
+ * <p>
+ * The tasks of each device are chained to the last pending task of the same device, and run on a shared pool of threads,
+ * so tasks of different devices run in parallel and never wait for each other, up to the number of threads.
+ * This prevents concurrent updates of the same device, which would otherwise fail with an optimistic locking error and be retried.
+ * A failure of a task does not prevent the execution of the following tasks of the same device.
+ * <p>
+ * The tasks are ordered by submission: the broker delivers the messages of a device to a single consumer, through the message group set on them,
+ * so the consumer submits them in the order they have been published.
+ * <p>
+ * The {@link KapuaSession} of the submitting thread is bound to the executing thread for the duration of the task.
+ *
+ * @since 2.1.0
+ */
+public class DeviceOrderedExecutor implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeviceOrderedExecutor.class);
+
+    private static final long SHUTDOWN_TIMEOUT = 30;
+
+    private final ExecutorService executor;
+
+    /**
+     * The last pending task of each device. Devices with no pending task are removed.
+     *
+     * @since 2.1.0
+     */
+    private final Map<DeviceKey, CompletableFuture<Void>> lastTasks = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param threadCount The number of threads, which is the maximum number of devices processed in parallel.
+     * @since 2.1.0
+     */
+    public DeviceOrderedExecutor(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("The thread count must be greater than 0");
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "lifecycle-device-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submits the task of the given device, to be run after the tasks of the same device submitted before.
+     *
+     * @param scopeId  The {@link KapuaId} of the scope of the device.
+     * @param clientId The client id of the device.
+     * @param task     The task to execute.
+     * @return The {@link CompletableFuture} completed when the task has been executed, or completed exceptionally if the task fails.
+     * @since 2.1.0
+     */
+    public CompletableFuture<Void> submit(KapuaId scopeId, String clientId, Runnable task) {
+        final KapuaSession session = KapuaSecurityUtils.getSession();
+        final Runnable sessionTask = () -> {
+            KapuaSecurityUtils.setSession(session);
+            try {
+                task.run();
+            } finally {
+                KapuaSecurityUtils.clearSession();
+            }
+        };
+
+        DeviceKey deviceKey = new DeviceKey(scopeId, clientId);
+        CompletableFuture<Void> submittedTask = lastTasks.compute(deviceKey, (key, lastTask) ->
+                lastTask == null ?
+                        CompletableFuture.runAsync(sessionTask, executor) :
+                        // run also if the previous task failed
+                        lastTask.handle((result, failure) -> null).thenRunAsync(sessionTask, executor));
+        return submittedTask.whenComplete((result, failure) -> lastTasks.remove(deviceKey, submittedTask));
+    }
+
+    /**
+     * Gets the number of devices with pending tasks.
+     *
+     * @return The number of devices with pending tasks.
+     * @since 2.1.0
+     */
+    int getPendingDeviceCount() {
+        return lastTasks.size();
+    }
+
+    /**
+     * Stops accepting tasks and waits for the pending ones to be executed.
+     *
+     * @since 2.1.0
+     */
+    @Override
+    public void close() {
+        LOG.info("Shutting down the device executor with {} devices with pending tasks", lastTasks.size());
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                LOG.warn("Timed out while waiting the pending tasks of the device executor");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The key of a device: its scope id and client id.
+     *
+     * @since 2.1.0
+     */
+    private static final class DeviceKey {
+
+        private final KapuaId scopeId;
+        private final String clientId;
+
+        private DeviceKey(KapuaId scopeId, String clientId) {
+            this.scopeId = scopeId;
+            this.clientId = clientId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            DeviceKey that = (DeviceKey) o;
+            return Objects.equals(scopeId, that.scopeId) &&
+                    Objects.equals(clientId, that.clientId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scopeId, clientId);
+        }
+    }
+}
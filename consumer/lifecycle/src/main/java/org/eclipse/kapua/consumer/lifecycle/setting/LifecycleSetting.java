@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.consumer.lifecycle.setting;
+
+import org.eclipse.kapua.commons.setting.AbstractKapuaSetting;
+
+import javax.inject.Inject;
+
+/**
+ * Class that offers access to the life cycle consumer settings.
+ *
+ * @since 2.1.0
+ */
+public class LifecycleSetting extends AbstractKapuaSetting<LifecycleSettingKey> {
+
+    /**
+     * Resource file from which source properties.
+     */
+    private static final String LIFECYCLE_SETTING_RESOURCE = "consumer-lifecycle-setting.properties";
+
+    /**
+     * Constructor
+     */
+    @Inject
+    public LifecycleSetting() {
+        super(LIFECYCLE_SETTING_RESOURCE);
+    }
+
+}
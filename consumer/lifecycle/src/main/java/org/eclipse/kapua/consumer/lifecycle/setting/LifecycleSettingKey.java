@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.consumer.lifecycle.setting;
+
+import org.eclipse.kapua.commons.setting.SettingKey;
+
+/**
+ * Life cycle consumer {@link SettingKey}s for {@link LifecycleSetting}.
+ *
+ * @since 2.1.0
+ */
+public enum LifecycleSettingKey implements SettingKey {
+
+    /**
+     * Number of threads which process the life cycle messages of the devices, in order for each device. If lower or equal to 0 the messages are processed by the consumer threads.
+     *
+     * @since 2.1.0
+     */
+    DEVICE_THREADS("consumer.lifecycle.device.threads"),
+    ;
+
+    private final String key;
+
+    /**
+     * Constructor.
+     *
+     * @param key The value of the {@link LifecycleSettingKey}.
+     * @since 2.1.0
+     */
+    LifecycleSettingKey(String key) {
+        this.key = key;
+    }
+
+    @Override
+    public String key() {
+        return key;
+    }
+}
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.consumer.lifecycle.listener;
+
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Category(JUnitTests.class)
+public class DeviceOrderedExecutorTest {
+
+    private static final KapuaId SCOPE_ID = KapuaId.ONE;
+
+    private DeviceOrderedExecutor deviceOrderedExecutor;
+
+    @Before
+    public void initialize() {
+        deviceOrderedExecutor = new DeviceOrderedExecutor(4);
+    }
+
+    @After
+    public void tearDown() {
+        deviceOrderedExecutor.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorZeroThreadsTest() {
+        new DeviceOrderedExecutor(0);
+    }
+
+    @Test
+    public void sameDeviceInOrderTest() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            final int index = i;
+            tasks.add(deviceOrderedExecutor.submit(SCOPE_ID, "device", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                executed.add(index);
+                running.decrementAndGet();
+            }));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals("Expected and actual values should be the same!", 1, maxRunning.get());
+        for (int i = 0; i < 16; i++) {
+            Assert.assertEquals("Expected and actual values should be the same!", i, executed.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void submitNotBlockingTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        // the submitting thread does not wait for the tasks of the device
+        CompletableFuture<Void> blocked = deviceOrderedExecutor.submit(SCOPE_ID, "device", () -> await(release));
+        CompletableFuture<Void> next = deviceOrderedExecutor.submit(SCOPE_ID, "device", () -> { });
+        Assert.assertFalse("The task should not be completed!", blocked.isDone());
+        Assert.assertFalse("The task should wait for the previous task of the device!", next.isDone());
+
+        release.countDown();
+        next.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void differentDevicesConcurrentTest() throws Exception {
+        // the first device waits for the second one, which would never run if they were serialized
+        CountDownLatch otherDone = new CountDownLatch(1);
+        CompletableFuture<Void> waiting = deviceOrderedExecutor.submit(SCOPE_ID, "device", () -> await(otherDone));
+        deviceOrderedExecutor.submit(SCOPE_ID, "other-device", otherDone::countDown).get(10, TimeUnit.SECONDS);
+
+        waiting.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void submitFailureTest() throws Exception {
+        IllegalStateException failure = new IllegalStateException("failure");
+        CompletableFuture<Void> failed = deviceOrderedExecutor.submit(SCOPE_ID, "device", () -> {
+            throw failure;
+        });
+        AtomicInteger executed = new AtomicInteger();
+        CompletableFuture<Void> next = deviceOrderedExecutor.submit(SCOPE_ID, "device", executed::incrementAndGet);
+
+        try {
+            failed.get(10, TimeUnit.SECONDS);
+            Assert.fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            Assert.assertEquals("Expected and actual values should be the same!", failure, e.getCause());
+        }
+        // the following task of the device is executed anyway
+        next.get(10, TimeUnit.SECONDS);
+        Assert.assertEquals("Expected and actual values should be the same!", 1, executed.get());
+    }
+
+    @Test
+    public void pendingDevicesRemovedTest() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            deviceOrderedExecutor.submit(SCOPE_ID, "device-" + i, () -> { }).get(10, TimeUnit.SECONDS);
+        }
+
+        Assert.assertEquals("Expected and actual values should be the same!", 0, deviceOrderedExecutor.getPendingDeviceCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -13,6 +13,7 @@
 package org.eclipse.kapua.consumer.telemetry;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
 import org.eclipse.kapua.commons.metric.MetricsLabel;
 import org.eclipse.kapua.commons.metric.MetricsService;
 
@@ -24,16 +25,23 @@ public class MetricsTelemetry {
 
     public static final String CONSUMER_TELEMETRY = "consumer_telemetry";
     private static final String CONVERTER = "converter";
+    private static final String BULK_STORE = "bulk_store";
 
     private Counter converterDataMessage;
+    private Histogram bulkStoreSize;
 
     @Inject
     public MetricsTelemetry(MetricsService metricsService) {
         converterDataMessage = metricsService.getCounter(CONSUMER_TELEMETRY, CONVERTER, MetricsLabel.MESSAGE_DATA);
+        bulkStoreSize = metricsService.getHistogram(CONSUMER_TELEMETRY, BULK_STORE, MetricsLabel.SIZE);
     }
 
     public Counter getConverterDataMessage() {
         return converterDataMessage;
     }
 
+    public Histogram getBulkStoreSize() {
+        return bulkStoreSize;
+    }
+
 }
\ No newline at end of file
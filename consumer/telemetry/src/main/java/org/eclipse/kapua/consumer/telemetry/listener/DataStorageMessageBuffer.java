@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.consumer.telemetry.listener;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.consumer.telemetry.MetricsTelemetry;
+import org.eclipse.kapua.message.KapuaMessage;
+import org.eclipse.kapua.message.KapuaPayload;
+import org.eclipse.kapua.service.datastore.MessageStoreService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffer of data messages to be stored with a single bulk request.
+ * <p>
+ * Messages are accumulated until the maximum number of messages or the maximum estimated size is reached,
+ * or until the first buffered message has waited for the maximum linger time.
+ * Each message is completed independently with the outcome of its own item in the bulk request.
+ * The bulk request is performed asynchronously, so neither the flushing thread nor the linger timer wait for its round trip.
+ * <p>
+ * The callers are not expected to wait for their messages, so the size of the bulk requests does not depend on the number of calling threads.
+ * The number of messages which are buffered or being stored is bounded instead: when the bound is reached {@link #add(String, KapuaMessage)}
+ * blocks until some message is completed, slowing down the consumption from the broker.
+ * <p>
+ * Once closed the buffer does not accept new messages, and {@link #close()} waits for the messages already added to be stored.
+ * <p>
+ * Access to the datastore must be checked by the caller before adding a message, since the bulk request is performed with privileges.
+ *
+ * @since 2.1.0
+ */
+public class DataStorageMessageBuffer implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataStorageMessageBuffer.class);
+
+    private static final long CLOSE_TIMEOUT = 30;
+
+    private final MessageStoreService messageStoreService;
+    private final MetricsTelemetry metrics;
+
+    private final int maxMessages;
+    private final long maxBytes;
+    private final long maxLingerTime;
+
+    private final int maxPendingPermits;
+    private final Semaphore pendingPermits;
+    private final ScheduledExecutorService lingerTimer;
+
+    private final Object lock = new Object();
+    private List<PendingMessage> pendingMessages = new ArrayList<>();
+    private long pendingBytes;
+    private long pendingGeneration;
+    private ScheduledFuture<?> pendingLinger;
+    private boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param messageStoreService The {@link MessageStoreService} used to store the messages.
+     * @param metrics             The {@link MetricsTelemetry}.
+     * @param maxMessages         The maximum number of messages of a bulk request.
+     * @param maxBytes            The maximum estimated size in bytes of a bulk request.
+     * @param maxLingerTime       The maximum time in milliseconds a message waits for the bulk request to be filled.
+     * @param maxPendingMessages  The maximum number of messages which are buffered or being stored, at least the maximum number of messages of a bulk request.
+     * @since 2.1.0
+     */
+    public DataStorageMessageBuffer(MessageStoreService messageStoreService, MetricsTelemetry metrics, int maxMessages, long maxBytes, long maxLingerTime, int maxPendingMessages) {
+        this.messageStoreService = messageStoreService;
+        this.metrics = metrics;
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.maxLingerTime = maxLingerTime;
+        this.maxPendingPermits = Math.max(maxMessages, maxPendingMessages);
+        this.pendingPermits = new Semaphore(maxPendingPermits);
+
+        this.lingerTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "telemetry-bulk-linger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds a message to the buffer.
+     * <p>
+     * If the message fills the buffer, the bulk request is sent by the calling thread.
+     * If the maximum number of pending messages has been reached, the calling thread waits until a pending message is completed.
+     *
+     * @param datastoreId The datastore id to assign to the message.
+     * @param message     The {@link KapuaMessage} to store.
+     * @return The {@link CompletableFuture} completed once the message has been stored, or exceptionally with the {@link KapuaException} that prevented its storage.
+     * @throws InterruptedException if interrupted while waiting for a pending message to complete.
+     * @throws IllegalStateException if the buffer has been closed.
+     * @since 2.1.0
+     */
+    public CompletableFuture<Void> add(String datastoreId, KapuaMessage<?, ?> message) throws InterruptedException {
+        pendingPermits.acquire();
+        CompletableFuture<Void> stored = new CompletableFuture<>();
+
+        List<PendingMessage> bulk = null;
+        synchronized (lock) {
+            if (closed) {
+                pendingPermits.release();
+                throw new IllegalStateException("The bulk request buffer has been closed");
+            }
+            stored.whenComplete((result, throwable) -> pendingPermits.release());
+            pendingMessages.add(new PendingMessage(datastoreId, message, stored));
+            pendingBytes += estimateSize(message);
+
+            if (pendingMessages.size() >= maxMessages || pendingBytes >= maxBytes) {
+                bulk = takePendingMessages();
+            } else if (pendingLinger == null) {
+                final long generation = pendingGeneration;
+                pendingLinger = lingerTimer.schedule(() -> flushLingering(generation), maxLingerTime, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (bulk != null) {
+            flush(bulk);
+        }
+        return stored;
+    }
+
+    /**
+     * Stops accepting messages, stores all the buffered messages and waits for all the bulk requests in flight to complete, then stops the linger timer.
+     *
+     * @since 2.1.0
+     */
+    @Override
+    public void close() {
+        List<PendingMessage> bulk;
+        synchronized (lock) {
+            closed = true;
+            bulk = takePendingMessages();
+        }
+        flush(bulk);
+
+        // Each message holds a permit until it is completed, so all the permits are available once every bulk request is done
+        try {
+            if (!pendingPermits.tryAcquire(maxPendingPermits, CLOSE_TIMEOUT, TimeUnit.SECONDS)) {
+                LOG.warn("Bulk requests still in flight after {} seconds, closing anyway", CLOSE_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        lingerTimer.shutdownNow();
+    }
+
+    private void flushLingering(long generation) {
+        List<PendingMessage> bulk;
+        synchronized (lock) {
+            if (generation != pendingGeneration) {
+                // Already flushed because the buffer was filled
+                return;
+            }
+            bulk = takePendingMessages();
+        }
+        flush(bulk);
+    }
+
+    /**
+     * Takes the buffered messages, resetting the buffer.
+     * <p>
+     * Must be invoked holding the lock.
+     *
+     * @return The buffered messages.
+     * @since 2.1.0
+     */
+    private List<PendingMessage> takePendingMessages() {
+        List<PendingMessage> bulk = pendingMessages;
+
+        pendingMessages = new ArrayList<>();
+        pendingBytes = 0;
+        pendingGeneration++;
+        if (pendingLinger != null) {
+            pendingLinger.cancel(false);
+            pendingLinger = null;
+        }
+        return bulk;
+    }
+
+    private void flush(List<PendingMessage> bulk) {
+        if (bulk.isEmpty()) {
+            return;
+        }
+
+        List<KapuaMessage<?, ?>> messages = new ArrayList<>(bulk.size());
+        List<String> datastoreIds = new ArrayList<>(bulk.size());
+        for (PendingMessage pendingMessage : bulk) {
+            messages.add(pendingMessage.message);
+            datastoreIds.add(pendingMessage.datastoreId);
+        }
+        metrics.getBulkStoreSize().update(messages.size());
+        LOG.debug("Storing {} data messages with a bulk request", messages.size());
+
+        CompletableFuture<List<KapuaException>> outcomes;
+        try {
+            outcomes = KapuaSecurityUtils.doPrivileged(() -> messageStoreService.storeAsync(messages, datastoreIds));
+        } catch (Exception e) {
+            outcomes = new CompletableFuture<>();
+            outcomes.completeExceptionally(e);
+        }
+
+        outcomes.whenComplete((bulkOutcomes, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                LOG.warn("Error storing {} data messages with a bulk request: {}", messages.size(), cause.getMessage());
+                bulk.forEach(pendingMessage -> pendingMessage.stored.completeExceptionally(cause));
+                return;
+            }
+
+            // The outcomes are in the same order of the messages of the bulk request
+            for (int i = 0; i < bulk.size(); i++) {
+                KapuaException failure = bulkOutcomes.get(i);
+                if (failure != null) {
+                    bulk.get(i).stored.completeExceptionally(failure);
+                } else {
+                    bulk.get(i).stored.complete(null);
+                }
+            }
+        });
+    }
+
+    /**
+     * Estimates the size of the stored document of the given {@link KapuaMessage} from its {@link KapuaPayload}.
+     *
+     * @param message The {@link KapuaMessage} to estimate.
+     * @return The estimated size in bytes.
+     * @since 2.1.0
+     */
+    private static long estimateSize(KapuaMessage<?, ?> message) {
+        KapuaPayload payload = message.getPayload();
+        if (payload == null) {
+            return 0;
+        }
+
+        long size = payload.hasBody() ? payload.getBody().length : 0;
+        if (payload.getMetrics() != null) {
+            for (Map.Entry<String, Object> metric : payload.getMetrics().entrySet()) {
+                Object value = metric.getValue();
+                size += metric.getKey().length();
+                if (value instanceof String) {
+                    size += ((String) value).length();
+                } else if (value instanceof byte[]) {
+                    size += ((byte[]) value).length;
+                } else {
+                    size += Long.BYTES;
+                }
+            }
+        }
+        return size;
+    }
+
+    private static class PendingMessage {
+
+        private final String datastoreId;
+        private final KapuaMessage<?, ?> message;
+        private final CompletableFuture<Void> stored;
+
+        private PendingMessage(String datastoreId, KapuaMessage<?, ?> message, CompletableFuture<Void> stored) {
+            this.datastoreId = datastoreId;
+            this.message = message;
+            this.stored = stored;
+        }
+    }
+}
@@ -15,9 +15,14 @@ package org.eclipse.kapua.consumer.telemetry.listener;
 
 import org.apache.camel.spi.UriEndpoint;
 import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.model.domains.Domains;
+import org.eclipse.kapua.consumer.telemetry.MetricsTelemetry;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.message.device.data.KapuaDataMessage;
+import org.eclipse.kapua.model.domain.Actions;
 import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.authorization.AuthorizationService;
+import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
 import org.eclipse.kapua.service.camel.message.CamelKapuaMessage;
 import org.eclipse.kapua.service.datastore.MessageStoreService;
 import org.eclipse.kapua.service.datastore.internal.MetricsDatastore;
@@ -27,14 +32,23 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Data storage message listener
+ * <p>
+ * When bulk storing is enabled (maximum bulk messages greater than 1) data messages are stored through a {@link DataStorageMessageBuffer}.
+ * The processing thread does not wait for the bulk request: {@link #processMessage(CamelKapuaMessage)} returns a {@link CompletableFuture}
+ * and the route continues asynchronously when the message has been stored, so the number of messages in a bulk request does not depend
+ * on the number of concurrent consumers of the route. The messages which cannot be stored are still handled by the error handler of the route.
+ * The route acknowledges the message to the broker only when the returned {@link CompletableFuture} is completed, so the buffered messages
+ * are redelivered if the consumer stops before storing them.
  *
  * @since 1.0
  */
 @UriEndpoint(title = "Data storage message processor", syntax = "bean:dataMessageProcessor", scheme = "bean")
-public class DataStorageMessageProcessor {
+public class DataStorageMessageProcessor implements AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(DataStorageMessageProcessor.class);
 
@@ -42,28 +56,71 @@ public class DataStorageMessageProcessor {
 
     private final DeviceAssetStoreService deviceAssetStoreService = KapuaLocator.getInstance().getService(DeviceAssetStoreService.class);
 
+    private final AuthorizationService authorizationService = KapuaLocator.getInstance().getService(AuthorizationService.class);
+
+    private final PermissionFactory permissionFactory = KapuaLocator.getInstance().getFactory(PermissionFactory.class);
+
     private MetricsDatastore metrics;
 
+    private final DataStorageMessageBuffer messageBuffer;
+
     @Inject
     public DataStorageMessageProcessor(MetricsDatastore metricsDatastore) {
         metrics = metricsDatastore;
+        messageBuffer = null;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param metricsDatastore The {@link MetricsDatastore}.
+     * @param metricsTelemetry The {@link MetricsTelemetry}.
+     * @param bulkMaxMessages  The maximum number of messages of a bulk request. Bulk storing is disabled if lower or equal to 1.
+     * @param bulkMaxBytes     The maximum estimated size in bytes of a bulk request.
+     * @param bulkMaxLingerTime The maximum time in milliseconds a message waits for the bulk request to be filled.
+     * @param bulkMaxPendingMessages The maximum number of messages which are waiting for a bulk request to complete.
+     * @since 2.1.0
+     */
+    public DataStorageMessageProcessor(MetricsDatastore metricsDatastore, MetricsTelemetry metricsTelemetry, int bulkMaxMessages, long bulkMaxBytes, long bulkMaxLingerTime, int bulkMaxPendingMessages) {
+        metrics = metricsDatastore;
+        messageBuffer = bulkMaxMessages > 1 ?
+                new DataStorageMessageBuffer(messageStoreService, metricsTelemetry, bulkMaxMessages, bulkMaxBytes, bulkMaxLingerTime, bulkMaxPendingMessages) :
+                null;
     }
 
     /**
      * Process a data message.
+     * <p>
+     * The returned {@link CompletableFuture} is already completed unless bulk storing is enabled.
      *
+     * @return The {@link CompletableFuture} completed once the message has been processed.
      * @throws KapuaException
      */
-    public void processMessage(CamelKapuaMessage<?> message) throws KapuaException {
+    public CompletableFuture<Void> processMessage(CamelKapuaMessage<?> message) throws KapuaException {
         // data messages
         LOG.debug("Received data message from device channel: client id '{}' - {}", message.getMessage().getClientId(), message.getMessage().getChannel());
+        if (messageBuffer != null) {
+            return storeBulk(message);
+        }
+
         try {
             messageStoreService.store(message.getMessage(), message.getDatastoreId());
         } catch (DatastoreCommunicationException e) {
             message.setDatastoreId(e.getUuid());
             throw e;
         }
+        storeAssetValues(message);
+        return CompletableFuture.completedFuture(null);
+    }
 
+    /**
+     * Updates the asset values in the {@link DeviceAssetStoreService} if the message is an asset message.
+     *
+     * @param message The {@link CamelKapuaMessage} to process.
+     * @throws KapuaException if the asset values cannot be stored.
+     * @since 2.1.0
+     */
+    private void storeAssetValues(CamelKapuaMessage<?> message) throws KapuaException {
         // Update asset values in AssetStoreService
         if (message.getMessage().getChannel().toString().startsWith("W1/A1")) {
             KapuaId scopeId = message.getMessage().getScopeId();
@@ -76,4 +133,55 @@ public class DataStorageMessageProcessor {
         }
     }
 
+    /**
+     * Stores the data message through the {@link DataStorageMessageBuffer}, without waiting for the bulk request to complete.
+     * <p>
+     * The asset values are updated before adding the message to the buffer, while the Kapua session of the message is still bound to the processing thread.
+     *
+     * @param message The {@link CamelKapuaMessage} to store.
+     * @return The {@link CompletableFuture} completed once the message has been stored, or exceptionally with the {@link KapuaException} that prevented its storage.
+     * @throws KapuaException if the message cannot be added to the buffer.
+     * @since 2.1.0
+     */
+    private CompletableFuture<Void> storeBulk(CamelKapuaMessage<?> message) throws KapuaException {
+        // The bulk request is performed with privileges on behalf of many sessions, so the access is checked here with the session of the message
+        authorizationService.checkPermission(permissionFactory.newPermission(Domains.DATASTORE, Actions.write, message.getMessage().getScopeId()));
+        storeAssetValues(message);
+
+        CompletableFuture<Void> stored;
+        try {
+            stored = messageBuffer.add(message.getDatastoreId(), message.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw KapuaException.internalError(e, "Interrupted while waiting to add the message to the bulk request");
+        }
+
+        CompletableFuture<Void> processed = new CompletableFuture<>();
+        stored.whenComplete((result, throwable) -> {
+            if (throwable == null) {
+                processed.complete(null);
+                return;
+            }
+
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+            if (cause instanceof DatastoreCommunicationException) {
+                message.setDatastoreId(((DatastoreCommunicationException) cause).getUuid());
+            }
+            processed.completeExceptionally(cause instanceof KapuaException ? cause : KapuaException.internalError(cause, "Error while storing the message with a bulk request"));
+        });
+        return processed;
+    }
+
+    /**
+     * Stores the buffered messages, if bulk storing is enabled.
+     *
+     * @since 2.1.0
+     */
+    @Override
+    public void close() {
+        if (messageBuffer != null) {
+            messageBuffer.close();
+        }
+    }
+
 }
@@ -13,8 +13,12 @@
 package org.eclipse.kapua.job.engine.commons.operation;
 
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.batch.api.chunk.AbstractItemReader;
 import javax.batch.runtime.context.JobContext;
@@ -28,18 +32,22 @@ import org.eclipse.kapua.job.engine.commons.logger.JobLogger;
 import org.eclipse.kapua.job.engine.commons.wrappers.JobContextWrapper;
 import org.eclipse.kapua.job.engine.commons.wrappers.JobTargetWrapper;
 import org.eclipse.kapua.job.engine.commons.wrappers.StepContextWrapper;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.id.KapuaIdFactory;
 import org.eclipse.kapua.model.query.KapuaQuery;
+import org.eclipse.kapua.model.query.SortOrder;
 import org.eclipse.kapua.model.query.predicate.AndPredicate;
 import org.eclipse.kapua.model.query.predicate.AttributePredicate;
 import org.eclipse.kapua.service.device.registry.Device;
+import org.eclipse.kapua.service.device.registry.DeviceAttributes;
+import org.eclipse.kapua.service.device.registry.DeviceFactory;
+import org.eclipse.kapua.service.device.registry.DeviceQuery;
 import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
 import org.eclipse.kapua.service.job.operation.TargetReader;
 import org.eclipse.kapua.service.job.step.JobStepIndex;
 import org.eclipse.kapua.service.job.targets.JobTarget;
 import org.eclipse.kapua.service.job.targets.JobTargetAttributes;
 import org.eclipse.kapua.service.job.targets.JobTargetFactory;
-import org.eclipse.kapua.service.job.targets.JobTargetListResult;
 import org.eclipse.kapua.service.job.targets.JobTargetQuery;
 import org.eclipse.kapua.service.job.targets.JobTargetService;
 import org.eclipse.kapua.service.job.targets.JobTargetStatus;
@@ -57,9 +65,18 @@ public class DefaultTargetReader extends AbstractItemReader implements TargetRea
 
     private static final Logger LOG = LoggerFactory.getLogger(DefaultTargetReader.class);
 
+    /**
+     * The default number of {@link JobTarget}s loaded for each page.
+     *
+     * @since 2.1.0
+     */
+    protected static final int DEFAULT_TARGET_PAGE_SIZE = 500;
+
     @Inject
     private DeviceRegistryService deviceRegistryService;
     @Inject
+    private DeviceFactory deviceFactory;
+    @Inject
     private JobTargetFactory jobTargetFactory;
     @Inject
     private JobTargetService jobTargetService;
@@ -72,13 +89,23 @@ public class DefaultTargetReader extends AbstractItemReader implements TargetRea
     @Inject
     private XmlUtil xmlUtil;
 
-    protected List<JobTargetWrapper> wrappedJobTargets = new ArrayList<>();
-    protected int jobTargetIndex;
+    protected JobContextWrapper jobContextWrapper;
+    protected StepContextWrapper stepContextWrapper;
+    protected KapuaId lastReadJobTargetId;
+
+    private final Deque<JobTarget> currentPage = new ArrayDeque<>();
+    private final Map<KapuaId, String> currentPageDisplayNames = new HashMap<>();
+    private KapuaId pageCursorJobTargetId;
+    private boolean lastPageLoaded;
+    private KapuaId resumeJobTargetId;
+    private boolean wrappedAround;
+    private Integer partitionIndex;
+    private Integer partitionCount;
 
     @Override
-    public void open(Serializable arg0) throws Exception {
-        JobContextWrapper jobContextWrapper = new JobContextWrapper(jobContext, xmlUtil);
-        StepContextWrapper stepContextWrapper = new StepContextWrapper(kapuaIdFactory, stepContext, xmlUtil);
+    public void open(Serializable checkpoint) throws Exception {
+        jobContextWrapper = new JobContextWrapper(jobContext, xmlUtil);
+        stepContextWrapper = new StepContextWrapper(kapuaIdFactory, stepContext, xmlUtil);
 
         JobLogger jobLogger = jobContextWrapper.getJobLogger();
         jobLogger.setClassLog(LOG);
@@ -87,6 +114,111 @@ public class DefaultTargetReader extends AbstractItemReader implements TargetRea
         String stepName = stepContextWrapper.getKapuaStepName();
 
         jobLogger.info("Reading target chunk. Step:{} (index:{})...", stepName, stepIndex);
+        // The targets of the partition, if running in a partition, are selected by the queries of the pages
+        partitionIndex = stepContextWrapper.getPartitionIndex();
+        partitionCount = stepContextWrapper.getPartitionCount();
+        if (partitionIndex == null || partitionCount == null) {
+            partitionIndex = null;
+            partitionCount = null;
+        }
+        // Resume after the last checkpoint, leaving the JobTargets before it at the end
+        resumeFromCheckpoint(checkpoint);
+
+        if (partitionIndex != null) {
+            jobLogger.info("Reading target chunk. Step:{} (index:{}) - Partition:{} of {}", stepName, stepIndex, partitionIndex + 1, partitionCount);
+        }
+        jobLogger.info("Reading target chunk. Step:{} (index:{})...DONE", stepName, stepIndex);
+    }
+
+    /**
+     * Reads the next {@link JobTarget}.
+     * <p>
+     * The {@link JobTarget}s are loaded in pages of {@link #getTargetPageSize()} ordered by {@link JobTarget#getId()},
+     * using the last loaded {@link JobTarget#getId()} as lower bound of the next page instead of an offset.
+     * The returned {@link JobTargetWrapper} wraps the loaded {@link JobTarget}, which is not looked up again.
+     *
+     * @return The {@link JobTargetWrapper} of the next {@link JobTarget}, or {@code null} if there are no more {@link JobTarget}s to read.
+     * @since 1.0.0
+     */
+    @Override
+    public Object readItem() throws Exception {
+        JobLogger jobLogger = jobContextWrapper.getJobLogger();
+        jobLogger.setClassLog(LOG);
+
+        return KapuaSecurityUtils.doPrivileged(() -> {
+            while (currentPage.isEmpty()) {
+                if (lastPageLoaded) {
+                    if (resumeJobTargetId == null || wrappedAround) {
+                        return null;
+                    }
+                    // Start over to read the JobTargets up to the checkpoint
+                    wrappedAround = true;
+                    lastPageLoaded = false;
+                    pageCursorJobTargetId = null;
+                }
+                loadNextPage();
+            }
+
+            JobTarget jobTarget = currentPage.poll();
+            lastReadJobTargetId = jobTarget.getId();
+            jobLogger.info("Read target: {} (id: {})", getTargetDisplayName(jobTarget), jobTarget.getId().toCompactId());
+            return new JobTargetWrapper(jobTarget);
+        });
+    }
+
+    /**
+     * Returns the {@link JobTarget#getId()} of the last read {@link JobTarget} as checkpoint.
+     * <p>
+     * The checkpoint is persisted for each partition of the step when the chunk is committed.
+     *
+     * @return The compact {@link JobTarget#getId()} of the last read {@link JobTarget}, or {@code null} if nothing has been read.
+     * @since 2.1.0
+     */
+    @Override
+    public Serializable checkpointInfo() throws Exception {
+        return lastReadJobTargetId != null ? lastReadJobTargetId.toCompactId() : null;
+    }
+
+    /**
+     * Sets the position where to resume reading the {@link JobTarget}s.
+     * <p>
+     * The {@link JobTarget}s that come after the given checkpoint are read first.
+     * The {@link JobTarget}s up to the checkpoint are not skipped and are read at the end,
+     * since the failed ones must be processed again like when the step starts from scratch.
+     *
+     * @param checkpoint The checkpoint returned by {@link #checkpointInfo()}, or {@code null} if the step is not restarting.
+     * @since 2.1.0
+     */
+    protected void resumeFromCheckpoint(Serializable checkpoint) {
+        if (checkpoint == null) {
+            return;
+        }
+
+        resumeJobTargetId = kapuaIdFactory.newKapuaId(checkpoint.toString());
+        pageCursorJobTargetId = resumeJobTargetId;
+    }
+
+    /**
+     * Gets the number of {@link JobTarget}s to load for each page.
+     *
+     * @return The number of {@link JobTarget}s to load for each page.
+     * @since 2.1.0
+     */
+    protected int getTargetPageSize() {
+        return DEFAULT_TARGET_PAGE_SIZE;
+    }
+
+    /**
+     * Loads the next page of {@link JobTarget}s after the {@link #pageCursorJobTargetId}.
+     * <p>
+     * When running in a partition only the {@link JobTarget}s of the partition are loaded (see {@link JobTargetQueryFiltering#partitionFiltering(StepContextWrapper, KapuaQuery, AndPredicate)}).
+     *
+     * @throws KapuaException if the query fails.
+     * @since 2.1.0
+     */
+    private void loadNextPage() throws KapuaException {
+        int pageSize = getTargetPageSize();
+
         // Job Id and JobTarget status filtering
         JobTargetQuery query = jobTargetFactory.newQuery(jobContextWrapper.getScopeId());
 
@@ -97,32 +229,55 @@ public class DefaultTargetReader extends AbstractItemReader implements TargetRea
         stepIndexFiltering(jobContextWrapper, stepContextWrapper, query, andPredicate);
         // Filter selected target
         targetSublistFiltering(jobContextWrapper, query, andPredicate);
+        // Partition filtering
+        JobTargetQueryFiltering.partitionFiltering(stepContextWrapper, query, andPredicate);
+        // Keyset pagination
+        if (pageCursorJobTargetId != null) {
+            andPredicate.and(query.attributePredicate(JobTargetAttributes.ENTITY_ID, pageCursorJobTargetId, AttributePredicate.Operator.GREATER_THAN));
+        }
+        if (wrappedAround) {
+            andPredicate.and(query.attributePredicate(JobTargetAttributes.ENTITY_ID, resumeJobTargetId, AttributePredicate.Operator.LESS_THAN_OR_EQUAL));
+        }
         // Query the targets
         query.setPredicate(andPredicate);
+        query.setSortCriteria(query.fieldSortCriteria(JobTargetAttributes.ENTITY_ID, SortOrder.ASCENDING));
+        query.setLimit(pageSize);
 
-        JobTargetListResult jobTargets = KapuaSecurityUtils.doPrivileged(() -> jobTargetService.query(query));
-        // Wrap the JobTargets in a wrapper object to store additional informations
-        jobTargets.getItems().forEach(jt -> wrappedJobTargets.add(new JobTargetWrapper(jt)));
+        List<JobTarget> jobTargets = jobTargetService.query(query).getItems();
 
-        jobLogger.info("Reading target chunk. Step:{} (index:{})...DONE", stepName, stepIndex);
+        lastPageLoaded = jobTargets.size() < pageSize;
+        if (!jobTargets.isEmpty()) {
+            pageCursorJobTargetId = jobTargets.get(jobTargets.size() - 1).getId();
+        }
+
+        currentPage.addAll(jobTargets);
+
+        loadDisplayNames();
     }
 
-    @Override
-    public Object readItem() throws Exception {
-        JobContextWrapper jobContextWrapper = new JobContextWrapper(jobContext, xmlUtil);
+    /**
+     * Loads the display names of the {@link JobTarget}s of the current page with a single query.
+     *
+     * @throws KapuaException if the query fails.
+     * @since 2.1.0
+     */
+    private void loadDisplayNames() throws KapuaException {
+        currentPageDisplayNames.clear();
+        if (currentPage.isEmpty()) {
+            return;
+        }
 
-        JobLogger jobLogger = jobContextWrapper.getJobLogger();
-        jobLogger.setClassLog(LOG);
+        List<KapuaId> deviceIds = currentPage.stream()
+                .map(JobTarget::getJobTargetId)
+                .collect(Collectors.toList());
 
-        return KapuaSecurityUtils.doPrivileged(() -> {
-            JobTargetWrapper currentWrappedJobTarget = null;
-            if (jobTargetIndex < wrappedJobTargets.size()) {
-                currentWrappedJobTarget = wrappedJobTargets.get(jobTargetIndex++);
-                JobTarget jobTarget = jobTargetService.find(jobContextWrapper.getScopeId(), currentWrappedJobTarget.getJobTarget().getId());
-                jobLogger.info("Read target: {} (id: {})", getTargetDisplayName(jobTarget), jobTarget.getId().toCompactId());
-            }
-            return currentWrappedJobTarget;
-        });
+        DeviceQuery deviceQuery = deviceFactory.newQuery(jobContextWrapper.getScopeId());
+        deviceQuery.setPredicate(deviceQuery.attributePredicate(DeviceAttributes.ENTITY_ID, deviceIds));
+        deviceQuery.setLimit(deviceIds.size());
+
+        for (Device device : deviceRegistryService.query(deviceQuery).getItems()) {
+            currentPageDisplayNames.put(device.getId(), device.getClientId());
+        }
     }
 
     /**
@@ -145,17 +300,7 @@ public class DefaultTargetReader extends AbstractItemReader implements TargetRea
      * @since 1.0.0
      */
     protected void stepIndexFiltering(JobContextWrapper jobContextWrapper, StepContextWrapper stepContextWrapper, KapuaQuery query, AndPredicate andPredicate) {
-
-        // Select all targets that aren't in PROCESS_OK status
-        andPredicate.and(query.attributePredicate(JobTargetAttributes.STATUS, JobTargetStatus.PROCESS_OK, AttributePredicate.Operator.NOT_EQUAL));
-
-        // Select all target that are at the current step
-        andPredicate.and(query.attributePredicate(JobTargetAttributes.STEP_INDEX, stepContextWrapper.getStepIndex()));
-
-        // Select all targets at or after the given fromStepIndex (if specified)
-        if (jobContextWrapper.getFromStepIndex() != null) {
-            andPredicate.and(query.attributePredicate(JobTargetAttributes.STEP_INDEX, jobContextWrapper.getFromStepIndex(), AttributePredicate.Operator.GREATER_THAN_OR_EQUAL));
-        }
+        JobTargetQueryFiltering.stepIndexFiltering(jobContextWrapper, stepContextWrapper, query, andPredicate);
     }
 
     /**
@@ -173,12 +318,15 @@ public class DefaultTargetReader extends AbstractItemReader implements TargetRea
      * @since 1.0.0
      */
     protected void targetSublistFiltering(JobContextWrapper jobContextWrapper, KapuaQuery query, AndPredicate andPredicate) {
-        if (!jobContextWrapper.getTargetSublist().isEmpty()) {
-            andPredicate.and(query.attributePredicate(JobTargetAttributes.ENTITY_ID, jobContextWrapper.getTargetSublist().getTargetIds()));
-        }
+        JobTargetQueryFiltering.targetSublistFiltering(jobContextWrapper, query, andPredicate);
     }
 
     protected String getTargetDisplayName(JobTarget jobTarget) throws KapuaException {
+        String displayName = currentPageDisplayNames.get(jobTarget.getJobTargetId());
+        if (displayName != null) {
+            return displayName;
+        }
+
         Device device = KapuaSecurityUtils.doPrivileged(() -> deviceRegistryService.find(jobTarget.getScopeId(), jobTarget.getJobTargetId()));
         if (device == null) {
             return "N/A";
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.job.engine.commons.operation;
+
+import org.eclipse.kapua.job.engine.commons.wrappers.JobContextWrapper;
+import org.eclipse.kapua.job.engine.commons.wrappers.StepContextWrapper;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.query.KapuaQuery;
+import org.eclipse.kapua.model.query.predicate.AndPredicate;
+import org.eclipse.kapua.model.query.predicate.AttributePredicate;
+import org.eclipse.kapua.service.job.step.JobStepIndex;
+import org.eclipse.kapua.service.job.targets.JobTarget;
+import org.eclipse.kapua.service.job.targets.JobTargetAttributes;
+import org.eclipse.kapua.service.job.targets.JobTargetStatus;
+
+/**
+ * Utilities to select the {@link JobTarget}s to process in a step.
+ * <p>
+ * They are shared by the {@link DefaultTargetReader} and the components which need to know in advance which {@link JobTarget}s the step will process,
+ * like the partition mapper of the step.
+ *
+ * @since 2.1.0
+ */
+public final class JobTargetQueryFiltering {
+
+    private JobTargetQueryFiltering() {
+    }
+
+    /**
+     * Applies the {@link AttributePredicate}s according to the parameters contained into the {@link JobContextWrapper} and {@link StepContextWrapper}.
+     * <p>
+     * It selects all {@link JobTarget}s that are set to the current {@link StepContextWrapper#getStepIndex()} and that don't have the {@link JobTargetStatus}
+     * set to {@link JobTargetStatus#PROCESS_OK}.
+     * When a {@link JobStepIndex} is specified, it selects only the {@link JobTarget}s at or after the {@link JobContextWrapper#getFromStepIndex()}.
+     *
+     * @param jobContextWrapper  The {@link JobContextWrapper} from which extract data
+     * @param stepContextWrapper The {@link StepContextWrapper} from which extract data
+     * @param query              The {@link KapuaQuery} to perform
+     * @param andPredicate       The {@link AndPredicate} where to apply {@link org.eclipse.kapua.model.query.predicate.QueryPredicate}
+     * @since 2.1.0
+     */
+    public static void stepIndexFiltering(JobContextWrapper jobContextWrapper, StepContextWrapper stepContextWrapper, KapuaQuery query, AndPredicate andPredicate) {
+
+        // Select all targets that aren't in PROCESS_OK status
+        andPredicate.and(query.attributePredicate(JobTargetAttributes.STATUS, JobTargetStatus.PROCESS_OK, AttributePredicate.Operator.NOT_EQUAL));
+
+        // Select all target that are at the current step
+        andPredicate.and(query.attributePredicate(JobTargetAttributes.STEP_INDEX, stepContextWrapper.getStepIndex()));
+
+        // Select all targets at or after the given fromStepIndex (if specified)
+        if (jobContextWrapper.getFromStepIndex() != null) {
+            andPredicate.and(query.attributePredicate(JobTargetAttributes.STEP_INDEX, jobContextWrapper.getFromStepIndex(), AttributePredicate.Operator.GREATER_THAN_OR_EQUAL));
+        }
+    }
+
+    /**
+     * Applies the {@link AttributePredicate}s according to the {@link JobContextWrapper#getTargetSublist()}.
+     *
+     * @param jobContextWrapper The {@link JobContextWrapper} from which extract data
+     * @param query             The {@link KapuaQuery} to perform
+     * @param andPredicate      The {@link AndPredicate} where to apply {@link org.eclipse.kapua.model.query.predicate.QueryPredicate}
+     * @since 2.1.0
+     */
+    public static void targetSublistFiltering(JobContextWrapper jobContextWrapper, KapuaQuery query, AndPredicate andPredicate) {
+        if (!jobContextWrapper.getTargetSublist().isEmpty()) {
+            andPredicate.and(query.attributePredicate(JobTargetAttributes.ENTITY_ID, jobContextWrapper.getTargetSublist().getTargetIds()));
+        }
+    }
+
+    /**
+     * Applies the {@link AttributePredicate}s which select the {@link JobTarget}s of the partition of the step, if the step is running in a partition.
+     * <p>
+     * {@link JobTarget}s are assigned to the partitions by ranges of {@link JobTarget#getId()},
+     * so that the assignment does not change while the other partitions update the {@link JobTarget}s.
+     *
+     * @param stepContextWrapper The {@link StepContextWrapper} from which extract data
+     * @param query              The {@link KapuaQuery} to perform
+     * @param andPredicate       The {@link AndPredicate} where to apply {@link org.eclipse.kapua.model.query.predicate.QueryPredicate}
+     * @since 2.1.0
+     */
+    public static void partitionFiltering(StepContextWrapper stepContextWrapper, KapuaQuery query, AndPredicate andPredicate) {
+        KapuaId fromJobTargetId = stepContextWrapper.getPartitionTargetIdFrom();
+        if (fromJobTargetId != null) {
+            andPredicate.and(query.attributePredicate(JobTargetAttributes.ENTITY_ID, fromJobTargetId, AttributePredicate.Operator.GREATER_THAN_OR_EQUAL));
+        }
+
+        KapuaId toJobTargetId = stepContextWrapper.getPartitionTargetIdTo();
+        if (toJobTargetId != null) {
+            andPredicate.and(query.attributePredicate(JobTargetAttributes.ENTITY_ID, toJobTargetId, AttributePredicate.Operator.LESS_THAN));
+        }
+    }
+}
@@ -33,4 +33,36 @@ public interface StepContextPropertyNames {
      * @since 2.0.0
      */
     String STEP_NAME = "step.name";
+
+    /**
+     * The index of the partition of the step, resolved from the partition plan.
+     *
+     * @since 2.1.0
+     */
+    String STEP_PARTITION_INDEX = "step.partition.index";
+
+    /**
+     * The number of partitions of the step, resolved from the partition plan.
+     *
+     * @since 2.1.0
+     */
+    String STEP_PARTITION_COUNT = "step.partition.count";
+
+    /**
+     * The lowest {@link org.eclipse.kapua.service.job.targets.JobTarget#getId()} of the partition of the step (inclusive), resolved from the partition plan.
+     * <p>
+     * It is empty for the first partition.
+     *
+     * @since 2.1.0
+     */
+    String STEP_PARTITION_TARGET_ID_FROM = "step.partition.targetId.from";
+
+    /**
+     * The {@link org.eclipse.kapua.service.job.targets.JobTarget#getId()} where the next partition of the step starts (exclusive), resolved from the partition plan.
+     * <p>
+     * It is empty for the last partition.
+     *
+     * @since 2.1.0
+     */
+    String STEP_PARTITION_TARGET_ID_TO = "step.partition.targetId.to";
 }
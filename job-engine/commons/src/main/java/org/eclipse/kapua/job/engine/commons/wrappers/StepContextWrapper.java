@@ -63,6 +63,70 @@ public class StepContextWrapper {
         return stepNextIndexString != null ? Integer.parseInt(stepNextIndexString) : null;
     }
 
+    /**
+     * Gets the index of the partition which is running the step.
+     *
+     * @return The index of the partition, or {@code null} if the step is not running in a partition.
+     * @since 2.1.0
+     */
+    public Integer getPartitionIndex() {
+        return getPartitionProperty(StepContextPropertyNames.STEP_PARTITION_INDEX);
+    }
+
+    /**
+     * Gets the number of partitions of the step.
+     *
+     * @return The number of partitions, or {@code null} if the step is not running in a partition.
+     * @since 2.1.0
+     */
+    public Integer getPartitionCount() {
+        return getPartitionProperty(StepContextPropertyNames.STEP_PARTITION_COUNT);
+    }
+
+    /**
+     * Gets the lowest {@link org.eclipse.kapua.service.job.targets.JobTarget#getId()} of the partition which is running the step (inclusive).
+     *
+     * @return The lowest {@link org.eclipse.kapua.service.job.targets.JobTarget#getId()}, or {@code null} if the partition has no lower bound or the step is not running in a partition.
+     * @since 2.1.0
+     */
+    public KapuaId getPartitionTargetIdFrom() {
+        return getPartitionIdProperty(StepContextPropertyNames.STEP_PARTITION_TARGET_ID_FROM);
+    }
+
+    /**
+     * Gets the {@link org.eclipse.kapua.service.job.targets.JobTarget#getId()} where the next partition of the step starts (exclusive).
+     *
+     * @return The {@link org.eclipse.kapua.service.job.targets.JobTarget#getId()} of the next partition, or {@code null} if the partition has no upper bound or the step is not running in a partition.
+     * @since 2.1.0
+     */
+    public KapuaId getPartitionTargetIdTo() {
+        return getPartitionIdProperty(StepContextPropertyNames.STEP_PARTITION_TARGET_ID_TO);
+    }
+
+    private KapuaId getPartitionIdProperty(String propertyName) {
+        // Partition properties are resolved from the partition plan, so outside the partitions they are either empty or not resolved at all
+        String propertyString = stepContext.getProperties().getProperty(propertyName);
+        if (Strings.isNullOrEmpty(propertyString) || propertyString.startsWith("#{")) {
+            return null;
+        }
+
+        return kapuaIdFactory.newKapuaId(propertyString);
+    }
+
+    private Integer getPartitionProperty(String propertyName) {
+        // Partition properties are resolved from the partition plan, so outside the partitions they are either empty or not resolved at all
+        String propertyString = stepContext.getProperties().getProperty(propertyName);
+        if (Strings.isNullOrEmpty(propertyString)) {
+            return null;
+        }
+
+        try {
+            return Integer.valueOf(propertyString);
+        } catch (NumberFormatException nfe) {
+            return null;
+        }
+    }
+
     public <T, E extends Enum<E>> T getStepProperty(String stepPropertyName, Class<T> type) throws KapuaIllegalArgumentException {
         Properties jobContextProperties = stepContext.getProperties();
         String stepPropertyString = jobContextProperties.getProperty(stepPropertyName);
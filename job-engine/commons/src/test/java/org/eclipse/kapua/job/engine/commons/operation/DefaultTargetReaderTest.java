@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.job.engine.commons.operation;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.model.query.AbstractKapuaQuery;
+import org.eclipse.kapua.commons.util.xml.XmlUtil;
+import org.eclipse.kapua.job.engine.commons.model.JobTargetSublist;
+import org.eclipse.kapua.job.engine.commons.model.JobTransientUserData;
+import org.eclipse.kapua.job.engine.commons.wrappers.JobContextPropertyNames;
+import org.eclipse.kapua.job.engine.commons.wrappers.JobTargetWrapper;
+import org.eclipse.kapua.job.engine.commons.wrappers.StepContextPropertyNames;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.id.KapuaIdFactory;
+import org.eclipse.kapua.model.query.predicate.AndPredicate;
+import org.eclipse.kapua.model.query.predicate.AttributePredicate;
+import org.eclipse.kapua.model.query.predicate.QueryPredicate;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.device.registry.DeviceFactory;
+import org.eclipse.kapua.service.device.registry.DeviceListResult;
+import org.eclipse.kapua.service.device.registry.DeviceQuery;
+import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
+import org.eclipse.kapua.service.job.targets.JobTarget;
+import org.eclipse.kapua.service.job.targets.JobTargetAttributes;
+import org.eclipse.kapua.service.job.targets.JobTargetFactory;
+import org.eclipse.kapua.service.job.targets.JobTargetListResult;
+import org.eclipse.kapua.service.job.targets.JobTargetQuery;
+import org.eclipse.kapua.service.job.targets.JobTargetService;
+import org.eclipse.kapua.service.job.targets.JobTargetStatus;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import javax.batch.runtime.context.JobContext;
+import javax.batch.runtime.context.StepContext;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+@Category(JUnitTests.class)
+public class DefaultTargetReaderTest {
+
+    private static final KapuaId SCOPE_ID = KapuaId.ONE;
+    private static final KapuaId JOB_ID = new KapuaEid(BigInteger.TEN);
+    private static final int PAGE_SIZE = 2;
+
+    @Mock
+    private DeviceRegistryService deviceRegistryService;
+    @Mock
+    private DeviceFactory deviceFactory;
+    @Mock
+    private JobTargetFactory jobTargetFactory;
+    @Mock
+    private JobTargetService jobTargetService;
+    @Mock
+    private KapuaIdFactory kapuaIdFactory;
+    @Mock
+    private JobContext jobContext;
+    @Mock
+    private StepContext stepContext;
+    @Mock
+    private XmlUtil xmlUtil;
+    @InjectMocks
+    private DefaultTargetReader defaultTargetReader = new DefaultTargetReader() {
+
+        @Override
+        protected int getTargetPageSize() {
+            return PAGE_SIZE;
+        }
+    };
+
+    /**
+     * The {@link JobTargetStatus} of the {@link JobTarget}s of the step, by {@link JobTarget#getId()}.
+     */
+    private final Map<KapuaId, JobTargetStatus> jobTargets = new LinkedHashMap<>();
+
+    @Before
+    public void initialize() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        Properties jobProperties = new Properties();
+        jobProperties.setProperty(JobContextPropertyNames.JOB_SCOPE_ID, SCOPE_ID.toCompactId());
+        jobProperties.setProperty(JobContextPropertyNames.JOB_ID, JOB_ID.toCompactId());
+        Mockito.when(jobContext.getProperties()).thenReturn(jobProperties);
+        Mockito.when(jobContext.getTransientUserData()).thenReturn(new JobTransientUserData());
+
+        Properties stepProperties = new Properties();
+        stepProperties.setProperty(StepContextPropertyNames.STEP_INDEX, "0");
+        stepProperties.setProperty(StepContextPropertyNames.STEP_NAME, "step");
+        Mockito.when(stepContext.getProperties()).thenReturn(stepProperties);
+
+        Mockito.when(xmlUtil.unmarshal(Mockito.anyString(), Mockito.eq(JobTargetSublist.class))).thenReturn(new JobTargetSublist());
+        Mockito.when(kapuaIdFactory.newKapuaId(Mockito.anyString())).thenAnswer(invocation -> KapuaEid.parseCompactId(invocation.getArgumentAt(0, String.class)));
+
+        Mockito.when(jobTargetFactory.newQuery(SCOPE_ID)).thenAnswer(invocation -> new TestJobTargetQuery(SCOPE_ID));
+        Mockito.when(jobTargetService.query(Mockito.any(JobTargetQuery.class))).thenAnswer(invocation -> {
+            JobTargetQuery query = invocation.getArgumentAt(0, JobTargetQuery.class);
+            List<JobTarget> items = jobTargets.keySet().stream()
+                    .filter(id -> matches(query.getPredicate(), id))
+                    .sorted((id1, id2) -> id1.getId().compareTo(id2.getId()))
+                    .limit(query.getLimit())
+                    .map(DefaultTargetReaderTest::newJobTarget)
+                    .collect(Collectors.toList());
+            JobTargetListResult result = Mockito.mock(JobTargetListResult.class);
+            Mockito.when(result.getItems()).thenReturn(items);
+            return result;
+        });
+
+        Mockito.when(deviceFactory.newQuery(SCOPE_ID)).thenReturn(Mockito.mock(DeviceQuery.class));
+        DeviceListResult devices = Mockito.mock(DeviceListResult.class);
+        Mockito.when(devices.getItems()).thenReturn(Collections.emptyList());
+        Mockito.when(deviceRegistryService.query(Mockito.any(DeviceQuery.class))).thenReturn(devices);
+    }
+
+    @Test
+    public void readItemTest() throws Exception {
+        addJobTargets(1, 5, JobTargetStatus.PROCESS_AWAITING);
+        jobTargets.put(newId(3), JobTargetStatus.PROCESS_OK);
+
+        defaultTargetReader.open(null);
+
+        Assert.assertEquals("Expected and actual values should be the same!", ids(1, 2, 4, 5), readAll());
+        // pages of 2 targets, the last one is not full
+        Mockito.verify(jobTargetService, Mockito.times(3)).query(Mockito.any(JobTargetQuery.class));
+    }
+
+    @Test
+    public void checkpointInfoTest() throws Exception {
+        addJobTargets(1, 3, JobTargetStatus.PROCESS_AWAITING);
+
+        defaultTargetReader.open(null);
+        Assert.assertNull("Null expected!", defaultTargetReader.checkpointInfo());
+
+        defaultTargetReader.readItem();
+        defaultTargetReader.readItem();
+        Assert.assertEquals("Expected and actual values should be the same!", newId(2).toCompactId(), defaultTargetReader.checkpointInfo());
+    }
+
+    @Test
+    public void openFromCheckpointTest() throws Exception {
+        addJobTargets(1, 6, JobTargetStatus.PROCESS_AWAITING);
+
+        defaultTargetReader.open(newId(3).toCompactId());
+
+        // the targets after the checkpoint first, then the ones up to the checkpoint, each one only once
+        Assert.assertEquals("Expected and actual values should be the same!", ids(4, 5, 6, 1, 2, 3), readAll());
+    }
+
+    @Test
+    public void openFromCheckpointRetryFailedTest() throws Exception {
+        // the targets up to the checkpoint have been processed before the restart, one of them failed
+        jobTargets.put(newId(1), JobTargetStatus.PROCESS_OK);
+        jobTargets.put(newId(2), JobTargetStatus.PROCESS_FAILED);
+        jobTargets.put(newId(3), JobTargetStatus.PROCESS_OK);
+        addJobTargets(4, 6, JobTargetStatus.PROCESS_AWAITING);
+
+        defaultTargetReader.open(newId(3).toCompactId());
+
+        Assert.assertEquals("Expected and actual values should be the same!", ids(4, 5, 6, 2), readAll());
+    }
+
+    @Test
+    public void openFromLastCheckpointTest() throws Exception {
+        // the restart happens after the last target has been read
+        addJobTargets(1, 3, JobTargetStatus.PROCESS_FAILED);
+
+        defaultTargetReader.open(newId(3).toCompactId());
+
+        Assert.assertEquals("Expected and actual values should be the same!", ids(1, 2, 3), readAll());
+    }
+
+    @Test
+    public void openFromCheckpointNoTargetsTest() throws Exception {
+        defaultTargetReader.open(newId(3).toCompactId());
+
+        Assert.assertNull("Null expected!", defaultTargetReader.readItem());
+    }
+
+    private List<KapuaId> readAll() throws Exception {
+        List<KapuaId> readIds = new ArrayList<>();
+        Object item;
+        while ((item = defaultTargetReader.readItem()) != null) {
+            readIds.add(((JobTargetWrapper) item).getJobTarget().getId());
+            Assert.assertTrue("Too many targets read!", readIds.size() <= jobTargets.size());
+        }
+        return readIds;
+    }
+
+    private void addJobTargets(int from, int to, JobTargetStatus status) {
+        for (int i = from; i <= to; i++) {
+            jobTargets.put(newId(i), status);
+        }
+    }
+
+    /**
+     * Evaluates the {@link JobTargetAttributes#ENTITY_ID} and {@link JobTargetAttributes#STATUS} {@link AttributePredicate}s of the query as the {@link JobTargetService} would.
+     */
+    private boolean matches(QueryPredicate predicate, KapuaId id) {
+        if (predicate instanceof AndPredicate) {
+            return ((AndPredicate) predicate).getPredicates().stream().allMatch(p -> matches(p, id));
+        }
+
+        AttributePredicate<?> attributePredicate = (AttributePredicate<?>) predicate;
+        if (JobTargetAttributes.STATUS.equals(attributePredicate.getAttributeName())) {
+            boolean equal = jobTargets.get(id) == attributePredicate.getAttributeValue();
+            return attributePredicate.getOperator() == AttributePredicate.Operator.NOT_EQUAL ? !equal : equal;
+        }
+        if (!JobTargetAttributes.ENTITY_ID.equals(attributePredicate.getAttributeName())) {
+            return true;
+        }
+
+        int comparison = id.getId().compareTo(((KapuaId) attributePredicate.getAttributeValue()).getId());
+        switch (attributePredicate.getOperator()) {
+        case GREATER_THAN:
+            return comparison > 0;
+        case GREATER_THAN_OR_EQUAL:
+            return comparison >= 0;
+        case LESS_THAN:
+            return comparison < 0;
+        case LESS_THAN_OR_EQUAL:
+            return comparison <= 0;
+        default:
+            return comparison == 0;
+        }
+    }
+
+    private static List<KapuaId> ids(int... ids) {
+        List<KapuaId> kapuaIds = new ArrayList<>();
+        for (int id : ids) {
+            kapuaIds.add(newId(id));
+        }
+        return kapuaIds;
+    }
+
+    private static KapuaId newId(int id) {
+        return new KapuaEid(BigInteger.valueOf(id));
+    }
+
+    private static JobTarget newJobTarget(KapuaId id) {
+        JobTarget jobTarget = Mockito.mock(JobTarget.class);
+        Mockito.when(jobTarget.getId()).thenReturn(id);
+        Mockito.when(jobTarget.getScopeId()).thenReturn(SCOPE_ID);
+        return jobTarget;
+    }
+
+    private static class TestJobTargetQuery extends AbstractKapuaQuery implements JobTargetQuery {
+
+        private TestJobTargetQuery(KapuaId scopeId) {
+            super(scopeId);
+        }
+    }
+}
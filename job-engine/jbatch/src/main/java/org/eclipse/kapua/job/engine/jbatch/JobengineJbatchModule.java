@@ -20,6 +20,7 @@ import org.eclipse.kapua.job.engine.JobEngineFactory;
 import org.eclipse.kapua.job.engine.JobEngineService;
 import org.eclipse.kapua.job.engine.jbatch.driver.JbatchDriver;
 import org.eclipse.kapua.job.engine.jbatch.driver.utils.JobDefinitionBuildUtils;
+import org.eclipse.kapua.job.engine.jbatch.partition.AccountPartitionPermits;
 import org.eclipse.kapua.job.engine.jbatch.setting.JobEngineSetting;
 import org.eclipse.kapua.service.job.execution.JobExecutionService;
 import org.eclipse.kapua.service.job.step.JobStepFactory;
@@ -35,6 +36,7 @@ public class JobengineJbatchModule extends AbstractKapuaModule {
         bind(JobEngineFactory.class).to(JobEngineFactoryJbatch.class).in(Singleton.class);
         bind(JobEngineService.class).to(JobEngineServiceJbatch.class).in(Singleton.class);
         bind(JobEngineSetting.class).in(Singleton.class);
+        bind(AccountPartitionPermits.class).in(Singleton.class);
     }
 
     @Provides
@@ -174,6 +174,8 @@ public class JbatchDriver {
                     break;
                 case TARGET:
                     jslStep.setChunk(JobDefinitionBuildUtils.buildChunkStep(jobStepDefinition));
+                    jslStep.setPartition(JobDefinitionBuildUtils.buildTargetPartition());
+                    jslStep.setListeners(JobDefinitionBuildUtils.buildTargetStepListeners());
                     break;
                 default:
                     throw new KapuaIllegalArgumentException(jobStepDefinition.getStepType().name(), "jobStepDefinition.stepType");
@@ -186,6 +188,9 @@ public class JbatchDriver {
                 }
 
                 jslStep.setProperties(JobDefinitionBuildUtils.buildStepProperties(jobStepDefinition, jobStep, jobStepIterator.hasNext(), jobStartOptions.getStepPropertiesOverrides()));
+                if (jslStep.getPartition() != null) {
+                    jslStep.getProperties().getPropertyList().addAll(JobDefinitionBuildUtils.buildPartitionStepProperties());
+                }
 
                 jslExecutionElements.add(jslStep);
             }
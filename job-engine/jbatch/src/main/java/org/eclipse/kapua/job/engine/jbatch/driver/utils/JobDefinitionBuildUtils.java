@@ -32,6 +32,8 @@ import org.eclipse.kapua.job.engine.commons.operation.DefaultTargetWriter;
 import org.eclipse.kapua.job.engine.commons.wrappers.JobContextPropertyNames;
 import org.eclipse.kapua.job.engine.commons.wrappers.StepContextPropertyNames;
 import org.eclipse.kapua.job.engine.jbatch.listener.KapuaJobListener;
+import org.eclipse.kapua.job.engine.jbatch.partition.TargetPartitionMapper;
+import org.eclipse.kapua.job.engine.jbatch.partition.TargetPartitionStepListener;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.job.step.JobStep;
 import org.eclipse.kapua.service.job.step.definition.JobStepDefinition;
@@ -45,6 +47,8 @@ import com.ibm.jbatch.jsl.model.ItemWriter;
 import com.ibm.jbatch.jsl.model.JSLProperties;
 import com.ibm.jbatch.jsl.model.Listener;
 import com.ibm.jbatch.jsl.model.Listeners;
+import com.ibm.jbatch.jsl.model.Partition;
+import com.ibm.jbatch.jsl.model.PartitionMapper;
 import com.ibm.jbatch.jsl.model.Property;
 
 /**
@@ -162,6 +166,40 @@ public class JobDefinitionBuildUtils {
         return jslProperties;
     }
 
+    /**
+     * Builds the {@link Property}s of the partition of a target step.
+     * <p>
+     * Values are resolved from the partition plan built by the {@link TargetPartitionMapper} and they are empty outside the partitions.
+     *
+     * @return The {@link Property}s of the partition.
+     * @since 2.1.0
+     */
+    public static Collection<Property> buildPartitionStepProperties() {
+        List<Property> jslPropertyList = new ArrayList<>();
+
+        Property jslPartitionIndexProperty = new Property();
+        jslPartitionIndexProperty.setName(StepContextPropertyNames.STEP_PARTITION_INDEX);
+        jslPartitionIndexProperty.setValue("#{partitionPlan['" + StepContextPropertyNames.STEP_PARTITION_INDEX + "']}");
+        jslPropertyList.add(jslPartitionIndexProperty);
+
+        Property jslPartitionCountProperty = new Property();
+        jslPartitionCountProperty.setName(StepContextPropertyNames.STEP_PARTITION_COUNT);
+        jslPartitionCountProperty.setValue("#{partitionPlan['" + StepContextPropertyNames.STEP_PARTITION_COUNT + "']}");
+        jslPropertyList.add(jslPartitionCountProperty);
+
+        Property jslPartitionTargetIdFromProperty = new Property();
+        jslPartitionTargetIdFromProperty.setName(StepContextPropertyNames.STEP_PARTITION_TARGET_ID_FROM);
+        jslPartitionTargetIdFromProperty.setValue("#{partitionPlan['" + StepContextPropertyNames.STEP_PARTITION_TARGET_ID_FROM + "']}");
+        jslPropertyList.add(jslPartitionTargetIdFromProperty);
+
+        Property jslPartitionTargetIdToProperty = new Property();
+        jslPartitionTargetIdToProperty.setName(StepContextPropertyNames.STEP_PARTITION_TARGET_ID_TO);
+        jslPartitionTargetIdToProperty.setValue("#{partitionPlan['" + StepContextPropertyNames.STEP_PARTITION_TARGET_ID_TO + "']}");
+        jslPropertyList.add(jslPartitionTargetIdToProperty);
+
+        return jslPropertyList;
+    }
+
     public static Collection<Property> buildCustomStepProperties(@NotNull JobStepDefinition jobStepDefinition, @NotNull JobStep jobStep) {
         return buildCustomStepProperties(jobStepDefinition, jobStep, Collections.emptyList());
     }
@@ -218,4 +256,38 @@ public class JobDefinitionBuildUtils {
 
         return chunk;
     }
+
+    /**
+     * Builds the {@link Partition} of a target step.
+     * <p>
+     * The {@link TargetPartitionMapper} splits the targets of the step in partitions that are processed concurrently.
+     *
+     * @return The {@link Partition} of the target step.
+     * @since 2.1.0
+     */
+    public static Partition buildTargetPartition() {
+        PartitionMapper partitionMapper = new PartitionMapper();
+        partitionMapper.setRef(TargetPartitionMapper.class.getName());
+
+        Partition partition = new Partition();
+        partition.setMapper(partitionMapper);
+
+        return partition;
+    }
+
+    /**
+     * Builds the {@link Listeners} of a target step.
+     *
+     * @return The {@link Listeners} of the target step.
+     * @since 2.1.0
+     */
+    public static Listeners buildTargetStepListeners() {
+        Listener jslListener = new Listener();
+        jslListener.setRef(TargetPartitionStepListener.class.getName());
+
+        Listeners listeners = new Listeners();
+        listeners.getListenerList().add(jslListener);
+
+        return listeners;
+    }
 }
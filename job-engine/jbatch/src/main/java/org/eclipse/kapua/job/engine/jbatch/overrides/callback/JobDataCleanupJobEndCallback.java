@@ -13,6 +13,7 @@
 package org.eclipse.kapua.job.engine.jbatch.overrides.callback;
 
 import com.ibm.jbatch.container.callback.JobEndCallback;
+import com.ibm.jbatch.container.impl.PartitionedStepBuilder;
 import com.ibm.jbatch.container.servicesmanager.ServicesManager;
 import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
 import org.eclipse.kapua.job.engine.jbatch.driver.JbatchDriver;
@@ -60,6 +61,12 @@ public class JobDataCleanupJobEndCallback implements JobEndCallback {
     @Override
     public void done(long jobExecutionId) {
         try {
+            // Partitions of the steps run as sub jobs. Their data is required to aggregate the step metrics and is deleted with the top level job.
+            String jobName = persistenceService.jobOperatorGetJobExecution(jobExecutionId).getJobName();
+            if (jobName != null && jobName.startsWith(PartitionedStepBuilder.JOB_ID_SEPARATOR)) {
+                return;
+            }
+
             long jobInstanceId = persistenceService.getJobInstanceIdByExecutionId(jobExecutionId);
 
             LOG.info("Deleting JobInstanceData {} after JobExecution {} has completed...", jobInstanceId, jobExecutionId);
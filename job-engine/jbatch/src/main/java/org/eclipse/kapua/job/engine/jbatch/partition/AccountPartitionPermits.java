@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.job.engine.jbatch.partition;
+
+import org.eclipse.kapua.job.engine.jbatch.setting.JobEngineSetting;
+import org.eclipse.kapua.job.engine.jbatch.setting.JobEngineSettingKeys;
+import org.eclipse.kapua.model.id.KapuaId;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bounds the number of step partitions processed concurrently for the same account.
+ * <p>
+ * Partitions of all the jobs of an account share the same permits, so that a single account cannot take all the job engine threads
+ * nor flood its devices with requests.
+ * The permits of an account are kept only while some partition holds or waits for them, so the accounts without running jobs take no memory.
+ *
+ * @since 2.1.0
+ */
+@Singleton
+public class AccountPartitionPermits {
+
+    private final int permitsCount;
+
+    private final Map<KapuaId, AccountPermits> permits = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param jobEngineSetting The {@link JobEngineSetting} with the {@link JobEngineSettingKeys#JOB_ENGINE_STEP_PARTITION_ACCOUNT_MAX}.
+     * @since 2.1.0
+     */
+    @Inject
+    public AccountPartitionPermits(JobEngineSetting jobEngineSetting) {
+        this(jobEngineSetting.getInt(JobEngineSettingKeys.JOB_ENGINE_STEP_PARTITION_ACCOUNT_MAX, 1));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param permitsCount The maximum number of concurrent partitions of each account.
+     * @since 2.1.0
+     */
+    public AccountPartitionPermits(int permitsCount) {
+        this.permitsCount = Math.max(permitsCount, 1);
+    }
+
+    /**
+     * Acquires a permit for the given account, waiting until one is available.
+     *
+     * @param scopeId The {@link KapuaId} of the account.
+     * @throws InterruptedException if interrupted while waiting.
+     * @since 2.1.0
+     */
+    public void acquire(KapuaId scopeId) throws InterruptedException {
+        AccountPermits accountPermits = permits.compute(scopeId, (id, current) -> {
+            AccountPermits updated = current != null ? current : new AccountPermits(permitsCount);
+            updated.users++;
+            return updated;
+        });
+
+        try {
+            accountPermits.semaphore.acquire();
+        } catch (InterruptedException e) {
+            leave(scopeId);
+            throw e;
+        }
+    }
+
+    /**
+     * Releases a permit previously acquired with {@link #acquire(KapuaId)}.
+     *
+     * @param scopeId The {@link KapuaId} of the account.
+     * @since 2.1.0
+     */
+    public void release(KapuaId scopeId) {
+        AccountPermits accountPermits = permits.get(scopeId);
+        if (accountPermits != null) {
+            accountPermits.semaphore.release();
+            leave(scopeId);
+        }
+    }
+
+    /**
+     * Gets the number of accounts which have partitions holding or waiting for a permit.
+     *
+     * @return The number of accounts with permits in use.
+     * @since 2.1.0
+     */
+    int getAccountsCount() {
+        return permits.size();
+    }
+
+    private void leave(KapuaId scopeId) {
+        // Users are only updated while computing the mapping, so the permits are removed once the last partition has left
+        permits.computeIfPresent(scopeId, (id, current) -> --current.users == 0 ? null : current);
+    }
+
+    /**
+     * The permits of an account, with the number of partitions holding or waiting for them.
+     *
+     * @since 2.1.0
+     */
+    private static class AccountPermits {
+
+        private final Semaphore semaphore;
+        private int users;
+
+        private AccountPermits(int permitsCount) {
+            this.semaphore = new Semaphore(permitsCount, true);
+        }
+    }
+}
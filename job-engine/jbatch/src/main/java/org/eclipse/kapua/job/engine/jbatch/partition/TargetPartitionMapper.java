@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.job.engine.jbatch.partition;
+
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.commons.util.xml.XmlUtil;
+import org.eclipse.kapua.job.engine.commons.logger.JobLogger;
+import org.eclipse.kapua.job.engine.commons.operation.JobTargetQueryFiltering;
+import org.eclipse.kapua.job.engine.commons.wrappers.JobContextWrapper;
+import org.eclipse.kapua.job.engine.commons.wrappers.StepContextPropertyNames;
+import org.eclipse.kapua.job.engine.commons.wrappers.StepContextWrapper;
+import org.eclipse.kapua.job.engine.jbatch.setting.JobEngineSetting;
+import org.eclipse.kapua.job.engine.jbatch.setting.JobEngineSettingKeys;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.id.KapuaIdFactory;
+import org.eclipse.kapua.model.query.SortOrder;
+import org.eclipse.kapua.model.query.predicate.AndPredicate;
+import org.eclipse.kapua.service.job.targets.JobTarget;
+import org.eclipse.kapua.service.job.targets.JobTargetAttributes;
+import org.eclipse.kapua.service.job.targets.JobTargetFactory;
+import org.eclipse.kapua.service.job.targets.JobTargetQuery;
+import org.eclipse.kapua.service.job.targets.JobTargetService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.batch.api.partition.PartitionMapper;
+import javax.batch.api.partition.PartitionPlan;
+import javax.batch.api.partition.PartitionPlanImpl;
+import javax.batch.runtime.context.JobContext;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * {@link PartitionMapper} of the target steps.
+ * <p>
+ * It splits the {@link JobTarget}s of the step in partitions which are processed concurrently.
+ * The number of partitions depends on the number of {@link JobTarget}s to process (see {@link JobEngineSettingKeys#JOB_ENGINE_STEP_PARTITION_TARGETS_MIN}),
+ * up to {@link JobEngineSettingKeys#JOB_ENGINE_STEP_PARTITION_MAX}.
+ * The {@link JobTarget}s are split in ranges of {@link JobTarget#getId()} of about the same size: each partition receives the bounds of its range
+ * ({@link StepContextPropertyNames#STEP_PARTITION_TARGET_ID_FROM} and {@link StepContextPropertyNames#STEP_PARTITION_TARGET_ID_TO}),
+ * which the reader adds to its queries (see {@link JobTargetQueryFiltering#partitionFiltering(StepContextWrapper, org.eclipse.kapua.model.query.KapuaQuery, AndPredicate)}).
+ *
+ * @since 2.1.0
+ */
+public class TargetPartitionMapper implements PartitionMapper {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TargetPartitionMapper.class);
+
+    @Inject
+    private JobEngineSetting jobEngineSetting;
+    @Inject
+    private JobTargetFactory jobTargetFactory;
+    @Inject
+    private JobTargetService jobTargetService;
+    @Inject
+    private KapuaIdFactory kapuaIdFactory;
+    @Inject
+    private JobContext jobContext;
+    @Inject
+    private StepContext stepContext;
+    @Inject
+    private XmlUtil xmlUtil;
+
+    @Override
+    public PartitionPlan mapPartitions() throws Exception {
+        JobContextWrapper jobContextWrapper = new JobContextWrapper(jobContext, xmlUtil);
+        StepContextWrapper stepContextWrapper = new StepContextWrapper(kapuaIdFactory, stepContext, xmlUtil);
+
+        JobLogger jobLogger = jobContextWrapper.getJobLogger();
+        jobLogger.setClassLog(LOG);
+
+        // Count the targets that the step will process
+        JobTargetQuery countQuery = newTargetQuery(jobContextWrapper, stepContextWrapper);
+        long targetCount = KapuaSecurityUtils.doPrivileged(() -> jobTargetService.count(countQuery));
+
+        // Compute the partitions
+        int maxPartitionCount = computePartitionCount(
+                targetCount,
+                jobEngineSetting.getInt(JobEngineSettingKeys.JOB_ENGINE_STEP_PARTITION_TARGETS_MIN, 100),
+                jobEngineSetting.getInt(JobEngineSettingKeys.JOB_ENGINE_STEP_PARTITION_MAX, 1));
+
+        // Find the first target of each partition but the first one, so that each partition queries only its own range of targets.
+        // The targets are read once in order, instead of querying the first target of each partition by offset
+        List<KapuaId> partitionStartIds = new ArrayList<>();
+        if (maxPartitionCount > 1) {
+            JobTargetQuery startQuery = newTargetQuery(jobContextWrapper, stepContextWrapper);
+            startQuery.setSortCriteria(startQuery.fieldSortCriteria(JobTargetAttributes.ENTITY_ID, SortOrder.ASCENDING));
+
+            partitionStartIds = KapuaSecurityUtils.doPrivileged(() -> jobTargetService.stream(startQuery, jobTargets -> findPartitionStartIds(jobTargets, targetCount, maxPartitionCount)));
+        }
+
+        int partitionCount = partitionStartIds.size() + 1;
+        Properties[] partitionProperties = new Properties[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitionProperties[i] = new Properties();
+            partitionProperties[i].setProperty(StepContextPropertyNames.STEP_PARTITION_INDEX, String.valueOf(i));
+            partitionProperties[i].setProperty(StepContextPropertyNames.STEP_PARTITION_COUNT, String.valueOf(partitionCount));
+            partitionProperties[i].setProperty(StepContextPropertyNames.STEP_PARTITION_TARGET_ID_FROM, i > 0 ? partitionStartIds.get(i - 1).toCompactId() : "");
+            partitionProperties[i].setProperty(StepContextPropertyNames.STEP_PARTITION_TARGET_ID_TO, i < partitionCount - 1 ? partitionStartIds.get(i).toCompactId() : "");
+        }
+
+        PartitionPlan partitionPlan = new PartitionPlanImpl();
+        partitionPlan.setPartitions(partitionCount);
+        partitionPlan.setThreads(partitionCount);
+        partitionPlan.setPartitionProperties(partitionProperties);
+
+        jobLogger.info("Partitioning step:{} (index:{}). Targets:{} - Partitions:{}", stepContextWrapper.getKapuaStepName(), stepContextWrapper.getStepIndex(), targetCount, partitionCount);
+        return partitionPlan;
+    }
+
+    /**
+     * Instantiates the {@link JobTargetQuery} of the {@link JobTarget}s that the step will process.
+     *
+     * @param jobContextWrapper  The {@link JobContextWrapper} of the step.
+     * @param stepContextWrapper The {@link StepContextWrapper} of the step.
+     * @return The {@link JobTargetQuery} of the {@link JobTarget}s to process.
+     * @since 2.1.0
+     */
+    private JobTargetQuery newTargetQuery(JobContextWrapper jobContextWrapper, StepContextWrapper stepContextWrapper) {
+        JobTargetQuery query = jobTargetFactory.newQuery(jobContextWrapper.getScopeId());
+
+        AndPredicate andPredicate = query.andPredicate(
+                query.attributePredicate(JobTargetAttributes.JOB_ID, jobContextWrapper.getJobId())
+        );
+        JobTargetQueryFiltering.stepIndexFiltering(jobContextWrapper, stepContextWrapper, query, andPredicate);
+        JobTargetQueryFiltering.targetSublistFiltering(jobContextWrapper, query, andPredicate);
+        query.setPredicate(andPredicate);
+        return query;
+    }
+
+    /**
+     * Finds the first {@link JobTarget} of each partition but the first one.
+     *
+     * @param jobTargets        The {@link JobTarget}s to process, ordered by {@link JobTarget#getId()}.
+     * @param targetCount       The number of {@link JobTarget}s to process.
+     * @param maxPartitionCount The number of partitions.
+     * @return The {@link JobTarget#getId()}s of the first {@link JobTarget} of each partition but the first one, fewer if {@link JobTarget}s have been removed in the meantime.
+     * @since 2.1.0
+     */
+    private static List<KapuaId> findPartitionStartIds(Stream<JobTarget> jobTargets, long targetCount, int maxPartitionCount) {
+        List<KapuaId> partitionStartIds = new ArrayList<>();
+
+        Iterator<JobTarget> jobTargetIterator = jobTargets.iterator();
+        long position = -1;
+        KapuaId startId = null;
+        for (int i = 1; i < maxPartitionCount; i++) {
+            long startPosition = targetCount * i / maxPartitionCount;
+            while (position < startPosition && jobTargetIterator.hasNext()) {
+                startId = jobTargetIterator.next().getId();
+                position++;
+            }
+
+            if (position < startPosition) {
+                // Targets have been removed in the meantime
+                break;
+            }
+
+            if (partitionStartIds.isEmpty() || startId.getId().compareTo(partitionStartIds.get(partitionStartIds.size() - 1).getId()) > 0) {
+                partitionStartIds.add(startId);
+            }
+        }
+        return partitionStartIds;
+    }
+
+    /**
+     * Computes the number of partitions for the given number of {@link JobTarget}s.
+     *
+     * @param targetCount         The number of {@link JobTarget}s to process.
+     * @param partitionTargetsMin The minimum number of {@link JobTarget}s for each partition.
+     * @param partitionMax        The maximum number of partitions.
+     * @return The number of partitions, at least {@code 1}.
+     * @since 2.1.0
+     */
+    static int computePartitionCount(long targetCount, int partitionTargetsMin, int partitionMax) {
+        long partitions = targetCount / Math.max(partitionTargetsMin, 1);
+        return (int) Math.max(1, Math.min(partitions, Math.max(partitionMax, 1)));
+    }
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.job.engine.jbatch.partition;
+
+import org.eclipse.kapua.commons.util.xml.XmlUtil;
+import org.eclipse.kapua.job.engine.commons.logger.JobLogger;
+import org.eclipse.kapua.job.engine.commons.wrappers.JobContextWrapper;
+import org.eclipse.kapua.job.engine.commons.wrappers.StepContextWrapper;
+import org.eclipse.kapua.job.engine.jbatch.setting.JobEngineSettingKeys;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.id.KapuaIdFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.batch.api.listener.AbstractStepListener;
+import javax.batch.api.listener.StepListener;
+import javax.batch.runtime.context.JobContext;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+
+/**
+ * {@link StepListener} which bounds the partitions of the target steps running concurrently for the same account.
+ * <p>
+ * Listeners are copied to each partition, so this listener also runs for the step that maps the partitions, which is not bounded.
+ * See {@link AccountPartitionPermits} and {@link JobEngineSettingKeys#JOB_ENGINE_STEP_PARTITION_ACCOUNT_MAX}.
+ *
+ * @since 2.1.0
+ */
+public class TargetPartitionStepListener extends AbstractStepListener implements StepListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TargetPartitionStepListener.class);
+
+    @Inject
+    private AccountPartitionPermits accountPartitionPermits;
+    @Inject
+    private KapuaIdFactory kapuaIdFactory;
+    @Inject
+    private JobContext jobContext;
+    @Inject
+    private StepContext stepContext;
+    @Inject
+    private XmlUtil xmlUtil;
+
+    private KapuaId acquiredScopeId;
+
+    @Override
+    public void beforeStep() throws Exception {
+        StepContextWrapper stepContextWrapper = new StepContextWrapper(kapuaIdFactory, stepContext, xmlUtil);
+        if (stepContextWrapper.getPartitionIndex() == null) {
+            return;
+        }
+
+        JobContextWrapper jobContextWrapper = new JobContextWrapper(jobContext, xmlUtil);
+        JobLogger jobLogger = jobContextWrapper.getJobLogger();
+        jobLogger.setClassLog(LOG);
+
+        KapuaId scopeId = jobContextWrapper.getScopeId();
+        accountPartitionPermits.acquire(scopeId);
+        acquiredScopeId = scopeId;
+
+        jobLogger.info("Starting step:{} (index:{}) - Partition:{} of {}",
+                stepContextWrapper.getKapuaStepName(),
+                stepContextWrapper.getStepIndex(),
+                stepContextWrapper.getPartitionIndex() + 1,
+                stepContextWrapper.getPartitionCount());
+    }
+
+    @Override
+    public void afterStep() throws Exception {
+        if (acquiredScopeId != null) {
+            accountPartitionPermits.release(acquiredScopeId);
+            acquiredScopeId = null;
+        }
+    }
+}
@@ -14,6 +14,7 @@ package org.eclipse.kapua.job.engine.jbatch.persistence;
 
 import com.ibm.jbatch.container.context.impl.StepContextImpl;
 import com.ibm.jbatch.container.exception.PersistenceException;
+import com.ibm.jbatch.container.impl.PartitionedStepBuilder;
 import com.ibm.jbatch.container.jobinstance.JobInstanceImpl;
 import com.ibm.jbatch.container.jobinstance.JobOperatorJobExecution;
 import com.ibm.jbatch.container.jobinstance.RuntimeFlowInSplitExecution;
@@ -221,14 +222,17 @@ public class JPAPersistenceManagerImpl implements IPersistenceManagerService {
     }
 
     /**
-     * Deletes {@link JpaJobInstanceData} by its {@link JpaJobInstanceData#getId()}.
+     * Deletes {@link JpaJobInstanceData} by its {@link JpaJobInstanceData#getId()}, together with the {@link JpaJobInstanceData} of the partitions of its steps.
      *
      * @param jobInstanceId The {@link JpaJobInstanceData#getId()} to delete.
      * @since 2.1.0
      */
     public void deleteJobInstanceData(long jobInstanceId) {
         try {
-            txManager.execute(tx -> jobInstanceDataRepository.deleteById(tx, jobInstanceId));
+            txManager.execute(tx -> {
+                jobInstanceDataRepository.deletePartitionsById(tx, jobInstanceId);
+                return jobInstanceDataRepository.deleteById(tx, jobInstanceId);
+            });
         } catch (Exception e) {
             throw new PersistenceException(e);
         }
@@ -246,7 +250,12 @@ public class JPAPersistenceManagerImpl implements IPersistenceManagerService {
      */
     public int purgeByName(String jobName) {
         try {
-            return txManager.execute(tx -> jobInstanceDataRepository.deleteByName(tx, jobName));
+            return txManager.execute(tx -> {
+                for (Long jobInstanceId : jobInstanceDataRepository.getJobInstanceIds(tx, jobName, null, null, null)) {
+                    jobInstanceDataRepository.deletePartitionsById(tx, jobInstanceId);
+                }
+                return jobInstanceDataRepository.deleteByName(tx, jobName);
+            });
         } catch (Exception e) {
             throw new PersistenceException(e);
         }
@@ -610,9 +619,26 @@ public class JPAPersistenceManagerImpl implements IPersistenceManagerService {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Updates the step execution of a partitioned step with the metrics summed from all its partitions.
+     * <p>
+     * Partitions run as sub jobs named {@code :<top level job instance id>:<step name>:<partition index>}
+     * and their step executions are persisted like the ones of the top level job.
+     *
+     * @since 2.1.0
+     */
     @Override
     public void updateWithFinalPartitionAggregateStepExecution(long rootJobExecutionId, StepContextImpl stepContext) {
-        throw new UnsupportedOperationException();
+        try {
+            long rootJobInstanceId = getJobInstanceIdByExecutionId(rootJobExecutionId);
+            String partitionJobInstanceNameLike = PartitionedStepBuilder.JOB_ID_SEPARATOR + rootJobInstanceId +
+                    PartitionedStepBuilder.JOB_ID_SEPARATOR + stepContext.getStepName() +
+                    PartitionedStepBuilder.JOB_ID_SEPARATOR + "%";
+
+            txManager.execute(tx -> stepExecutionInstanceDataRepository.updateWithPartitionsMetrics(tx, stepContext, partitionJobInstanceNameLike));
+        } catch (Exception e) {
+            throw new PersistenceException(e);
+        }
     }
 }
 
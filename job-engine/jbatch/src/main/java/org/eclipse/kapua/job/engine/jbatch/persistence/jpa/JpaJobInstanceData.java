@@ -47,7 +47,9 @@ import java.io.Serializable;
         @NamedQuery(name = "JobInstanceData.deleteByName",
                 query = "DELETE FROM JobInstanceData jid WHERE jid.name = :name"),
         @NamedQuery(name = "JobInstanceData.deleteById",
-                query = "DELETE FROM JobInstanceData jid WHERE jid.id = :id")
+                query = "DELETE FROM JobInstanceData jid WHERE jid.id = :id"),
+        @NamedQuery(name = "JobInstanceData.deleteByNameLike",
+                query = "DELETE FROM JobInstanceData jid WHERE jid.name LIKE :name")
 
 })
 public class JpaJobInstanceData implements Serializable {
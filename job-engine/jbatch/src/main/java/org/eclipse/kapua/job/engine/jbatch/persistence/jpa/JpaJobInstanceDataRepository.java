@@ -37,4 +37,15 @@ public interface JpaJobInstanceDataRepository {
      * @since 2.1.0
      */
     int deleteById(TxContext tx, long jobInstanceId);
+
+    /**
+     * Deletes the {@link JpaJobInstanceData} of the partitions of the steps of the given {@link JpaJobInstanceData}.
+     * <p>
+     * Partitions run as sub jobs named after the {@link JpaJobInstanceData#getId()} of the top level job.
+     *
+     * @param tx            The {@link TxContext}
+     * @param jobInstanceId The {@link JpaJobInstanceData#getId()} of the top level job.
+     * @since 2.1.0
+     */
+    int deletePartitionsById(TxContext tx, long jobInstanceId);
 }
@@ -111,4 +111,13 @@ public class JpaJobInstanceDataRepositoryImpl implements JpaJobInstanceDataRepos
         deleteByNameQuery.setParameter("id", jobInstanceId);
         return deleteByNameQuery.executeUpdate();
     }
+
+    @Override
+    public int deletePartitionsById(TxContext tx, long jobInstanceId) {
+        final EntityManager em = JpaAwareTxContext.extractEntityManager(tx);
+
+        TypedQuery<Integer> deleteByNameLikeQuery = em.createNamedQuery("JobInstanceData.deleteByNameLike", Integer.class);
+        deleteByNameLikeQuery.setParameter("name", PartitionedStepBuilder.JOB_ID_SEPARATOR + jobInstanceId + PartitionedStepBuilder.JOB_ID_SEPARATOR + "%");
+        return deleteByNameLikeQuery.executeUpdate();
+    }
 }
@@ -45,7 +45,12 @@ import java.util.Date;
         @NamedQuery(name = "StepExecutionInstanceData.selectByJobExecId",
                 query = "SELECT seid FROM StepExecutionInstanceData seid WHERE seid.jobExecutionId = :jobExecutionId"),
         @NamedQuery(name = "StepExecutionInstanceData.mostRecentForJobInstance",
-                query = "SELECT seid FROM StepExecutionInstanceData seid INNER JOIN ExecutionInstanceData eid ON seid.jobExecutionId = eid.id WHERE eid.jobInstanceId = :jobInstanceId ORDER BY seid.id DESC")
+                query = "SELECT seid FROM StepExecutionInstanceData seid INNER JOIN ExecutionInstanceData eid ON seid.jobExecutionId = eid.id WHERE eid.jobInstanceId = :jobInstanceId ORDER BY seid.id DESC"),
+        @NamedQuery(name = "StepExecutionInstanceData.sumMetricsByJobInstanceName",
+                query = "SELECT SUM(seid.readCount), SUM(seid.writeCount), SUM(seid.commitCount), SUM(seid.rollbackCount), " +
+                        "SUM(seid.readSkipCount), SUM(seid.processSkipCount), SUM(seid.filterCount), SUM(seid.writeSkipCount) " +
+                        "FROM StepExecutionInstanceData seid INNER JOIN ExecutionInstanceData eid ON seid.jobExecutionId = eid.id INNER JOIN JobInstanceData jid ON eid.jobInstanceId = jid.id " +
+                        "WHERE jid.name LIKE :jobInstanceName")
 })
 public class JpaStepExecutionInstanceData extends AbstractJpaJbatchEntity {
 
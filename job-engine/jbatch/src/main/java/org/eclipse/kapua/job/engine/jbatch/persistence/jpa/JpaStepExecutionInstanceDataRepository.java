@@ -29,6 +29,16 @@ public interface JpaStepExecutionInstanceDataRepository {
 
     JpaStepExecutionInstanceData update(TxContext tx, StepContextImpl stepContext);
 
+    /**
+     * Updates the {@link JpaStepExecutionInstanceData} of a partitioned step, with the metrics summed from the step executions of its partitions.
+     *
+     * @param tx                           The {@link TxContext}
+     * @param stepContext                  The {@link StepContextImpl} of the partitioned step.
+     * @param partitionJobInstanceNameLike The {@code LIKE} pattern of the names of the sub job instances of the partitions.
+     * @since 2.1.0
+     */
+    JpaStepExecutionInstanceData updateWithPartitionsMetrics(TxContext tx, StepContextImpl stepContext, String partitionJobInstanceNameLike);
+
     JpaStepExecutionInstanceData find(TxContext tx, long stepExecutionId);
 
     Map<String, StepExecution> getExternalJobInstanceData(TxContext tx, long jobInstanceId);
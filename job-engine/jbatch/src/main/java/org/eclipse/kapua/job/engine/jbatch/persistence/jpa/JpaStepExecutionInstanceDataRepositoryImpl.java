@@ -53,6 +53,37 @@ public class JpaStepExecutionInstanceDataRepositoryImpl implements JpaStepExecut
         return jpaStepExecutionInstanceData;
     }
 
+    @Override
+    public JpaStepExecutionInstanceData updateWithPartitionsMetrics(TxContext tx, StepContextImpl stepContext, String partitionJobInstanceNameLike) {
+        final EntityManager em = JpaAwareTxContext.extractEntityManager(tx);
+        TypedQuery<Object[]> sumQuery = em.createNamedQuery("StepExecutionInstanceData.sumMetricsByJobInstanceName", Object[].class);
+        sumQuery.setParameter("jobInstanceName", partitionJobInstanceNameLike);
+
+        Object[] sums = sumQuery.getSingleResult();
+
+        JpaStepExecutionInstanceData jpaStepExecutionInstanceData = JpaStepExecutionInstanceDataRepository.doFind(em, stepContext.getStepExecutionId());
+        jpaStepExecutionInstanceData.readDataFromStepContext(stepContext);
+        jpaStepExecutionInstanceData.setReadCount(sumValue(sums, 0));
+        jpaStepExecutionInstanceData.setWriteCount(sumValue(sums, 1));
+        jpaStepExecutionInstanceData.setCommitCount(sumValue(sums, 2));
+        jpaStepExecutionInstanceData.setRollbackCount(sumValue(sums, 3));
+        jpaStepExecutionInstanceData.setReadSkipCount(sumValue(sums, 4));
+        jpaStepExecutionInstanceData.setProcessSkipCount(sumValue(sums, 5));
+        jpaStepExecutionInstanceData.setFilterCount(sumValue(sums, 6));
+        jpaStepExecutionInstanceData.setWriteskipcount(sumValue(sums, 7));
+
+        em.merge(jpaStepExecutionInstanceData);
+        em.flush();
+        em.refresh(jpaStepExecutionInstanceData);
+
+        return jpaStepExecutionInstanceData;
+    }
+
+    private long sumValue(Object[] sums, int index) {
+        // SUM returns null when there are no partition step executions
+        return sums != null && sums[index] != null ? ((Number) sums[index]).longValue() : 0;
+    }
+
     @Override
     public JpaStepExecutionInstanceData find(TxContext tx, long stepExecutionId) {
         final EntityManager em = JpaAwareTxContext.extractEntityManager(tx);
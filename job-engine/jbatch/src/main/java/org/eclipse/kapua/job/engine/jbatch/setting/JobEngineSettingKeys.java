@@ -28,7 +28,28 @@ public enum JobEngineSettingKeys implements SettingKey {
 
     JOB_ENGINE_QUEUE_CHECK_DELAY("jobEngine.queue.check.delay"),
 
-    JOB_ENGINE_QUEUE_PROCESSING_RUN_DELAY("jobEngine.queue.processing.run.delay");
+    JOB_ENGINE_QUEUE_PROCESSING_RUN_DELAY("jobEngine.queue.processing.run.delay"),
+
+    /**
+     * Maximum number of partitions, processed concurrently, of a target step of a job.
+     *
+     * @since 2.1.0
+     */
+    JOB_ENGINE_STEP_PARTITION_MAX("jobEngine.step.partition.max"),
+
+    /**
+     * Minimum number of targets for each partition of a target step.
+     *
+     * @since 2.1.0
+     */
+    JOB_ENGINE_STEP_PARTITION_TARGETS_MIN("jobEngine.step.partition.targets.min"),
+
+    /**
+     * Maximum number of partitions processed concurrently for the same account, across all its jobs.
+     *
+     * @since 2.1.0
+     */
+    JOB_ENGINE_STEP_PARTITION_ACCOUNT_MAX("jobEngine.step.partition.account.max");
 
 
     private String key;
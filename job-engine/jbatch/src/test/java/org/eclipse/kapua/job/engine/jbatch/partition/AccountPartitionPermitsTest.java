@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.job.engine.jbatch.partition;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Category(JUnitTests.class)
+public class AccountPartitionPermitsTest {
+
+    private static final KapuaId SCOPE_ID = KapuaId.ONE;
+    private static final KapuaId OTHER_SCOPE_ID = new KapuaEid(BigInteger.TEN);
+
+    @Test
+    public void releaseEvictsAccountTest() throws Exception {
+        AccountPartitionPermits accountPartitionPermits = new AccountPartitionPermits(2);
+
+        accountPartitionPermits.acquire(SCOPE_ID);
+        accountPartitionPermits.acquire(SCOPE_ID);
+        Assert.assertEquals("Expected and actual values should be the same!", 1, accountPartitionPermits.getAccountsCount());
+
+        accountPartitionPermits.release(SCOPE_ID);
+        // still used by the other partition
+        Assert.assertEquals("Expected and actual values should be the same!", 1, accountPartitionPermits.getAccountsCount());
+
+        accountPartitionPermits.release(SCOPE_ID);
+        Assert.assertEquals("Expected and actual values should be the same!", 0, accountPartitionPermits.getAccountsCount());
+    }
+
+    @Test
+    public void releaseNotAcquiredTest() {
+        AccountPartitionPermits accountPartitionPermits = new AccountPartitionPermits(1);
+
+        accountPartitionPermits.release(SCOPE_ID);
+
+        Assert.assertEquals("Expected and actual values should be the same!", 0, accountPartitionPermits.getAccountsCount());
+    }
+
+    @Test
+    public void acquireWaitsForReleaseTest() throws Exception {
+        AccountPartitionPermits accountPartitionPermits = new AccountPartitionPermits(1);
+        accountPartitionPermits.acquire(SCOPE_ID);
+
+        CompletableFuture<Void> waiting = acquireAsync(accountPartitionPermits, SCOPE_ID);
+        try {
+            waiting.get(200, TimeUnit.MILLISECONDS);
+            Assert.fail("TimeoutException expected");
+        } catch (TimeoutException e) {
+            // the permit of the account is held
+        }
+
+        accountPartitionPermits.release(SCOPE_ID);
+        waiting.get(10, TimeUnit.SECONDS);
+        // the waiting partition now holds the permit
+        Assert.assertEquals("Expected and actual values should be the same!", 1, accountPartitionPermits.getAccountsCount());
+
+        accountPartitionPermits.release(SCOPE_ID);
+        Assert.assertEquals("Expected and actual values should be the same!", 0, accountPartitionPermits.getAccountsCount());
+    }
+
+    @Test
+    public void acquireOtherAccountTest() throws Exception {
+        AccountPartitionPermits accountPartitionPermits = new AccountPartitionPermits(1);
+        accountPartitionPermits.acquire(SCOPE_ID);
+
+        // the permits of an account do not limit the other accounts
+        acquireAsync(accountPartitionPermits, OTHER_SCOPE_ID).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals("Expected and actual values should be the same!", 2, accountPartitionPermits.getAccountsCount());
+
+        accountPartitionPermits.release(SCOPE_ID);
+        accountPartitionPermits.release(OTHER_SCOPE_ID);
+        Assert.assertEquals("Expected and actual values should be the same!", 0, accountPartitionPermits.getAccountsCount());
+    }
+
+    @Test
+    public void acquireInterruptedEvictsAccountTest() throws Exception {
+        AccountPartitionPermits accountPartitionPermits = new AccountPartitionPermits(1);
+        accountPartitionPermits.acquire(SCOPE_ID);
+
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Thread waiting = new Thread(() -> {
+            try {
+                accountPartitionPermits.acquire(SCOPE_ID);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        waiting.start();
+        waiting.interrupt();
+        Assert.assertTrue("The waiting partition should be interrupted!", interrupted.await(10, TimeUnit.SECONDS));
+
+        // the interrupted partition has left, the account is evicted once the permit is released
+        Assert.assertEquals("Expected and actual values should be the same!", 1, accountPartitionPermits.getAccountsCount());
+        accountPartitionPermits.release(SCOPE_ID);
+        Assert.assertEquals("Expected and actual values should be the same!", 0, accountPartitionPermits.getAccountsCount());
+    }
+
+    @Test
+    public void acquireInterruptedBeforeWaitingTest() {
+        AccountPartitionPermits accountPartitionPermits = new AccountPartitionPermits(1);
+
+        Thread.currentThread().interrupt();
+        try {
+            accountPartitionPermits.acquire(SCOPE_ID);
+            Assert.fail("InterruptedException expected");
+        } catch (InterruptedException e) {
+            // the account is evicted
+            Assert.assertEquals("Expected and actual values should be the same!", 0, accountPartitionPermits.getAccountsCount());
+        }
+    }
+
+    private static CompletableFuture<Void> acquireAsync(AccountPartitionPermits accountPartitionPermits, KapuaId scopeId) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                accountPartitionPermits.acquire(scopeId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.job.engine.jbatch.partition;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.model.query.AbstractKapuaQuery;
+import org.eclipse.kapua.commons.util.xml.XmlUtil;
+import org.eclipse.kapua.job.engine.commons.model.JobTargetSublist;
+import org.eclipse.kapua.job.engine.commons.model.JobTransientUserData;
+import org.eclipse.kapua.job.engine.commons.wrappers.JobContextPropertyNames;
+import org.eclipse.kapua.job.engine.commons.wrappers.StepContextPropertyNames;
+import org.eclipse.kapua.job.engine.jbatch.setting.JobEngineSetting;
+import org.eclipse.kapua.job.engine.jbatch.setting.JobEngineSettingKeys;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.id.KapuaIdFactory;
+import org.eclipse.kapua.model.query.predicate.AndPredicate;
+import org.eclipse.kapua.model.query.predicate.AttributePredicate;
+import org.eclipse.kapua.model.query.predicate.QueryPredicate;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.job.targets.JobTarget;
+import org.eclipse.kapua.service.job.targets.JobTargetAttributes;
+import org.eclipse.kapua.service.job.targets.JobTargetFactory;
+import org.eclipse.kapua.service.job.targets.JobTargetQuery;
+import org.eclipse.kapua.service.job.targets.JobTargetService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import javax.batch.api.partition.PartitionPlan;
+import javax.batch.runtime.context.JobContext;
+import javax.batch.runtime.context.StepContext;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Category(JUnitTests.class)
+public class TargetPartitionMapperTest {
+
+    private static final KapuaId SCOPE_ID = KapuaId.ONE;
+    private static final KapuaId JOB_ID = new KapuaEid(BigInteger.TEN);
+    private static final String TARGET_SUBLIST = "targetSublist";
+
+    @Mock
+    private JobEngineSetting jobEngineSetting;
+    @Mock
+    private JobTargetFactory jobTargetFactory;
+    @Mock
+    private JobTargetService jobTargetService;
+    @Mock
+    private KapuaIdFactory kapuaIdFactory;
+    @Mock
+    private JobContext jobContext;
+    @Mock
+    private StepContext stepContext;
+    @Mock
+    private XmlUtil xmlUtil;
+    @InjectMocks
+    private TargetPartitionMapper targetPartitionMapper;
+
+    private final List<KapuaId> targetIds = new ArrayList<>();
+    private final Properties jobProperties = new Properties();
+
+    @Before
+    public void initialize() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        jobProperties.setProperty(JobContextPropertyNames.JOB_SCOPE_ID, SCOPE_ID.toCompactId());
+        jobProperties.setProperty(JobContextPropertyNames.JOB_ID, JOB_ID.toCompactId());
+        Mockito.when(jobContext.getProperties()).thenReturn(jobProperties);
+        Mockito.when(jobContext.getTransientUserData()).thenReturn(new JobTransientUserData());
+
+        Properties stepProperties = new Properties();
+        stepProperties.setProperty(StepContextPropertyNames.STEP_INDEX, "0");
+        stepProperties.setProperty(StepContextPropertyNames.STEP_NAME, "step");
+        Mockito.when(stepContext.getProperties()).thenReturn(stepProperties);
+
+        Mockito.when(xmlUtil.unmarshal(Mockito.anyString(), Mockito.eq(JobTargetSublist.class))).thenReturn(new JobTargetSublist());
+        Mockito.when(jobTargetFactory.newQuery(SCOPE_ID)).thenAnswer(invocation -> new TestJobTargetQuery(SCOPE_ID));
+        Mockito.when(jobTargetService.count(Mockito.any(JobTargetQuery.class))).thenAnswer(invocation -> (long) selectTargets(invocation.getArgumentAt(0, JobTargetQuery.class)).size());
+        Mockito.when(jobTargetService.stream(Mockito.any(JobTargetQuery.class), Mockito.any(Function.class))).thenAnswer(invocation -> {
+            JobTargetQuery query = invocation.getArgumentAt(0, JobTargetQuery.class);
+            Function<Stream<JobTarget>, ?> streamFunction = invocation.getArgumentAt(1, Function.class);
+            return streamFunction.apply(selectTargets(query).stream().map(TargetPartitionMapperTest::newJobTarget));
+        });
+
+        setPartitionSettings(10, 4);
+    }
+
+    @Test
+    public void computePartitionCountTest() {
+        Assert.assertEquals("Expected and actual values should be the same!", 1, TargetPartitionMapper.computePartitionCount(0, 10, 4));
+        Assert.assertEquals("Expected and actual values should be the same!", 1, TargetPartitionMapper.computePartitionCount(9, 10, 4));
+        Assert.assertEquals("Expected and actual values should be the same!", 2, TargetPartitionMapper.computePartitionCount(25, 10, 4));
+        Assert.assertEquals("Expected and actual values should be the same!", 4, TargetPartitionMapper.computePartitionCount(1000, 10, 4));
+        // invalid settings are bounded
+        Assert.assertEquals("Expected and actual values should be the same!", 1, TargetPartitionMapper.computePartitionCount(1000, 10, 0));
+        Assert.assertEquals("Expected and actual values should be the same!", 4, TargetPartitionMapper.computePartitionCount(5, 0, 4));
+    }
+
+    @Test
+    public void mapPartitionsNoTargetsTest() throws Exception {
+        // e.g. a step whose targets have all been processed already
+        PartitionPlan partitionPlan = targetPartitionMapper.mapPartitions();
+
+        assertPartitions(partitionPlan, new String[] {""});
+        Mockito.verify(jobTargetService, Mockito.never()).stream(Mockito.any(JobTargetQuery.class), Mockito.any(Function.class));
+    }
+
+    @Test
+    public void mapPartitionsFewerTargetsThanMinTest() throws Exception {
+        addTargets(1, 9);
+
+        PartitionPlan partitionPlan = targetPartitionMapper.mapPartitions();
+
+        assertPartitions(partitionPlan, new String[] {""});
+    }
+
+    @Test
+    public void mapPartitionsRangesTest() throws Exception {
+        addTargets(1, 40);
+
+        PartitionPlan partitionPlan = targetPartitionMapper.mapPartitions();
+
+        // 4 ranges of 10 targets
+        assertPartitions(partitionPlan, new String[] {"", compactId(11), compactId(21), compactId(31)});
+        // the targets are read once
+        Mockito.verify(jobTargetService, Mockito.times(1)).stream(Mockito.any(JobTargetQuery.class), Mockito.any(Function.class));
+    }
+
+    @Test
+    public void mapPartitionsMaxPartitionsTest() throws Exception {
+        addTargets(1, 100);
+
+        PartitionPlan partitionPlan = targetPartitionMapper.mapPartitions();
+
+        // 4 ranges of 25 targets
+        assertPartitions(partitionPlan, new String[] {"", compactId(26), compactId(51), compactId(76)});
+    }
+
+    @Test
+    public void mapPartitionsTargetSublistTest() throws Exception {
+        addTargets(1, 100);
+        // 20 targets selected, the other ones are not taken into account
+        HashSet<KapuaId> sublistIds = new HashSet<>();
+        for (int i = 51; i <= 70; i++) {
+            sublistIds.add(newId(i));
+        }
+        jobProperties.setProperty(JobContextPropertyNames.JOB_TARGET_SUBLIST, TARGET_SUBLIST);
+        Mockito.when(xmlUtil.unmarshal(TARGET_SUBLIST, JobTargetSublist.class)).thenReturn(new JobTargetSublist(sublistIds));
+
+        PartitionPlan partitionPlan = targetPartitionMapper.mapPartitions();
+
+        assertPartitions(partitionPlan, new String[] {"", compactId(61)});
+    }
+
+    @Test
+    public void mapPartitionsTargetsRemovedTest() throws Exception {
+        addTargets(1, 40);
+        // the targets are removed after being counted
+        Mockito.doAnswer(invocation -> {
+            long count = selectTargets(invocation.getArgumentAt(0, JobTargetQuery.class)).size();
+            targetIds.subList(15, targetIds.size()).clear();
+            return count;
+        }).when(jobTargetService).count(Mockito.any(JobTargetQuery.class));
+
+        PartitionPlan partitionPlan = targetPartitionMapper.mapPartitions();
+
+        assertPartitions(partitionPlan, new String[] {"", compactId(11)});
+    }
+
+    private void setPartitionSettings(int partitionTargetsMin, int partitionMax) {
+        Mockito.when(jobEngineSetting.getInt(Mockito.eq(JobEngineSettingKeys.JOB_ENGINE_STEP_PARTITION_TARGETS_MIN), Mockito.anyInt())).thenReturn(partitionTargetsMin);
+        Mockito.when(jobEngineSetting.getInt(Mockito.eq(JobEngineSettingKeys.JOB_ENGINE_STEP_PARTITION_MAX), Mockito.anyInt())).thenReturn(partitionMax);
+    }
+
+    private void addTargets(int from, int to) {
+        for (int i = from; i <= to; i++) {
+            targetIds.add(newId(i));
+        }
+    }
+
+    /**
+     * Selects the targets as the {@link JobTargetService} would, with the {@link JobTargetAttributes#ENTITY_ID} filter of the {@link JobTargetSublist}.
+     */
+    private List<KapuaId> selectTargets(JobTargetQuery query) {
+        List<KapuaId> selected = new ArrayList<>(targetIds);
+        for (QueryPredicate predicate : ((AndPredicate) query.getPredicate()).getPredicates()) {
+            if (predicate instanceof AttributePredicate && JobTargetAttributes.ENTITY_ID.equals(((AttributePredicate<?>) predicate).getAttributeName())) {
+                Object value = ((AttributePredicate<?>) predicate).getAttributeValue();
+                selected.retainAll(value instanceof Collection ? (Collection<?>) value : Collections.singleton(value));
+            }
+        }
+        return selected;
+    }
+
+    private static void assertPartitions(PartitionPlan partitionPlan, String[] expectedFroms) {
+        int partitionCount = expectedFroms.length;
+        Assert.assertEquals("Expected and actual values should be the same!", partitionCount, partitionPlan.getPartitions());
+        Assert.assertEquals("Expected and actual values should be the same!", partitionCount, partitionPlan.getThreads());
+
+        Properties[] partitionProperties = partitionPlan.getPartitionProperties();
+        Assert.assertEquals("Expected and actual values should be the same!", partitionCount, partitionProperties.length);
+        for (int i = 0; i < partitionCount; i++) {
+            Assert.assertEquals("Expected and actual values should be the same!", String.valueOf(i), partitionProperties[i].getProperty(StepContextPropertyNames.STEP_PARTITION_INDEX));
+            Assert.assertEquals("Expected and actual values should be the same!", String.valueOf(partitionCount), partitionProperties[i].getProperty(StepContextPropertyNames.STEP_PARTITION_COUNT));
+            Assert.assertEquals("Expected and actual values should be the same!", expectedFroms[i], partitionProperties[i].getProperty(StepContextPropertyNames.STEP_PARTITION_TARGET_ID_FROM));
+            // each range ends where the next one starts
+            String expectedTo = i < partitionCount - 1 ? expectedFroms[i + 1] : "";
+            Assert.assertEquals("Expected and actual values should be the same!", expectedTo, partitionProperties[i].getProperty(StepContextPropertyNames.STEP_PARTITION_TARGET_ID_TO));
+        }
+    }
+
+    private static KapuaId newId(int id) {
+        return new KapuaEid(BigInteger.valueOf(id));
+    }
+
+    private static String compactId(int id) {
+        return newId(id).toCompactId();
+    }
+
+    private static JobTarget newJobTarget(KapuaId id) {
+        JobTarget jobTarget = Mockito.mock(JobTarget.class);
+        Mockito.when(jobTarget.getId()).thenReturn(id);
+        return jobTarget;
+    }
+
+    private static class TestJobTargetQuery extends AbstractKapuaQuery implements JobTargetQuery {
+
+        private TestJobTargetQuery(KapuaId scopeId) {
+            super(scopeId);
+        }
+    }
+}
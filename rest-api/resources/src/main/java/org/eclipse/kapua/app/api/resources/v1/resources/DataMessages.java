@@ -12,8 +12,17 @@
  *******************************************************************************/
 package org.eclipse.kapua.app.api.resources.v1.resources;
 
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -27,16 +36,23 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
 
 import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.KapuaIllegalArgumentException;
 import org.eclipse.kapua.KapuaIllegalNullArgumentException;
 import org.eclipse.kapua.app.api.core.model.CountResult;
 import org.eclipse.kapua.app.api.core.model.DateParam;
 import org.eclipse.kapua.app.api.core.model.MetricType;
 import org.eclipse.kapua.app.api.core.model.ScopeId;
 import org.eclipse.kapua.app.api.core.model.StorableEntityId;
+import org.eclipse.kapua.app.api.core.model.data.JsonDatastoreMessage;
 import org.eclipse.kapua.app.api.core.resources.AbstractKapuaResource;
 import org.eclipse.kapua.message.device.data.KapuaDataMessage;
 import org.eclipse.kapua.model.type.ObjectValueConverter;
@@ -64,12 +80,19 @@ import com.google.common.base.Strings;
 @Path("{scopeId}/data/messages")
 public class DataMessages extends AbstractKapuaResource {
 
+    private static final String APPLICATION_X_NDJSON = "application/x-ndjson";
+    private static final String TEXT_CSV = "text/csv";
+    private static final String FORMAT_NDJSON = "ndjson";
+    private static final String FORMAT_CSV = "csv";
+
     @Inject
     public MessageStoreService messageStoreService;
     @Inject
     public MessageStoreFactory messageStoreFactory;
     @Inject
     public DatastorePredicateFactory datastorePredicateFactory;
+    @Context
+    public Providers providers;
 
     /**
      * Gets the {@link DatastoreMessage} list in the scope.
@@ -118,6 +141,148 @@ public class DataMessages extends AbstractKapuaResource {
         return query(scopeId, query);
     }
 
+    /**
+     * Exports the {@link DatastoreMessage}s in the scope, streaming them as newline delimited JSON or as CSV.
+     * <p>
+     * Unlike {@link #simpleQuery}, the results are not limited by the maximum result window of the datastore,
+     * since the {@link DatastoreMessage}s are read in pages while they are written with {@link MessageStoreService#iterate(MessageQuery)}.
+     *
+     * @param scopeId
+     *         The {@link ScopeId} in which to search results.
+     * @param clientIds
+     *         The client id(s) to filter results.
+     * @param channel
+     *         The channel id to filter results. It allows '#' wildcard in last channel level.
+     * @param strictChannel
+     *         Restrict the search only to this channel ignoring its children. Only meaningful if channel is set.
+     * @param startDateParam
+     *         The start date to filter the results. Must come before endDate parameter.
+     * @param endDateParam
+     *         The end date to filter the results. Must come after startDate parameter
+     * @param limit
+     *         The maximum number of results to export. All the results are exported if not set.
+     * @param format
+     *         The export format. Can be {@code ndjson} (default) or {@code csv}.
+     * @param metrics
+     *         The metrics to add as columns of the {@code csv} format.
+     * @return The {@link Response} streaming the exported {@link DatastoreMessage}s.
+     * @throws KapuaException
+     *         Whenever something bad happens. See specific {@link KapuaService} exceptions.
+     * @since 2.1.0
+     */
+    @GET
+    @Path("_export")
+    @Produces({ APPLICATION_X_NDJSON, TEXT_CSV })
+    public <V extends Comparable<V>> Response export(@PathParam("scopeId") ScopeId scopeId,
+            @QueryParam("clientId") List<String> clientIds,
+            @QueryParam("channel") String channel,
+            @QueryParam("strictChannel") boolean strictChannel,
+            @QueryParam("startDate") DateParam startDateParam,
+            @QueryParam("endDate") DateParam endDateParam,
+            @QueryParam("metricName") String metricName,
+            @QueryParam("metricType") String metricType,
+            @QueryParam("metricMin") String metricMinValue,
+            @QueryParam("metricMax") String metricMaxValue,
+            @QueryParam("sortDir") @DefaultValue("ASC") SortDirection sortDir,
+            @QueryParam("limit") Integer limit,
+            @QueryParam("format") @DefaultValue(FORMAT_NDJSON) String format,
+            @QueryParam("metric") List<String> metrics)
+            throws KapuaException {
+        if (!FORMAT_NDJSON.equals(format) && !FORMAT_CSV.equals(format)) {
+            throw new KapuaIllegalArgumentException("format", format);
+        }
+
+        MetricType<V> internalMetricType = new MetricType<>(metricType);
+        MessageQuery query = parametersToQuery(datastorePredicateFactory, messageStoreFactory, scopeId, clientIds, channel, strictChannel, startDateParam, endDateParam, metricName, internalMetricType,
+                metricMinValue, metricMaxValue, sortDir, 0, 0);
+        query.setLimit(limit);
+
+        Iterator<DatastoreMessage> datastoreMessages = messageStoreService.iterate(query);
+
+        if (FORMAT_CSV.equals(format)) {
+            return Response.ok(exportCsv(datastoreMessages, metrics != null ? metrics : new ArrayList<>()), TEXT_CSV).build();
+        } else {
+            return Response.ok(exportNdjson(datastoreMessages), APPLICATION_X_NDJSON).build();
+        }
+    }
+
+    private StreamingOutput exportNdjson(Iterator<DatastoreMessage> datastoreMessages) {
+        MessageBodyWriter<JsonDatastoreMessage> jsonWriter = providers.getMessageBodyWriter(JsonDatastoreMessage.class, JsonDatastoreMessage.class, new Annotation[0], MediaType.APPLICATION_JSON_TYPE);
+
+        return output -> {
+            // The JSON writer must not close the stream after each message
+            OutputStream messageOutput = new FilterOutputStream(output) {
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+
+            while (datastoreMessages.hasNext()) {
+                jsonWriter.writeTo(new JsonDatastoreMessage(datastoreMessages.next()), JsonDatastoreMessage.class, JsonDatastoreMessage.class, new Annotation[0], MediaType.APPLICATION_JSON_TYPE,
+                        new MultivaluedHashMap<>(), messageOutput);
+                output.write('\n');
+            }
+            output.flush();
+        };
+    }
+
+    private StreamingOutput exportCsv(Iterator<DatastoreMessage> datastoreMessages, List<String> metrics) {
+        return output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+            List<String> header = new ArrayList<>();
+            header.add("timestamp");
+            header.add("clientId");
+            header.add("channel");
+            header.addAll(metrics);
+            writeCsvRow(writer, header);
+
+            List<String> row = new ArrayList<>();
+            while (datastoreMessages.hasNext()) {
+                DatastoreMessage datastoreMessage = datastoreMessages.next();
+
+                row.clear();
+                row.add(datastoreMessage.getTimestamp() != null ? datastoreMessage.getTimestamp().toInstant().toString() : null);
+                row.add(datastoreMessage.getClientId());
+                row.add(datastoreMessage.getChannel() != null ? datastoreMessage.getChannel().toPathString() : null);
+                for (String metric : metrics) {
+                    Object metricValue = datastoreMessage.getPayload() != null && datastoreMessage.getPayload().getMetrics() != null ? datastoreMessage.getPayload().getMetrics().get(metric) : null;
+                    row.add(metricValue != null ? metricValue.toString() : null);
+                }
+                writeCsvRow(writer, row);
+            }
+            writer.flush();
+        };
+    }
+
+    private static void writeCsvRow(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+
+            String value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
     /**
      * Stores a new Message under the account of the currently connected user. In this case, the provided message will only be stored in the back-end database and it will not be forwarded to the
      * message broker.
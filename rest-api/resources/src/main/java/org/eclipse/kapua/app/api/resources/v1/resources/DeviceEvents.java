@@ -68,6 +68,7 @@ public class DeviceEvents extends AbstractKapuaResource {
      * @param askTotalCount Ask for the total count of the matched entities in the result
      * @param offset        The result set offset.
      * @param limit         The result set limit.
+     * @param continuationToken The continuation token returned by the previous page. It replaces the offset.
      * @return The {@link DeviceEventListResult} of all the deviceEvents associated to the current selected scope.
      * @throws KapuaException Whenever something bad happens. See specific {@link KapuaService} exceptions.
      * @since 1.0.0
@@ -84,7 +85,8 @@ public class DeviceEvents extends AbstractKapuaResource {
             @QueryParam("sortDir") @DefaultValue("ASCENDING") SortOrder sortDir,
             @QueryParam("askTotalCount") boolean askTotalCount,
             @QueryParam("offset") @DefaultValue("0") int offset,
-            @QueryParam("limit") @DefaultValue("50") int limit) throws KapuaException {
+            @QueryParam("limit") @DefaultValue("50") int limit,
+            @QueryParam("continuationToken") String continuationToken) throws KapuaException {
         DeviceEventQuery query = deviceEventFactory.newQuery(scopeId);
 
         if (deviceRegistryService.find(scopeId, deviceId) == null) {
@@ -112,6 +114,7 @@ public class DeviceEvents extends AbstractKapuaResource {
         query.setAskTotalCount(askTotalCount);
         query.setOffset(offset);
         query.setLimit(limit);
+        query.setContinuationToken(continuationToken);
 
         return query(scopeId, deviceId, query);
     }
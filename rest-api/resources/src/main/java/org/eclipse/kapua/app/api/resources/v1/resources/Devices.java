@@ -68,6 +68,7 @@ public class Devices extends AbstractKapuaResource {
      * @param sortDir          The sort direction. Can be ASCENDING (default), DESCENDING. Case-insensitive.
      * @param offset           The result set offset.
      * @param limit            The result set limit.
+     * @param continuationToken The continuation token returned by the previous page. It replaces the offset.
      * @return The {@link DeviceListResult} of all the devices associated to the current selected scope.
      * @throws KapuaException Whenever something bad happens. See specific {@link KapuaService} exceptions.
      * @since 1.0.0
@@ -85,7 +86,8 @@ public class Devices extends AbstractKapuaResource {
             @QueryParam("sortParam") String sortParam,
             @QueryParam("sortDir") @DefaultValue("ASCENDING") SortOrder sortDir,
             @QueryParam("offset") @DefaultValue("0") int offset,
-            @QueryParam("limit") @DefaultValue("50") int limit) throws KapuaException {
+            @QueryParam("limit") @DefaultValue("50") int limit,
+            @QueryParam("continuationToken") String continuationToken) throws KapuaException {
         DeviceQuery query = deviceFactory.newQuery(scopeId);
 
         AndPredicate andPredicate = query.andPredicate();
@@ -111,6 +113,7 @@ public class Devices extends AbstractKapuaResource {
         query.setOffset(offset);
         query.setLimit(limit);
         query.setAskTotalCount(askTotalCount);
+        query.setContinuationToken(continuationToken);
 
         return query(scopeId, query);
     }
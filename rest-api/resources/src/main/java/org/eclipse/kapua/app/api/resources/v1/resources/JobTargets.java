@@ -73,6 +73,7 @@ public class JobTargets extends AbstractKapuaResource {
      * @param askTotalCount Ask for the total count of the matched entities in the result
      * @param offset        The result set offset.
      * @param limit         The result set limit.
+     * @param continuationToken The continuation token returned by the previous page. It replaces the offset.
      * @return The {@link JobTargetListResult} of all the jobs targets associated to the current selected job.
      * @throws KapuaException Whenever something bad happens. See specific {@link KapuaService} exceptions.
      * @since 1.0.0
@@ -87,7 +88,8 @@ public class JobTargets extends AbstractKapuaResource {
             @QueryParam("sortDir") @DefaultValue("ASCENDING") SortOrder sortDir,
             @QueryParam("askTotalCount") boolean askTotalCount,
             @QueryParam("offset") @DefaultValue("0") int offset,
-            @QueryParam("limit") @DefaultValue("50") int limit) throws KapuaException {
+            @QueryParam("limit") @DefaultValue("50") int limit,
+            @QueryParam("continuationToken") String continuationToken) throws KapuaException {
         JobTargetQuery query = jobTargetFactory.newQuery(scopeId);
 
         AndPredicate andPredicate = query.andPredicate(query.attributePredicate(JobExecutionAttributes.JOB_ID, jobId));
@@ -105,6 +107,7 @@ public class JobTargets extends AbstractKapuaResource {
         query.setAskTotalCount(askTotalCount);
         query.setOffset(offset);
         query.setLimit(limit);
+        query.setContinuationToken(continuationToken);
 
         return jobTargetService.query(query);
     }
@@ -37,7 +37,7 @@ import java.util.function.Predicate;
  */
 @XmlRootElement(name = "result")
 @XmlAccessorType(XmlAccessType.PROPERTY)
-@XmlType(propOrder = {"limitExceeded", "size", "items", "totalCount"})
+@XmlType(propOrder = {"limitExceeded", "size", "items", "totalCount", "nextContinuationToken"})
 public interface KapuaListResult<E extends KapuaEntity> extends KapuaSerializable {
 
     /**
@@ -199,4 +199,23 @@ public interface KapuaListResult<E extends KapuaEntity> extends KapuaSerializabl
      * @since 1.2.0
      */
     void setTotalCount(Long totalCount);
+
+    /**
+     * Gets the continuation token to get the next page of results.
+     * <p>
+     * It is set when {@link #isLimitExceeded()} and it can be set as {@link KapuaQuery#setContinuationToken(String)} of the same {@link KapuaQuery} to get the next page.
+     *
+     * @return The continuation token to get the next page of results, or {@code null} if not available.
+     * @since 2.1.0
+     */
+    @XmlElement(name = "nextContinuationToken")
+    String getNextContinuationToken();
+
+    /**
+     * Sets the continuation token to get the next page of results.
+     *
+     * @param nextContinuationToken The continuation token to get the next page of results.
+     * @since 2.1.0
+     */
+    void setNextContinuationToken(String nextContinuationToken);
 }
@@ -195,6 +195,30 @@ public interface KapuaQuery {
      * @since 1.2.0
      */
     void setAskTotalCount(Boolean askTotalCount);
+
+    /**
+     * Gets the continuation token from which to continue the query.
+     * <p>
+     * The continuation token is returned by {@link KapuaListResult#getNextContinuationToken()} and it is opaque.
+     * When set, the results start right after the last result of the previous page, according to the same {@link #getSortCriteria()},
+     * and the {@link #getOffset()} is ignored.
+     *
+     * @return The continuation token from which to continue the query.
+     * @since 2.1.0
+     */
+    @XmlElement(name = "continuationToken")
+    String getContinuationToken();
+
+    /**
+     * Sets the continuation token from which to continue the query.
+     * <p>
+     * This method and {@link #setLimit(Integer)} are meant to be used to paginate through large result sets,
+     * since the results before the continuation token are not scanned like the ones before the {@link #getOffset()}.
+     *
+     * @param continuationToken The continuation token returned by {@link KapuaListResult#getNextContinuationToken()}.
+     * @since 2.1.0
+     */
+    void setContinuationToken(String continuationToken);
     // Predicates factory
 
     /**
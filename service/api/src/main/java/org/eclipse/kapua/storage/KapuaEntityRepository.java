@@ -21,6 +21,7 @@ import org.eclipse.kapua.model.query.KapuaQuery;
 
 import javax.validation.constraints.Null;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Base contract to persists (Create, Read, Delete) {@link KapuaEntity}s
@@ -60,6 +61,19 @@ public interface KapuaEntityRepository<E extends KapuaEntity, L extends KapuaLis
      */
     L query(TxContext txContext, KapuaQuery kapuaQuery) throws KapuaException;
 
+    /**
+     * Queries the {@link KapuaEntity}es, returning them incrementally instead of loading all of them at once.
+     * <p>
+     * The {@link Stream} reads from the given {@link TxContext}: it must be consumed and closed before the transaction ends,
+     * preferably within {@link TxManager#executeReadOnly(TxManager.TxConsumer)}.
+     * The returned {@link KapuaEntity}es are meant to be read only and must not be updated.
+     *
+     * @param kapuaQuery The {@link KapuaQuery} to perform.
+     * @return The {@link Stream} of the {@link KapuaEntity}es that matched the query.
+     * @since 2.1.0
+     */
+    Stream<E> stream(TxContext txContext, KapuaQuery kapuaQuery) throws KapuaException;
+
     /**
      * Counts the number of {@link KapuaEntity} according to the provided query.
      *
@@ -19,6 +19,7 @@ import org.eclipse.kapua.model.query.KapuaListResult;
 import org.eclipse.kapua.model.query.KapuaQuery;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * This utility class is provided as syntactic sugar for classes that need to wrap around a {@link KapuaEntityRepository}, decorating it with additional functionalities.
@@ -50,6 +51,11 @@ public abstract class KapuaEntityRepositoryNoopWrapper<E extends KapuaEntity, L
         return wrapped.query(txContext, kapuaQuery);
     }
 
+    @Override
+    public Stream<E> stream(TxContext txContext, KapuaQuery kapuaQuery) throws KapuaException {
+        return wrapped.stream(txContext, kapuaQuery);
+    }
+
     @Override
     public long count(TxContext txContext, KapuaQuery kapuaQuery) throws KapuaException {
         return wrapped.count(txContext, kapuaQuery);
@@ -33,6 +33,19 @@ public interface TxManager {
                   BiConsumer<TxContext, R>... justBeforeCommitAdditionalTxConsumers)
             throws KapuaException;
 
+    /**
+     * Executes the operations within a read-only transaction, which is rolled back instead of being committed once they complete.
+     * <p>
+     * Use this for reads which consume their results incrementally while the transaction is open (see {@link KapuaEntityRepository#stream(TxContext, org.eclipse.kapua.model.query.KapuaQuery)}).
+     *
+     * @param transactionConsumer The actual set of read operations to be executed within the transaction
+     * @param <R>                 The type of the value returned by the main transaction
+     * @return the result returned by the <code>transactionConsumer</code> execution within the transaction
+     * @throws KapuaException propagating exceptions thrown during tx execution
+     * @since 2.1.0
+     */
+    <R> R executeReadOnly(TxConsumer<R> transactionConsumer) throws KapuaException;
+
     /**
      * Prefer using {@link #execute(TxConsumer, BiConsumer[])} whenever possible
      *
@@ -42,6 +42,18 @@ public class TxManagerImpl implements TxManager {
     public <R> R execute(TxConsumer<R> transactionConsumer,
                          BiConsumer<TxContext, R>... justBeforeCommitAdditionalTxConsumers)
             throws KapuaException {
+        return doExecute(transactionConsumer, false, justBeforeCommitAdditionalTxConsumers);
+    }
+
+    @Override
+    public <R> R executeReadOnly(TxConsumer<R> transactionConsumer) throws KapuaException {
+        return doExecute(transactionConsumer, true);
+    }
+
+    private <R> R doExecute(TxConsumer<R> transactionConsumer,
+                            boolean readOnly,
+                            BiConsumer<TxContext, R>... justBeforeCommitAdditionalTxConsumers)
+            throws KapuaException {
         int retry = 0;
         final TxContext txContext = txContextSupplier.get();
         try {
@@ -50,7 +62,12 @@ public class TxManagerImpl implements TxManager {
                     final R res = transactionConsumer.execute(txContext);
                     Arrays.stream(justBeforeCommitAdditionalTxConsumers)
                             .forEach(additionalTxConsumer -> additionalTxConsumer.accept(txContext, res));
-                    txContext.commit();
+                    if (readOnly) {
+                        // Nothing to persist, and the read operations must not change anything
+                        txContext.rollback();
+                    } else {
+                        txContext.commit();
+                    }
                     return res;
                 } catch (Exception ex) {
                     //In JPA, all exceptions (even caught ones) force the transaction in rollback-only mode
@@ -16,6 +16,8 @@ import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.kapua.client.security.metric.AuthMetric;
+import org.eclipse.kapua.commons.jpa.KapuaJpaRepositoryConfiguration;
+import org.eclipse.kapua.commons.jpa.KapuaJpaTxManagerFactory;
 import org.eclipse.kapua.commons.liquibase.DatabaseCheckUpdate;
 import org.eclipse.kapua.commons.setting.system.SystemSetting;
 import org.eclipse.kapua.event.ServiceEventBus;
@@ -136,6 +138,16 @@ public class SpringBridge {
         return KapuaLocator.getInstance().getComponent(ServiceAuthenticationSetting.class);
     }
 
+    @Bean
+    KapuaJpaTxManagerFactory jpaTxManagerFactory() {
+        return KapuaLocator.getInstance().getComponent(KapuaJpaTxManagerFactory.class);
+    }
+
+    @Bean
+    KapuaJpaRepositoryConfiguration jpaRepoConfig() {
+        return KapuaLocator.getInstance().getComponent(KapuaJpaRepositoryConfiguration.class);
+    }
+
     @Bean
     ServiceEventBus serviceEventBus() {
         return KapuaLocator.getInstance().getComponent(ServiceEventBus.class);
@@ -32,14 +32,17 @@ import org.eclipse.kapua.client.security.bean.AuthRequest;
 import org.eclipse.kapua.client.security.bean.AuthResponse;
 import org.eclipse.kapua.client.security.bean.EntityRequest;
 import org.eclipse.kapua.client.security.bean.EntityResponse;
+import org.eclipse.kapua.client.security.bean.IngestionRateLimit;
 import org.eclipse.kapua.client.security.metric.AuthMetric;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.model.KapuaEntity;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.id.KapuaIdFactory;
 import org.eclipse.kapua.service.account.Account;
 import org.eclipse.kapua.service.account.AccountService;
 import org.eclipse.kapua.service.authentication.authentication.Authenticator;
+import org.eclipse.kapua.service.authentication.authentication.IngestionRateLimitProvider;
 import org.eclipse.kapua.service.authentication.exception.KapuaAuthenticationErrorCodes;
 import org.eclipse.kapua.service.authentication.exception.KapuaAuthenticationException;
 import org.eclipse.kapua.service.authentication.token.AccessToken;
@@ -63,6 +66,9 @@ public class AuthenticationServiceBackEndCall {
     @Inject
     private Authenticator authenticator;
 
+    @Inject
+    private IngestionRateLimitProvider ingestionRateLimitProvider;
+
     private KapuaLocator locator;
     private AuthenticationService authenticationService;
     private AccountService accountService;
@@ -98,6 +104,7 @@ public class AuthenticationServiceBackEndCall {
             authContext.setAuthenticationType(deviceConnectionAuthType);
             authResponse.setAcls(authenticator.connect(authContext));
             authResponse.update(authContext);
+            authResponse.setIngestionRateLimit(getIngestionRateLimit(accessToken.getScopeId()));
             return authResponse;
         } catch (Exception e) {
             //this is not a proper error since the login throws exception if the user is not allowed to connect
@@ -167,6 +174,16 @@ public class AuthenticationServiceBackEndCall {
         return authResponse;
     }
 
+    private IngestionRateLimit getIngestionRateLimit(KapuaId scopeId) {
+        try {
+            return ingestionRateLimitProvider.getIngestionRateLimit(scopeId);
+        } catch (Exception e) {
+            //the connection is not refused if the rate limits cannot be read, its messages are just not rate limited
+            logger.warn("Cannot read the ingestion rate limits of scope {}: {}", scopeId.toCompactId(), e.getMessage(), e);
+            return null;
+        }
+    }
+
     private AuthResponse buildLoginResponseNotAuthorized(AuthRequest authRequest, Exception exception) {
         return buildAuthResponse(authRequest, ResultCode.notAuthorized, exception);
     }
@@ -38,6 +38,12 @@ public class MetricsAuthentication {
     private Counter converter;
     private Counter converterError;
 
+    public static final String DEVICE_CONNECTION_UPDATE = "device_connection_update";
+    private static final String COALESCED = "coalesced";
+    private Counter deviceConnectionUpdateFlushed;
+    private Counter deviceConnectionUpdateCoalesced;
+    private Counter deviceConnectionUpdateError;
+
     @Inject
     public MetricsAuthentication(MetricsService metricsService) {
         converter = metricsService.getCounter(SERVICE_AUTHENTICATION, CONVERTER, MetricsLabel.SUCCESS);
@@ -49,6 +55,10 @@ public class MetricsAuthentication {
         logoutRequest = metricsService.getCounter(SERVICE_AUTHENTICATION, LOGOUT, REQUEST);
         getAccount = metricsService.getCounter(SERVICE_AUTHENTICATION, GET_ACCOUNT, MetricsLabel.SUCCESS);
         getAccountRequest = metricsService.getCounter(SERVICE_AUTHENTICATION, GET_ACCOUNT, REQUEST);
+
+        deviceConnectionUpdateFlushed = metricsService.getCounter(SERVICE_AUTHENTICATION, DEVICE_CONNECTION_UPDATE, MetricsLabel.SUCCESS);
+        deviceConnectionUpdateCoalesced = metricsService.getCounter(SERVICE_AUTHENTICATION, DEVICE_CONNECTION_UPDATE, COALESCED);
+        deviceConnectionUpdateError = metricsService.getCounter(SERVICE_AUTHENTICATION, DEVICE_CONNECTION_UPDATE, MetricsLabel.ERROR);
     }
 
     public Counter getConverter() {
@@ -83,4 +93,16 @@ public class MetricsAuthentication {
         return getAccountRequest;
     }
 
+    public Counter getDeviceConnectionUpdateFlushed() {
+        return deviceConnectionUpdateFlushed;
+    }
+
+    public Counter getDeviceConnectionUpdateCoalesced() {
+        return deviceConnectionUpdateCoalesced;
+    }
+
+    public Counter getDeviceConnectionUpdateError() {
+        return deviceConnectionUpdateError;
+    }
+
 }
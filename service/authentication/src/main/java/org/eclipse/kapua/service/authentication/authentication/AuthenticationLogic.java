@@ -40,6 +40,7 @@ import org.slf4j.LoggerFactory;
 import java.text.MessageFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Authentication logic definition
@@ -62,6 +63,7 @@ public abstract class AuthenticationLogic {
     protected final DeviceConnectionFactory deviceConnectionFactory;
     protected final PermissionFactory permissionFactory;
     protected final DeviceConnectionService deviceConnectionService;
+    protected final DeviceConnectionStateStore deviceConnectionStateStore;
 
     private static final String USER_NOT_AUTHORIZED = "User not authorized!";
 
@@ -73,7 +75,8 @@ public abstract class AuthenticationLogic {
             AuthorizationService authorizationService,
             DeviceConnectionFactory deviceConnectionFactory,
             PermissionFactory permissionFactory,
-            DeviceConnectionService deviceConnectionService) {
+            DeviceConnectionService deviceConnectionService,
+            DeviceConnectionStateStore deviceConnectionStateStore) {
         this.aclCreator = aclCreator;
         this.authenticationMetric = authenticationMetric;
         this.deviceConnectionOptionFactory = deviceConnectionOptionFactory;
@@ -82,6 +85,7 @@ public abstract class AuthenticationLogic {
         this.deviceConnectionFactory = deviceConnectionFactory;
         this.permissionFactory = permissionFactory;
         this.deviceConnectionService = deviceConnectionService;
+        this.deviceConnectionStateStore = deviceConnectionStateStore;
     }
 
     /**
@@ -289,6 +293,9 @@ public abstract class AuthenticationLogic {
 
     /**
      * Updates a {@link DeviceConnection} using the info provided.
+     * <p>
+     * The update is written through the {@link DeviceConnectionStateStore} when the status, the server address or the user of the {@link DeviceConnection} change,
+     * since they are checked by the disconnect and by the Device-User bound enforcement, otherwise it is written behind.
      *
      * @param authContext
      * @param deviceConnection The {@link DeviceConnection} to update, or null if it needs to be created
@@ -296,12 +303,18 @@ public abstract class AuthenticationLogic {
      * @throws KapuaException
      */
     protected DeviceConnection updateDeviceConnection(AuthContext authContext, DeviceConnection deviceConnection) throws KapuaException {
+        KapuaId userId = KapuaEid.parseCompactId(authContext.getUserId());
+        boolean stateUnchanged = DeviceConnectionStatus.CONNECTED.equals(deviceConnection.getStatus()) &&
+                Objects.equals(authContext.getBrokerHost(), deviceConnection.getServerIp()) &&
+                Objects.equals(userId, deviceConnection.getUserId()) &&
+                !deviceConnection.getAllowUserChange();
+
         // TODO manage the stealing link event (may be a good idea to use different connect status (connect -stealing)?
         deviceConnection.setStatus(DeviceConnectionStatus.CONNECTED);
         deviceConnection.setClientIp(authContext.getClientIp());
         deviceConnection.setProtocol(authContext.getTransportProtocol());
         deviceConnection.setServerIp(authContext.getBrokerHost());
-        deviceConnection.setUserId(KapuaEid.parseCompactId(authContext.getUserId()));
+        deviceConnection.setUserId(userId);
         deviceConnection.setAllowUserChange(false);
         deviceConnection.setAuthenticationType(authContext.getAuthenticationType());
         deviceConnection.setLastAuthenticationType(authContext.getAuthenticationType());
@@ -309,13 +322,12 @@ public abstract class AuthenticationLogic {
         // if (DeviceStatus.DISABLED.equals(device.getStatus())) {
         // throw new KapuaIllegalAccessException("clientId - This client ID is disabled and cannot connect");
         // }
-        return KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.update(deviceConnection));
+        return stateUnchanged ? deviceConnectionStateStore.updateBehind(deviceConnection) : deviceConnectionStateStore.update(deviceConnection);
     }
 
     protected DeviceConnection getDeviceConnection(AuthContext authContext) {
         try {
-            return KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.findByClientId(
-                    KapuaEid.parseCompactId(authContext.getScopeId()), authContext.getClientId()));
+            return deviceConnectionStateStore.findByClientId(KapuaEid.parseCompactId(authContext.getScopeId()), authContext.getClientId());
         } catch (Exception e) {
             throw new ShiroException("Error while looking for device connection on updating the device status!", e);
         }
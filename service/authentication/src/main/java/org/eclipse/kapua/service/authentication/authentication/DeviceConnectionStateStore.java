@@ -0,0 +1,299 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authentication.authentication;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.authentication.MetricsAuthentication;
+import org.eclipse.kapua.service.authentication.setting.ServiceAuthenticationSetting;
+import org.eclipse.kapua.service.authentication.setting.ServiceAuthenticationSettingKey;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnection;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionService;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Store of the {@link DeviceConnection}s used by the broker connect and disconnect.
+ * <p>
+ * {@link DeviceConnection}s are always read from the database and the state transitions (status, server address and user of the connection) are written through,
+ * since the disconnect and the Device-User bound enforcement depend on them.
+ * Only the updates which leave the state unchanged (a device connecting again to the broker which already owns its connection) are queued and written
+ * by a single flushing thread, and consecutive updates of the same client which are still queued are collapsed into the latest one.
+ * There is no cached read path and no batched write: each queued update is written on its own.
+ * <p>
+ * A queued update is an immutable copy of the updated fields. It is written only if the stored {@link DeviceConnection} still has the status and the server address
+ * it was queued with: the {@link DeviceConnection} is read again and updated under optimistic locking, so it is skipped if a state transition has been written in the meantime.
+ * Reading a {@link DeviceConnection} writes its queued update first, or waits for the write of its queued update if another thread is writing it,
+ * so the version read is never outdated by a later flush.
+ * The writes of the same client are ordered, while the reads and writes of the other clients go on concurrently.
+ * Write-behind is disabled if the flush interval is lower or equal to 0, in that case every update is written through.
+ *
+ * @since 2.1.0
+ */
+public class DeviceConnectionStateStore implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeviceConnectionStateStore.class);
+
+    private final DeviceConnectionService deviceConnectionService;
+    private final MetricsAuthentication metrics;
+
+    private final long flushInterval;
+    private final int flushMaxBatch;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final ConcurrentHashMap<String, DeviceConnectionState> pendingStates = new ConcurrentHashMap<>();
+
+    /**
+     * The last write of a queued update of each client which is in progress.
+     * It is registered when the queued update is taken, so a {@link DeviceConnection} is never read while its queued update is being written.
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> writingStates = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param deviceConnectionService      The {@link DeviceConnectionService}.
+     * @param metricsAuthentication        The {@link MetricsAuthentication}.
+     * @param serviceAuthenticationSetting The {@link ServiceAuthenticationSetting}.
+     * @since 2.1.0
+     */
+    @Inject
+    public DeviceConnectionStateStore(DeviceConnectionService deviceConnectionService, MetricsAuthentication metricsAuthentication, ServiceAuthenticationSetting serviceAuthenticationSetting) {
+        this.deviceConnectionService = deviceConnectionService;
+        this.metrics = metricsAuthentication;
+
+        this.flushInterval = serviceAuthenticationSetting.getLong(ServiceAuthenticationSettingKey.SERVICE_AUTHENTICATION_DEVICE_CONNECTION_WRITE_BEHIND_FLUSH_INTERVAL, 1000L);
+        this.flushMaxBatch = Math.max(1, serviceAuthenticationSetting.getInt(ServiceAuthenticationSettingKey.SERVICE_AUTHENTICATION_DEVICE_CONNECTION_WRITE_BEHIND_MAX_BATCH, 500));
+
+        if (flushInterval > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "device-connection-write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        } else {
+            LOG.info("Device connection write-behind disabled. Device connection updates will be written through.");
+            flusher = null;
+        }
+    }
+
+    /**
+     * Finds the {@link DeviceConnection} of the given client.
+     * <p>
+     * The queued update of the client, if any, is written before reading.
+     * If another thread is writing it, the read waits for the write to complete.
+     *
+     * @param scopeId  The {@link DeviceConnection#getScopeId()}.
+     * @param clientId The {@link DeviceConnection#getClientId()}.
+     * @return The {@link DeviceConnection}, or {@code null} if it does not exist.
+     * @throws KapuaException if the {@link DeviceConnection} cannot be read.
+     * @since 2.1.0
+     */
+    public DeviceConnection findByClientId(KapuaId scopeId, String clientId) throws KapuaException {
+        String key = keyOf(scopeId, clientId);
+        flush(key);
+
+        CompletableFuture<Void> writing = writingStates.get(key);
+        if (writing != null) {
+            writing.join();
+        }
+        return KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.findByClientId(scopeId, clientId));
+    }
+
+    /**
+     * Writes through a state transition of the given {@link DeviceConnection}.
+     * <p>
+     * The queued update of the client, if any, is discarded since it has been queued for the previous state.
+     *
+     * @param deviceConnection The {@link DeviceConnection} read with {@link #findByClientId(KapuaId, String)}, with the updated state.
+     * @return The updated {@link DeviceConnection}.
+     * @throws KapuaException if the update fails.
+     * @since 2.1.0
+     */
+    public DeviceConnection update(DeviceConnection deviceConnection) throws KapuaException {
+        pendingStates.remove(keyOf(deviceConnection.getScopeId(), deviceConnection.getClientId()));
+        return KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.update(deviceConnection));
+    }
+
+    /**
+     * Queues an update of the given {@link DeviceConnection} which leaves its status and server address unchanged.
+     * <p>
+     * The update is written through if write-behind is disabled.
+     *
+     * @param deviceConnection The {@link DeviceConnection} read with {@link #findByClientId(KapuaId, String)}, with the updated fields.
+     * @return The given {@link DeviceConnection}, or the updated one if it has been written through.
+     * @throws KapuaException if the update is written through and fails.
+     * @since 2.1.0
+     */
+    public DeviceConnection updateBehind(DeviceConnection deviceConnection) throws KapuaException {
+        if (flusher == null) {
+            return update(deviceConnection);
+        }
+
+        if (pendingStates.put(keyOf(deviceConnection.getScopeId(), deviceConnection.getClientId()), new DeviceConnectionState(deviceConnection)) != null) {
+            metrics.getDeviceConnectionUpdateCoalesced().inc();
+        }
+
+        if (pendingStates.size() >= flushMaxBatch && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flush);
+        }
+        return deviceConnection;
+    }
+
+    /**
+     * Writes all the queued updates.
+     *
+     * @since 2.1.0
+     */
+    public void flush() {
+        flushRequested.set(false);
+
+        for (String key : pendingStates.keySet()) {
+            flush(key);
+        }
+    }
+
+    /**
+     * Takes and writes the queued update of the given client, if any.
+     * <p>
+     * The update is taken and its write registered atomically, and it is written after the previous write of the same client, if still in progress.
+     *
+     * @param key The key of the client.
+     */
+    private void flush(String key) {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        DeviceConnectionState[] taken = new DeviceConnectionState[1];
+        CompletableFuture<?>[] previous = new CompletableFuture<?>[1];
+        pendingStates.computeIfPresent(key, (k, state) -> {
+            taken[0] = state;
+            previous[0] = writingStates.put(k, written);
+            return null;
+        });
+        if (taken[0] == null) {
+            return;
+        }
+
+        try {
+            if (previous[0] != null) {
+                previous[0].join();
+            }
+            writeQueued(taken[0]);
+        } finally {
+            writingStates.remove(key, written);
+            written.complete(null);
+        }
+    }
+
+    private void writeQueued(DeviceConnectionState state) {
+        try {
+            if (KapuaSecurityUtils.doPrivileged(() -> write(state))) {
+                metrics.getDeviceConnectionUpdateFlushed().inc();
+            }
+        } catch (Exception e) {
+            LOG.error("Error while writing the queued update of device connection: {}/{}", state.scopeId, state.clientId, e);
+            metrics.getDeviceConnectionUpdateError().inc();
+        }
+    }
+
+    /**
+     * Applies the state to the stored {@link DeviceConnection}, if it still has the status and the server address of the state.
+     *
+     * @param state The {@link DeviceConnectionState} to write.
+     * @return {@code true} if the {@link DeviceConnection} has been updated, {@code false} if the update has been skipped.
+     * @throws KapuaException if the {@link DeviceConnection} cannot be read or updated.
+     */
+    private boolean write(DeviceConnectionState state) throws KapuaException {
+        DeviceConnection deviceConnection = deviceConnectionService.find(state.scopeId, state.id);
+        if (deviceConnection == null) {
+            LOG.warn("Cannot find device connection for device: {}/{}. Skipping queued update.", state.scopeId, state.clientId);
+            return false;
+        }
+        if (!state.status.equals(deviceConnection.getStatus()) || !Objects.equals(state.serverIp, deviceConnection.getServerIp())) {
+            LOG.debug("Device connection {}/{} changed state since the update was queued. Skipping queued update.", state.scopeId, state.clientId);
+            return false;
+        }
+
+        state.applyTo(deviceConnection);
+        deviceConnectionService.update(deviceConnection);
+        return true;
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(flushInterval, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flush();
+        }
+    }
+
+    private static String keyOf(KapuaId scopeId, String clientId) {
+        return scopeId.toCompactId() + "/" + clientId;
+    }
+
+    /**
+     * Immutable copy of a queued {@link DeviceConnection} update.
+     * <p>
+     * The status and the server address are the ones the update is conditional on.
+     *
+     * @since 2.1.0
+     */
+    private static class DeviceConnectionState {
+
+        private final KapuaId scopeId;
+        private final KapuaId id;
+        private final String clientId;
+        private final DeviceConnectionStatus status;
+        private final String serverIp;
+        private final String clientIp;
+        private final String protocol;
+        private final String authenticationType;
+        private final String lastAuthenticationType;
+
+        DeviceConnectionState(DeviceConnection deviceConnection) {
+            scopeId = deviceConnection.getScopeId();
+            id = deviceConnection.getId();
+            clientId = deviceConnection.getClientId();
+            status = deviceConnection.getStatus();
+            serverIp = deviceConnection.getServerIp();
+            clientIp = deviceConnection.getClientIp();
+            protocol = deviceConnection.getProtocol();
+            authenticationType = deviceConnection.getAuthenticationType();
+            lastAuthenticationType = deviceConnection.getLastAuthenticationType();
+        }
+
+        void applyTo(DeviceConnection deviceConnection) {
+            deviceConnection.setClientIp(clientIp);
+            deviceConnection.setProtocol(protocol);
+            deviceConnection.setAuthenticationType(authenticationType);
+            deviceConnection.setLastAuthenticationType(lastAuthenticationType);
+        }
+    }
+}
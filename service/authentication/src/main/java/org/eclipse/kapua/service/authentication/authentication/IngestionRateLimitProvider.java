@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authentication.authentication;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.client.security.bean.IngestionRateLimit;
+import org.eclipse.kapua.client.security.bean.IngestionRateLimit.Action;
+import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.commons.configuration.ServiceConfigImplJpaRepository;
+import org.eclipse.kapua.commons.configuration.ServiceConfigListResult;
+import org.eclipse.kapua.commons.configuration.ServiceConfigRepository;
+import org.eclipse.kapua.commons.jpa.KapuaJpaRepositoryConfiguration;
+import org.eclipse.kapua.commons.jpa.KapuaJpaTxManagerFactory;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.authentication.setting.ServiceAuthenticationSetting;
+import org.eclipse.kapua.service.authentication.setting.ServiceAuthenticationSettingKey;
+import org.eclipse.kapua.storage.TxManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Provides the telemetry {@link IngestionRateLimit}s of the accounts, which the broker enforces on the connections of the accounts.
+ * <p>
+ * The rate limits are read from the MessageStoreService configuration of the account and kept in a local cache.
+ * The configuration is read directly from the service configurations since the datastore service is not available in the authentication service.
+ *
+ * @since 2.1.0
+ */
+public class IngestionRateLimitProvider {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IngestionRateLimitProvider.class);
+
+    private static final String MESSAGE_STORE_SERVICE_PID = "org.eclipse.kapua.service.datastore.MessageStoreService";
+    private static final String RX_RATE_LIMIT_KEY = "rxRateLimit";
+    private static final String RX_RATE_LIMIT_BURST_KEY = "rxRateLimitBurst";
+    private static final String RX_RATE_LIMIT_PER_DEVICE_KEY = "rxRateLimitPerDevice";
+    private static final String RX_RATE_LIMIT_ACTION_KEY = "rxRateLimitAction";
+
+    private static final IngestionRateLimit UNLIMITED = new IngestionRateLimit(0, 0, 0, Action.delay);
+
+    private final TxManager txManager;
+    private final ServiceConfigRepository serviceConfigRepository;
+    private final LocalCache<KapuaId, IngestionRateLimit> ingestionRateLimitCache;
+
+    /**
+     * Constructor.
+     *
+     * @param jpaTxManagerFactory          The {@link KapuaJpaTxManagerFactory}.
+     * @param jpaRepoConfig                The {@link KapuaJpaRepositoryConfiguration}.
+     * @param serviceAuthenticationSetting The {@link ServiceAuthenticationSetting}.
+     * @since 2.1.0
+     */
+    @Inject
+    public IngestionRateLimitProvider(KapuaJpaTxManagerFactory jpaTxManagerFactory, KapuaJpaRepositoryConfiguration jpaRepoConfig, ServiceAuthenticationSetting serviceAuthenticationSetting) {
+        this(jpaTxManagerFactory.create("kapua-commons"), new ServiceConfigImplJpaRepository(jpaRepoConfig), serviceAuthenticationSetting);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param txManager                    The {@link TxManager} of the service configurations.
+     * @param serviceConfigRepository      The {@link ServiceConfigRepository}.
+     * @param serviceAuthenticationSetting The {@link ServiceAuthenticationSetting}.
+     * @since 2.1.0
+     */
+    IngestionRateLimitProvider(TxManager txManager, ServiceConfigRepository serviceConfigRepository, ServiceAuthenticationSetting serviceAuthenticationSetting) {
+        this.txManager = txManager;
+        this.serviceConfigRepository = serviceConfigRepository;
+
+        int cacheMaxSize = serviceAuthenticationSetting.getInt(ServiceAuthenticationSettingKey.SERVICE_AUTHENTICATION_INGESTION_RATE_LIMIT_CACHE_MAX_SIZE, 10000);
+        int cacheExpireAfter = serviceAuthenticationSetting.getInt(ServiceAuthenticationSettingKey.SERVICE_AUTHENTICATION_INGESTION_RATE_LIMIT_CACHE_EXPIRE_AFTER, 30);
+        this.ingestionRateLimitCache = new LocalCache<>(cacheMaxSize, cacheExpireAfter, null);
+    }
+
+    /**
+     * Gets the {@link IngestionRateLimit} of the given account, from the cache if present.
+     *
+     * @param scopeId The account {@link KapuaId}.
+     * @return The {@link IngestionRateLimit}, or {@code null} if the account is not rate limited.
+     * @throws KapuaException if the MessageStoreService configuration cannot be read.
+     * @since 2.1.0
+     */
+    public IngestionRateLimit getIngestionRateLimit(KapuaId scopeId) throws KapuaException {
+        IngestionRateLimit ingestionRateLimit = ingestionRateLimitCache.get(scopeId);
+        if (ingestionRateLimit == null) {
+            ingestionRateLimit = read(scopeId);
+            ingestionRateLimitCache.put(scopeId, ingestionRateLimit);
+        }
+        return ingestionRateLimit.isLimited() ? ingestionRateLimit : null;
+    }
+
+    private IngestionRateLimit read(KapuaId scopeId) throws KapuaException {
+        ServiceConfigListResult result = txManager.execute(tx -> serviceConfigRepository.findByScopeAndPid(tx, scopeId, MESSAGE_STORE_SERVICE_PID));
+        if (result == null || result.isEmpty()) {
+            return UNLIMITED;
+        }
+
+        Properties properties = result.getFirstItem().getConfigurations();
+        if (properties == null) {
+            return UNLIMITED;
+        }
+        return new IngestionRateLimit(
+                getInt(properties, RX_RATE_LIMIT_KEY),
+                getInt(properties, RX_RATE_LIMIT_BURST_KEY),
+                getInt(properties, RX_RATE_LIMIT_PER_DEVICE_KEY),
+                getAction(properties));
+    }
+
+    private int getInt(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            LOG.warn("Invalid MessageStoreService configuration value: {}={}. The rate is not limited.", key, value);
+            return 0;
+        }
+    }
+
+    private Action getAction(Properties properties) {
+        String value = properties.getProperty(RX_RATE_LIMIT_ACTION_KEY);
+        if (value == null || value.isEmpty()) {
+            return Action.delay;
+        }
+        try {
+            return Action.valueOf(value.trim().toLowerCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid MessageStoreService configuration value: {}={}. The messages over the rate limits are delayed.", RX_RATE_LIMIT_ACTION_KEY, value);
+            return Action.delay;
+        }
+    }
+}
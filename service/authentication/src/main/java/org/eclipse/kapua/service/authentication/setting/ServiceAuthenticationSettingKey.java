@@ -30,7 +30,31 @@ public enum ServiceAuthenticationSettingKey implements SettingKey {
     /**
      * Lifecycle events publishing address
      */
-    SERVICE_AUTHENTICATION_LIFECYCLE_EVENTS_ADDRESS("service.authentication.lifecycle_events_address");
+    SERVICE_AUTHENTICATION_LIFECYCLE_EVENTS_ADDRESS("service.authentication.lifecycle_events_address"),
+    /**
+     * Maximum number of account ingestion rate limits kept in the local cache
+     *
+     * @since 2.1.0
+     */
+    SERVICE_AUTHENTICATION_INGESTION_RATE_LIMIT_CACHE_MAX_SIZE("service.authentication.ingestion_rate_limit.cache.max_size"),
+    /**
+     * Time in seconds after which a cached account ingestion rate limit is read again
+     *
+     * @since 2.1.0
+     */
+    SERVICE_AUTHENTICATION_INGESTION_RATE_LIMIT_CACHE_EXPIRE_AFTER("service.authentication.ingestion_rate_limit.cache.expire_after"),
+    /**
+     * Interval in milliseconds between the writes of the queued device connection updates (0 to write every update through)
+     *
+     * @since 2.1.0
+     */
+    SERVICE_AUTHENTICATION_DEVICE_CONNECTION_WRITE_BEHIND_FLUSH_INTERVAL("service.authentication.device_connection.write_behind.flush_interval"),
+    /**
+     * Number of queued device connection updates which triggers a write before the flush interval
+     *
+     * @since 2.1.0
+     */
+    SERVICE_AUTHENTICATION_DEVICE_CONNECTION_WRITE_BEHIND_MAX_BATCH("service.authentication.device_connection.write_behind.max_batch");
 
     private String key;
 
@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authentication.authentication;
+
+import com.codahale.metrics.Counter;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.metric.MetricsService;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authentication.MetricsAuthentication;
+import org.eclipse.kapua.service.authentication.setting.ServiceAuthenticationSetting;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnection;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionService;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionStatus;
+import org.eclipse.kapua.service.device.registry.connection.internal.DeviceConnectionImpl;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Category(JUnitTests.class)
+public class DeviceConnectionStateStoreTest {
+
+    private static final String FLUSH_INTERVAL = "service.authentication.device_connection.write_behind.flush_interval";
+    private static final KapuaId SCOPE_ID = KapuaId.ONE;
+    private static final String CLIENT_ID = "client-1";
+    private static final String OTHER_CLIENT_ID = "client-2";
+
+    private DeviceConnectionService deviceConnectionService;
+    private DeviceConnectionStateStore deviceConnectionStateStore;
+
+    /**
+     * The {@link DeviceConnection} stored in the database.
+     */
+    private DeviceConnection stored;
+
+    @Before
+    public void initialize() throws KapuaException {
+        stored = new DeviceConnectionImpl(SCOPE_ID);
+        stored.setId(KapuaId.ONE);
+        stored.setClientId(CLIENT_ID);
+        stored.setStatus(DeviceConnectionStatus.CONNECTED);
+        stored.setServerIp("broker-1");
+        stored.setClientIp("10.0.0.1");
+
+        deviceConnectionService = Mockito.mock(DeviceConnectionService.class);
+        Mockito.when(deviceConnectionService.find(SCOPE_ID, KapuaId.ONE)).thenAnswer(invocation -> new DeviceConnectionImpl(stored));
+        Mockito.when(deviceConnectionService.findByClientId(SCOPE_ID, CLIENT_ID)).thenAnswer(invocation -> new DeviceConnectionImpl(stored));
+        Mockito.when(deviceConnectionService.update(Mockito.any(DeviceConnection.class))).thenAnswer(invocation -> {
+            stored = new DeviceConnectionImpl((DeviceConnection) invocation.getArguments()[0]);
+            return stored;
+        });
+
+        // the scheduled flush never runs during the test, flushes are triggered by the tests
+        System.setProperty(FLUSH_INTERVAL, "3600000");
+        deviceConnectionStateStore = new DeviceConnectionStateStore(deviceConnectionService, newMetricsAuthentication(), new ServiceAuthenticationSetting());
+    }
+
+    @After
+    public void tearDown() {
+        deviceConnectionStateStore.close();
+        System.clearProperty(FLUSH_INTERVAL);
+    }
+
+    @Test
+    public void reconnectWrittenBehindTest() throws KapuaException {
+        reconnect("broker-1", "10.0.0.2");
+        Mockito.verify(deviceConnectionService, Mockito.never()).update(Mockito.any(DeviceConnection.class));
+
+        deviceConnectionStateStore.flush();
+        Mockito.verify(deviceConnectionService, Mockito.times(1)).update(Mockito.any(DeviceConnection.class));
+        Assert.assertEquals("Expected and actual values should be the same!", "10.0.0.2", stored.getClientIp());
+    }
+
+    @Test
+    public void reconnectCoalescedTest() throws KapuaException {
+        reconnect("broker-1", "10.0.0.2");
+        reconnect("broker-1", "10.0.0.3");
+
+        deviceConnectionStateStore.flush();
+        Mockito.verify(deviceConnectionService, Mockito.times(1)).update(Mockito.any(DeviceConnection.class));
+        Assert.assertEquals("Expected and actual values should be the same!", "10.0.0.3", stored.getClientIp());
+    }
+
+    @Test
+    public void findWritesQueuedUpdateFirstTest() throws KapuaException {
+        reconnect("broker-1", "10.0.0.2");
+
+        DeviceConnection deviceConnection = deviceConnectionStateStore.findByClientId(SCOPE_ID, CLIENT_ID);
+
+        InOrder inOrder = Mockito.inOrder(deviceConnectionService);
+        inOrder.verify(deviceConnectionService).update(Mockito.any(DeviceConnection.class));
+        inOrder.verify(deviceConnectionService).findByClientId(SCOPE_ID, CLIENT_ID);
+        Assert.assertEquals("Expected and actual values should be the same!", "10.0.0.2", deviceConnection.getClientIp());
+    }
+
+    @Test
+    public void findWaitsForQueuedUpdateWriteTest() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        blockUpdates(writing, release);
+        reconnect("broker-1", "10.0.0.2");
+
+        // the flush takes the queued update and blocks while writing it
+        CompletableFuture<Void> flush = CompletableFuture.runAsync(deviceConnectionStateStore::flush);
+        Assert.assertTrue("The queued update should be written!", writing.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<DeviceConnection> find = CompletableFuture.supplyAsync(this::findByClientId);
+        try {
+            find.get(200, TimeUnit.MILLISECONDS);
+            Assert.fail("TimeoutException expected");
+        } catch (TimeoutException e) {
+            // the read waits for the write of the queued update
+        }
+
+        release.countDown();
+        flush.get(10, TimeUnit.SECONDS);
+        Assert.assertEquals("Expected and actual values should be the same!", "10.0.0.2", find.get(10, TimeUnit.SECONDS).getClientIp());
+    }
+
+    @Test
+    public void findOtherClientNotBlockedTest() throws Exception {
+        DeviceConnection other = new DeviceConnectionImpl(SCOPE_ID);
+        other.setClientId(OTHER_CLIENT_ID);
+        Mockito.when(deviceConnectionService.findByClientId(SCOPE_ID, OTHER_CLIENT_ID)).thenReturn(other);
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        blockUpdates(writing, release);
+        reconnect("broker-1", "10.0.0.2");
+
+        CompletableFuture<Void> flush = CompletableFuture.runAsync(deviceConnectionStateStore::flush);
+        Assert.assertTrue("The queued update should be written!", writing.await(10, TimeUnit.SECONDS));
+
+        // the write of a client does not block the reads of the other clients
+        Assert.assertEquals("Expected and actual values should be the same!", other, deviceConnectionStateStore.findByClientId(SCOPE_ID, OTHER_CLIENT_ID));
+
+        release.countDown();
+        flush.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void disconnectDiscardsQueuedUpdateTest() throws KapuaException {
+        DeviceConnection deviceConnection = reconnect("broker-1", "10.0.0.2");
+
+        // the disconnect read the connection before the reconnect has been queued
+        deviceConnection.setStatus(DeviceConnectionStatus.DISCONNECTED);
+        deviceConnectionStateStore.update(deviceConnection);
+        deviceConnectionStateStore.flush();
+
+        Mockito.verify(deviceConnectionService, Mockito.times(1)).update(Mockito.any(DeviceConnection.class));
+        Assert.assertEquals("Expected and actual values should be the same!", DeviceConnectionStatus.DISCONNECTED, stored.getStatus());
+    }
+
+    @Test
+    public void stealingLinkSkipsQueuedUpdateTest() throws KapuaException {
+        reconnect("broker-1", "10.0.0.2");
+
+        // the device connected to another broker, which wrote the transition on the database
+        stored.setServerIp("broker-2");
+        stored.setClientIp("10.0.0.3");
+
+        deviceConnectionStateStore.flush();
+        Mockito.verify(deviceConnectionService, Mockito.never()).update(Mockito.any(DeviceConnection.class));
+        Assert.assertEquals("Expected and actual values should be the same!", "broker-2", stored.getServerIp());
+        Assert.assertEquals("Expected and actual values should be the same!", "10.0.0.3", stored.getClientIp());
+    }
+
+    @Test
+    public void disconnectedSkipsQueuedUpdateTest() throws KapuaException {
+        reconnect("broker-1", "10.0.0.2");
+
+        // the device disconnected through another instance of the service
+        stored.setStatus(DeviceConnectionStatus.DISCONNECTED);
+
+        deviceConnectionStateStore.flush();
+        Mockito.verify(deviceConnectionService, Mockito.never()).update(Mockito.any(DeviceConnection.class));
+        Assert.assertEquals("Expected and actual values should be the same!", DeviceConnectionStatus.DISCONNECTED, stored.getStatus());
+    }
+
+    @Test
+    public void writeThroughDisabledTest() throws KapuaException {
+        deviceConnectionStateStore.close();
+        System.setProperty(FLUSH_INTERVAL, "0");
+        deviceConnectionStateStore = new DeviceConnectionStateStore(deviceConnectionService, newMetricsAuthentication(), new ServiceAuthenticationSetting());
+
+        reconnect("broker-1", "10.0.0.2");
+        Mockito.verify(deviceConnectionService, Mockito.times(1)).update(Mockito.any(DeviceConnection.class));
+        Assert.assertEquals("Expected and actual values should be the same!", "10.0.0.2", stored.getClientIp());
+    }
+
+    private static MetricsAuthentication newMetricsAuthentication() {
+        Answer<Counter> newCounter = invocation -> new Counter();
+        return new MetricsAuthentication(Mockito.mock(MetricsService.class, newCounter));
+    }
+
+    /**
+     * Blocks the {@link DeviceConnectionService#update(DeviceConnection)} until released.
+     */
+    private void blockUpdates(CountDownLatch writing, CountDownLatch release) throws KapuaException {
+        Mockito.doAnswer(invocation -> {
+            writing.countDown();
+            Assert.assertTrue("The update should be released!", release.await(10, TimeUnit.SECONDS));
+            stored = new DeviceConnectionImpl((DeviceConnection) invocation.getArguments()[0]);
+            return stored;
+        }).when(deviceConnectionService).update(Mockito.any(DeviceConnection.class));
+    }
+
+    private DeviceConnection findByClientId() {
+        try {
+            return deviceConnectionStateStore.findByClientId(SCOPE_ID, CLIENT_ID);
+        } catch (KapuaException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private DeviceConnection reconnect(String serverIp, String clientIp) throws KapuaException {
+        DeviceConnection deviceConnection = new DeviceConnectionImpl(stored);
+        deviceConnection.setServerIp(serverIp);
+        deviceConnection.setClientIp(clientIp);
+        return deviceConnectionStateStore.updateBehind(deviceConnection);
+    }
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authentication.authentication;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.client.security.bean.IngestionRateLimit;
+import org.eclipse.kapua.client.security.bean.IngestionRateLimit.Action;
+import org.eclipse.kapua.commons.configuration.ServiceConfigImpl;
+import org.eclipse.kapua.commons.configuration.ServiceConfigListResultImpl;
+import org.eclipse.kapua.commons.configuration.ServiceConfigRepository;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authentication.setting.ServiceAuthenticationSetting;
+import org.eclipse.kapua.storage.TxContext;
+import org.eclipse.kapua.storage.TxManager;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import java.util.Properties;
+
+@Category(JUnitTests.class)
+public class IngestionRateLimitProviderTest {
+
+    private static final String MESSAGE_STORE_SERVICE_PID = "org.eclipse.kapua.service.datastore.MessageStoreService";
+    private static final KapuaId SCOPE_ID = KapuaId.ONE;
+
+    private ServiceConfigRepository serviceConfigRepository;
+    private IngestionRateLimitProvider ingestionRateLimitProvider;
+
+    @Before
+    public void initialize() throws KapuaException {
+        TxManager txManager = Mockito.mock(TxManager.class);
+        Mockito.when(txManager.execute(Mockito.any(TxManager.TxConsumer.class))).thenAnswer(invocation ->
+                ((TxManager.TxConsumer<?>) invocation.getArguments()[0]).execute(Mockito.mock(TxContext.class)));
+        serviceConfigRepository = Mockito.mock(ServiceConfigRepository.class);
+        Mockito.when(serviceConfigRepository.findByScopeAndPid(Mockito.any(TxContext.class), Mockito.eq(SCOPE_ID), Mockito.eq(MESSAGE_STORE_SERVICE_PID))).thenReturn(new ServiceConfigListResultImpl());
+
+        ingestionRateLimitProvider = new IngestionRateLimitProvider(txManager, serviceConfigRepository, new ServiceAuthenticationSetting());
+    }
+
+    @Test
+    public void getIngestionRateLimitTest() throws KapuaException {
+        Properties properties = new Properties();
+        properties.setProperty("rxRateLimit", "100");
+        properties.setProperty("rxRateLimitBurst", "500");
+        properties.setProperty("rxRateLimitPerDevice", " 10 ");
+        properties.setProperty("rxRateLimitAction", "DIVERT");
+        configure(properties);
+
+        IngestionRateLimit ingestionRateLimit = ingestionRateLimitProvider.getIngestionRateLimit(SCOPE_ID);
+        Assert.assertNotNull("Expected not null value!", ingestionRateLimit);
+        Assert.assertEquals("Expected and actual values should be the same!", 100, ingestionRateLimit.getRate());
+        Assert.assertEquals("Expected and actual values should be the same!", 500, ingestionRateLimit.getBurst());
+        Assert.assertEquals("Expected and actual values should be the same!", 10, ingestionRateLimit.getDeviceRate());
+        Assert.assertEquals("Expected and actual values should be the same!", Action.divert, ingestionRateLimit.getAction());
+    }
+
+    @Test
+    public void getIngestionRateLimitLowerCaseActionTest() throws KapuaException {
+        Properties properties = new Properties();
+        properties.setProperty("rxRateLimitPerDevice", "10");
+        properties.setProperty("rxRateLimitAction", "drop");
+        configure(properties);
+
+        IngestionRateLimit ingestionRateLimit = ingestionRateLimitProvider.getIngestionRateLimit(SCOPE_ID);
+        Assert.assertNotNull("Expected not null value!", ingestionRateLimit);
+        Assert.assertEquals("Expected and actual values should be the same!", 0, ingestionRateLimit.getRate());
+        Assert.assertEquals("Expected and actual values should be the same!", Action.drop, ingestionRateLimit.getAction());
+    }
+
+    @Test
+    public void getIngestionRateLimitInvalidValuesTest() throws KapuaException {
+        Properties properties = new Properties();
+        properties.setProperty("rxRateLimit", "100");
+        properties.setProperty("rxRateLimitBurst", "many");
+        properties.setProperty("rxRateLimitPerDevice", "-10");
+        properties.setProperty("rxRateLimitAction", "THROTTLE");
+        configure(properties);
+
+        IngestionRateLimit ingestionRateLimit = ingestionRateLimitProvider.getIngestionRateLimit(SCOPE_ID);
+        Assert.assertNotNull("Expected not null value!", ingestionRateLimit);
+        Assert.assertEquals("Expected and actual values should be the same!", 100, ingestionRateLimit.getRate());
+        Assert.assertEquals("Expected and actual values should be the same!", 0, ingestionRateLimit.getBurst());
+        Assert.assertEquals("Expected and actual values should be the same!", 0, ingestionRateLimit.getDeviceRate());
+        Assert.assertEquals("Expected and actual values should be the same!", Action.delay, ingestionRateLimit.getAction());
+    }
+
+    @Test
+    public void getIngestionRateLimitUnlimitedTest() throws KapuaException {
+        Properties properties = new Properties();
+        properties.setProperty("rxRateLimit", "0");
+        properties.setProperty("rxRateLimitAction", "DROP");
+        configure(properties);
+
+        Assert.assertNull("Null expected!", ingestionRateLimitProvider.getIngestionRateLimit(SCOPE_ID));
+    }
+
+    @Test
+    public void getIngestionRateLimitNotConfiguredTest() throws KapuaException {
+        Assert.assertNull("Null expected!", ingestionRateLimitProvider.getIngestionRateLimit(SCOPE_ID));
+    }
+
+    @Test
+    public void getIngestionRateLimitCachedTest() throws KapuaException {
+        Properties properties = new Properties();
+        properties.setProperty("rxRateLimit", "100");
+        configure(properties);
+
+        ingestionRateLimitProvider.getIngestionRateLimit(SCOPE_ID);
+        ingestionRateLimitProvider.getIngestionRateLimit(SCOPE_ID);
+
+        Mockito.verify(serviceConfigRepository, Mockito.times(1)).findByScopeAndPid(Mockito.any(TxContext.class), Mockito.eq(SCOPE_ID), Mockito.eq(MESSAGE_STORE_SERVICE_PID));
+    }
+
+    private void configure(Properties properties) throws KapuaException {
+        ServiceConfigImpl serviceConfig = new ServiceConfigImpl(SCOPE_ID);
+        serviceConfig.setPid(MESSAGE_STORE_SERVICE_PID);
+        serviceConfig.setConfigurations(properties);
+        ServiceConfigListResultImpl result = new ServiceConfigListResultImpl();
+        result.addItem(serviceConfig);
+        Mockito.when(serviceConfigRepository.findByScopeAndPid(Mockito.any(TxContext.class), Mockito.eq(SCOPE_ID), Mockito.eq(MESSAGE_STORE_SERVICE_PID))).thenReturn(result);
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.camel.support.DefaultMessage;
 import org.apache.commons.lang3.SerializationUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
 import org.eclipse.kapua.message.KapuaMessage;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.camel.application.MetricsCamel;
@@ -50,6 +51,11 @@ public abstract class AbstractKapuaConverter {
 
     public static final Logger logger = LoggerFactory.getLogger(AbstractKapuaConverter.class);
 
+    /**
+     * Base64 form of the Java serialization stream header, used to recognize headers set by brokers not yet updated.
+     */
+    private static final String JAVA_SERIALIZATION_BASE64_PREFIX = "rO0";
+
     protected final TranslatorHub translatorHub;
     protected final MetricsCamel metricsCamel;
     protected final ProtocolDescriptorProvider protocolDescriptorProvider;
@@ -80,7 +86,7 @@ public abstract class AbstractKapuaConverter {
                 try {
                     // FIX #164
                     Date queuedOn = new Date(message.getHeader(MessageConstants.HEADER_KAPUA_RECEIVED_TIMESTAMP, Long.class));
-                    KapuaId connectionId = SerializationUtils.deserialize(Base64.getDecoder().decode(message.getHeader(MessageConstants.HEADER_KAPUA_CONNECTION_ID, String.class)));
+                    KapuaId connectionId = decodeConnectionId(message.getHeader(MessageConstants.HEADER_KAPUA_CONNECTION_ID, String.class));
                     String clientId = message.getHeader(MessageConstants.HEADER_KAPUA_CLIENT_ID, String.class);
                     String connectorName = message.getHeader(MessageConstants.HEADER_KAPUA_CONNECTOR_NAME, String.class);
                     ProtocolDescriptor connectorDescriptor = protocolDescriptorProvider.getDescriptor(connectorName);
@@ -99,6 +105,24 @@ public abstract class AbstractKapuaConverter {
         throw KapuaException.internalError("Cannot convert the message - Wrong instance type: " + exchange.getIn().getClass());
     }
 
+    /**
+     * Decodes the connection id set by the broker in the {@link MessageConstants#HEADER_KAPUA_CONNECTION_ID} header.
+     * <p>
+     * The broker sets the {@link KapuaId#toCompactId()} form, while Java serialized ids are still accepted from brokers not yet updated.
+     *
+     * @param connectionIdHeader The header value.
+     * @return The decoded connection id, or {@code null} if the header is not set.
+     * @since 2.1.0
+     */
+    private static KapuaId decodeConnectionId(String connectionIdHeader) {
+        if (connectionIdHeader == null) {
+            return null;
+        } else if (connectionIdHeader.startsWith(JAVA_SERIALIZATION_BASE64_PREFIX)) {
+            return SerializationUtils.deserialize(Base64.getDecoder().decode(connectionIdHeader));
+        }
+        return KapuaEid.parseCompactId(connectionIdHeader);
+    }
+
     /**
      * Convert raw byte[] message to {@link CamelKapuaMessage}
      *
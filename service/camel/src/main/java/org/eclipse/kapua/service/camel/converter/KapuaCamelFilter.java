@@ -19,6 +19,7 @@ import org.apache.shiro.util.ThreadContext;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.commons.security.KapuaSession;
+import org.eclipse.kapua.commons.security.KapuaSessionCodec;
 import org.eclipse.kapua.service.client.message.MessageConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,7 +47,12 @@ public class KapuaCamelFilter {
                 // FIX #164
                 String kapuaSession = exchange.getIn().getHeader(MessageConstants.HEADER_KAPUA_SESSION, String.class);
                 //no null check (see telemetry consumer camel.xml - bind/unbind of the kapua session)
-                KapuaSecurityUtils.setSession((KapuaSession) SerializationUtils.deserialize(Base64.getDecoder().decode(kapuaSession)));
+                if (KapuaSessionCodec.isToken(kapuaSession)) {
+                    KapuaSecurityUtils.setSession(KapuaSessionCodec.decode(kapuaSession));
+                } else {
+                    // Java serialized session set by a broker not yet updated
+                    KapuaSecurityUtils.setSession((KapuaSession) SerializationUtils.deserialize(Base64.getDecoder().decode(kapuaSession)));
+                }
             } catch (IllegalArgumentException | SerializationException e) {
                 // continue without session
                 logger.debug("Cannot restore Kapua session: {}", e.getMessage(), e);
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.camel.listener;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.component.jms.JmsMessage;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * Acknowledges the JMS message of an exchange once the exchange is completed.
+ * <p>
+ * To be used by the routes consuming with the individual acknowledge mode of the Qpid JMS client ({@link #INDIVIDUAL_ACKNOWLEDGE}),
+ * in which the listener container does not acknowledge the messages when the consumer thread is released.
+ * With an asynchronous consumer the message is then acknowledged only when the asynchronous processing is done: if the exchange completes,
+ * also when its failure has been handled by the error handler (e.g. sent to the dead letter queue).
+ * If the exchange fails the message is not acknowledged and is redelivered by the broker once the consumer is closed.
+ *
+ * @since 2.1.0
+ */
+public class MessageAcknowledger {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageAcknowledger.class);
+
+    /**
+     * The individual acknowledge mode of the Qpid JMS client (acknowledges only the given message instead of all the messages of the session).
+     *
+     * @since 2.1.0
+     */
+    public static final int INDIVIDUAL_ACKNOWLEDGE = 101;
+
+    /**
+     * Registers the acknowledgement of the JMS message of the exchange on the completion of the exchange.
+     *
+     * @param exchange
+     * @param value
+     * @since 2.1.0
+     */
+    public void acknowledgeOnCompletion(Exchange exchange, Object value) {
+        JmsMessage jmsMessage = exchange.getIn(JmsMessage.class);
+        if (jmsMessage == null || jmsMessage.getJmsMessage() == null) {
+            return;
+        }
+        // the JMS message is taken now since the in message of the exchange is replaced along the route
+        Message message = jmsMessage.getJmsMessage();
+        exchange.getUnitOfWork().addSynchronization(new SynchronizationAdapter() {
+
+            @Override
+            public void onComplete(Exchange completedExchange) {
+                try {
+                    message.acknowledge();
+                } catch (JMSException e) {
+                    logger.warn("Cannot acknowledge the message {}: {}", completedExchange.getExchangeId(), e.getMessage());
+                }
+            }
+        });
+    }
+}
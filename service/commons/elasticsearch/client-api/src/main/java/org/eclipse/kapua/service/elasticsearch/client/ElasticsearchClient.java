@@ -18,6 +18,8 @@ import org.eclipse.kapua.service.elasticsearch.client.configuration.Elasticsearc
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientInitializationException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientUnavailableException;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertResponse;
 import org.eclipse.kapua.service.elasticsearch.client.model.BulkUpdateRequest;
 import org.eclipse.kapua.service.elasticsearch.client.model.BulkUpdateResponse;
 import org.eclipse.kapua.service.elasticsearch.client.model.IndexRequest;
@@ -29,6 +31,8 @@ import org.eclipse.kapua.service.elasticsearch.client.model.UpdateRequest;
 import org.eclipse.kapua.service.elasticsearch.client.model.UpdateResponse;
 
 import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Elasticsearch client definition.
@@ -133,6 +137,19 @@ public interface ElasticsearchClient<C extends Closeable> {
      */
     InsertResponse insert(InsertRequest insertRequest) throws ClientException;
 
+    /**
+     * Bulk inserts.
+     * <p>
+     * All the documents are sent with a single request.
+     * Failures of single documents do not fail the whole request and are reported in the matching {@link InsertResponse}.
+     *
+     * @param bulkInsertRequest The {@link BulkInsertRequest} to perform.
+     * @return The {@link BulkInsertResponse} from Elasticsearch, with one {@link InsertResponse} for each {@link InsertRequest} in the same order.
+     * @throws ClientException if error occurs while performing the whole request.
+     * @since 2.1.0
+     */
+    BulkInsertResponse insert(BulkInsertRequest bulkInsertRequest) throws ClientException;
+
     /**
      * Upserts a document.
      *
@@ -153,6 +170,47 @@ public interface ElasticsearchClient<C extends Closeable> {
      */
     BulkUpdateResponse upsert(BulkUpdateRequest bulkUpdateRequest) throws ClientException;
 
+    /**
+     * Inserts a document without blocking the calling thread.
+     * <p>
+     * Timed out requests are retried like {@link #insert(InsertRequest)} does, but the wait between attempts does not block any thread.
+     *
+     * @param insertRequest The {@link InsertRequest} to perform.
+     * @return The {@link CompletableFuture} completed with the {@link InsertResponse} from Elasticsearch, or exceptionally with the {@link ClientException} that occurred.
+     * @since 2.1.0
+     */
+    CompletableFuture<InsertResponse> insertAsync(InsertRequest insertRequest);
+
+    /**
+     * Bulk inserts without blocking the calling thread.
+     *
+     * @param bulkInsertRequest The {@link BulkInsertRequest} to perform.
+     * @return The {@link CompletableFuture} completed with the {@link BulkInsertResponse} from Elasticsearch, or exceptionally with the {@link ClientException} that occurred.
+     * @see #insert(BulkInsertRequest)
+     * @since 2.1.0
+     */
+    CompletableFuture<BulkInsertResponse> bulkAsync(BulkInsertRequest bulkInsertRequest);
+
+    /**
+     * Upserts a document without blocking the calling thread.
+     *
+     * @param updateRequest The {@link UpdateRequest} to perform.
+     * @return The {@link CompletableFuture} completed with the {@link UpdateResponse} from Elasticsearch, or exceptionally with the {@link ClientException} that occurred.
+     * @see #upsert(UpdateRequest)
+     * @since 2.1.0
+     */
+    CompletableFuture<UpdateResponse> upsertAsync(UpdateRequest updateRequest);
+
+    /**
+     * Bulk upserts without blocking the calling thread.
+     *
+     * @param bulkUpdateRequest The {@link BulkUpdateRequest} to perform.
+     * @return The {@link CompletableFuture} completed with the {@link BulkUpdateResponse} from Elasticsearch, or exceptionally with the {@link ClientException} that occurred.
+     * @see #upsert(BulkUpdateRequest)
+     * @since 2.1.0
+     */
+    CompletableFuture<BulkUpdateResponse> bulkAsync(BulkUpdateRequest bulkUpdateRequest);
+
     /**
      * Finds by query.
      * <p>
@@ -179,6 +237,36 @@ public interface ElasticsearchClient<C extends Closeable> {
      */
     <T> ResultList<T> query(String index, Object query, Class<T> clazz) throws ClientException;
 
+    /**
+     * Finds by query without blocking the calling thread.
+     *
+     * @param index          The index to look for.
+     * @param query          The query to perform.
+     * @param clazz          The expected {@link Object#getClass()}
+     * @return The {@link CompletableFuture} completed with the {@link ResultList} that matches the query, or exceptionally with the {@link ClientException} that occurred.
+     * @see #query(String, Object, Class)
+     * @since 2.1.0
+     */
+    <T> CompletableFuture<ResultList<T>> queryAsync(String index, Object query, Class<T> clazz);
+
+    /**
+     * Finds by query a page of results following the given sort values.
+     * <p>
+     * Pages are selected with {@code search_after} instead of the offset of the query, so they are not limited by the {@code index.max_result_window} of the index.
+     * The tiebreaker field is appended to the sort of the query, so that each result has unique sort values.
+     *
+     * @param index           The index to look for.
+     * @param query           The query to perform. Its offset and limit are ignored.
+     * @param clazz           The expected {@link Object#getClass()}
+     * @param tiebreakerField The field with unique values to sort by after the sort of the query.
+     * @param size            The maximum number of results of the page.
+     * @param searchAfter     The {@link ResultList#getLastSortValues()} of the previous page, or {@code null} for the first page.
+     * @return The {@link ResultList} that matches the query. Its {@link ResultList#getTotalCount()} is not computed.
+     * @throws ClientException if error occurs while querying.
+     * @since 2.1.0
+     */
+    <T> ResultList<T> queryAfter(String index, Object query, Class<T> clazz, String tiebreakerField, int size, List<Object> searchAfter) throws ClientException;
+
     /**
      * Counts by query.
      *
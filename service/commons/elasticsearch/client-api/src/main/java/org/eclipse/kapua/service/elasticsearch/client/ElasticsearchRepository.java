@@ -37,6 +37,7 @@ import org.eclipse.kapua.service.storable.repository.StorableRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -108,6 +109,28 @@ public abstract class ElasticsearchRepository<
         }
     }
 
+    @Override
+    public Set<String> findExistingIds(KapuaId scopeId, List<StorableId> ids) {
+        try {
+            final Q idsQuery = storableFactory.newQuery(scopeId);
+            idsQuery.setLimit(ids.size());
+
+            final IdsPredicate idsPredicate = storablePredicateFactory.newIdsPredicate();
+            idsPredicate.addIds(ids);
+            idsQuery.setPredicate(idsPredicate);
+
+            final String indexName = indexResolver(scopeId);
+            synchIndex(indexName);
+            final ResultList<T> result = elasticsearchClientProviderInstance.getElasticsearchClient().query(indexName, idsQuery, clazz);
+            return result.getResult()
+                    .stream()
+                    .map(storable -> idExtractor(storable).toString())
+                    .collect(Collectors.toSet());
+        } catch (ClientException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private void synchIndex(String indexName) {
         if (!indexUpserted.containsKey(indexName)) {
             synchronized (clazz) {
@@ -133,6 +156,27 @@ public abstract class ElasticsearchRepository<
         }
     }
 
+    /**
+     * Iterates over all the {@link Storable}s matching the given query, reading them in pages with {@code search_after}.
+     * <p>
+     * Unlike {@link #query(StorableQuery)}, the results are not limited by the {@code index.max_result_window} of the index.
+     * The offset of the query is ignored and its limit, if set, caps the number of {@link Storable}s to iterate over.
+     *
+     * @param query           The query to perform.
+     * @param tiebreakerField The field with unique values to sort by after the sort of the query.
+     * @param pageSize        The maximum number of {@link Storable}s of each page.
+     * @return The {@link Iterator} over the matching {@link Storable}s.
+     * @since 2.1.0
+     */
+    protected Iterator<T> doIterate(Q query, String tiebreakerField, int pageSize) {
+        final String indexName = indexResolver(query.getScopeId());
+        synchIndex(indexName);
+        return new SearchAfterIterator<>(
+                (searchAfter, size) -> elasticsearchClientProviderInstance.getElasticsearchClient().queryAfter(indexName, query, clazz, tiebreakerField, size, searchAfter),
+                pageSize,
+                query.getLimit());
+    }
+
     public static <T extends Storable> void setLimitExceed(StorableQuery query, boolean hitsExceedsTotalCount, StorableListResult<T> list) {
         int offset = query.getOffset() != null ? query.getOffset() : 0;
         if (query.getLimit() != null) {
@@ -12,8 +12,11 @@
  *******************************************************************************/
 package org.eclipse.kapua.service.elasticsearch.client;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import org.eclipse.kapua.service.elasticsearch.client.exception.DatamodelMappingException;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -43,6 +46,37 @@ public interface ModelContext {
      */
     <T> T unmarshal(Class<T> clazz, Map<String, Object> serializedObject) throws DatamodelMappingException;
 
+    /**
+     * Converts the {@code _source} of a search hit, read from the given {@link JsonParser}, to the client object.
+     * <p>
+     * The default implementation reads the {@code _source} as a {@link Map} and delegates to {@link #unmarshal(Class, Map)}.
+     * Implementations can override it to build the client object while parsing, without the intermediate {@link Map},
+     * and to skip the fields that are not needed by the given fetch style.
+     *
+     * @param clazz        The client object type
+     * @param id           The {@code _id} of the search hit.
+     * @param index        The {@code _index} of the search hit.
+     * @param fetchStyle   The fetch style of the query, as returned by {@link QueryConverter#getFetchStyle(Object)}.
+     * @param sourceParser The {@link JsonParser} positioned on the {@link JsonToken#START_OBJECT} of the {@code _source}. It must be left on the matching {@link JsonToken#END_OBJECT}.
+     * @return The object
+     * @throws DatamodelMappingException if there are error in resource mapping.
+     * @since 2.1.0
+     */
+    default <T> T unmarshal(Class<T> clazz, String id, String index, Object fetchStyle, JsonParser sourceParser) throws DatamodelMappingException {
+        Map<String, Object> serializedObject;
+        try {
+            serializedObject = sourceParser.readValueAs(Map.class);
+        } catch (IOException e) {
+            throw new DatamodelMappingException(e, "Error reading the document source");
+        }
+
+        serializedObject.put(TYPE_DESCRIPTOR_KEY, index);
+        serializedObject.put(getIdKeyName(), id);
+        serializedObject.put(QueryConverter.QUERY_FETCH_STYLE_KEY, fetchStyle);
+
+        return unmarshal(clazz, serializedObject);
+    }
+
     /**
      * Converts the Elasticsearch object to the client object
      *
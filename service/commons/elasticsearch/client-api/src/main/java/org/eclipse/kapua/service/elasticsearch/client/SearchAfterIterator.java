@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.elasticsearch.client;
+
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+import org.eclipse.kapua.service.elasticsearch.client.model.ResultList;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link Iterator} over the results of a query, which are read in pages with {@code search_after}.
+ * <p>
+ * Only one page of results is held in memory at a time, and the next page is read when the current one has been consumed.
+ * Errors while reading a page are thrown as {@link RuntimeException}s, since {@link Iterator} methods cannot throw checked exceptions.
+ *
+ * @param <T> The type of the results.
+ * @since 2.1.0
+ */
+public class SearchAfterIterator<T> implements Iterator<T> {
+
+    /**
+     * Reads a page of results.
+     *
+     * @param <T> The type of the results.
+     * @since 2.1.0
+     */
+    @FunctionalInterface
+    public interface PageReader<T> {
+
+        /**
+         * Reads the page of results following the given sort values.
+         *
+         * @param searchAfter The {@link ResultList#getLastSortValues()} of the previous page, or {@code null} for the first page.
+         * @param size        The maximum number of results of the page.
+         * @return The {@link ResultList} of the page.
+         * @throws ClientException if error occurs while reading the page.
+         * @since 2.1.0
+         */
+        ResultList<T> read(List<Object> searchAfter, int size) throws ClientException;
+    }
+
+    private final PageReader<T> pageReader;
+    private final int pageSize;
+    private final Integer limit;
+
+    private Iterator<T> currentPage = Collections.emptyIterator();
+    private List<Object> searchAfter;
+    private boolean lastPageRead;
+    private long readCount;
+
+    /**
+     * Constructor.
+     *
+     * @param pageReader The {@link PageReader} that reads the pages.
+     * @param pageSize   The maximum number of results of each page.
+     * @param limit      The maximum number of results to iterate over, or {@code null} to iterate over all the results.
+     * @since 2.1.0
+     */
+    public SearchAfterIterator(PageReader<T> pageReader, int pageSize, Integer limit) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be greater than 0");
+        }
+
+        this.pageReader = pageReader;
+        this.pageSize = pageSize;
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!currentPage.hasNext() && !lastPageRead) {
+            readNextPage();
+        }
+        return currentPage.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentPage.next();
+    }
+
+    private void readNextPage() {
+        int size = pageSize;
+        if (limit != null) {
+            size = (int) Math.min(pageSize, limit - readCount);
+            if (size <= 0) {
+                lastPageRead = true;
+                return;
+            }
+        }
+
+        ResultList<T> page;
+        try {
+            page = pageReader.read(searchAfter, size);
+        } catch (ClientException e) {
+            throw new RuntimeException(e);
+        }
+
+        List<T> results = page.getResult();
+        readCount += results.size();
+        searchAfter = page.getLastSortValues();
+        lastPageRead = results.size() < size || searchAfter == null;
+        currentPage = results.iterator();
+    }
+}
@@ -25,6 +25,7 @@ public class ElasticsearchClientRequestConfiguration {
 
     private int requestRetryAttemptMax = 3;
     private int requestRetryAttemptWait = 2500;
+    private int requestAsyncMaxInFlightPerNode = 8;
 
     private int queryTimeout = 15000;
     private int scrollTimeout = 60000;
@@ -81,6 +82,33 @@ public class ElasticsearchClientRequestConfiguration {
         return this;
     }
 
+    /**
+     * Gets the maximum number of asynchronous {@link Request}s in flight for each node.
+     * <p>
+     * Asynchronous {@link Request}s exceeding this number are queued until a {@link Request} in flight completes.
+     * <p>
+     * Default value: 8
+     *
+     * @return The maximum number of asynchronous {@link Request}s in flight for each node.
+     * @since 2.1.0
+     */
+    public int getRequestAsyncMaxInFlightPerNode() {
+        return requestAsyncMaxInFlightPerNode;
+    }
+
+    /**
+     * Sets the maximum number of asynchronous {@link Request}s in flight for each node.
+     *
+     * @param requestAsyncMaxInFlightPerNode
+     *         The maximum number of asynchronous {@link Request}s in flight for each node.
+     * @return This {@link ElasticsearchClientRequestConfiguration} to chain method invocation.
+     * @since 2.1.0
+     */
+    public ElasticsearchClientRequestConfiguration setRequestAsyncMaxInFlightPerNode(int requestAsyncMaxInFlightPerNode) {
+        this.requestAsyncMaxInFlightPerNode = requestAsyncMaxInFlightPerNode;
+        return this;
+    }
+
     /**
      * Gets the query {@link Request} timeout.
      * <p>
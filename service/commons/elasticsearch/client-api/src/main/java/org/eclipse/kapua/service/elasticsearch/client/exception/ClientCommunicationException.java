@@ -29,4 +29,14 @@ public class ClientCommunicationException extends ClientException {
     public ClientCommunicationException() {
         super(ClientErrorCodes.CLIENT_COMMUNICATION_ERROR);
     }
+
+    /**
+     * Constructor.
+     *
+     * @param cause The root {@link Throwable} of this {@link ClientCommunicationException}.
+     * @since 2.1.0
+     */
+    public ClientCommunicationException(Throwable cause) {
+        super(ClientErrorCodes.CLIENT_COMMUNICATION_ERROR, cause);
+    }
 }
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.elasticsearch.client.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link BulkInsertResponse} definition.
+ * <p>
+ * It bundles a {@link List} of {@link InsertResponse}, in the same order of the {@link InsertRequest}s of the {@link BulkInsertRequest}.
+ *
+ * @since 2.1.0
+ */
+public class BulkInsertResponse {
+
+    List<InsertResponse> responseList;
+
+    /**
+     * Gets the {@link List} of {@link InsertResponse}s.
+     *
+     * @return The {@link List} of {@link InsertResponse}s.
+     * @since 2.1.0
+     */
+    public List<InsertResponse> getResponse() {
+        if (responseList == null) {
+            responseList = new ArrayList<>();
+        }
+
+        return responseList;
+    }
+
+    /**
+     * Adds an {@link InsertResponse} to the {@link List}
+     *
+     * @param response The {@link InsertResponse} to add.
+     * @since 2.1.0
+     */
+    public void add(InsertResponse response) {
+        getResponse().add(response);
+    }
+
+    /**
+     * Sets the {@link List} of {@link InsertResponse}s.
+     *
+     * @param responseList The {@link List} of {@link InsertResponse}s.
+     * @since 2.1.0
+     */
+    public void setResponse(List<InsertResponse> responseList) {
+        this.responseList = responseList;
+    }
+
+}
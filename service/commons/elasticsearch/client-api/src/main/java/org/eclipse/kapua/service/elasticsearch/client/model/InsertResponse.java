@@ -20,6 +20,20 @@ package org.eclipse.kapua.service.elasticsearch.client.model;
  */
 public class InsertResponse extends Response {
 
+    /**
+     * The result description.
+     *
+     * @since 2.1.0
+     */
+    private String description;
+
+    /**
+     * The HTTP status code of the failure, if occurred.
+     *
+     * @since 2.1.0
+     */
+    private int status;
+
     /**
      * Constructor.
      *
@@ -29,6 +43,65 @@ public class InsertResponse extends Response {
      */
     public InsertResponse(String id, String index) {
         super(id, index);
+
+        setResult(true);
+    }
+
+    /**
+     * Negative result constructor (result false)
+     *
+     * @param id          The id of the record that failed to be inserted.
+     * @param index       The index.
+     * @param status      The HTTP status code of the failure.
+     * @param description The result description of the failure.
+     * @since 2.1.0
+     */
+    public InsertResponse(String id, String index, int status, String description) {
+        this(id, index);
+
+        setResult(false);
+        setStatus(status);
+        setDescription(description);
+    }
+
+    /**
+     * Gets the result description.
+     *
+     * @return The result description.
+     * @since 2.1.0
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Sets the result description.
+     *
+     * @param description The result description.
+     * @since 2.1.0
+     */
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Gets the HTTP status code of the failure, if occurred.
+     *
+     * @return The HTTP status code of the failure, if occurred.
+     * @since 2.1.0
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the HTTP status code of the failure.
+     *
+     * @param status The HTTP status code of the failure.
+     * @since 2.1.0
+     */
+    public void setStatus(int status) {
+        this.status = status;
     }
 
 }
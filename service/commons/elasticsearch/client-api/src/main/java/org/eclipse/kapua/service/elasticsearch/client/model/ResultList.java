@@ -26,6 +26,7 @@ public class ResultList<T> {
     private final List<T> result;
     private final long totalCount;
     private boolean totalHitsExceedsCount; //true iff in ES there are actually more than 10k hits
+    private List<Object> lastSortValues;
 
     /**
      * Constructor.
@@ -67,6 +68,28 @@ public class ResultList<T> {
         return result;
     }
 
+    /**
+     * Gets the sort values of the last matched object.
+     * <p>
+     * They can be used as {@code search_after} to get the next page of matched objects.
+     *
+     * @return The sort values of the last matched object, or {@code null} if there are no matched objects or the query was not sorted.
+     * @since 2.1.0
+     */
+    public List<Object> getLastSortValues() {
+        return lastSortValues;
+    }
+
+    /**
+     * Sets the sort values of the last matched object.
+     *
+     * @param lastSortValues The sort values of the last matched object.
+     * @since 2.1.0
+     */
+    public void setLastSortValues(List<Object> lastSortValues) {
+        this.lastSortValues = lastSortValues;
+    }
+
     /**
      * Gets the total count of matched objects.
      *
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.elasticsearch.client;
+
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientCommunicationException;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+import org.eclipse.kapua.service.elasticsearch.client.model.ResultList;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@Category(JUnitTests.class)
+public class SearchAfterIteratorTest {
+
+    /**
+     * {@link SearchAfterIterator.PageReader} over the integers from 0 to the given count, sorted by themselves.
+     */
+    private static class IntegerPageReader implements SearchAfterIterator.PageReader<Integer> {
+
+        private final int count;
+        private final List<Integer> requestedSizes = new ArrayList<>();
+
+        IntegerPageReader(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public ResultList<Integer> read(List<Object> searchAfter, int size) {
+            requestedSizes.add(size);
+
+            int from = searchAfter == null ? 0 : (Integer) searchAfter.get(0) + 1;
+            ResultList<Integer> page = new ResultList<>(0);
+            for (int i = from; i < count && i < from + size; i++) {
+                page.add(i);
+                page.setLastSortValues(Collections.singletonList(i));
+            }
+            return page;
+        }
+    }
+
+    private static List<Integer> toList(SearchAfterIterator<Integer> iterator) {
+        List<Integer> results = new ArrayList<>();
+        iterator.forEachRemaining(results::add);
+        return results;
+    }
+
+    @Test
+    public void iterateAllPagesTest() {
+        IntegerPageReader pageReader = new IntegerPageReader(25);
+
+        List<Integer> results = toList(new SearchAfterIterator<>(pageReader, 10, null));
+
+        Assert.assertEquals("Expected and actual values should be the same.", 25, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Assert.assertEquals("Expected and actual values should be the same.", Integer.valueOf(i), results.get(i));
+        }
+        Assert.assertEquals("Expected and actual values should be the same.", 3, pageReader.requestedSizes.size());
+    }
+
+    @Test
+    public void iterateExactPagesTest() {
+        IntegerPageReader pageReader = new IntegerPageReader(20);
+
+        List<Integer> results = toList(new SearchAfterIterator<>(pageReader, 10, null));
+
+        Assert.assertEquals("Expected and actual values should be the same.", 20, results.size());
+        // The last page is empty, since the second one is full
+        Assert.assertEquals("Expected and actual values should be the same.", 3, pageReader.requestedSizes.size());
+    }
+
+    @Test
+    public void iterateWithLimitTest() {
+        IntegerPageReader pageReader = new IntegerPageReader(100);
+
+        List<Integer> results = toList(new SearchAfterIterator<>(pageReader, 10, 15));
+
+        Assert.assertEquals("Expected and actual values should be the same.", 15, results.size());
+        Assert.assertEquals("Expected and actual values should be the same.", Integer.valueOf(14), results.get(14));
+        Assert.assertEquals("Expected and actual values should be the same.", 10, pageReader.requestedSizes.get(0).intValue());
+        Assert.assertEquals("Expected and actual values should be the same.", 5, pageReader.requestedSizes.get(1).intValue());
+        Assert.assertEquals("Expected and actual values should be the same.", 2, pageReader.requestedSizes.size());
+    }
+
+    @Test
+    public void iterateEmptyTest() {
+        SearchAfterIterator<Integer> iterator = new SearchAfterIterator<>(new IntegerPageReader(0), 10, null);
+
+        Assert.assertFalse("False expected.", iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void nextAfterLastTest() {
+        SearchAfterIterator<Integer> iterator = new SearchAfterIterator<>(new IntegerPageReader(1), 10, null);
+
+        iterator.next();
+        iterator.next();
+    }
+
+    @Test
+    public void readPageErrorTest() {
+        ClientException clientException = new ClientCommunicationException();
+        SearchAfterIterator<Integer> iterator = new SearchAfterIterator<>((searchAfter, size) -> {
+            throw clientException;
+        }, 10, null);
+
+        try {
+            iterator.hasNext();
+            Assert.fail("RuntimeException expected.");
+        } catch (RuntimeException e) {
+            Assert.assertSame("Expected and actual values should be the same.", clientException, e.getCause());
+        }
+    }
+}
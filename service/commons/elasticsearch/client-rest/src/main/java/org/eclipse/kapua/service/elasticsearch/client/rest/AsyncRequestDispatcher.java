@@ -0,0 +1,332 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.elasticsearch.client.rest;
+
+import org.eclipse.kapua.commons.util.RandomUtils;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientCommunicationException;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientInternalError;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientUnavailableException;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.ResponseListener;
+import org.elasticsearch.client.RestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InterruptedIOException;
+import java.util.Deque;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dispatches {@link Request}s with {@link RestClient#performRequestAsync(Request, ResponseListener)}.
+ * <p>
+ * At most a fixed number of {@link Request}s are in flight at the same time. The exceeding ones are queued and sent when a {@link Request} in flight completes.
+ * Timed out {@link Request}s are retried after a wait which is scheduled on a timer, so that no thread is blocked while waiting.
+ * {@link Response}s are read and the returned {@link CompletableFuture}s are completed on a dedicated pool of threads, to keep the I/O threads of the {@link RestClient} free.
+ * The permit of a {@link Request} is released before completing its {@link CompletableFuture}, so the dependent stages do not hold a {@link Request} in flight.
+ *
+ * @since 2.1.0
+ */
+class AsyncRequestDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncRequestDispatcher.class);
+
+    private static final Random RANDOM = RandomUtils.getInstance();
+
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECS = 60;
+
+    /**
+     * Reads the {@link Response} of a {@link Request}.
+     *
+     * @param <R> The type of the read result.
+     * @since 2.1.0
+     */
+    @FunctionalInterface
+    interface ResponseReader<R> {
+
+        /**
+         * Reads the {@link Response}.
+         *
+         * @param response The {@link Response} to read. It can have a non 2xx HTTP code.
+         * @return The read result.
+         * @throws ClientException if the {@link Response} reports an error or cannot be read.
+         * @since 2.1.0
+         */
+        R read(Response response) throws ClientException;
+    }
+
+    private final Supplier<RestClient> clientSupplier;
+    private final MetricsEsClient metricsEsClient;
+    private final int retryAttemptMax;
+    private final int retryAttemptWait;
+
+    private final Semaphore inFlightPermits;
+    private final Deque<PendingRequest<?>> pendingRequests = new ConcurrentLinkedDeque<>();
+
+    private final ScheduledThreadPoolExecutor retryScheduler;
+    private final ThreadPoolExecutor responseExecutor;
+
+    private volatile boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param clientSupplier   The {@link Supplier} of the {@link RestClient} to send the {@link Request}s with.
+     * @param metricsEsClient  The {@link MetricsEsClient} to count timeouts with.
+     * @param maxInFlight      The maximum number of {@link Request}s in flight at the same time.
+     * @param retryAttemptMax  The maximum number of retries of a timed out {@link Request}.
+     * @param retryAttemptWait The wait before retrying a timed out {@link Request}, in milliseconds.
+     * @since 2.1.0
+     */
+    AsyncRequestDispatcher(Supplier<RestClient> clientSupplier, MetricsEsClient metricsEsClient, int maxInFlight, int retryAttemptMax, int retryAttemptWait) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be greater than 0");
+        }
+
+        this.clientSupplier = clientSupplier;
+        this.metricsEsClient = metricsEsClient;
+        this.retryAttemptMax = retryAttemptMax;
+        this.retryAttemptWait = retryAttemptWait;
+        this.inFlightPermits = new Semaphore(maxInFlight);
+
+        // Idle threads are stopped, since the dispatcher is not closed when the client is replaced on reconnection
+        retryScheduler = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("es-rest-client-retry"));
+        retryScheduler.setKeepAliveTime(IDLE_THREAD_KEEP_ALIVE_SECS, TimeUnit.SECONDS);
+        retryScheduler.allowCoreThreadTimeOut(true);
+
+        // No more tasks than the Requests in flight can be queued, since a task is submitted for a Request in flight which keeps its permit until the task runs.
+        // Threads are shared with the dependent stages of the completed futures, which run after the permit has been released.
+        responseExecutor = new ThreadPoolExecutor(maxInFlight, maxInFlight, IDLE_THREAD_KEEP_ALIVE_SECS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DaemonThreadFactory("es-rest-client-response"));
+        responseExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Dispatches the {@link Request}.
+     *
+     * @param request        The {@link Request} to send.
+     * @param index          The index targeted by the {@link Request}, for logging purposes.
+     * @param operationName  The name of the operation, for logging purposes.
+     * @param responseReader The {@link ResponseReader} of the {@link Response}.
+     * @param <R>            The type of the read result.
+     * @return The {@link CompletableFuture} completed with the read result, or exceptionally with the {@link ClientException} that occurred.
+     * @since 2.1.0
+     */
+    <R> CompletableFuture<R> dispatch(Request request, String index, String operationName, ResponseReader<R> responseReader) {
+        PendingRequest<R> pendingRequest = new PendingRequest<>(request, index, operationName, responseReader);
+        if (closed) {
+            pendingRequest.future.completeExceptionally(new ClientUnavailableException("Client closed"));
+            return pendingRequest.future;
+        }
+
+        pendingRequests.addLast(pendingRequest);
+        sendPendingRequests();
+        return pendingRequest.future;
+    }
+
+    /**
+     * Gets the number of {@link Request}s which are queued, waiting for a {@link Request} in flight to complete.
+     *
+     * @return The number of queued {@link Request}s.
+     * @since 2.1.0
+     */
+    int getPendingCount() {
+        return pendingRequests.size();
+    }
+
+    /**
+     * Closes the {@link AsyncRequestDispatcher}.
+     * <p>
+     * Queued {@link Request}s and the ones waiting to be retried are completed exceptionally. {@link Request}s in flight are left to the {@link RestClient}.
+     *
+     * @since 2.1.0
+     */
+    void close() {
+        closed = true;
+        retryScheduler.shutdownNow();
+        responseExecutor.shutdown();
+
+        PendingRequest<?> pendingRequest;
+        while ((pendingRequest = pendingRequests.pollFirst()) != null) {
+            pendingRequest.future.completeExceptionally(new ClientUnavailableException("Client closed"));
+        }
+    }
+
+    /**
+     * Sends the queued {@link Request}s while there are permits available.
+     * <p>
+     * It is invoked both after queueing and after releasing a permit, so a queued {@link Request} is never left behind.
+     */
+    private void sendPendingRequests() {
+        while (!pendingRequests.isEmpty() && inFlightPermits.tryAcquire()) {
+            PendingRequest<?> pendingRequest = pendingRequests.pollFirst();
+            if (pendingRequest == null) {
+                inFlightPermits.release();
+                continue;
+            }
+
+            send(pendingRequest);
+        }
+    }
+
+    private <R> void send(PendingRequest<R> pendingRequest) {
+        if (closed) {
+            complete(pendingRequest, new ClientUnavailableException("Client closed"));
+            return;
+        }
+
+        try {
+            clientSupplier.get().performRequestAsync(pendingRequest.request, new ResponseListener() {
+
+                @Override
+                public void onSuccess(Response response) {
+                    executeOnResponseThread(() -> read(pendingRequest, response));
+                }
+
+                @Override
+                public void onFailure(Exception exception) {
+                    executeOnResponseThread(() -> handleFailure(pendingRequest, exception));
+                }
+            });
+        } catch (RuntimeException e) {
+            metricsEsClient.getRuntimeException().inc();
+            complete(pendingRequest, new ClientInternalError(e, "Error in sending REST async request"));
+        }
+    }
+
+    private <R> void read(PendingRequest<R> pendingRequest, Response response) {
+        R result;
+        try {
+            result = pendingRequest.responseReader.read(response);
+        } catch (ClientException e) {
+            complete(pendingRequest, e);
+            return;
+        } catch (RuntimeException e) {
+            complete(pendingRequest, new ClientInternalError(e, "Error in reading REST async response"));
+            return;
+        }
+
+        // The permit is released before completing the future, so the dependent stages run by the future do not delay the queued Requests
+        releasePermit();
+        pendingRequest.future.complete(result);
+    }
+
+    private <R> void handleFailure(PendingRequest<R> pendingRequest, Exception exception) {
+        if (exception instanceof ResponseException) {
+            Response response = ((ResponseException) exception).getResponse();
+            LOG.warn("Elasticsearch Response with code {} for on index {} while performing {}. Follows stacktrace.", response.getStatusLine().getStatusCode(), pendingRequest.index, pendingRequest.operationName, exception);
+            read(pendingRequest, response);
+        } else if (isTimeout(exception)) {
+            metricsEsClient.getTimeoutRetry().inc();
+
+            if (pendingRequest.retryCount++ < retryAttemptMax && !closed) {
+                // The permit is given to other Requests while waiting to retry
+                releasePermit();
+                scheduleRetry(pendingRequest);
+            } else {
+                metricsEsClient.getTimeoutRetryLimitReached().inc();
+                complete(pendingRequest, new ClientCommunicationException());
+            }
+        } else {
+            complete(pendingRequest, new ClientInternalError(exception, "Error in handling REST async request"));
+        }
+    }
+
+    private void scheduleRetry(PendingRequest<?> pendingRequest) {
+        long wait = (long) (retryAttemptWait * (0.5 + RANDOM.nextFloat() / 2));
+        try {
+            retryScheduler.schedule(() -> {
+                pendingRequests.addFirst(pendingRequest);
+                sendPendingRequests();
+            }, wait, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            pendingRequest.future.completeExceptionally(new ClientUnavailableException("Client closed"));
+        }
+    }
+
+    private void complete(PendingRequest<?> pendingRequest, ClientException clientException) {
+        releasePermit();
+        pendingRequest.future.completeExceptionally(clientException);
+    }
+
+    private void releasePermit() {
+        inFlightPermits.release();
+        sendPendingRequests();
+    }
+
+    private void executeOnResponseThread(Runnable task) {
+        try {
+            responseExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Closed, the Response is handled on the I/O thread to complete the future anyway
+            task.run();
+        }
+    }
+
+    /**
+     * Checks whether the given {@link Exception} is a connection or socket timeout, which the synchronous requests also retry.
+     */
+    private static boolean isTimeout(Exception exception) {
+        return exception instanceof InterruptedIOException ||
+                exception instanceof TimeoutException ||
+                exception.getCause() instanceof TimeoutException;
+    }
+
+    private static class PendingRequest<R> {
+
+        private final Request request;
+        private final String index;
+        private final String operationName;
+        private final ResponseReader<R> responseReader;
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+
+        private int retryCount;
+
+        private PendingRequest(Request request, String index, String operationName, ResponseReader<R> responseReader) {
+            this.request = request;
+            this.index = index;
+            this.operationName = operationName;
+            this.responseReader = responseReader;
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        private DaemonThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
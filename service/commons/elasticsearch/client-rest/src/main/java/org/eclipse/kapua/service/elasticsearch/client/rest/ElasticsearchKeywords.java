@@ -31,6 +31,7 @@ public class ElasticsearchKeywords {
     static final String KEY_DOC_INDEX = "_index";
     static final String KEY_DOC_TYPE = "_type";
 
+    static final String KEY_INDEX = "index";
     static final String KEY_ITEMS = "items";
     static final String KEY_RESULT = "result";
     static final String KEY_STATUS = "status";
@@ -39,4 +40,8 @@ public class ElasticsearchKeywords {
     static final String KEY_TOTAL = "total";
     static final String KEY_VALUE = "value";
     static final String KEY_RELATION = "relation";
+    static final String KEY_SEARCH_AFTER = "search_after";
+    static final String KEY_TRACK_TOTAL_HITS = "track_total_hits";
+
+    static final String SORT_ASC = "asc";
 }
@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.eclipse.kapua.service.elasticsearch.client.rest;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -23,9 +24,8 @@ import org.apache.http.ParseException;
 import org.apache.http.util.EntityUtils;
 import org.eclipse.kapua.commons.util.RandomUtils;
 import org.eclipse.kapua.service.elasticsearch.client.AbstractElasticsearchClient;
-import org.eclipse.kapua.service.elasticsearch.client.ModelContext;
-import org.eclipse.kapua.service.elasticsearch.client.QueryConverter;
 import org.eclipse.kapua.service.elasticsearch.client.SchemaKeys;
+import org.eclipse.kapua.service.elasticsearch.client.configuration.ElasticsearchClientRequestConfiguration;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientActionResponseException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientCommunicationException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientErrorCodes;
@@ -33,6 +33,8 @@ import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientInitializationException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientInternalError;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientLimitsExceededException;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertResponse;
 import org.eclipse.kapua.service.elasticsearch.client.model.BulkUpdateRequest;
 import org.eclipse.kapua.service.elasticsearch.client.model.BulkUpdateResponse;
 import org.eclipse.kapua.service.elasticsearch.client.model.IndexRequest;
@@ -55,9 +57,11 @@ import javax.inject.Inject;
 import javax.validation.constraints.NotNull;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -80,6 +84,8 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
     private static final String COUNT_CONVERTED_QUERY = "Count - converted query: '{}'";
     private final MetricsEsClient metricsEsClient;
 
+    private volatile AsyncRequestDispatcher asyncRequestDispatcher;
+
     /**
      * Constructor.
      *
@@ -109,6 +115,13 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
 
     @Override
     public void close() {
+        synchronized (this) {
+            if (asyncRequestDispatcher != null) {
+                asyncRequestDispatcher.close();
+                asyncRequestDispatcher = null;
+            }
+        }
+
         if (client != null) {
             try {
                 client.close();
@@ -120,14 +133,26 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
 
     @Override
     public InsertResponse insert(InsertRequest insertRequest) throws ClientException {
+        Request request = buildInsertRequest(insertRequest);
+        return readInsertResponse(restCallTimeoutHandler(() -> getClient().performRequest(request), insertRequest.getIndex(), "INSERT"));
+    }
+
+    @Override
+    public CompletableFuture<InsertResponse> insertAsync(InsertRequest insertRequest) {
+        return dispatchAsync(() -> buildInsertRequest(insertRequest), insertRequest.getIndex(), "INSERT", this::readInsertResponse);
+    }
+
+    private Request buildInsertRequest(InsertRequest insertRequest) throws ClientException {
         Map<String, Object> insertRequestStorableMap = getModelContext().marshal(insertRequest.getStorable());
         LOG.debug("Insert - converted object: '{}'", insertRequestStorableMap);
 
         String json = writeRequestFromMap(insertRequestStorableMap);
         Request request = new Request(ElasticsearchKeywords.ACTION_PUT, ElasticsearchResourcePaths.insertType(insertRequest));
         request.setJsonEntity(json);
-        Response insertResponse = restCallTimeoutHandler(() -> getClient().performRequest(request), insertRequest.getIndex(), "INSERT");
+        return request;
+    }
 
+    private InsertResponse readInsertResponse(Response insertResponse) throws ClientException {
         if (isRequestSuccessful(insertResponse)) {
             JsonNode responseNode = readResponseAsJsonNode(insertResponse);
 
@@ -139,8 +164,83 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
         }
     }
 
+    @Override
+    public BulkInsertResponse insert(BulkInsertRequest bulkInsertRequest) throws ClientException {
+        Request request = buildBulkInsertRequest(bulkInsertRequest);
+        return readBulkInsertResponse(restCallTimeoutHandler(() -> getClient().performRequest(request), "multi-index", "INSERT BULK"));
+    }
+
+    @Override
+    public CompletableFuture<BulkInsertResponse> bulkAsync(BulkInsertRequest bulkInsertRequest) {
+        return dispatchAsync(() -> buildBulkInsertRequest(bulkInsertRequest), "multi-index", "INSERT BULK", this::readBulkInsertResponse);
+    }
+
+    private Request buildBulkInsertRequest(BulkInsertRequest bulkInsertRequest) throws ClientException {
+        StringBuilder bulkOperation = new StringBuilder();
+
+        for (InsertRequest insertRequest : bulkInsertRequest.getRequest()) {
+            Map<String, Object> storableMap = getModelContext().marshal(insertRequest.getStorable());
+
+            bulkOperation.append("{ \"index\": {\"_id\": \"")
+                    .append(insertRequest.getId())
+                    .append("\", \"_index\": \"")
+                    .append(insertRequest.getIndex())
+                    .append("\"}\n");
+
+            bulkOperation.append(writeRequestFromMap(storableMap));
+            bulkOperation.append("\n");
+        }
+        LOG.debug("Insert bulk - documents: '{}'", bulkInsertRequest.getRequest().size());
+
+        Request request = new Request(ElasticsearchKeywords.ACTION_POST, ElasticsearchResourcePaths.getBulkPath());
+        request.setJsonEntity(bulkOperation.toString());
+        return request;
+    }
+
+    private BulkInsertResponse readBulkInsertResponse(Response insertResponse) throws ClientException {
+        if (isRequestSuccessful(insertResponse)) {
+            JsonNode responseNode = readResponseAsJsonNode(insertResponse);
+
+            ArrayNode items = (ArrayNode) responseNode.get(ElasticsearchKeywords.KEY_ITEMS);
+            BulkInsertResponse bulkResponse = new BulkInsertResponse();
+            for (JsonNode item : items) {
+                JsonNode jsonNode = item.get(ElasticsearchKeywords.KEY_INDEX);
+                if (jsonNode != null) {
+                    String id = jsonNode.path(ElasticsearchKeywords.KEY_DOC_ID).asText(null);
+                    String indexName = jsonNode.path(ElasticsearchKeywords.KEY_DOC_INDEX).asText(null);
+                    int responseCode = jsonNode.get(ElasticsearchKeywords.KEY_STATUS).asInt();
+                    if (!isRequestSuccessful(responseCode)) {
+                        String failureMessage = jsonNode.at("/error/reason").asText();
+                        if (StringUtils.isBlank(failureMessage)) {
+                            failureMessage = MSG_EMPTY_ERROR;
+                        }
+                        bulkResponse.add(new InsertResponse(id, indexName, responseCode, failureMessage));
+                        LOG.info("Insert failed [{}, {}, {}]", indexName, responseCode, failureMessage);
+                        continue;
+                    }
+                    bulkResponse.add(new InsertResponse(id, indexName));
+                } else {
+                    throw new ClientInternalError("Empty JSON response from insert");
+                }
+            }
+            return bulkResponse;
+        } else {
+            throw buildExceptionFromUnsuccessfulResponse("Insert", insertResponse);
+        }
+    }
+
     @Override
     public UpdateResponse upsert(UpdateRequest updateRequest) throws ClientException {
+        Request request = buildUpsertRequest(updateRequest);
+        return readUpsertResponse(restCallTimeoutHandler(() -> getClient().performRequest(request), updateRequest.getIndex(), "UPSERT"));
+    }
+
+    @Override
+    public CompletableFuture<UpdateResponse> upsertAsync(UpdateRequest updateRequest) {
+        return dispatchAsync(() -> buildUpsertRequest(updateRequest), updateRequest.getIndex(), "UPSERT", this::readUpsertResponse);
+    }
+
+    private Request buildUpsertRequest(UpdateRequest updateRequest) throws ClientException {
         Map<String, Object> updateRequestStorableMap = getModelContext().marshal(updateRequest.getStorable());
 
         Map<String, Object> updateRequestMap = new HashMap<>();
@@ -151,8 +251,10 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
         String json = writeRequestFromMap(updateRequestMap);
         Request request = new Request(ElasticsearchKeywords.ACTION_POST, ElasticsearchResourcePaths.upsert(updateRequest.getIndex(), updateRequest.getId()));
         request.setJsonEntity(json);
-        Response updateResponse = restCallTimeoutHandler(() -> getClient().performRequest(request), updateRequest.getIndex(), "UPSERT");
+        return request;
+    }
 
+    private UpdateResponse readUpsertResponse(Response updateResponse) throws ClientException {
         if (isRequestSuccessful(updateResponse)) {
             JsonNode responseNode = readResponseAsJsonNode(updateResponse);
 
@@ -166,6 +268,16 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
 
     @Override
     public BulkUpdateResponse upsert(BulkUpdateRequest bulkUpdateRequest) throws ClientException {
+        Request request = buildBulkUpsertRequest(bulkUpdateRequest);
+        return readBulkUpsertResponse(restCallTimeoutHandler(() -> getClient().performRequest(request), "multi-index", "UPSERT BULK"));
+    }
+
+    @Override
+    public CompletableFuture<BulkUpdateResponse> bulkAsync(BulkUpdateRequest bulkUpdateRequest) {
+        return dispatchAsync(() -> buildBulkUpsertRequest(bulkUpdateRequest), "multi-index", "UPSERT BULK", this::readBulkUpsertResponse);
+    }
+
+    private Request buildBulkUpsertRequest(BulkUpdateRequest bulkUpdateRequest) throws ClientException {
         StringBuilder bulkOperation = new StringBuilder();
 
         for (UpdateRequest upsertRequest : bulkUpdateRequest.getRequest()) {
@@ -183,8 +295,10 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
         }
         Request request = new Request(ElasticsearchKeywords.ACTION_POST, ElasticsearchResourcePaths.getBulkPath());
         request.setJsonEntity(bulkOperation.toString());
-        Response updateResponse = restCallTimeoutHandler(() -> getClient().performRequest(request), "multi-index", "UPSERT BULK");
+        return request;
+    }
 
+    private BulkUpdateResponse readBulkUpsertResponse(Response updateResponse) throws ClientException {
         if (isRequestSuccessful(updateResponse)) {
             JsonNode responseNode = readResponseAsJsonNode(updateResponse);
 
@@ -239,51 +353,64 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
         JsonNode queryJsonNode = getModelConverter().convertQuery(query);
         LOG.debug(QUERY_CONVERTED_QUERY, queryJsonNode);
 
-        String json = writeRequestFromJsonNode(queryJsonNode);
+        return doQuery(index, query, queryJsonNode, clazz, "QUERY");
+    }
 
-        long totalCount = 0;
-        ArrayNode resultsNode = null;
-        String totalRelation = null;
+    @Override
+    public <T> CompletableFuture<ResultList<T>> queryAsync(String index, Object query, Class<T> clazz) {
+        return dispatchAsync(() -> {
+            JsonNode queryJsonNode = getModelConverter().convertQuery(query);
+            LOG.debug(QUERY_CONVERTED_QUERY, queryJsonNode);
+
+            return buildQueryRequest(index, queryJsonNode);
+        }, index, "QUERY", queryResponse -> readQueryResponse(queryResponse, query, clazz));
+    }
+
+    @Override
+    public <T> ResultList<T> queryAfter(String index, Object query, Class<T> clazz, String tiebreakerField, int size, List<Object> searchAfter) throws ClientException {
+        ObjectNode queryJsonNode = (ObjectNode) getModelConverter().convertQuery(query);
+
+        queryJsonNode.remove(SchemaKeys.KEY_FROM);
+        queryJsonNode.put(SchemaKeys.KEY_SIZE, size);
+        queryJsonNode.put(ElasticsearchKeywords.KEY_TRACK_TOTAL_HITS, false);
+        queryJsonNode.withArray(SchemaKeys.KEY_SORT).addObject().put(tiebreakerField, ElasticsearchKeywords.SORT_ASC);
+        if (searchAfter != null) {
+            queryJsonNode.set(ElasticsearchKeywords.KEY_SEARCH_AFTER, objectMapper.valueToTree(searchAfter));
+        }
+        LOG.debug(QUERY_CONVERTED_QUERY, queryJsonNode);
+
+        return doQuery(index, query, queryJsonNode, clazz, "QUERY AFTER");
+    }
+
+    private <T> ResultList<T> doQuery(String index, Object query, JsonNode queryJsonNode, Class<T> clazz, String operationName) throws ClientException {
+        Request request = buildQueryRequest(index, queryJsonNode);
+        return readQueryResponse(restCallTimeoutHandler(() -> getClient().performRequest(request), index, operationName), query, clazz);
+    }
+
+    private Request buildQueryRequest(String index, JsonNode queryJsonNode) throws ClientException {
+        String json = writeRequestFromJsonNode(queryJsonNode);
 
         Request request = new Request(ElasticsearchKeywords.ACTION_GET, ElasticsearchResourcePaths.search(index));
         request.setJsonEntity(json);
-        Response queryResponse = restCallTimeoutHandler(() -> getClient().performRequest(request), index, "QUERY");
+        return request;
+    }
 
+    private <T> ResultList<T> readQueryResponse(Response queryResponse, Object query, Class<T> clazz) throws ClientException {
         if (isRequestSuccessful(queryResponse)) {
-            JsonNode responseNode = readResponseAsJsonNode(queryResponse);
-            JsonNode hitsNode = responseNode.path(ElasticsearchKeywords.KEY_HITS);
+            SearchResponseReader<T> searchResponseReader = new SearchResponseReader<>(getModelContext(), clazz, getModelConverter().getFetchStyle(query));
 
-            totalCount = hitsNode.path(ElasticsearchKeywords.KEY_TOTAL).path(ElasticsearchKeywords.KEY_VALUE).asLong();
-            totalRelation = hitsNode.path(ElasticsearchKeywords.KEY_TOTAL).path(ElasticsearchKeywords.KEY_RELATION).asText();
-            if (totalCount > Integer.MAX_VALUE) {
-                throw new ClientException(ClientErrorCodes.ACTION_ERROR, CLIENT_HITS_MAX_VALUE_EXCEEDED);
+            // Hits are unmarshalled while parsing the response, without reading it as a tree
+            try (JsonParser parser = objectMapper.getFactory().createParser(queryResponse.getEntity().getContent())) {
+                return searchResponseReader.read(parser);
+            } catch (IOException e) {
+                throw new ResponseEntityReadError(e);
             }
-            resultsNode = ((ArrayNode) hitsNode.get(ElasticsearchKeywords.KEY_HITS));
         } else if (!isRequestBadRequest(queryResponse) &&
                 !isRequestNotFound(queryResponse)) {
             throw buildExceptionFromUnsuccessfulResponse("Query", queryResponse);
         }
 
-        ResultList<T> resultList = new ResultList<>(totalCount);
-        if (totalRelation != null) {
-            resultList.setTotalHitsExceedsCount(!totalRelation.equals("eq"));
-        }
-        Object queryFetchStyle = getModelConverter().getFetchStyle(query);
-        if (resultsNode != null && !resultsNode.isEmpty()) {
-            for (JsonNode result : resultsNode) {
-                Map<String, Object> object = objectMapper.convertValue(result.get(SchemaKeys.KEY_SOURCE), Map.class);
-
-                String id = result.get(ElasticsearchKeywords.KEY_DOC_ID).asText();
-                String docIndex = result.get(ElasticsearchKeywords.KEY_DOC_INDEX).asText();
-
-                object.put(ModelContext.TYPE_DESCRIPTOR_KEY, docIndex);
-                object.put(getModelContext().getIdKeyName(), id);
-                object.put(QueryConverter.QUERY_FETCH_STYLE_KEY, queryFetchStyle);
-
-                resultList.add(getModelContext().unmarshal(clazz, object));
-            }
-        }
-        return resultList;
+        return new ResultList<>(0);
     }
 
     @Override
@@ -481,6 +608,71 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
         }
     }
 
+    /**
+     * Builds the {@link Request} and dispatches it with the {@link AsyncRequestDispatcher}.
+     *
+     * @param requestBuilder The {@link RequestBuilder} of the {@link Request} to dispatch.
+     * @param index          The index targeted by the {@link Request}, for logging purposes.
+     * @param operationName  The name of the operation, for logging purposes.
+     * @param responseReader The {@link AsyncRequestDispatcher.ResponseReader} of the {@link Response}.
+     * @param <R>            The type of the read result.
+     * @return The {@link CompletableFuture} completed with the read result, or exceptionally with the {@link ClientException} that occurred.
+     * @since 2.1.0
+     */
+    private <R> CompletableFuture<R> dispatchAsync(RequestBuilder requestBuilder, String index, String operationName, AsyncRequestDispatcher.ResponseReader<R> responseReader) {
+        Request request;
+        try {
+            request = requestBuilder.build();
+        } catch (ClientException e) {
+            CompletableFuture<R> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        return getAsyncRequestDispatcher().dispatch(request, index, operationName, responseReader);
+    }
+
+    /**
+     * Gets the {@link AsyncRequestDispatcher}, creating it at the first asynchronous {@link Request}.
+     *
+     * @return The {@link AsyncRequestDispatcher}.
+     * @since 2.1.0
+     */
+    private AsyncRequestDispatcher getAsyncRequestDispatcher() {
+        AsyncRequestDispatcher dispatcher = asyncRequestDispatcher;
+        if (dispatcher == null) {
+            synchronized (this) {
+                dispatcher = asyncRequestDispatcher;
+                if (dispatcher == null) {
+                    ElasticsearchClientRequestConfiguration requestConfiguration = getClientConfiguration().getRequestConfiguration();
+
+                    // The RestClient chooses the node of each Request, so the limit per node is applied to all of them together
+                    int maxInFlight = requestConfiguration.getRequestAsyncMaxInFlightPerNode() * Math.max(1, getClientConfiguration().getNodes().size());
+
+                    dispatcher = new AsyncRequestDispatcher(
+                            this::getClient,
+                            metricsEsClient,
+                            maxInFlight,
+                            requestConfiguration.getRequestRetryAttemptMax(),
+                            requestConfiguration.getRequestRetryAttemptWait());
+                    asyncRequestDispatcher = dispatcher;
+                }
+            }
+        }
+        return dispatcher;
+    }
+
+    /**
+     * Builds a {@link Request}.
+     *
+     * @since 2.1.0
+     */
+    @FunctionalInterface
+    private interface RequestBuilder {
+
+        Request build() throws ClientException;
+    }
+
     private Response restCallTimeoutHandler(Callable<Response> restAction, String index, String operationName) throws ClientException {
         int retryCount = 0;
         try {
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.elasticsearch.client.rest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.eclipse.kapua.service.elasticsearch.client.ModelContext;
+import org.eclipse.kapua.service.elasticsearch.client.SchemaKeys;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientErrorCodes;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+import org.eclipse.kapua.service.elasticsearch.client.model.ResultList;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the response of a search request from a {@link JsonParser}.
+ * <p>
+ * Hits are read one at a time and their {@code _source} is handed to {@link ModelContext#unmarshal(Class, String, String, Object, JsonParser)} while parsing,
+ * so that neither the whole response nor each {@code _source} is held as a tree.
+ *
+ * @param <T> The type of the results.
+ * @since 2.1.0
+ */
+class SearchResponseReader<T> {
+
+    private static final String TOTAL_RELATION_EQUAL = "eq";
+
+    private final ModelContext modelContext;
+    private final Class<T> clazz;
+    private final Object fetchStyle;
+
+    private long totalCount;
+    private String totalRelation;
+    private final List<T> results = new ArrayList<>();
+    private List<Object> lastSortValues;
+
+    /**
+     * Constructor.
+     *
+     * @param modelContext The {@link ModelContext} to unmarshal the hits with.
+     * @param clazz        The expected {@link Object#getClass()} of the results.
+     * @param fetchStyle   The fetch style of the query.
+     * @since 2.1.0
+     */
+    SearchResponseReader(ModelContext modelContext, Class<T> clazz, Object fetchStyle) {
+        this.modelContext = modelContext;
+        this.clazz = clazz;
+        this.fetchStyle = fetchStyle;
+    }
+
+    /**
+     * Reads the search response.
+     *
+     * @param parser The {@link JsonParser} of the response, not yet advanced.
+     * @return The {@link ResultList} of the hits.
+     * @throws IOException     if the response cannot be parsed.
+     * @throws ClientException if the total hits exceed {@link Integer#MAX_VALUE} or a hit cannot be unmarshalled.
+     * @since 2.1.0
+     */
+    ResultList<T> read(JsonParser parser) throws IOException, ClientException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Search response is not a JSON object");
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+
+            if (ElasticsearchKeywords.KEY_HITS.equals(fieldName) && parser.currentToken() == JsonToken.START_OBJECT) {
+                readHits(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (totalCount > Integer.MAX_VALUE) {
+            throw new ClientException(ClientErrorCodes.ACTION_ERROR, "Total hits exceeds integer max value");
+        }
+
+        ResultList<T> resultList = new ResultList<>(totalCount);
+        if (totalRelation != null) {
+            resultList.setTotalHitsExceedsCount(!totalRelation.equals(TOTAL_RELATION_EQUAL));
+        }
+        results.forEach(resultList::add);
+        resultList.setLastSortValues(lastSortValues);
+        return resultList;
+    }
+
+    private void readHits(JsonParser parser) throws IOException, ClientException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+
+            if (ElasticsearchKeywords.KEY_TOTAL.equals(fieldName)) {
+                readTotal(parser);
+            } else if (ElasticsearchKeywords.KEY_HITS.equals(fieldName) && parser.currentToken() == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    readHit(parser);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void readTotal(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            // Returned as a number when rest_total_hits_as_int is set
+            totalCount = parser.getLongValue();
+            totalRelation = TOTAL_RELATION_EQUAL;
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+
+            if (ElasticsearchKeywords.KEY_VALUE.equals(fieldName)) {
+                totalCount = parser.getValueAsLong();
+            } else if (ElasticsearchKeywords.KEY_RELATION.equals(fieldName)) {
+                totalRelation = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readHit(JsonParser parser) throws IOException, ClientException {
+        String id = null;
+        String index = null;
+        List<Object> sortValues = null;
+        TokenBuffer bufferedSource = null;
+        boolean sourceRead = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+
+            if (ElasticsearchKeywords.KEY_DOC_ID.equals(fieldName)) {
+                id = parser.getValueAsString();
+            } else if (ElasticsearchKeywords.KEY_DOC_INDEX.equals(fieldName)) {
+                index = parser.getValueAsString();
+            } else if (SchemaKeys.KEY_SORT.equals(fieldName)) {
+                sortValues = parser.readValueAs(List.class);
+            } else if (SchemaKeys.KEY_SOURCE.equals(fieldName) && parser.currentToken() == JsonToken.START_OBJECT) {
+                if (id != null && index != null) {
+                    results.add(modelContext.unmarshal(clazz, id, index, fetchStyle, parser));
+                    sourceRead = true;
+                } else {
+                    // Elasticsearch writes _id and _index before _source, but JSON does not guarantee the order of the fields
+                    bufferedSource = new TokenBuffer(parser);
+                    bufferedSource.copyCurrentStructure(parser);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (!sourceRead) {
+            if (bufferedSource == null) {
+                bufferedSource = new TokenBuffer(parser);
+                bufferedSource.writeStartObject();
+                bufferedSource.writeEndObject();
+            }
+
+            try (JsonParser sourceParser = bufferedSource.asParser(parser.getCodec())) {
+                sourceParser.nextToken();
+                results.add(modelContext.unmarshal(clazz, id, index, fetchStyle, sourceParser));
+            }
+        }
+
+        lastSortValues = sortValues;
+    }
+}
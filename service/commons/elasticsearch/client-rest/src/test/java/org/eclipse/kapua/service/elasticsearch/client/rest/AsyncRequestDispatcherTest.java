@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.elasticsearch.client.rest;
+
+import com.codahale.metrics.Counter;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientCommunicationException;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientUnavailableException;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
+import org.elasticsearch.client.RestClient;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Category(JUnitTests.class)
+public class AsyncRequestDispatcherTest {
+
+    private static final long TIMEOUT_SECS = 5;
+
+    private final BlockingQueue<ResponseListener> listeners = new LinkedBlockingQueue<>();
+    private final Response response = Mockito.mock(Response.class);
+
+    private MetricsEsClient metricsEsClient;
+    private RestClient restClient;
+
+    @Before
+    public void setUp() {
+        metricsEsClient = Mockito.mock(MetricsEsClient.class);
+        Mockito.when(metricsEsClient.getTimeoutRetry()).thenReturn(new Counter());
+        Mockito.when(metricsEsClient.getTimeoutRetryLimitReached()).thenReturn(new Counter());
+        Mockito.when(metricsEsClient.getRuntimeException()).thenReturn(new Counter());
+
+        restClient = Mockito.mock(RestClient.class);
+        Mockito.when(restClient.performRequestAsync(Mockito.any(Request.class), Mockito.any(ResponseListener.class))).then(invocation -> {
+            listeners.add((ResponseListener) invocation.getArguments()[1]);
+            return null;
+        });
+    }
+
+    @After
+    public void tearDown() {
+        listeners.clear();
+    }
+
+    private AsyncRequestDispatcher newDispatcher(int maxInFlight, int retryAttemptMax) {
+        return new AsyncRequestDispatcher(() -> restClient, metricsEsClient, maxInFlight, retryAttemptMax, 10);
+    }
+
+    private CompletableFuture<Response> dispatch(AsyncRequestDispatcher dispatcher) {
+        return dispatcher.dispatch(new Request("GET", "/"), "index", "TEST", r -> r);
+    }
+
+    private ResponseListener nextListener() throws InterruptedException {
+        ResponseListener listener = listeners.poll(TIMEOUT_SECS, TimeUnit.SECONDS);
+        Assert.assertNotNull("Request expected to be sent.", listener);
+        return listener;
+    }
+
+    @Test
+    public void dispatchTest() throws Exception {
+        AsyncRequestDispatcher dispatcher = newDispatcher(2, 3);
+
+        CompletableFuture<Response> future = dispatch(dispatcher);
+        nextListener().onSuccess(response);
+
+        Assert.assertSame("Expected and actual values should be the same.", response, future.get(TIMEOUT_SECS, TimeUnit.SECONDS));
+        dispatcher.close();
+    }
+
+    @Test
+    public void maxInFlightTest() throws Exception {
+        AsyncRequestDispatcher dispatcher = newDispatcher(2, 3);
+
+        CompletableFuture<Response> first = dispatch(dispatcher);
+        CompletableFuture<Response> second = dispatch(dispatcher);
+        CompletableFuture<Response> third = dispatch(dispatcher);
+
+        ResponseListener firstListener = nextListener();
+        ResponseListener secondListener = nextListener();
+        Assert.assertTrue("True expected.", listeners.isEmpty());
+        Assert.assertEquals("Expected and actual values should be the same.", 1, dispatcher.getPendingCount());
+
+        // Completing a Request sends the queued one
+        firstListener.onSuccess(response);
+        first.get(TIMEOUT_SECS, TimeUnit.SECONDS);
+        ResponseListener thirdListener = nextListener();
+        Assert.assertEquals("Expected and actual values should be the same.", 0, dispatcher.getPendingCount());
+
+        secondListener.onSuccess(response);
+        thirdListener.onSuccess(response);
+        second.get(TIMEOUT_SECS, TimeUnit.SECONDS);
+        third.get(TIMEOUT_SECS, TimeUnit.SECONDS);
+        dispatcher.close();
+    }
+
+    @Test
+    public void permitReleasedBeforeContinuationTest() throws Exception {
+        AsyncRequestDispatcher dispatcher = newDispatcher(1, 3);
+
+        CompletableFuture<Response> first = dispatch(dispatcher);
+        CompletableFuture<Response> second = dispatch(dispatcher);
+        ResponseListener firstListener = nextListener();
+
+        // The continuation of the first Request sees the queued one already sent
+        CompletableFuture<Integer> pendingCountInContinuation = first.thenApply(r -> dispatcher.getPendingCount());
+        firstListener.onSuccess(response);
+
+        Assert.assertEquals("Expected and actual values should be the same.", Integer.valueOf(0), pendingCountInContinuation.get(TIMEOUT_SECS, TimeUnit.SECONDS));
+        nextListener().onSuccess(response);
+        second.get(TIMEOUT_SECS, TimeUnit.SECONDS);
+        dispatcher.close();
+    }
+
+    @Test
+    public void permitReleasedBeforeFailureContinuationTest() throws Exception {
+        AsyncRequestDispatcher dispatcher = newDispatcher(1, 0);
+
+        CompletableFuture<Response> first = dispatch(dispatcher);
+        dispatch(dispatcher);
+        ResponseListener firstListener = nextListener();
+
+        CompletableFuture<Integer> pendingCountInContinuation = first.handle((r, t) -> dispatcher.getPendingCount());
+        firstListener.onFailure(new SocketTimeoutException());
+
+        Assert.assertEquals("Expected and actual values should be the same.", Integer.valueOf(0), pendingCountInContinuation.get(TIMEOUT_SECS, TimeUnit.SECONDS));
+        nextListener();
+        dispatcher.close();
+    }
+
+    @Test
+    public void timeoutRetryTest() throws Exception {
+        AsyncRequestDispatcher dispatcher = newDispatcher(1, 3);
+
+        CompletableFuture<Response> future = dispatch(dispatcher);
+        nextListener().onFailure(new SocketTimeoutException());
+        nextListener().onFailure(new SocketTimeoutException());
+        nextListener().onSuccess(response);
+
+        Assert.assertSame("Expected and actual values should be the same.", response, future.get(TIMEOUT_SECS, TimeUnit.SECONDS));
+        Assert.assertEquals("Expected and actual values should be the same.", 2, metricsEsClient.getTimeoutRetry().getCount());
+        Assert.assertEquals("Expected and actual values should be the same.", 0, metricsEsClient.getTimeoutRetryLimitReached().getCount());
+        dispatcher.close();
+    }
+
+    @Test
+    public void timeoutRetryLimitReachedTest() throws Exception {
+        AsyncRequestDispatcher dispatcher = newDispatcher(1, 1);
+
+        CompletableFuture<Response> future = dispatch(dispatcher);
+        nextListener().onFailure(new SocketTimeoutException());
+        nextListener().onFailure(new SocketTimeoutException());
+
+        try {
+            future.get(TIMEOUT_SECS, TimeUnit.SECONDS);
+            Assert.fail("ExecutionException expected.");
+        } catch (ExecutionException e) {
+            Assert.assertTrue("True expected.", e.getCause() instanceof ClientCommunicationException);
+        }
+        Assert.assertEquals("Expected and actual values should be the same.", 1, metricsEsClient.getTimeoutRetryLimitReached().getCount());
+
+        // The permit has been released
+        dispatch(dispatcher);
+        nextListener();
+        dispatcher.close();
+    }
+
+    @Test
+    public void closeTest() throws Exception {
+        AsyncRequestDispatcher dispatcher = newDispatcher(1, 3);
+
+        dispatch(dispatcher);
+        CompletableFuture<Response> queued = dispatch(dispatcher);
+        nextListener();
+
+        dispatcher.close();
+
+        Assert.assertTrue("True expected.", queued.isCompletedExceptionally());
+        List<ResponseListener> sent = new ArrayList<>();
+        listeners.drainTo(sent);
+        Assert.assertTrue("True expected.", sent.isEmpty());
+
+        try {
+            dispatch(dispatcher).get(TIMEOUT_SECS, TimeUnit.SECONDS);
+            Assert.fail("ExecutionException expected.");
+        } catch (ExecutionException e) {
+            Assert.assertTrue("True expected.", e.getCause() instanceof ClientUnavailableException);
+        }
+    }
+}
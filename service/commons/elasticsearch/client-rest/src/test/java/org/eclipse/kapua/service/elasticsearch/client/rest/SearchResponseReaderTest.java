@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.elasticsearch.client.rest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.elasticsearch.client.ModelContext;
+import org.eclipse.kapua.service.elasticsearch.client.QueryConverter;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+import org.eclipse.kapua.service.elasticsearch.client.model.ResultList;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Arrays;
+import java.util.Map;
+
+@Category(JUnitTests.class)
+public class SearchResponseReaderTest {
+
+    private static final String FETCH_STYLE = "fetchStyle";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * {@link ModelContext} which unmarshals the {@code _source} as the {@link Map} itself.
+     */
+    private static final ModelContext MAP_MODEL_CONTEXT = new ModelContext() {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T unmarshal(Class<T> clazz, Map<String, Object> serializedObject) {
+            return (T) serializedObject;
+        }
+
+        @Override
+        public Map<String, Object> marshal(Object object) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getIdKeyName() {
+            return "datastore_id";
+        }
+    };
+
+    @SuppressWarnings("rawtypes")
+    private ResultList<Map> read(String response) throws Exception {
+        try (JsonParser parser = objectMapper.getFactory().createParser(response)) {
+            return new SearchResponseReader<>(MAP_MODEL_CONTEXT, Map.class, FETCH_STYLE).read(parser);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void readTest() throws Exception {
+        ResultList<Map> resultList = read("{\"took\":3,\"timed_out\":false,\"_shards\":{\"total\":1,\"successful\":1}," +
+                "\"hits\":{\"total\":{\"value\":12,\"relation\":\"gte\"},\"max_score\":null,\"hits\":[" +
+                "{\"_index\":\"index-1\",\"_type\":\"_doc\",\"_id\":\"id-1\",\"_score\":null,\"_source\":{\"name\":\"first\",\"nested\":{\"value\":1}},\"sort\":[10,\"a\"]}," +
+                "{\"_index\":\"index-2\",\"_type\":\"_doc\",\"_id\":\"id-2\",\"_score\":null,\"_source\":{\"name\":\"second\"},\"sort\":[20,\"b\"]}" +
+                "]}}");
+
+        Assert.assertEquals("Expected and actual values should be the same.", 12, resultList.getTotalCount());
+        Assert.assertTrue("True expected.", resultList.getTotalHitsExceedsCount());
+        Assert.assertEquals("Expected and actual values should be the same.", 2, resultList.getResult().size());
+
+        Map first = resultList.getResult().get(0);
+        Assert.assertEquals("Expected and actual values should be the same.", "first", first.get("name"));
+        Assert.assertEquals("Expected and actual values should be the same.", "id-1", first.get("datastore_id"));
+        Assert.assertEquals("Expected and actual values should be the same.", "index-1", first.get(ModelContext.TYPE_DESCRIPTOR_KEY));
+        Assert.assertEquals("Expected and actual values should be the same.", FETCH_STYLE, first.get(QueryConverter.QUERY_FETCH_STYLE_KEY));
+        Assert.assertEquals("Expected and actual values should be the same.", 1, ((Map) first.get("nested")).get("value"));
+
+        Assert.assertEquals("Expected and actual values should be the same.", "second", resultList.getResult().get(1).get("name"));
+        Assert.assertEquals("Expected and actual values should be the same.", Arrays.asList(20, "b"), resultList.getLastSortValues());
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void readSourceBeforeIdTest() throws Exception {
+        ResultList<Map> resultList = read("{\"hits\":{\"total\":{\"value\":1,\"relation\":\"eq\"},\"hits\":[" +
+                "{\"_source\":{\"name\":\"first\"},\"_id\":\"id-1\",\"_index\":\"index-1\"}" +
+                "]}}");
+
+        Assert.assertFalse("False expected.", resultList.getTotalHitsExceedsCount());
+        Assert.assertNull("Null expected.", resultList.getLastSortValues());
+
+        Map first = resultList.getResult().get(0);
+        Assert.assertEquals("Expected and actual values should be the same.", "first", first.get("name"));
+        Assert.assertEquals("Expected and actual values should be the same.", "id-1", first.get("datastore_id"));
+        Assert.assertEquals("Expected and actual values should be the same.", "index-1", first.get(ModelContext.TYPE_DESCRIPTOR_KEY));
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void readWithoutSourceTest() throws Exception {
+        ResultList<Map> resultList = read("{\"hits\":{\"total\":1,\"hits\":[{\"_id\":\"id-1\",\"_index\":\"index-1\"}]}}");
+
+        Assert.assertEquals("Expected and actual values should be the same.", 1, resultList.getTotalCount());
+        Assert.assertEquals("Expected and actual values should be the same.", "id-1", resultList.getResult().get(0).get("datastore_id"));
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void readEmptyTest() throws Exception {
+        ResultList<Map> resultList = read("{\"hits\":{\"total\":{\"value\":0,\"relation\":\"eq\"},\"hits\":[]}}");
+
+        Assert.assertEquals("Expected and actual values should be the same.", 0, resultList.getTotalCount());
+        Assert.assertTrue("True expected.", resultList.getResult().isEmpty());
+        Assert.assertNull("Null expected.", resultList.getLastSortValues());
+    }
+
+    @Test(expected = ClientException.class)
+    public void readTotalExceedsMaxValueTest() throws Exception {
+        read("{\"hits\":{\"total\":{\"value\":" + (Integer.MAX_VALUE + 1L) + ",\"relation\":\"eq\"},\"hits\":[]}}");
+    }
+}
@@ -23,6 +23,10 @@ import org.eclipse.kapua.service.datastore.model.query.MessageQuery;
 import org.eclipse.kapua.service.storable.StorableService;
 import org.eclipse.kapua.service.storable.model.id.StorableId;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * {@link MessageStoreService} definition.
  * <p>
@@ -60,6 +64,50 @@ public interface MessageStoreService extends KapuaService, KapuaConfigurableServ
      */
     StorableId store(KapuaMessage<?, ?> message, String datastoreId) throws KapuaException;
 
+    /**
+     * Stores a batch of {@link KapuaMessage}s forcing their {@link DatastoreMessage#getId()}, using a single bulk request.
+     * <p>
+     * Each {@link KapuaMessage} is stored or fails independently of the others.
+     * The same datastore id can appear more than once, each occurrence has its own outcome.
+     *
+     * @param messages     The {@link KapuaMessage}s to store.
+     * @param datastoreIds The {@link StorableId}s in {@link String} form to assign, in the same order of the {@link KapuaMessage}s.
+     * @return The outcomes of the {@link KapuaMessage}s, in the same order: {@code null} if stored, the {@link KapuaException} that prevented the storage otherwise.
+     * @throws KapuaException If something goes wrong before storing.
+     * @since 2.1.0
+     */
+    List<KapuaException> store(List<KapuaMessage<?, ?>> messages, List<String> datastoreIds) throws KapuaException;
+
+    /**
+     * Stores a batch of {@link KapuaMessage}s forcing their {@link DatastoreMessage#getId()}, using a single bulk request, without waiting for its completion.
+     * <p>
+     * Each {@link KapuaMessage} is stored or fails independently of the others, like {@link #store(List, List)} does.
+     *
+     * @param messages     The {@link KapuaMessage}s to store.
+     * @param datastoreIds The {@link StorableId}s in {@link String} form to assign, in the same order of the {@link KapuaMessage}s.
+     * @return The {@link CompletableFuture} completed with the outcomes of the {@link KapuaMessage}s, in the same order: {@code null} if stored, the {@link KapuaException} that prevented the storage otherwise.
+     * @throws KapuaException If something goes wrong before storing.
+     * @since 2.1.0
+     */
+    CompletableFuture<List<KapuaException>> storeAsync(List<KapuaMessage<?, ?>> messages, List<String> datastoreIds) throws KapuaException;
+
+    /**
+     * Iterates over all the {@link DatastoreMessage}s matching the given {@link MessageQuery}.
+     * <p>
+     * Unlike {@link #query(MessageQuery)}, the results are not limited by the maximum result window of the datastore,
+     * since they are read in pages that follow the last result of the previous page, according to the {@link MessageQuery#getSortFields()}.
+     * Only one page is held in memory at a time, so this is suited to export large amounts of {@link DatastoreMessage}s.
+     * <p>
+     * The {@link MessageQuery#getOffset()} is not supported and its {@link MessageQuery#getLimit()}, if set, caps the number of {@link DatastoreMessage}s to iterate over.
+     * Errors while reading the following pages are thrown as {@link RuntimeException}s by the returned {@link Iterator}.
+     *
+     * @param query The {@link MessageQuery} to perform.
+     * @return The {@link Iterator} over the matching {@link DatastoreMessage}s.
+     * @throws KapuaException If something goes wrong.
+     * @since 2.1.0
+     */
+    Iterator<DatastoreMessage> iterate(MessageQuery query) throws KapuaException;
+
     /**
      * Deletes a {@link DatastoreMessage}  by the scope {@link KapuaId} and its {@link StorableId}.
      *
@@ -25,6 +25,8 @@ import org.eclipse.kapua.service.storable.model.id.StorableId;
 public interface ChannelInfoRegistryFacade {
     StorableId upstore(ChannelInfo channelInfo) throws KapuaIllegalArgumentException, ConfigurationException, ClientException, MappingException;
 
+    void upstore(ChannelInfo[] channelInfos) throws KapuaIllegalArgumentException, ConfigurationException, ClientException, MappingException;
+
     void delete(KapuaId scopeId, StorableId id) throws KapuaIllegalArgumentException, ConfigurationException, ClientException;
 
     void delete(ChannelInfoQuery query) throws KapuaIllegalArgumentException, ConfigurationException, ClientException;
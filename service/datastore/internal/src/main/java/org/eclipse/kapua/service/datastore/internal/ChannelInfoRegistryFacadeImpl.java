@@ -32,6 +32,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Channel information registry facade
@@ -111,6 +118,57 @@ public class ChannelInfoRegistryFacadeImpl extends AbstractDatastoreFacade imple
         return storableId;
     }
 
+    /**
+     * Update the channel informations after a store operation of many messages
+     * <p>
+     * The existence of the channels not in cache is checked with a single query for each scope, and the missing ones are stored with a single bulk request.
+     *
+     * @param channelInfos
+     * @throws KapuaIllegalArgumentException
+     * @throws ConfigurationException
+     * @throws ClientException
+     * @since 2.1.0
+     */
+    @Override
+    public void upstore(ChannelInfo[] channelInfos) throws KapuaIllegalArgumentException, ConfigurationException, ClientException, MappingException {
+        ArgumentValidator.notNull(channelInfos, "channelInfos");
+
+        final Map<KapuaId, Map<String, ChannelInfo>> toCheckByScope = new HashMap<>();
+        for (ChannelInfo channelInfo : channelInfos) {
+            ArgumentValidator.notNull(channelInfo.getScopeId(), "channelInfo.scopeId");
+            ArgumentValidator.notNull(channelInfo.getName(), "channelInfo.name");
+            ArgumentValidator.notNull(channelInfo.getFirstMessageId(), "channelInfo.messageId");
+            ArgumentValidator.notNull(channelInfo.getFirstMessageOn(), "channelInfo.messageTimestamp");
+
+            String channelInfoId = ChannelInfoField.getOrDeriveId(channelInfo.getId(), channelInfo);
+            if (!datastoreCacheManager.getChannelsCache().get(channelInfoId)) {
+                toCheckByScope.computeIfAbsent(channelInfo.getScopeId(), scopeId -> new LinkedHashMap<>()).putIfAbsent(channelInfoId, channelInfo);
+            }
+        }
+
+        final List<ChannelInfo> toUpsert = new ArrayList<>();
+        for (Map.Entry<KapuaId, Map<String, ChannelInfo>> toCheck : toCheckByScope.entrySet()) {
+            final List<StorableId> storableIds = toCheck.getValue().keySet()
+                    .stream()
+                    .map(storableIdFactory::newStorableId)
+                    .collect(Collectors.toList());
+            final Set<String> storedIds = repository.findExistingIds(toCheck.getKey(), storableIds);
+            for (Map.Entry<String, ChannelInfo> channelInfo : toCheck.getValue().entrySet()) {
+                if (storedIds.contains(channelInfo.getKey())) {
+                    datastoreCacheManager.getChannelsCache().put(channelInfo.getKey(), true);
+                } else {
+                    toUpsert.add(channelInfo.getValue());
+                }
+            }
+        }
+
+        if (!toUpsert.isEmpty()) {
+            repository.upsert(toUpsert);
+            // Update cache if channel update is completed successfully
+            toUpsert.forEach(channelInfo -> datastoreCacheManager.getChannelsCache().put(ChannelInfoField.getOrDeriveId(channelInfo.getId(), channelInfo), true));
+        }
+    }
+
     /**
      * Delete channel information by identifier.
      *
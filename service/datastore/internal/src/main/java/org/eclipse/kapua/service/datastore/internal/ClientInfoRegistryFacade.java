@@ -25,6 +25,8 @@ import org.eclipse.kapua.service.storable.model.id.StorableId;
 public interface ClientInfoRegistryFacade {
     StorableId upstore(ClientInfo clientInfo) throws KapuaIllegalArgumentException, ConfigurationException, ClientException, MappingException;
 
+    void upstore(ClientInfo[] clientInfos) throws KapuaIllegalArgumentException, ConfigurationException, ClientException, MappingException;
+
     void delete(KapuaId scopeId, StorableId id) throws KapuaIllegalArgumentException, ConfigurationException, ClientException;
 
     ClientInfo find(KapuaId scopeId, StorableId id) throws KapuaIllegalArgumentException, ConfigurationException, ClientException;
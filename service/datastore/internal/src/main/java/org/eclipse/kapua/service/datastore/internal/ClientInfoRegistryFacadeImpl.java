@@ -30,6 +30,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Client information registry facade
@@ -110,6 +117,56 @@ public class ClientInfoRegistryFacadeImpl extends AbstractDatastoreFacade implem
         return storableId;
     }
 
+    /**
+     * Update the client informations after a store operation of many messages
+     * <p>
+     * The existence of the clients not in cache is checked with a single query for each scope, and the missing ones are stored with a single bulk request.
+     *
+     * @param clientInfos
+     * @throws KapuaIllegalArgumentException
+     * @throws ConfigurationException
+     * @throws ClientException
+     * @since 2.1.0
+     */
+    @Override
+    public void upstore(ClientInfo[] clientInfos) throws KapuaIllegalArgumentException, ConfigurationException, ClientException, MappingException {
+        ArgumentValidator.notNull(clientInfos, "clientInfos");
+
+        final Map<KapuaId, Map<String, ClientInfo>> toCheckByScope = new HashMap<>();
+        for (ClientInfo clientInfo : clientInfos) {
+            ArgumentValidator.notNull(clientInfo.getScopeId(), "clientInfo.scopeId");
+            ArgumentValidator.notNull(clientInfo.getFirstMessageId(), "clientInfo.firstPublishedMessageId");
+            ArgumentValidator.notNull(clientInfo.getFirstMessageOn(), "clientInfo.firstPublishedMessageTimestamp");
+
+            String clientInfoId = ClientInfoField.getOrDeriveId(clientInfo.getId(), clientInfo);
+            if (!datastoreCacheManager.getClientsCache().get(clientInfo.getClientId())) {
+                toCheckByScope.computeIfAbsent(clientInfo.getScopeId(), scopeId -> new LinkedHashMap<>()).putIfAbsent(clientInfoId, clientInfo);
+            }
+        }
+
+        final List<ClientInfo> toUpsert = new ArrayList<>();
+        for (Map.Entry<KapuaId, Map<String, ClientInfo>> toCheck : toCheckByScope.entrySet()) {
+            final List<StorableId> storableIds = toCheck.getValue().keySet()
+                    .stream()
+                    .map(storableIdFactory::newStorableId)
+                    .collect(Collectors.toList());
+            final Set<String> storedIds = repository.findExistingIds(toCheck.getKey(), storableIds);
+            for (Map.Entry<String, ClientInfo> clientInfo : toCheck.getValue().entrySet()) {
+                if (storedIds.contains(clientInfo.getKey())) {
+                    datastoreCacheManager.getClientsCache().put(clientInfo.getValue().getClientId(), true);
+                } else {
+                    toUpsert.add(clientInfo.getValue());
+                }
+            }
+        }
+
+        if (!toUpsert.isEmpty()) {
+            repository.upsert(toUpsert);
+            // Update cache if client update is completed successfully
+            toUpsert.forEach(clientInfo -> datastoreCacheManager.getClientsCache().put(clientInfo.getClientId(), true));
+        }
+    }
+
     /**
      * Delete client information by identifier.<br>
      * <b>Be careful using this function since it doesn't guarantee the datastore consistency.<br>
@@ -13,6 +13,7 @@
 package org.eclipse.kapua.service.datastore.internal;
 
 import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.cache.ResolutionCache;
 import org.eclipse.kapua.commons.configuration.ServiceConfigurationManager;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.model.id.KapuaId;
@@ -31,17 +32,21 @@ public class ConfigurationProviderImpl implements ConfigurationProvider {
 
     private AccountService accountService;
     private ServiceConfigurationManager serviceConfigurationManager;
+    private ResolutionCache<KapuaId, Account> accountCache;
 
     /**
      * Construct the configuration provider with the provided parameters
      *
      * @param serviceConfigurationManager
      * @param accountService
+     * @param accountCache the cache of the {@link Account}s resolved by {@link #getInfo(KapuaId)}
      */
     public ConfigurationProviderImpl(ServiceConfigurationManager serviceConfigurationManager,
-            AccountService accountService) {
+            AccountService accountService,
+            ResolutionCache<KapuaId, Account> accountCache) {
         this.accountService = accountService;
         this.serviceConfigurationManager = serviceConfigurationManager;
+        this.accountCache = accountCache;
     }
 
     @Override
@@ -62,7 +67,7 @@ public class ConfigurationProviderImpl implements ConfigurationProvider {
         Account account = null;
         if (scopeId != null) {
             try {
-                account = KapuaSecurityUtils.doPrivileged(() -> accountService.find(scopeId));
+                account = accountCache.get(scopeId, () -> KapuaSecurityUtils.doPrivileged(() -> accountService.find(scopeId)));
             } catch (Exception exc) {
                 throw new ConfigurationException("Cannot get account information", exc);
             }
@@ -32,6 +32,7 @@ public class DatastoreCacheManager {
     private final LocalCache<String, Boolean> channelsCache;
     private final LocalCache<String, Boolean> metricsCache;
     private final LocalCache<String, Boolean> clientsCache;
+    private final LocalCache<MessageIngestPlan.Key, MessageIngestPlan> ingestPlanCache;
 
     @Inject
     public DatastoreCacheManager(DatastoreSettings datastoreSettings) {
@@ -42,6 +43,7 @@ public class DatastoreCacheManager {
         metricsCache = new LocalCache<>(datastoreSettings.getMetricsCacheConfig(), false);
 
         schemaCache = new LocalCache<>(sizeMaxMetadata, null);
+        ingestPlanCache = new LocalCache<>(datastoreSettings.getInt(DatastoreSettingsKey.CONFIG_CACHE_INGEST_PLAN_LOCAL_SIZE_MAXIMUM, sizeMaxMetadata), null);
     }
 
     /**
@@ -83,4 +85,14 @@ public class DatastoreCacheManager {
     public LocalCache<String, Map<String, Metric>> getMetadataCache() {
         return schemaCache;
     }
+
+    /**
+     * Get the {@link MessageIngestPlan}s cache
+     *
+     * @return
+     * @since 2.1.0
+     */
+    public LocalCache<MessageIngestPlan.Key, MessageIngestPlan> getIngestPlanCache() {
+        return ingestPlanCache;
+    }
 }
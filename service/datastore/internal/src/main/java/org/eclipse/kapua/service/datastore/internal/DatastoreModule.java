@@ -14,15 +14,23 @@ package org.eclipse.kapua.service.datastore.internal;
 
 import java.util.Map;
 
+import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.eclipse.kapua.commons.cache.ResolutionCache;
+import org.eclipse.kapua.commons.cache.ResolutionCacheInvalidator;
 import org.eclipse.kapua.commons.configuration.ServiceConfigurationManager;
 import org.eclipse.kapua.commons.core.AbstractKapuaModule;
+import org.eclipse.kapua.commons.core.ServiceModule;
 import org.eclipse.kapua.commons.jpa.KapuaJpaTxManagerFactory;
+import org.eclipse.kapua.commons.metric.MetricsService;
 import org.eclipse.kapua.commons.model.domains.Domains;
+import org.eclipse.kapua.event.ServiceEventBus;
 import org.eclipse.kapua.model.domain.Actions;
 import org.eclipse.kapua.model.domain.Domain;
 import org.eclipse.kapua.model.domain.DomainEntry;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.account.Account;
 import org.eclipse.kapua.service.account.AccountService;
 import org.eclipse.kapua.service.authorization.AuthorizationService;
 import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
@@ -39,6 +47,7 @@ import org.eclipse.kapua.service.datastore.internal.converter.ModelContextImpl;
 import org.eclipse.kapua.service.datastore.internal.converter.QueryConverterImpl;
 import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreUtils;
 import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingsKey;
 import org.eclipse.kapua.service.elasticsearch.client.ElasticsearchClientProvider;
 import org.eclipse.kapua.service.elasticsearch.client.configuration.ElasticsearchClientConfiguration;
 import org.eclipse.kapua.service.elasticsearch.client.rest.MetricsEsClient;
@@ -74,6 +83,8 @@ public class DatastoreModule extends AbstractKapuaModule {
         bind(MetricsDatastore.class).in(Singleton.class);
         bind(DatastoreUtils.class).in(Singleton.class);
         bind(DatastoreCacheManager.class).in(Singleton.class);
+        bind(MessageMappingManager.class).in(Singleton.class);
+        bind(MessageIngestPlanner.class).in(Singleton.class);
     }
 
     @ProvidesIntoSet
@@ -96,14 +107,40 @@ public class DatastoreModule extends AbstractKapuaModule {
     ConfigurationProvider configurationProvider(
             Map<Class<?>, ServiceConfigurationManager> serviceConfigurationManagersByServiceClass,
             KapuaJpaTxManagerFactory jpaTxManagerFactory,
-            AccountService accountService
+            AccountService accountService,
+            @Named("datastoreAccountCache") ResolutionCache<KapuaId, Account> accountCache
     ) {
         final ConfigurationProviderImpl configurationProvider = new ConfigurationProviderImpl(
                 serviceConfigurationManagersByServiceClass.get(MessageStoreService.class),
-                accountService);
+                accountService,
+                accountCache);
         return configurationProvider;
     }
 
+    @Provides
+    @Singleton
+    @Named("datastoreAccountCache")
+    ResolutionCache<KapuaId, Account> datastoreAccountCache(
+            DatastoreSettings datastoreSettings,
+            MetricsService metricsService,
+            @Named("metricModuleName") String metricModuleName
+    ) {
+        final int sizeMax = datastoreSettings.getInt(DatastoreSettingsKey.CONFIG_ACCOUNTS_CACHE_LOCAL_SIZE_MAXIMUM,
+                datastoreSettings.getInt(DatastoreSettingsKey.CONFIG_CACHE_LOCAL_SIZE_MAXIMUM));
+        final int expireAfter = datastoreSettings.getInt(DatastoreSettingsKey.CONFIG_ACCOUNTS_CACHE_LOCAL_EXPIRE_AFTER,
+                datastoreSettings.getInt(DatastoreSettingsKey.CONFIG_CACHE_LOCAL_EXPIRE_AFTER));
+        return new ResolutionCache<>(sizeMax, expireAfter, metricsService, metricModuleName, "datastore_account");
+    }
+
+    @ProvidesIntoSet
+    ServiceModule datastoreAccountCacheInvalidator(
+            ServiceEventBus serviceEventBus,
+            DatastoreSettings datastoreSettings,
+            @Named("datastoreAccountCache") ResolutionCache<KapuaId, Account> accountCache
+    ) {
+        return new ResolutionCacheInvalidator(serviceEventBus, datastoreSettings.getString(DatastoreSettingsKey.CONFIG_ACCOUNTS_EVENT_ADDRESS), accountCache);
+    }
+
     @Provides
     @Singleton
     MessageStoreService messageStoreService(
@@ -13,38 +13,35 @@
 package org.eclipse.kapua.service.datastore.internal;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import org.eclipse.kapua.KapuaException;
-import org.eclipse.kapua.commons.cache.LocalCache;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.datastore.MessageStoreFactory;
 import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreUtils;
-import org.eclipse.kapua.service.datastore.internal.mediator.Metric;
 import org.eclipse.kapua.service.datastore.internal.schema.MessageSchema;
 import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
 import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingsKey;
 import org.eclipse.kapua.service.datastore.model.DatastoreMessage;
 import org.eclipse.kapua.service.datastore.model.MessageListResult;
 import org.eclipse.kapua.service.datastore.model.query.MessageQuery;
+import org.eclipse.kapua.service.elasticsearch.client.ElasticsearchClient;
 import org.eclipse.kapua.service.elasticsearch.client.ElasticsearchClientProvider;
-import org.eclipse.kapua.service.elasticsearch.client.SchemaKeys;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
-import org.eclipse.kapua.service.elasticsearch.client.exception.DatamodelMappingException;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertResponse;
 import org.eclipse.kapua.service.elasticsearch.client.model.InsertRequest;
+import org.eclipse.kapua.service.elasticsearch.client.model.InsertResponse;
 import org.eclipse.kapua.service.storable.exception.MappingException;
 import org.eclipse.kapua.service.storable.model.id.StorableId;
 import org.eclipse.kapua.service.storable.model.query.predicate.StorablePredicateFactory;
-import org.eclipse.kapua.service.storable.model.utils.KeyValueEntry;
-import org.eclipse.kapua.service.storable.model.utils.MappingUtils;
 
 import javax.inject.Inject;
-import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class MessageElasticsearchRepository extends DatastoreElasticSearchRepositoryBase<DatastoreMessage, MessageListResult, MessageQuery> implements MessageRepository {
     private final DatastoreUtils datastoreUtils;
-    private final LocalCache<String, Map<String, Metric>> metricsByIndex;
+    private final MessageMappingManager messageMappingManager;
+    private final MessageIngestPlanner messageIngestPlanner;
 
     @Inject
     public MessageElasticsearchRepository(
@@ -53,14 +50,16 @@ public class MessageElasticsearchRepository extends DatastoreElasticSearchReposi
             StorablePredicateFactory storablePredicateFactory,
             DatastoreSettings datastoreSettings,
             DatastoreUtils datastoreUtils,
-            DatastoreCacheManager datastoreCacheManager) {
+            MessageMappingManager messageMappingManager,
+            MessageIngestPlanner messageIngestPlanner) {
         super(elasticsearchClientProviderInstance,
                 DatastoreMessage.class,
                 messageStoreFactory,
                 storablePredicateFactory,
                 datastoreSettings);
         this.datastoreUtils = datastoreUtils;
-        metricsByIndex = datastoreCacheManager.getMetadataCache();
+        this.messageMappingManager = messageMappingManager;
+        this.messageIngestPlanner = messageIngestPlanner;
     }
 
     @Override
@@ -98,120 +97,85 @@ public class MessageElasticsearchRepository extends DatastoreElasticSearchReposi
      * @throws ClientException
      */
     @Override
-    public String store(DatastoreMessage messageToStore, Map<String, Metric> metrics) throws ClientException {
-        final Long messageTime = Optional.ofNullable(messageToStore.getTimestamp())
-                .map(date -> date.getTime())
-                .orElse(null);
-
-        final String indexName = indexResolver(messageToStore.getScopeId(), messageTime);
-
-        if (!metricsByIndex.containsKey(indexName)) {
-            synchronized (DatastoreMessage.class) {
-                doUpsertIndex(indexName);
-                doUpsertMappings(indexName, metrics);
-                metricsByIndex.put(indexName, metrics);
-            }
-        } else {
-            final Map<String, Metric> newMetrics = getMessageMappingDiffs(metricsByIndex.get(indexName), metrics);
-            synchronized (DatastoreMessage.class) {
-                doUpsertMappings(indexName, metrics);
-                metricsByIndex.get(indexName).putAll(newMetrics);
-            }
-        }
-        final InsertRequest insertRequest = new InsertRequest(idExtractor(messageToStore).toString(), indexName, messageToStore);
+    public String store(DatastoreMessage messageToStore, MessageIngestPlan ingestPlan) throws ClientException {
+        final String indexName = upsertIndexAndMappings(messageToStore, ingestPlan);
+        final InsertRequest insertRequest = new InsertRequest(idExtractor(messageToStore).toString(), indexName, new PlannedDatastoreMessage(messageToStore, ingestPlan));
         return elasticsearchClientProviderInstance.getElasticsearchClient().insert(insertRequest).getId();
     }
 
-    private Map<String, Metric> getMessageMappingDiffs(Map<String, Metric> currentMetrics, Map<String, Metric> newMetrics) {
-        final Map<String, Metric> newEntries = newMetrics.entrySet()
-                .stream()
-                .filter(kv -> !currentMetrics.containsKey(kv.getKey()))
-                .collect(Collectors.toMap(kv -> kv.getKey(), kv -> kv.getValue()));
-        return newEntries;
+    @Override
+    public List<InsertResponse> store(List<DatastoreMessage> messagesToStore, List<MessageIngestPlan> ingestPlans) throws ClientException {
+        return elasticsearchClientProviderInstance.getElasticsearchClient().insert(newBulkInsertRequest(messagesToStore, ingestPlans)).getResponse();
     }
 
-    private void doUpsertMappings(String index, Map<String, Metric> esMetrics) {
-        try {
-            if (esMetrics.isEmpty()) {
-                return;
-            }
-            final ObjectNode metricsMapping = getNewMessageMappingsBuilder(esMetrics);
-            logger.trace("Sending dynamic message mappings: {}", metricsMapping);
-            elasticsearchClientProviderInstance.getElasticsearchClient().putMapping(index, metricsMapping);
-        } catch (ClientException | MappingException e) {
-            throw new RuntimeException(e);
-        }
+    @Override
+    public CompletableFuture<List<InsertResponse>> storeAsync(List<DatastoreMessage> messagesToStore, List<MessageIngestPlan> ingestPlans) throws ClientException {
+        // Indexes and mappings are still upserted synchronously, but they are cached by the MessageMappingManager
+        final BulkInsertRequest bulkInsertRequest = newBulkInsertRequest(messagesToStore, ingestPlans);
+
+        final ElasticsearchClient<?> elasticsearchClient = elasticsearchClientProviderInstance.getElasticsearchClient();
+        return elasticsearchClient.bulkAsync(bulkInsertRequest).thenApply(BulkInsertResponse::getResponse);
     }
 
-    @Override
-    public void delete(KapuaId scopeId, StorableId id, long time) {
-        super.doDelete(indexResolver(scopeId, time), id);
+    private BulkInsertRequest newBulkInsertRequest(List<DatastoreMessage> messagesToStore, List<MessageIngestPlan> ingestPlans) {
+        final BulkInsertRequest bulkInsertRequest = new BulkInsertRequest();
+        for (int i = 0; i < messagesToStore.size(); i++) {
+            final DatastoreMessage messageToStore = messagesToStore.get(i);
+            final MessageIngestPlan ingestPlan = ingestPlans.get(i);
+            final String indexName = upsertIndexAndMappings(messageToStore, ingestPlan);
+            bulkInsertRequest.add(new InsertRequest(idExtractor(messageToStore).toString(), indexName, new PlannedDatastoreMessage(messageToStore, ingestPlan)));
+        }
+        return bulkInsertRequest;
     }
 
     /**
-     * @param esMetrics
-     * @return
-     * @throws DatamodelMappingException
-     * @throws KapuaException
-     * @since 1.0.0
+     * Makes sure that the index for the given {@link DatastoreMessage} exists and that it has the mappings for the metrics of the given {@link MessageIngestPlan}.
+     * <p>
+     * The {@link MessageMappingManager} is skipped when the {@link MessageIngestPlan} already mapped its metrics in the index.
+     *
+     * @param messageToStore The {@link DatastoreMessage} to be stored.
+     * @param ingestPlan     The {@link MessageIngestPlan} of the {@link DatastoreMessage}.
+     * @return The name of the index where the {@link DatastoreMessage} has to be stored.
+     * @since 2.1.0
      */
-    private ObjectNode getNewMessageMappingsBuilder(Map<String, Metric> esMetrics) throws MappingException {
-        if (esMetrics == null || esMetrics.isEmpty()) {
-            return null;
-        }
-        // metrics mapping container (to be added to message mapping)
-        ObjectNode typeNode = MappingUtils.newObjectNode(); // root
-        ObjectNode typePropertiesNode = MappingUtils.newObjectNode(); // properties
-        ObjectNode metricsNode = MappingUtils.newObjectNode(); // metrics
-        ObjectNode metricsPropertiesNode = MappingUtils.newObjectNode(); // properties (metric properties)
-        typeNode.set(SchemaKeys.FIELD_NAME_PROPERTIES, typePropertiesNode);
-        typePropertiesNode.set(SchemaKeys.FIELD_NAME_METRICS, metricsNode);
-        metricsNode.set(SchemaKeys.FIELD_NAME_PROPERTIES, metricsPropertiesNode);
-
-        // metrics mapping
-        ObjectNode metricMapping;
-        for (Map.Entry<String, Metric> esMetric : esMetrics.entrySet()) {
-            Metric metric = esMetric.getValue();
-            metricMapping = MappingUtils.newObjectNode(new KeyValueEntry[]{new KeyValueEntry(SchemaKeys.KEY_DYNAMIC, SchemaKeys.VALUE_TRUE)});
-
-            ObjectNode metricMappingPropertiesNode = MappingUtils.newObjectNode(); // properties (inside metric name)
-            ObjectNode valueMappingNode;
-
-            switch (metric.getType()) {
-                case SchemaKeys.TYPE_STRING:
-                    valueMappingNode = MappingUtils.newObjectNode(new KeyValueEntry[]{new KeyValueEntry(SchemaKeys.KEY_TYPE, SchemaKeys.TYPE_KEYWORD), new KeyValueEntry(SchemaKeys.KEY_INDEX, SchemaKeys.VALUE_TRUE)});
-                    break;
-                case SchemaKeys.TYPE_DATE:
-                    valueMappingNode = MappingUtils.newObjectNode(
-                            new KeyValueEntry[]{new KeyValueEntry(SchemaKeys.KEY_TYPE, SchemaKeys.TYPE_DATE), new KeyValueEntry(SchemaKeys.KEY_FORMAT, DatastoreUtils.DATASTORE_DATE_FORMAT)});
-                    break;
-                default:
-                    valueMappingNode = MappingUtils.newObjectNode(new KeyValueEntry[]{new KeyValueEntry(SchemaKeys.KEY_TYPE, metric.getType())});
-                    break;
-            }
-
-            metricMappingPropertiesNode.set(datastoreUtils.getClientMetricFromAcronym(metric.getType()), valueMappingNode);
-            metricMapping.set(SchemaKeys.FIELD_NAME_PROPERTIES, metricMappingPropertiesNode);
-            metricsPropertiesNode.set(metric.getName(), metricMapping);
+    private String upsertIndexAndMappings(DatastoreMessage messageToStore, MessageIngestPlan ingestPlan) {
+        final String indexingWindowOption = datastoreSettings.getString(DatastoreSettingsKey.INDEXING_WINDOW_OPTION, DatastoreUtils.INDEXING_WINDOW_OPTION_WEEK);
+        final String indexName = ingestPlan.getDataIndexName(messageToStore.getTimestamp().getTime(), indexingWindowOption);
+        if (!ingestPlan.isMappedIn(indexName)) {
+            messageMappingManager.upsertMappings(indexName, ingestPlan.getMetrics(), this::doUpsertIndex);
+            ingestPlan.setMappedIn(indexName);
         }
-        return typeNode;
+        return indexName;
+    }
+
+    @Override
+    public Iterator<DatastoreMessage> iterate(MessageQuery query, int pageSize) {
+        return doIterate(query, MessageSchema.MESSAGE_ID, pageSize);
+    }
+
+    @Override
+    public void delete(KapuaId scopeId, StorableId id, long time) {
+        super.doDelete(indexResolver(scopeId, time), id);
     }
 
     @Override
     public void refreshAllIndexes() {
         super.refreshIndex(datastoreUtils.getDataIndexName(KapuaId.ANY));
-        this.metricsByIndex.invalidateAll();
+        this.messageMappingManager.invalidateAll();
+        this.messageIngestPlanner.invalidateAll();
     }
 
     @Override
     public void deleteAllIndexes() {
         super.deleteIndexes(datastoreUtils.getDataIndexName(KapuaId.ANY));
-        this.metricsByIndex.invalidateAll();
+        this.messageMappingManager.invalidateAll();
+        this.messageIngestPlanner.invalidateAll();
     }
 
     @Override
     public void deleteIndexes(String indexExp) {
         super.deleteIndexes(indexExp);
-        this.metricsByIndex.invalidateAll();
+        this.messageMappingManager.invalidateAll();
+        this.messageIngestPlanner.invalidateAll();
     }
 }
@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal;
+
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreUtils;
+import org.eclipse.kapua.service.datastore.internal.mediator.Metric;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The precompiled ingestion of the messages that share the same scope, channel and metric set.
+ * <p>
+ * Devices keep sending the same metrics on the same channel: the normalized names, the types and the mapped field names of the metrics
+ * are computed once for each {@link Key} and reused by all the following messages, which only have to copy the metric values.
+ * The plan also remembers the last data index resolved for its scope and whether its metrics are already mapped in that index.
+ * <p>
+ * The metrics of the plan are in the iteration order of the metrics map the {@link Key} has been built from.
+ *
+ * @since 2.1.0
+ */
+public class MessageIngestPlan {
+
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final DatastoreUtils datastoreUtils;
+    private final KapuaId scopeId;
+    private final String[] normalizedNames;
+    private final String[] typeAcronyms;
+    private final Map<String, Metric> metrics;
+
+    private volatile DataIndex dataIndex;
+    private volatile String mappedIndexName;
+
+    /**
+     * Constructor.
+     *
+     * @param datastoreUtils The {@link DatastoreUtils} instance.
+     * @param key            The {@link Key} to compile.
+     * @since 2.1.0
+     */
+    MessageIngestPlan(DatastoreUtils datastoreUtils, Key key) {
+        this.datastoreUtils = datastoreUtils;
+        this.scopeId = key.scopeId;
+
+        final int size = key.metricNames.length;
+        normalizedNames = new String[size];
+        typeAcronyms = new String[size];
+        final Map<String, Metric> metrics = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            final String metricName = datastoreUtils.normalizeMetricName(key.metricNames[i]);
+            final String clientMetricType = datastoreUtils.getClientMetricFromType(key.metricTypes[i]);
+            normalizedNames[i] = metricName;
+            typeAcronyms[i] = datastoreUtils.getClientMetricFromAcronym(clientMetricType);
+
+            // each metric is potentially a dynamic field so report it a new mapping
+            metrics.put(datastoreUtils.getMetricValueQualifier(metricName, clientMetricType), new Metric(metricName, clientMetricType));
+        }
+        this.metrics = Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * Gets the number of metrics of the plan.
+     *
+     * @return The number of metrics of the plan.
+     * @since 2.1.0
+     */
+    public int size() {
+        return normalizedNames.length;
+    }
+
+    /**
+     * Gets the normalized name of the metric at the given position.
+     *
+     * @param index The position of the metric.
+     * @return The normalized name of the metric.
+     * @see DatastoreUtils#normalizeMetricName(String)
+     * @since 2.1.0
+     */
+    public String getNormalizedName(int index) {
+        return normalizedNames[index];
+    }
+
+    /**
+     * Gets the client metric type acronym of the metric at the given position.
+     *
+     * @param index The position of the metric.
+     * @return The client metric type acronym of the metric.
+     * @see DatastoreUtils#getClientMetricFromAcronym(String)
+     * @since 2.1.0
+     */
+    public String getTypeAcronym(int index) {
+        return typeAcronyms[index];
+    }
+
+    /**
+     * Gets the {@link Metric}s of the plan, keyed by their mapped field name.
+     * <p>
+     * The returned {@link Map} is shared by all the messages of the plan and cannot be modified.
+     *
+     * @return The {@link Metric}s of the plan.
+     * @since 2.1.0
+     */
+    public Map<String, Metric> getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the name of the data index for the given timestamp.
+     * <p>
+     * The name is computed again only when the timestamp falls out of the indexing window of the last resolved one.
+     *
+     * @param timestamp            The timestamp of the message.
+     * @param indexingWindowOption The indexing window option.
+     * @return The name of the data index.
+     * @see DatastoreUtils#getDataIndexName(KapuaId, long, String)
+     * @since 2.1.0
+     */
+    public String getDataIndexName(long timestamp, String indexingWindowOption) {
+        final long window = getIndexingWindow(timestamp, indexingWindowOption);
+
+        DataIndex current = dataIndex;
+        if (current == null || current.window != window || !current.indexingWindowOption.equals(indexingWindowOption)) {
+            current = new DataIndex(indexingWindowOption, window, datastoreUtils.getDataIndexName(scopeId, timestamp, indexingWindowOption));
+            dataIndex = current;
+        }
+        return current.name;
+    }
+
+    /**
+     * Checks whether the {@link Metric}s of the plan are known to be mapped in the given index.
+     *
+     * @param indexName The name of the index.
+     * @return {@code true} if the {@link Metric}s are mapped in the index, {@code false} if it is not known.
+     * @since 2.1.0
+     */
+    public boolean isMappedIn(String indexName) {
+        return indexName.equals(mappedIndexName);
+    }
+
+    /**
+     * Records that the {@link Metric}s of the plan are mapped in the given index.
+     *
+     * @param indexName The name of the index.
+     * @since 2.1.0
+     */
+    public void setMappedIn(String indexName) {
+        mappedIndexName = indexName;
+    }
+
+    /**
+     * Gets the indexing window of the given timestamp.
+     * <p>
+     * Data index names are formatted in UTC and only depend on the hour (hourly indexes) or on the day (daily and weekly indexes) of the timestamp.
+     *
+     * @param timestamp            The timestamp.
+     * @param indexingWindowOption The indexing window option.
+     * @return The number of the indexing window since the epoch.
+     */
+    private static long getIndexingWindow(long timestamp, String indexingWindowOption) {
+        return Math.floorDiv(timestamp, DatastoreUtils.INDEXING_WINDOW_OPTION_HOUR.equals(indexingWindowOption) ? HOUR_MILLIS : DAY_MILLIS);
+    }
+
+    /**
+     * The last data index resolved by the plan.
+     *
+     * @since 2.1.0
+     */
+    private static class DataIndex {
+
+        private final String indexingWindowOption;
+        private final long window;
+        private final String name;
+
+        private DataIndex(String indexingWindowOption, long window, String name) {
+            this.indexingWindowOption = indexingWindowOption;
+            this.window = window;
+            this.name = name;
+        }
+    }
+
+    /**
+     * The key of a {@link MessageIngestPlan}: the scope, the channel, the metric names and the metric value types of a message.
+     * <p>
+     * The metrics are compared in their iteration order, so that the positions of the plan metrics match the ones of the message metrics.
+     *
+     * @since 2.1.0
+     */
+    public static final class Key {
+
+        private final KapuaId scopeId;
+        private final List<String> channelParts;
+        private final String[] metricNames;
+        private final Class<?>[] metricTypes;
+        private final int hashCode;
+
+        /**
+         * Constructor.
+         *
+         * @param scopeId      The scope {@link KapuaId} of the message.
+         * @param channelParts The semantic parts of the channel of the message.
+         * @param metrics      The metrics of the message.
+         * @since 2.1.0
+         */
+        Key(KapuaId scopeId, List<String> channelParts, Map<String, Object> metrics) {
+            this.scopeId = scopeId;
+            this.channelParts = channelParts;
+
+            metricNames = new String[metrics.size()];
+            metricTypes = new Class<?>[metrics.size()];
+            int hash = 31 * Objects.hashCode(scopeId) + Objects.hashCode(channelParts);
+            int i = 0;
+            for (Map.Entry<String, Object> metric : metrics.entrySet()) {
+                metricNames[i] = metric.getKey();
+                metricTypes[i] = metric.getValue().getClass();
+                hash = 31 * (31 * hash + metricNames[i].hashCode()) + metricTypes[i].hashCode();
+                i++;
+            }
+            hashCode = hash;
+        }
+
+        private Key(Key key, List<String> channelParts) {
+            this.scopeId = key.scopeId;
+            this.channelParts = channelParts;
+            this.metricNames = key.metricNames;
+            this.metricTypes = key.metricTypes;
+            this.hashCode = key.hashCode;
+        }
+
+        /**
+         * Gets a copy of this {@link Key} which does not share the channel parts with the message it has been built from.
+         *
+         * @return The copy of this {@link Key}.
+         * @since 2.1.0
+         */
+        Key detach() {
+            return new Key(this, channelParts != null ? new ArrayList<>(channelParts) : null);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return hashCode == other.hashCode &&
+                    Objects.equals(scopeId, other.scopeId) &&
+                    Objects.equals(channelParts, other.channelParts) &&
+                    Arrays.equals(metricNames, other.metricNames) &&
+                    Arrays.equals(metricTypes, other.metricTypes);
+        }
+    }
+}
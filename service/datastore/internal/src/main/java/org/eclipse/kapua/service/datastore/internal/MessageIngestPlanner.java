@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal;
+
+import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.message.KapuaChannel;
+import org.eclipse.kapua.message.KapuaMessage;
+import org.eclipse.kapua.message.KapuaPayload;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreUtils;
+import org.eclipse.kapua.service.datastore.model.DatastoreMessage;
+
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Provides the {@link MessageIngestPlan}s of the messages to store, compiling them on the first message of each scope, channel and metric set.
+ * <p>
+ * The {@link MessageIngestPlan}s are kept in the bounded {@link DatastoreCacheManager#getIngestPlanCache()}.
+ *
+ * @since 2.1.0
+ */
+public class MessageIngestPlanner {
+
+    private final DatastoreUtils datastoreUtils;
+    private final LocalCache<MessageIngestPlan.Key, MessageIngestPlan> ingestPlanCache;
+
+    @Inject
+    public MessageIngestPlanner(DatastoreUtils datastoreUtils, DatastoreCacheManager datastoreCacheManager) {
+        this.datastoreUtils = datastoreUtils;
+        this.ingestPlanCache = datastoreCacheManager.getIngestPlanCache();
+    }
+
+    /**
+     * Gets the {@link MessageIngestPlan} of the given {@link KapuaMessage}.
+     *
+     * @param message The {@link KapuaMessage} to store.
+     * @return The {@link MessageIngestPlan} of the {@link KapuaMessage}.
+     * @since 2.1.0
+     */
+    public MessageIngestPlan getPlan(KapuaMessage<?, ?> message) {
+        return getPlan(message.getScopeId(), message.getChannel(), message.getPayload());
+    }
+
+    /**
+     * Gets the {@link MessageIngestPlan} of the given {@link DatastoreMessage}.
+     *
+     * @param message The {@link DatastoreMessage} to store.
+     * @return The {@link MessageIngestPlan} of the {@link DatastoreMessage}.
+     * @since 2.1.0
+     */
+    public MessageIngestPlan getPlan(DatastoreMessage message) {
+        return getPlan(message.getScopeId(), message.getChannel(), message.getPayload());
+    }
+
+    /**
+     * Forgets all the {@link MessageIngestPlan}s, along with the data indexes and the mappings they know about.
+     *
+     * @since 2.1.0
+     */
+    public void invalidateAll() {
+        ingestPlanCache.invalidateAll();
+    }
+
+    private MessageIngestPlan getPlan(KapuaId scopeId, KapuaChannel channel, KapuaPayload payload) {
+        final Map<String, Object> metrics = payload != null && payload.getMetrics() != null ? payload.getMetrics() : Collections.emptyMap();
+        final MessageIngestPlan.Key key = new MessageIngestPlan.Key(scopeId, channel != null ? channel.getSemanticParts() : null, metrics);
+
+        MessageIngestPlan plan = ingestPlanCache.get(key);
+        if (plan == null) {
+            plan = new MessageIngestPlan(datastoreUtils, key);
+            ingestPlanCache.put(key.detach(), plan);
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreUtils;
+import org.eclipse.kapua.service.datastore.internal.mediator.Metric;
+import org.eclipse.kapua.service.elasticsearch.client.ElasticsearchClientProvider;
+import org.eclipse.kapua.service.elasticsearch.client.SchemaKeys;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+import org.eclipse.kapua.service.storable.exception.MappingException;
+import org.eclipse.kapua.service.storable.model.utils.KeyValueEntry;
+import org.eclipse.kapua.service.storable.model.utils.MappingUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps track of the dynamic metric mappings known for each message index.
+ * <p>
+ * A {@code putMapping} is sent to Elasticsearch only for the metrics not yet mapped in the index.
+ * Updates on the same index are serialized on a lock, so that concurrent stores that bring the same new metrics result in a single {@code putMapping}.
+ * The locks are striped by index name: their number is fixed whatever the number of indexes, and stores on different indexes wait for each other
+ * only if their indexes share the same stripe.
+ *
+ * @since 2.1.0
+ */
+public class MessageMappingManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MessageMappingManager.class);
+
+    private static final int INDEX_LOCK_STRIPES = 64;
+
+    private final ElasticsearchClientProvider elasticsearchClientProviderInstance;
+    private final DatastoreUtils datastoreUtils;
+    private final LocalCache<String, Map<String, Metric>> metricsByIndex;
+    private final Object[] indexLocks = new Object[INDEX_LOCK_STRIPES];
+
+    @Inject
+    public MessageMappingManager(
+            ElasticsearchClientProvider elasticsearchClientProviderInstance,
+            DatastoreUtils datastoreUtils,
+            DatastoreCacheManager datastoreCacheManager) {
+        this.elasticsearchClientProviderInstance = elasticsearchClientProviderInstance;
+        this.datastoreUtils = datastoreUtils;
+        this.metricsByIndex = datastoreCacheManager.getMetadataCache();
+        for (int i = 0; i < indexLocks.length; i++) {
+            indexLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Makes sure that the given index exists and that it has the mappings for the given {@link Metric}s.
+     *
+     * @param indexName     The name of the index.
+     * @param metrics       The {@link Metric}s that must be mapped, keyed by their mapped field name.
+     * @param indexUpserter The action that creates the index if it does not exist. It is invoked at most once until the index is evicted from the cache.
+     * @since 2.1.0
+     */
+    public void upsertMappings(String indexName, Map<String, Metric> metrics, Consumer<String> indexUpserter) {
+        final Map<String, Metric> knownMetrics = metricsByIndex.get(indexName);
+        if (knownMetrics != null && knownMetrics.keySet().containsAll(metrics.keySet())) {
+            return;
+        }
+
+        synchronized (getIndexLock(indexName)) {
+            Map<String, Metric> currentMetrics = metricsByIndex.get(indexName);
+            if (currentMetrics == null) {
+                indexUpserter.accept(indexName);
+                currentMetrics = new ConcurrentHashMap<>();
+            }
+
+            // Compute again the diff: another thread may have mapped the same metrics while this one was waiting
+            final Map<String, Metric> newMetrics = getMessageMappingDiffs(currentMetrics, metrics);
+            doUpsertMappings(indexName, newMetrics);
+
+            currentMetrics.putAll(newMetrics);
+            metricsByIndex.put(indexName, currentMetrics);
+        }
+    }
+
+    /**
+     * Forgets all the known mappings, so that they are sent again on the next store.
+     *
+     * @since 2.1.0
+     */
+    public void invalidateAll() {
+        metricsByIndex.invalidateAll();
+    }
+
+    private Object getIndexLock(String indexName) {
+        return indexLocks[Math.floorMod(indexName.hashCode(), indexLocks.length)];
+    }
+
+    private Map<String, Metric> getMessageMappingDiffs(Map<String, Metric> currentMetrics, Map<String, Metric> newMetrics) {
+        return newMetrics.entrySet()
+                .stream()
+                .filter(kv -> !currentMetrics.containsKey(kv.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private void doUpsertMappings(String index, Map<String, Metric> esMetrics) {
+        try {
+            if (esMetrics.isEmpty()) {
+                return;
+            }
+            final ObjectNode metricsMapping = getNewMessageMappingsBuilder(esMetrics);
+            LOG.trace("Sending dynamic message mappings: {}", metricsMapping);
+            elasticsearchClientProviderInstance.getElasticsearchClient().putMapping(index, metricsMapping);
+        } catch (ClientException | MappingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @param esMetrics
+     * @return
+     * @throws MappingException
+     * @since 1.0.0
+     */
+    private ObjectNode getNewMessageMappingsBuilder(Map<String, Metric> esMetrics) throws MappingException {
+        if (esMetrics == null || esMetrics.isEmpty()) {
+            return null;
+        }
+        // metrics mapping container (to be added to message mapping)
+        ObjectNode typeNode = MappingUtils.newObjectNode(); // root
+        ObjectNode typePropertiesNode = MappingUtils.newObjectNode(); // properties
+        ObjectNode metricsNode = MappingUtils.newObjectNode(); // metrics
+        ObjectNode metricsPropertiesNode = MappingUtils.newObjectNode(); // properties (metric properties)
+        typeNode.set(SchemaKeys.FIELD_NAME_PROPERTIES, typePropertiesNode);
+        typePropertiesNode.set(SchemaKeys.FIELD_NAME_METRICS, metricsNode);
+        metricsNode.set(SchemaKeys.FIELD_NAME_PROPERTIES, metricsPropertiesNode);
+
+        // metrics mapping
+        ObjectNode metricMapping;
+        for (Map.Entry<String, Metric> esMetric : esMetrics.entrySet()) {
+            Metric metric = esMetric.getValue();
+            metricMapping = MappingUtils.newObjectNode(new KeyValueEntry[]{new KeyValueEntry(SchemaKeys.KEY_DYNAMIC, SchemaKeys.VALUE_TRUE)});
+
+            ObjectNode metricMappingPropertiesNode = MappingUtils.newObjectNode(); // properties (inside metric name)
+            ObjectNode valueMappingNode;
+
+            switch (metric.getType()) {
+                case SchemaKeys.TYPE_STRING:
+                    valueMappingNode = MappingUtils.newObjectNode(new KeyValueEntry[]{new KeyValueEntry(SchemaKeys.KEY_TYPE, SchemaKeys.TYPE_KEYWORD), new KeyValueEntry(SchemaKeys.KEY_INDEX, SchemaKeys.VALUE_TRUE)});
+                    break;
+                case SchemaKeys.TYPE_DATE:
+                    valueMappingNode = MappingUtils.newObjectNode(
+                            new KeyValueEntry[]{new KeyValueEntry(SchemaKeys.KEY_TYPE, SchemaKeys.TYPE_DATE), new KeyValueEntry(SchemaKeys.KEY_FORMAT, DatastoreUtils.DATASTORE_DATE_FORMAT)});
+                    break;
+                default:
+                    valueMappingNode = MappingUtils.newObjectNode(new KeyValueEntry[]{new KeyValueEntry(SchemaKeys.KEY_TYPE, metric.getType())});
+                    break;
+            }
+
+            metricMappingPropertiesNode.set(datastoreUtils.getClientMetricFromAcronym(metric.getType()), valueMappingNode);
+            metricMapping.set(SchemaKeys.FIELD_NAME_PROPERTIES, metricMappingPropertiesNode);
+            metricsPropertiesNode.set(metric.getName(), metricMapping);
+        }
+        return typeNode;
+    }
+}
@@ -13,19 +13,65 @@
 package org.eclipse.kapua.service.datastore.internal;
 
 import org.eclipse.kapua.model.id.KapuaId;
-import org.eclipse.kapua.service.datastore.internal.mediator.Metric;
 import org.eclipse.kapua.service.datastore.model.DatastoreMessage;
 import org.eclipse.kapua.service.datastore.model.MessageListResult;
 import org.eclipse.kapua.service.datastore.model.query.MessageQuery;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+import org.eclipse.kapua.service.elasticsearch.client.model.InsertResponse;
 import org.eclipse.kapua.service.storable.model.id.StorableId;
 import org.eclipse.kapua.service.storable.repository.StorableRepository;
 
-import java.util.Map;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface MessageRepository extends StorableRepository<DatastoreMessage, MessageListResult, MessageQuery> {
 
-    String store(DatastoreMessage messageToStore, Map<String, Metric> metrics) throws ClientException;
+    /**
+     * Stores the given {@link DatastoreMessage}.
+     *
+     * @param messageToStore The {@link DatastoreMessage} to store.
+     * @param ingestPlan     The {@link MessageIngestPlan} of the {@link DatastoreMessage}.
+     * @return The id of the stored {@link DatastoreMessage}.
+     * @throws ClientException if the insert request fails.
+     * @since 1.0.0
+     */
+    String store(DatastoreMessage messageToStore, MessageIngestPlan ingestPlan) throws ClientException;
+
+    /**
+     * Stores the given {@link DatastoreMessage}s with a single bulk request.
+     *
+     * @param messagesToStore The {@link DatastoreMessage}s to store.
+     * @param ingestPlans     The {@link MessageIngestPlan} of each {@link DatastoreMessage}, in the same order of the {@link DatastoreMessage}s.
+     * @return The {@link InsertResponse} of each {@link DatastoreMessage}, in the same order of the {@link DatastoreMessage}s.
+     * @throws ClientException if the whole bulk request fails.
+     * @since 2.1.0
+     */
+    List<InsertResponse> store(List<DatastoreMessage> messagesToStore, List<MessageIngestPlan> ingestPlans) throws ClientException;
+
+    /**
+     * Stores the given {@link DatastoreMessage}s with a single bulk request, without waiting for its completion.
+     *
+     * @param messagesToStore The {@link DatastoreMessage}s to store.
+     * @param ingestPlans     The {@link MessageIngestPlan} of each {@link DatastoreMessage}, in the same order of the {@link DatastoreMessage}s.
+     * @return The {@link CompletableFuture} completed with the {@link InsertResponse} of each {@link DatastoreMessage}, in the same order of the {@link DatastoreMessage}s.
+     * @throws ClientException if the bulk request cannot be sent.
+     * @since 2.1.0
+     */
+    CompletableFuture<List<InsertResponse>> storeAsync(List<DatastoreMessage> messagesToStore, List<MessageIngestPlan> ingestPlans) throws ClientException;
+
+    /**
+     * Iterates over all the {@link DatastoreMessage}s matching the given {@link MessageQuery}, reading them in pages.
+     * <p>
+     * The results are not limited by the {@code index.max_result_window} of the indexes.
+     * The offset of the {@link MessageQuery} is ignored and its limit, if set, caps the number of {@link DatastoreMessage}s to iterate over.
+     *
+     * @param query    The {@link MessageQuery} to perform.
+     * @param pageSize The maximum number of {@link DatastoreMessage}s of each page.
+     * @return The {@link Iterator} over the matching {@link DatastoreMessage}s.
+     * @since 2.1.0
+     */
+    Iterator<DatastoreMessage> iterate(MessageQuery query, int pageSize);
 
     void delete(KapuaId scopeId, StorableId id, long time);
 
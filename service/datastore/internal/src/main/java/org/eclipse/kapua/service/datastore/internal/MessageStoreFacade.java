@@ -25,6 +25,10 @@ import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
 import org.eclipse.kapua.service.storable.exception.MappingException;
 import org.eclipse.kapua.service.storable.model.id.StorableId;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public interface MessageStoreFacade {
     StorableId store(KapuaMessage<?, ?> message, String messageId, boolean newInsert)
             throws KapuaIllegalArgumentException,
@@ -32,6 +36,29 @@ public interface MessageStoreFacade {
             ConfigurationException,
             ClientException, MappingException;
 
+    /**
+     * Stores the given {@link KapuaMessage}s with a single bulk request.
+     *
+     * @param messages     The {@link KapuaMessage}s to store.
+     * @param datastoreIds The datastore ids to assign, in the same order of the {@link KapuaMessage}s.
+     * @return The outcomes of the {@link KapuaMessage}s, in the same order: {@code null} if stored, the failure otherwise.
+     * @throws ClientException if the whole bulk request fails.
+     * @since 2.1.0
+     */
+    List<Exception> store(List<KapuaMessage<?, ?>> messages, List<String> datastoreIds) throws ClientException;
+
+    /**
+     * Stores the given {@link KapuaMessage}s with a single bulk request, without waiting for its completion.
+     *
+     * @param messages     The {@link KapuaMessage}s to store.
+     * @param datastoreIds The datastore ids to assign, in the same order of the {@link KapuaMessage}s.
+     * @return The {@link CompletableFuture} completed with the outcomes of the {@link KapuaMessage}s, in the same order: {@code null} if stored, the failure otherwise,
+     * or exceptionally if the whole bulk request fails.
+     * @throws ClientException if the bulk request cannot be sent.
+     * @since 2.1.0
+     */
+    CompletableFuture<List<Exception>> storeAsync(List<KapuaMessage<?, ?>> messages, List<String> datastoreIds) throws ClientException;
+
     void onAfterMessageStore(MessageInfo messageInfo, DatastoreMessage message)
             throws KapuaIllegalArgumentException,
             ConfigurationException,
@@ -53,6 +80,21 @@ public interface MessageStoreFacade {
             ConfigurationException,
             ClientException;
 
+    /**
+     * Iterates over all the {@link DatastoreMessage}s matching the given {@link MessageQuery}, reading them in pages.
+     *
+     * @param query    The {@link MessageQuery} to perform.
+     * @param pageSize The maximum number of {@link DatastoreMessage}s of each page.
+     * @return The {@link Iterator} over the matching {@link DatastoreMessage}s, which is empty if the datastore is not enabled for the scope.
+     * @throws KapuaIllegalArgumentException if the {@link MessageQuery} is not valid.
+     * @throws ConfigurationException        if the datastore configuration of the scope cannot be read.
+     * @see MessageRepository#iterate(MessageQuery, int)
+     * @since 2.1.0
+     */
+    Iterator<DatastoreMessage> iterate(MessageQuery query, int pageSize)
+            throws KapuaIllegalArgumentException,
+            ConfigurationException;
+
     long count(MessageQuery query)
             throws KapuaIllegalArgumentException,
             ConfigurationException,
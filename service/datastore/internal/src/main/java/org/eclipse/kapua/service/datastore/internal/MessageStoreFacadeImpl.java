@@ -26,11 +26,9 @@ import org.eclipse.kapua.service.datastore.internal.mediator.ChannelInfoField;
 import org.eclipse.kapua.service.datastore.internal.mediator.ClientInfoField;
 import org.eclipse.kapua.service.datastore.internal.mediator.ConfigurationException;
 import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreChannel;
-import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreUtils;
 import org.eclipse.kapua.service.datastore.internal.mediator.MessageField;
 import org.eclipse.kapua.service.datastore.internal.mediator.MessageInfo;
 import org.eclipse.kapua.service.datastore.internal.mediator.MessageStoreConfiguration;
-import org.eclipse.kapua.service.datastore.internal.mediator.Metric;
 import org.eclipse.kapua.service.datastore.internal.mediator.MetricInfoField;
 import org.eclipse.kapua.service.datastore.internal.model.ChannelInfoImpl;
 import org.eclipse.kapua.service.datastore.internal.model.ClientInfoImpl;
@@ -43,14 +41,20 @@ import org.eclipse.kapua.service.datastore.internal.model.query.ChannelInfoQuery
 import org.eclipse.kapua.service.datastore.internal.model.query.ClientInfoQueryImpl;
 import org.eclipse.kapua.service.datastore.internal.model.query.MetricInfoQueryImpl;
 import org.eclipse.kapua.service.datastore.internal.model.query.predicate.ChannelMatchPredicateImpl;
+import org.eclipse.kapua.service.datastore.model.ChannelInfo;
 import org.eclipse.kapua.service.datastore.model.ChannelInfoListResult;
+import org.eclipse.kapua.service.datastore.model.ClientInfo;
 import org.eclipse.kapua.service.datastore.model.ClientInfoListResult;
 import org.eclipse.kapua.service.datastore.model.DatastoreMessage;
 import org.eclipse.kapua.service.datastore.model.MessageListResult;
+import org.eclipse.kapua.service.datastore.model.MetricInfo;
 import org.eclipse.kapua.service.datastore.model.MetricInfoListResult;
 import org.eclipse.kapua.service.datastore.model.query.MessageQuery;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientActionResponseException;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientCommunicationException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.QueryMappingException;
+import org.eclipse.kapua.service.elasticsearch.client.model.InsertResponse;
 import org.eclipse.kapua.service.storable.exception.MappingException;
 import org.eclipse.kapua.service.storable.model.id.StorableId;
 import org.eclipse.kapua.service.storable.model.id.StorableIdFactory;
@@ -58,10 +62,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Message store facade
@@ -81,7 +89,7 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
     private final ChannelInfoRepository channelInfoRepository;
     private final ClientInfoRepository clientInfoRepository;
     private final MetricsDatastore metrics;
-    private final DatastoreUtils datastoreUtils;
+    private final MessageIngestPlanner messageIngestPlanner;
     private final DatastoreCacheManager datastoreCacheManager;
 
     private static final String QUERY = "query";
@@ -100,7 +108,7 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
             ChannelInfoRepository channelInfoRepository,
             ClientInfoRepository clientInfoRepository,
             MetricsDatastore metricsDatastore,
-            DatastoreUtils datastoreUtils,
+            MessageIngestPlanner messageIngestPlanner,
             DatastoreCacheManager datastoreCacheManager) {
         super(configProvider);
         this.storableIdFactory = storableIdFactory;
@@ -112,7 +120,7 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
         this.channelInfoRepository = channelInfoRepository;
         this.clientInfoRepository = clientInfoRepository;
         this.metrics = metricsDatastore;
-        this.datastoreUtils = datastoreUtils;
+        this.messageIngestPlanner = messageIngestPlanner;
         this.datastoreCacheManager = datastoreCacheManager;
     }
 
@@ -127,6 +135,136 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
      */
     @Override
     public StorableId store(KapuaMessage<?, ?> message, String messageId, boolean newInsert) throws KapuaIllegalArgumentException, DatastoreDisabledException, ConfigurationException, ClientException, MappingException {
+        // Save message (the big one)
+        final DatastoreMessage messageToStore = prepareMessageToStore(message, messageId, newInsert);
+        if (messageToStore == null) {
+            return storableIdFactory.newStorableId(messageId);
+        }
+
+        final String storedId = messageRepository.store(messageToStore, messageIngestPlanner.getPlan(message));
+        messageToStore.setDatastoreId(storableIdFactory.newStorableId(storedId));
+
+        MessageInfo messageInfo = configProvider.getInfo(message.getScopeId());
+        this.onAfterMessageStore(messageInfo, messageToStore);
+
+        return storableIdFactory.newStorableId(storedId);
+    }
+
+    @Override
+    public List<Exception> store(List<KapuaMessage<?, ?>> messages, List<String> datastoreIds) throws ClientException {
+        final MessagesToStore messagesToStore = prepareMessagesToStore(messages, datastoreIds);
+        if (messagesToStore.messages.isEmpty()) {
+            return messagesToStore.outcomes;
+        }
+
+        return onMessagesStored(messagesToStore, messageRepository.store(messagesToStore.messages, messagesToStore.ingestPlans));
+    }
+
+    @Override
+    public CompletableFuture<List<Exception>> storeAsync(List<KapuaMessage<?, ?>> messages, List<String> datastoreIds) throws ClientException {
+        final MessagesToStore messagesToStore = prepareMessagesToStore(messages, datastoreIds);
+        if (messagesToStore.messages.isEmpty()) {
+            return CompletableFuture.completedFuture(messagesToStore.outcomes);
+        }
+
+        return messageRepository.storeAsync(messagesToStore.messages, messagesToStore.ingestPlans)
+                .thenApply(insertResponses -> onMessagesStored(messagesToStore, insertResponses));
+    }
+
+    /**
+     * Validates and converts the given {@link KapuaMessage}s to the {@link DatastoreMessage}s to store.
+     *
+     * @param messages     The {@link KapuaMessage}s to store.
+     * @param datastoreIds The datastore ids to assign, in the same order of the {@link KapuaMessage}s.
+     * @return The {@link MessagesToStore}, with the failures of the {@link KapuaMessage}s that cannot be stored.
+     * @since 2.1.0
+     */
+    private MessagesToStore prepareMessagesToStore(List<KapuaMessage<?, ?>> messages, List<String> datastoreIds) {
+        final MessagesToStore messagesToStore = new MessagesToStore(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            try {
+                final DatastoreMessage messageToStore = prepareMessageToStore(messages.get(i), datastoreIds.get(i), false);
+                if (messageToStore != null) {
+                    messagesToStore.positions.add(i);
+                    messagesToStore.messages.add(messageToStore);
+                    messagesToStore.ingestPlans.add(messageIngestPlanner.getPlan(messages.get(i)));
+                }
+            } catch (Exception e) {
+                messagesToStore.outcomes.set(i, e);
+            }
+        }
+        return messagesToStore;
+    }
+
+    /**
+     * Maps the {@link InsertResponse}s of the bulk request to the outcomes and updates the registries for the stored {@link DatastoreMessage}s.
+     *
+     * @param messagesToStore The {@link MessagesToStore} sent with the bulk request.
+     * @param insertResponses The {@link InsertResponse}s of the bulk request, in the same order of the {@link MessagesToStore#messages}.
+     * @return The outcomes of the {@link KapuaMessage}s, in their original order: {@code null} if stored, the failure otherwise.
+     * @since 2.1.0
+     */
+    private List<Exception> onMessagesStored(MessagesToStore messagesToStore, List<InsertResponse> insertResponses) {
+        final List<Exception> outcomes = messagesToStore.outcomes;
+        final List<Integer> positions = messagesToStore.positions;
+
+        final List<Integer> storedPositions = new ArrayList<>(insertResponses.size());
+        final List<DatastoreMessage> storedMessages = new ArrayList<>(insertResponses.size());
+        for (int i = 0; i < insertResponses.size(); i++) {
+            final InsertResponse insertResponse = insertResponses.get(i);
+            final DatastoreMessage messageToStore = messagesToStore.messages.get(i);
+            if (!insertResponse.isResult()) {
+                ClientActionResponseException itemError = new ClientActionResponseException("Insert", insertResponse.getDescription(), String.valueOf(insertResponse.getStatus()));
+                // Elasticsearch rejects documents with 429 when its queues are full: those can be retried as a communication error
+                outcomes.set(positions.get(i), insertResponse.getStatus() == 429 ? new ClientCommunicationException(itemError) : itemError);
+                continue;
+            }
+
+            messageToStore.setDatastoreId(storableIdFactory.newStorableId(insertResponse.getId()));
+            storedPositions.add(positions.get(i));
+            storedMessages.add(messageToStore);
+        }
+
+        if (!storedMessages.isEmpty()) {
+            try {
+                this.onAfterMessagesStore(storedMessages);
+            } catch (Exception e) {
+                storedPositions.forEach(position -> outcomes.set(position, e));
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * The {@link DatastoreMessage}s to store with a single bulk request, along with their positions in the original batch and {@link MessageIngestPlan}s.
+     *
+     * @since 2.1.0
+     */
+    private static class MessagesToStore {
+
+        private final List<Integer> positions;
+        private final List<DatastoreMessage> messages;
+        private final List<MessageIngestPlan> ingestPlans;
+        private final List<Exception> outcomes;
+
+        private MessagesToStore(int size) {
+            positions = new ArrayList<>(size);
+            messages = new ArrayList<>(size);
+            ingestPlans = new ArrayList<>(size);
+            outcomes = new ArrayList<>(Collections.nCopies(size, null));
+        }
+    }
+
+    /**
+     * Validates the given {@link KapuaMessage} and converts it to the {@link DatastoreMessage} to store.
+     *
+     * @param message   The {@link KapuaMessage} to store.
+     * @param messageId The datastore id to assign.
+     * @param newInsert Whether the message is stored for the first time or the message uniqueness check has to be performed.
+     * @return The {@link DatastoreMessage} to store, or {@code null} if it is already in the datastore.
+     * @since 2.1.0
+     */
+    private DatastoreMessage prepareMessageToStore(KapuaMessage<?, ?> message, String messageId, boolean newInsert) throws KapuaIllegalArgumentException, DatastoreDisabledException, ConfigurationException, ClientException {
         ArgumentValidator.notNull(message, "message");
         ArgumentValidator.notNull(message.getScopeId(), SCOPE_ID);
         ArgumentValidator.notNull(message.getReceivedOn(), "receivedOn");
@@ -160,35 +298,13 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
             if (datastoreMessage != null) {
                 LOG.debug("Message with datastore id '{}' already found", messageId);
                 metrics.getAlreadyInTheDatastore().inc();
-                return storableIdFactory.newStorableId(messageId);
+                return null;
             }
         }
 
-        // Save message (the big one)
         final DatastoreMessage messageToStore = convertTo(message, messageId);
         messageToStore.setTimestamp(indexedOnDate);
-        // Possibly update the schema with new metric mappings
-        Map<String, Metric> metrics = new HashMap<>();
-        if (message.getPayload() != null && message.getPayload().getMetrics() != null && !message.getPayload().getMetrics().isEmpty()) {
-            Map<String, Object> messageMetrics = message.getPayload().getMetrics();
-            for (Map.Entry<String, Object> messageMetric : messageMetrics.entrySet()) {
-                String metricName = datastoreUtils.normalizeMetricName(messageMetric.getKey());
-                String clientMetricType = datastoreUtils.getClientMetricFromType(messageMetric.getValue().getClass());
-                Metric metric = new Metric(metricName, clientMetricType);
-
-                // each metric is potentially a dynamic field so report it a new mapping
-                String mappedName = datastoreUtils.getMetricValueQualifier(metricName, clientMetricType);
-                metrics.put(mappedName, metric);
-            }
-        }
-
-        final String storedId = messageRepository.store(messageToStore, metrics);
-        messageToStore.setDatastoreId(storableIdFactory.newStorableId(storedId));
-
-        MessageInfo messageInfo = configProvider.getInfo(message.getScopeId());
-        this.onAfterMessageStore(messageInfo, messageToStore);
-
-        return storableIdFactory.newStorableId(storedId);
+        return messageToStore;
     }
 
     /**
@@ -288,37 +404,74 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
             MappingException,
             ClientException {
 
-        // convert semantic channel to String
-        final String semanticChannel = Optional.ofNullable(message.getChannel()).map(c -> c.toString()).orElse("");
+        clientInfoRegistryFacade.upstore(newClientInfo(message));
+        channelInfoStoreFacade.upstore(newChannelInfo(message));
 
+        List<MetricInfo> messageMetrics = newMetricInfos(message);
+        if (messageMetrics.isEmpty()) {
+            return;
+        }
+
+        metricInfoStoreFacade.upstore(messageMetrics.toArray(new MetricInfo[0]));
+    }
+
+    /**
+     * Updates the client, channel and metric registries after the store of many {@link DatastoreMessage}s.
+     * <p>
+     * The entries of all the {@link DatastoreMessage}s are coalesced, so that each registry is updated with a single existence check and a single bulk request.
+     *
+     * @param messages The stored {@link DatastoreMessage}s.
+     * @since 2.1.0
+     */
+    private void onAfterMessagesStore(List<DatastoreMessage> messages)
+            throws KapuaIllegalArgumentException,
+            ConfigurationException,
+            MappingException,
+            ClientException {
+        final List<ClientInfo> clientInfos = new ArrayList<>();
+        final List<ChannelInfo> channelInfos = new ArrayList<>();
+        final List<MetricInfo> metricInfos = new ArrayList<>();
+        for (DatastoreMessage message : messages) {
+            clientInfos.add(newClientInfo(message));
+            channelInfos.add(newChannelInfo(message));
+            metricInfos.addAll(newMetricInfos(message));
+        }
+
+        clientInfoRegistryFacade.upstore(clientInfos.toArray(new ClientInfo[0]));
+        channelInfoStoreFacade.upstore(channelInfos.toArray(new ChannelInfo[0]));
+        if (!metricInfos.isEmpty()) {
+            metricInfoStoreFacade.upstore(metricInfos.toArray(new MetricInfo[0]));
+        }
+    }
+
+    private ClientInfo newClientInfo(DatastoreMessage message) {
         ClientInfoImpl clientInfo = new ClientInfoImpl(message.getScopeId());
         clientInfo.setClientId(message.getClientId());
         clientInfo.setId(storableIdFactory.newStorableId(ClientInfoField.getOrDeriveId(null, message.getScopeId(), message.getClientId())));
         clientInfo.setFirstMessageId(message.getDatastoreId());
         clientInfo.setFirstMessageOn(message.getTimestamp());
-        clientInfoRegistryFacade.upstore(clientInfo);
+        return clientInfo;
+    }
 
+    private ChannelInfo newChannelInfo(DatastoreMessage message) {
         ChannelInfoImpl channelInfo = new ChannelInfoImpl(message.getScopeId());
         channelInfo.setClientId(message.getClientId());
-        channelInfo.setName(semanticChannel);
+        channelInfo.setName(getSemanticChannel(message));
         channelInfo.setFirstMessageId(message.getDatastoreId());
         channelInfo.setFirstMessageOn(message.getTimestamp());
         channelInfo.setId(storableIdFactory.newStorableId(ChannelInfoField.getOrDeriveId(null, channelInfo)));
-        channelInfoStoreFacade.upstore(channelInfo);
+        return channelInfo;
+    }
 
+    private List<MetricInfo> newMetricInfos(DatastoreMessage message) {
         KapuaPayload payload = message.getPayload();
-        if (payload == null) {
-            return;
-        }
-
-        Map<String, Object> metrics = payload.getMetrics();
-        if (metrics == null) {
-            return;
+        if (payload == null || payload.getMetrics() == null) {
+            return new ArrayList<>();
         }
 
-        int i = 0;
-        MetricInfoImpl[] messageMetrics = new MetricInfoImpl[metrics.size()];
-        for (Map.Entry<String, Object> entry : metrics.entrySet()) {
+        final String semanticChannel = getSemanticChannel(message);
+        List<MetricInfo> messageMetrics = new ArrayList<>(payload.getMetrics().size());
+        for (Map.Entry<String, Object> entry : payload.getMetrics().entrySet()) {
             MetricInfoImpl metricInfo = new MetricInfoImpl(message.getScopeId());
             metricInfo.setClientId(message.getClientId());
             metricInfo.setChannel(semanticChannel);
@@ -327,10 +480,14 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
             metricInfo.setId(storableIdFactory.newStorableId(MetricInfoField.getOrDeriveId(null, metricInfo)));
             metricInfo.setFirstMessageId(message.getDatastoreId());
             metricInfo.setFirstMessageOn(message.getTimestamp());
-            messageMetrics[i++] = metricInfo;
+            messageMetrics.add(metricInfo);
         }
+        return messageMetrics;
+    }
 
-        metricInfoStoreFacade.upstore(messageMetrics);
+    private String getSemanticChannel(DatastoreMessage message) {
+        // convert semantic channel to String
+        return Optional.ofNullable(message.getChannel()).map(c -> c.toString()).orElse("");
     }
 
     /**
@@ -358,6 +515,20 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
         return messageRepository.query(query);
     }
 
+    @Override
+    public Iterator<DatastoreMessage> iterate(MessageQuery query, int pageSize)
+            throws KapuaIllegalArgumentException,
+            ConfigurationException {
+        ArgumentValidator.notNull(query, QUERY);
+        ArgumentValidator.notNull(query.getScopeId(), QUERY_SCOPE_ID);
+        if (!this.isDatastoreServiceEnabled(query.getScopeId())) {
+            LOG.debug("Storage not enabled for account {}, returning empty result", query.getScopeId());
+            return Collections.emptyIterator();
+        }
+
+        return messageRepository.iterate(query, pageSize);
+    }
+
 
     // TODO cache will not be reset from the client code it should be automatically reset
     // after some time.
@@ -45,8 +45,18 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Message store service implementation.
@@ -64,6 +74,7 @@ public class MessageStoreServiceImpl extends KapuaConfigurableServiceBase implem
 
     protected final Integer maxEntriesOnDelete;
     protected final Integer maxResultWindowValue;
+    protected final int iteratePageSize;
     protected final MessageStoreFacade messageStoreFacade;
 
     @Inject
@@ -83,6 +94,7 @@ public class MessageStoreServiceImpl extends KapuaConfigurableServiceBase implem
         this.messageStoreFacade = messageStoreFacade;
         maxEntriesOnDelete = datastoreSettings.getInt(DatastoreSettingsKey.CONFIG_MAX_ENTRIES_ON_DELETE);
         maxResultWindowValue = datastoreSettings.getInt(DatastoreSettingsKey.MAX_RESULT_WINDOW_VALUE);
+        iteratePageSize = datastoreSettings.getInt(DatastoreSettingsKey.ITERATE_PAGE_SIZE, 1000);
     }
 
     @Override
@@ -139,6 +151,157 @@ public class MessageStoreServiceImpl extends KapuaConfigurableServiceBase implem
         }
     }
 
+    @Override
+    public List<KapuaException> store(List<KapuaMessage<?, ?>> messages, List<String> datastoreIds)
+            throws KapuaException {
+        final List<KapuaException> outcomes = newOutcomes(messages, datastoreIds);
+        if (messages.isEmpty()) {
+            return outcomes;
+        }
+
+        final MessagesToStore messagesToStore = checkStoreAccess(messages, datastoreIds, outcomes);
+
+        Context metricDataSaveTimeContext = metrics.getDataSaveTime().time();
+        try {
+            metrics.getMessage().inc(messagesToStore.messages.size());
+            setOutcomes(messagesToStore, messageStoreFacade.store(messagesToStore.messages, messagesToStore.datastoreIds), outcomes);
+        } catch (Exception e) {
+            setFailure(messagesToStore, e, outcomes);
+        } finally {
+            metricDataSaveTimeContext.stop();
+        }
+        return outcomes;
+    }
+
+    @Override
+    public CompletableFuture<List<KapuaException>> storeAsync(List<KapuaMessage<?, ?>> messages, List<String> datastoreIds)
+            throws KapuaException {
+        final List<KapuaException> outcomes = newOutcomes(messages, datastoreIds);
+        if (messages.isEmpty()) {
+            return CompletableFuture.completedFuture(outcomes);
+        }
+
+        final MessagesToStore messagesToStore = checkStoreAccess(messages, datastoreIds, outcomes);
+
+        Context metricDataSaveTimeContext = metrics.getDataSaveTime().time();
+        metrics.getMessage().inc(messagesToStore.messages.size());
+
+        CompletableFuture<List<Exception>> storeFuture;
+        try {
+            storeFuture = messageStoreFacade.storeAsync(messagesToStore.messages, messagesToStore.datastoreIds);
+        } catch (Exception e) {
+            storeFuture = new CompletableFuture<>();
+            storeFuture.completeExceptionally(e);
+        }
+
+        return storeFuture.handle((storeOutcomes, throwable) -> {
+            try {
+                if (throwable == null) {
+                    setOutcomes(messagesToStore, storeOutcomes, outcomes);
+                } else {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                    setFailure(messagesToStore, cause instanceof Exception ? (Exception) cause : new RuntimeException(cause), outcomes);
+                }
+            } finally {
+                metricDataSaveTimeContext.stop();
+            }
+            return outcomes;
+        });
+    }
+
+    /**
+     * Validates the given batch and creates its outcomes, all {@code null} until a failure is set.
+     *
+     * @param messages     The {@link KapuaMessage}s to store.
+     * @param datastoreIds The datastore ids to assign, in the same order of the {@link KapuaMessage}s.
+     * @return The outcomes of the {@link KapuaMessage}s.
+     * @throws KapuaException if the batch is not valid.
+     * @since 2.1.0
+     */
+    private List<KapuaException> newOutcomes(List<KapuaMessage<?, ?>> messages, List<String> datastoreIds)
+            throws KapuaException {
+        ArgumentValidator.notNull(messages, "messages");
+        ArgumentValidator.notNull(datastoreIds, "datastoreIds");
+        if (messages.size() != datastoreIds.size()) {
+            throw new KapuaIllegalArgumentException("datastoreIds", String.valueOf(datastoreIds.size()));
+        }
+        return new ArrayList<>(Collections.nCopies(messages.size(), null));
+    }
+
+    /**
+     * Checks the write access once for each scope of the given {@link KapuaMessage}s.
+     *
+     * @param messages     The {@link KapuaMessage}s to store.
+     * @param datastoreIds The datastore ids to assign, in the same order of the {@link KapuaMessage}s.
+     * @param outcomes     The outcomes to which the failures of the {@link KapuaMessage}s without access are set.
+     * @return The {@link MessagesToStore} with access.
+     * @throws KapuaException if a {@link KapuaMessage} or its datastore id is not valid.
+     * @since 2.1.0
+     */
+    private MessagesToStore checkStoreAccess(List<KapuaMessage<?, ?>> messages, List<String> datastoreIds, List<KapuaException> outcomes)
+            throws KapuaException {
+        final MessagesToStore messagesToStore = new MessagesToStore(messages.size());
+        final Set<KapuaId> accessGranted = new HashSet<>();
+        final Map<KapuaId, KapuaException> accessDenied = new HashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            final KapuaMessage<?, ?> message = messages.get(i);
+            final String datastoreId = datastoreIds.get(i);
+            ArgumentValidator.notEmptyOrNull(datastoreId, "datastoreId");
+            ArgumentValidator.notNull(message, "message");
+
+            final KapuaId scopeId = message.getScopeId();
+            if (!accessGranted.contains(scopeId) && !accessDenied.containsKey(scopeId)) {
+                try {
+                    checkDataAccess(scopeId, Actions.write);
+                    accessGranted.add(scopeId);
+                } catch (KapuaException e) {
+                    accessDenied.put(scopeId, e);
+                }
+            }
+
+            if (accessDenied.containsKey(scopeId)) {
+                outcomes.set(i, accessDenied.get(scopeId));
+            } else {
+                messagesToStore.positions.add(i);
+                messagesToStore.messages.add(message);
+                messagesToStore.datastoreIds.add(datastoreId);
+            }
+        }
+        return messagesToStore;
+    }
+
+    private void setOutcomes(MessagesToStore messagesToStore, List<Exception> storeOutcomes, List<KapuaException> outcomes) {
+        for (int i = 0; i < storeOutcomes.size(); i++) {
+            if (storeOutcomes.get(i) != null) {
+                outcomes.set(messagesToStore.positions.get(i), toStoreException(messagesToStore.datastoreIds.get(i), storeOutcomes.get(i)));
+            }
+        }
+    }
+
+    private void setFailure(MessagesToStore messagesToStore, Exception e, List<KapuaException> outcomes) {
+        for (int i = 0; i < messagesToStore.positions.size(); i++) {
+            outcomes.set(messagesToStore.positions.get(i), toStoreException(messagesToStore.datastoreIds.get(i), e));
+        }
+    }
+
+    /**
+     * The {@link KapuaMessage}s of a batch which can be stored, along with their datastore ids and their positions in the batch.
+     *
+     * @since 2.1.0
+     */
+    private static class MessagesToStore {
+
+        private final List<Integer> positions;
+        private final List<KapuaMessage<?, ?>> messages;
+        private final List<String> datastoreIds;
+
+        private MessagesToStore(int size) {
+            positions = new ArrayList<>(size);
+            messages = new ArrayList<>(size);
+            datastoreIds = new ArrayList<>(size);
+        }
+    }
+
     @Override
     public DatastoreMessage find(KapuaId scopeId, StorableId id) throws KapuaException {
         return find(scopeId, id, StorableFetchStyle.SOURCE_FULL);
@@ -176,6 +339,25 @@ public class MessageStoreServiceImpl extends KapuaConfigurableServiceBase implem
         }
     }
 
+    @Override
+    public Iterator<DatastoreMessage> iterate(MessageQuery query)
+            throws KapuaException {
+        ArgumentValidator.notNull(query, "query");
+        checkDataAccess(query.getScopeId(), Actions.read);
+        if (query.getOffset() != null && query.getOffset() != 0) {
+            throw new KapuaIllegalArgumentException("query.offset", query.getOffset().toString());
+        }
+        if (query.getLimit() != null) {
+            ArgumentValidator.notNegative(query.getLimit(), "limit");
+        }
+        try {
+            return messageStoreFacade.iterate(query, iteratePageSize);
+        } catch (Exception e) {
+            logException(e);
+            throw new DatastoreException(KapuaErrorCodes.INTERNAL_ERROR, e, e.getMessage());
+        }
+    }
+
     @Override
     public long count(MessageQuery query)
             throws KapuaException {
@@ -216,6 +398,31 @@ public class MessageStoreServiceImpl extends KapuaConfigurableServiceBase implem
         }
     }
 
+    /**
+     * Converts the {@link Exception} raised while storing a message to the {@link KapuaException} to report, updating the error metrics.
+     *
+     * @param datastoreId The datastore id of the message.
+     * @param e           The {@link Exception} raised while storing the message.
+     * @return The {@link KapuaException} to report.
+     * @since 2.1.0
+     */
+    private KapuaException toStoreException(String datastoreId, Exception e) {
+        if (e instanceof ConfigurationException) {
+            metrics.getConfigurationError().inc();
+            return (ConfigurationException) e;
+        } else if (e instanceof KapuaIllegalArgumentException) {
+            metrics.getValidationError().inc();
+            return (KapuaIllegalArgumentException) e;
+        } else if (e instanceof ClientCommunicationException) {
+            metrics.getCommunicationError().inc();
+            return new DatastoreCommunicationException(datastoreId, e);
+        } else {
+            metrics.getGenericError().inc();
+            logException(e);
+            return new DatastoreException(KapuaErrorCodes.INTERNAL_ERROR, e, e.getMessage());
+        }
+    }
+
     protected void checkDataAccess(KapuaId scopeId, Actions action)
             throws KapuaException {
         Permission permission = permissionFactory.newPermission(Domains.DATASTORE, action, scopeId);
@@ -13,8 +13,12 @@
 package org.eclipse.kapua.service.datastore.internal;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
@@ -123,19 +127,29 @@ public class MetricInfoRegistryFacadeImpl extends AbstractDatastoreFacade implem
             MappingException {
         ArgumentValidator.notNull(metricInfos, "metricInfos");
 
-        // Create a bulk request
-        final List<MetricInfo> toUpsert = new ArrayList<>();
+        // Collect the metrics not in cache, grouped by scope
+        final Map<KapuaId, Map<String, MetricInfo>> toCheckByScope = new HashMap<>();
         for (MetricInfo metricInfo : metricInfos) {
             String metricInfoId = MetricInfoField.getOrDeriveId(metricInfo.getId(), metricInfo);
-            // fix #REPLACE_ISSUE_NUMBER
             if (!datastoreCacheManager.getMetricsCache().get(metricInfoId)) {
-                StorableId storableId = storableIdFactory.newStorableId(metricInfoId);
-                MetricInfo storedField = doFind(metricInfo.getScopeId(), storableId);
-                if (storedField != null) {
-                    datastoreCacheManager.getMetricsCache().put(metricInfoId, true);
-                    continue;
+                toCheckByScope.computeIfAbsent(metricInfo.getScopeId(), scopeId -> new LinkedHashMap<>()).putIfAbsent(metricInfoId, metricInfo);
+            }
+        }
+
+        // Check the existence of all of them with a single query for each scope, then create a bulk request
+        final List<MetricInfo> toUpsert = new ArrayList<>();
+        for (Map.Entry<KapuaId, Map<String, MetricInfo>> toCheck : toCheckByScope.entrySet()) {
+            final List<StorableId> storableIds = toCheck.getValue().keySet()
+                    .stream()
+                    .map(storableIdFactory::newStorableId)
+                    .collect(Collectors.toList());
+            final Set<String> storedIds = repository.findExistingIds(toCheck.getKey(), storableIds);
+            for (Map.Entry<String, MetricInfo> metricInfo : toCheck.getValue().entrySet()) {
+                if (storedIds.contains(metricInfo.getKey())) {
+                    datastoreCacheManager.getMetricsCache().put(metricInfo.getKey(), true);
+                } else {
+                    toUpsert.add(metricInfo.getValue());
                 }
-                toUpsert.add(metricInfo);
             }
         }
 
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal;
+
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.datastore.model.DatastoreMessage;
+import org.eclipse.kapua.service.storable.model.Storable;
+
+/**
+ * A {@link DatastoreMessage} to store together with its {@link MessageIngestPlan}.
+ * <p>
+ * It is the {@link Storable} of the insert requests of the {@link MessageRepository}, so the metrics are marshalled with the {@link MessageIngestPlan}
+ * already resolved for the {@link DatastoreMessage} instead of resolving it again.
+ *
+ * @since 2.1.0
+ */
+public class PlannedDatastoreMessage implements Storable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final DatastoreMessage message;
+    private final transient MessageIngestPlan ingestPlan;
+
+    /**
+     * Constructor.
+     *
+     * @param message    The {@link DatastoreMessage} to store.
+     * @param ingestPlan The {@link MessageIngestPlan} of the {@link DatastoreMessage}.
+     * @since 2.1.0
+     */
+    public PlannedDatastoreMessage(DatastoreMessage message, MessageIngestPlan ingestPlan) {
+        this.message = message;
+        this.ingestPlan = ingestPlan;
+    }
+
+    /**
+     * Gets the {@link DatastoreMessage} to store.
+     *
+     * @return The {@link DatastoreMessage} to store.
+     * @since 2.1.0
+     */
+    public DatastoreMessage getMessage() {
+        return message;
+    }
+
+    /**
+     * Gets the {@link MessageIngestPlan} of the {@link DatastoreMessage}.
+     *
+     * @return The {@link MessageIngestPlan} of the {@link DatastoreMessage}.
+     * @since 2.1.0
+     */
+    public MessageIngestPlan getIngestPlan() {
+        return ingestPlan;
+    }
+
+    @Override
+    public KapuaId getScopeId() {
+        return message.getScopeId();
+    }
+
+    @Override
+    public void setScopeId(KapuaId scopeId) {
+        message.setScopeId(scopeId);
+    }
+}
@@ -46,6 +46,7 @@ public class DatastoreElasticsearchClientConfiguration extends ElasticsearchClie
         getRequestConfiguration().setSocketTimeoutMillis(elasticsearchClientSettings.getInt(DatastoreElasticsearchClientSettingsKey.REQUEST_SOCKET_TIMEOUT_MILLIS, -1));
         getRequestConfiguration().setRequestRetryAttemptMax(elasticsearchClientSettings.getInt(DatastoreElasticsearchClientSettingsKey.REQUEST_RETRY_MAX));
         getRequestConfiguration().setRequestRetryAttemptWait(elasticsearchClientSettings.getInt(DatastoreElasticsearchClientSettingsKey.REQUEST_RETRY_WAIT));
+        getRequestConfiguration().setRequestAsyncMaxInFlightPerNode(elasticsearchClientSettings.getInt(DatastoreElasticsearchClientSettingsKey.REQUEST_ASYNC_MAX_IN_FLIGHT_PER_NODE, 8));
 
         getSslConfiguration().setEnabled(elasticsearchClientSettings.getBoolean(DatastoreElasticsearchClientSettingsKey.SSL_ENABLED));
         getSslConfiguration().setKeyStoreType(elasticsearchClientSettings.getString(DatastoreElasticsearchClientSettingsKey.SSL_KEYSTORE_TYPE));
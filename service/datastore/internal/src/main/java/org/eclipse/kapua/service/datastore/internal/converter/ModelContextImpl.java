@@ -13,6 +13,8 @@
 package org.eclipse.kapua.service.datastore.internal.converter;
 
 import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import org.eclipse.kapua.commons.model.id.KapuaEid;
 import org.eclipse.kapua.commons.util.KapuaDateUtils;
 import org.eclipse.kapua.message.KapuaPayload;
@@ -21,6 +23,8 @@ import org.eclipse.kapua.message.internal.KapuaPositionImpl;
 import org.eclipse.kapua.message.internal.device.data.KapuaDataChannelImpl;
 import org.eclipse.kapua.message.internal.device.data.KapuaDataPayloadImpl;
 import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.datastore.internal.MessageIngestPlan;
+import org.eclipse.kapua.service.datastore.internal.PlannedDatastoreMessage;
 import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreUtils;
 import org.eclipse.kapua.service.datastore.internal.model.ChannelInfoImpl;
 import org.eclipse.kapua.service.datastore.internal.model.ClientInfoImpl;
@@ -43,6 +47,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.text.ParseException;
 import java.util.Date;
@@ -99,6 +104,25 @@ public class ModelContextImpl implements ModelContext {
         throw new DatamodelMappingException(String.format(UNSUPPORTED_OBJECT_TYPE_ERROR_MSG, clazz.getName())); // FIXME: create specific exception and remove String.format
     }
 
+    /**
+     * {@link DatastoreMessage}s are built while parsing their {@code _source}, skipping the fields that are not needed by the fetch style.
+     * The other storables are small and are unmarshalled from the {@link Map} of their {@code _source}.
+     *
+     * @since 2.1.0
+     */
+    @Override
+    public <T> T unmarshal(Class<T> clazz, String id, String index, Object fetchStyle, JsonParser sourceParser) throws DatamodelMappingException {
+        if (clazz == null || !DatastoreMessage.class.isAssignableFrom(clazz)) {
+            return ModelContext.super.unmarshal(clazz, id, index, fetchStyle, sourceParser);
+        }
+
+        try {
+            return (T) readDatastoreMessage(id, toStorableFetchStyle(fetchStyle), sourceParser);
+        } catch (ParseException | IOException e) {
+            throw new DatamodelMappingException(e, "Data conversion error");
+        }
+    }
+
     @Override
     public Map<String, Object> marshal(Object object) throws DatamodelMappingException {
         if (object == null) {
@@ -106,8 +130,12 @@ public class ModelContextImpl implements ModelContext {
         }
 
         try {
+            if (object instanceof PlannedDatastoreMessage) {
+                PlannedDatastoreMessage plannedMessage = (PlannedDatastoreMessage) object;
+                return marshalDatastoreMessage(plannedMessage.getMessage(), plannedMessage.getIngestPlan());
+            }
             if (object instanceof DatastoreMessage) {
-                return marshalDatastoreMessage((DatastoreMessage) object);
+                return marshalDatastoreMessage((DatastoreMessage) object, null);
             }
             if (object instanceof ClientInfo) {
                 return marshalClientInfo((ClientInfo) object);
@@ -249,6 +277,203 @@ public class ModelContextImpl implements ModelContext {
         return message;
     }
 
+    /**
+     * Reads the {@link DatastoreMessage} from the given {@link JsonParser}.
+     * <p>
+     * It builds the same {@link DatastoreMessage} as {@link #unmarshalDatastoreMessage(Map)}, without reading the {@code _source} as a {@link Map}.
+     *
+     * @param id           The datastore id of the {@link DatastoreMessage}.
+     * @param fetchStyle   The {@link StorableFetchStyle} of the query.
+     * @param sourceParser The {@link JsonParser} positioned on the start of the {@code _source}.
+     * @throws ParseException if a date cannot be parsed.
+     * @throws IOException    if the {@code _source} cannot be parsed.
+     * @since 2.1.0
+     */
+    private DatastoreMessage readDatastoreMessage(String id, StorableFetchStyle fetchStyle, JsonParser sourceParser) throws ParseException, IOException {
+        boolean fieldsOnly = fetchStyle.equals(StorableFetchStyle.FIELDS);
+
+        DatastoreMessageImpl message = new DatastoreMessageImpl();
+        KapuaDataChannelImpl dataChannel = new KapuaDataChannelImpl();
+        KapuaDataPayloadImpl payload = new KapuaDataPayloadImpl();
+
+        String scopeId = null;
+        String deviceId = null;
+        String timestamp = null;
+        String capturedOn = null;
+        String sentOn = null;
+        String receivedOn = null;
+        while (sourceParser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = sourceParser.getCurrentName();
+            sourceParser.nextToken();
+
+            switch (fieldName) {
+                case MessageSchema.MESSAGE_ID:
+                    String messageId = sourceParser.getValueAsString();
+                    if (messageId != null) {
+                        message.setId(UUID.fromString(messageId));
+                    }
+                    break;
+                case MessageSchema.MESSAGE_SCOPE_ID:
+                    scopeId = sourceParser.getValueAsString();
+                    break;
+                case MessageSchema.MESSAGE_DEVICE_ID:
+                    deviceId = sourceParser.getValueAsString();
+                    break;
+                case MessageSchema.MESSAGE_CLIENT_ID:
+                    message.setClientId(sourceParser.getValueAsString());
+                    break;
+                case MessageSchema.MESSAGE_TIMESTAMP:
+                    timestamp = sourceParser.getValueAsString();
+                    break;
+                case MessageSchema.MESSAGE_CHANNEL_PARTS:
+                    if (!fieldsOnly && sourceParser.currentToken() == JsonToken.START_ARRAY) {
+                        dataChannel.setSemanticParts(sourceParser.readValueAs(List.class));
+                    } else {
+                        sourceParser.skipChildren();
+                    }
+                    break;
+                case MessageSchema.MESSAGE_POSITION:
+                    if (!fieldsOnly && sourceParser.currentToken() == JsonToken.START_OBJECT) {
+                        message.setPosition(readPosition(sourceParser));
+                    } else {
+                        sourceParser.skipChildren();
+                    }
+                    break;
+                case MessageSchema.MESSAGE_CAPTURED_ON:
+                    capturedOn = sourceParser.getValueAsString();
+                    break;
+                case MessageSchema.MESSAGE_SENT_ON:
+                    sentOn = sourceParser.getValueAsString();
+                    break;
+                case MessageSchema.MESSAGE_RECEIVED_ON:
+                    receivedOn = sourceParser.getValueAsString();
+                    break;
+                case MessageSchema.MESSAGE_METRICS:
+                    if (!fieldsOnly && sourceParser.currentToken() == JsonToken.START_OBJECT) {
+                        payload.setMetrics(readMetrics(sourceParser));
+                    } else {
+                        sourceParser.skipChildren();
+                    }
+                    break;
+                case MessageSchema.MESSAGE_BODY:
+                    if (fetchStyle.equals(StorableFetchStyle.SOURCE_FULL) && sourceParser.currentToken() == JsonToken.VALUE_STRING) {
+                        payload.setBody(sourceParser.getBinaryValue(Base64Variants.getDefaultVariant()));
+                    } else {
+                        sourceParser.skipChildren();
+                    }
+                    break;
+                default:
+                    sourceParser.skipChildren();
+            }
+        }
+
+        message.setDatastoreId(storableIdFactory.newStorableId(id));
+        message.setScopeId(new KapuaEid(new BigInteger(scopeId)));
+        message.setDeviceId(deviceId != null ? new KapuaEid(new BigInteger(deviceId)) : null);
+        message.setChannel(dataChannel);
+        message.setTimestamp(timestamp == null ? null : KapuaDateUtils.parseDate(timestamp));
+
+        // stop the mapping if only fields are requested
+        if (fieldsOnly) {
+            return message;
+        }
+
+        message.setCapturedOn(KapuaDateUtils.parseDate(capturedOn));
+        message.setSentOn(KapuaDateUtils.parseDate(sentOn));
+        message.setReceivedOn(KapuaDateUtils.parseDate(receivedOn));
+        if (fetchStyle.equals(StorableFetchStyle.SOURCE_SELECT)) {
+            return message;
+        }
+
+        message.setPayload(payload);
+
+        return message;
+    }
+
+    private KapuaPosition readPosition(JsonParser sourceParser) throws ParseException, IOException {
+        KapuaPositionImpl position = new KapuaPositionImpl();
+        String positionTimestamp = null;
+        while (sourceParser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = sourceParser.getCurrentName();
+            JsonToken valueToken = sourceParser.nextToken();
+            if (valueToken == JsonToken.VALUE_NULL) {
+                continue;
+            }
+
+            switch (fieldName) {
+                case MessageSchema.MESSAGE_POS_LOCATION:
+                    while (valueToken == JsonToken.START_OBJECT && sourceParser.nextToken() == JsonToken.FIELD_NAME) {
+                        String locationFieldName = sourceParser.getCurrentName();
+                        if (sourceParser.nextToken() == JsonToken.VALUE_NULL) {
+                            continue;
+                        }
+
+                        if (MessageSchema.MESSAGE_POSITION_LATITUDE.equals(locationFieldName)) {
+                            position.setLatitude(sourceParser.getDoubleValue());
+                        } else if (MessageSchema.MESSAGE_POSITION_LONGITUDE.equals(locationFieldName)) {
+                            position.setLongitude(sourceParser.getDoubleValue());
+                        } else {
+                            sourceParser.skipChildren();
+                        }
+                    }
+                    break;
+                case MessageSchema.MESSAGE_POS_ALT:
+                    position.setAltitude(sourceParser.getDoubleValue());
+                    break;
+                case MessageSchema.MESSAGE_POS_HEADING:
+                    position.setHeading(sourceParser.getDoubleValue());
+                    break;
+                case MessageSchema.MESSAGE_POS_PRECISION:
+                    position.setPrecision(sourceParser.getDoubleValue());
+                    break;
+                case MessageSchema.MESSAGE_POS_SATELLITES:
+                    position.setSatellites(sourceParser.getIntValue());
+                    break;
+                case MessageSchema.MESSAGE_POS_SPEED:
+                    position.setSpeed(sourceParser.getDoubleValue());
+                    break;
+                case MessageSchema.MESSAGE_POS_STATUS:
+                    position.setStatus(sourceParser.getIntValue());
+                    break;
+                case MessageSchema.MESSAGE_POS_TIMESTAMP:
+                    positionTimestamp = sourceParser.getValueAsString();
+                    break;
+                default:
+                    sourceParser.skipChildren();
+            }
+        }
+        position.setTimestamp(KapuaDateUtils.parseDate(positionTimestamp));
+        return position;
+    }
+
+    private Map<String, Object> readMetrics(JsonParser sourceParser) throws IOException {
+        Map<String, Object> payloadMetrics = new HashMap<>();
+        while (sourceParser.nextToken() == JsonToken.FIELD_NAME) {
+            String metricName = sourceParser.getCurrentName();
+            if (sourceParser.nextToken() != JsonToken.START_OBJECT) {
+                sourceParser.skipChildren();
+                continue;
+            }
+
+            // The first type is used, like when unmarshalling from a Map
+            if (sourceParser.nextToken() == JsonToken.FIELD_NAME) {
+                String valueType = sourceParser.getCurrentName();
+                sourceParser.nextToken();
+                Object value = sourceParser.readValueAs(Object.class);
+                // since elasticsearch doesn't return always the same type of the saved field
+                // (usually due to some promotion of the field type)
+                // we need to check the metric type returned by elasticsearch and, if needed, convert to the proper type
+                payloadMetrics.put(datastoreUtils.restoreMetricName(metricName), datastoreUtils.convertToCorrectType(valueType, value));
+
+                while (sourceParser.nextToken() == JsonToken.FIELD_NAME) {
+                    sourceParser.nextToken();
+                    sourceParser.skipChildren();
+                }
+            }
+        }
+        return payloadMetrics;
+    }
+
     private MetricInfo unmarshalMetricInfo(Map<String, Object> metricInfoMap) throws ParseException {
         KapuaId scopeId = new KapuaEid(new BigInteger((String) metricInfoMap.get(MetricInfoSchema.METRIC_SCOPE_ID)));
         String id = (String) metricInfoMap.get(getIdKeyName());
@@ -305,11 +530,12 @@ public class ModelContextImpl implements ModelContext {
     /**
      * Marshals the {@link DatastoreMessage}.
      *
-     * @param message The {@link DatastoreMessage}.
+     * @param message    The {@link DatastoreMessage}.
+     * @param ingestPlan The {@link MessageIngestPlan} of the {@link DatastoreMessage}, or {@code null} to resolve the names and types of each metric.
      * @throws ParseException
      * @since 1.0.0
      */
-    private Map<String, Object> marshalDatastoreMessage(DatastoreMessage message) throws ParseException {
+    private Map<String, Object> marshalDatastoreMessage(DatastoreMessage message, MessageIngestPlan ingestPlan) throws ParseException {
         // Message
         Map<String, Object> unmarshalledMessage = new HashMap<>();
         String scopeId = message.getScopeId().toStringId();
@@ -356,14 +582,20 @@ public class ModelContextImpl implements ModelContext {
         unmarshalledMessage.put(MessageSchema.MESSAGE_BODY, payload.getBody());
         Map<String, Object> kapuaMetrics = payload.getMetrics();
         if (kapuaMetrics != null) {
-            Map<String, Object> metrics = new HashMap<>();
-            String[] metricNames = kapuaMetrics.keySet().toArray(new String[]{});
-            for (String kapuaMetricName : metricNames) {
-                Object metricValue = kapuaMetrics.get(kapuaMetricName);
-                // Sanitize field names: '.' is not allowed
-                String metricName = datastoreUtils.normalizeMetricName(kapuaMetricName);
-                String clientMetricType = datastoreUtils.getClientMetricFromType(metricValue.getClass());
-                String clientMetricTypeAcronym = datastoreUtils.getClientMetricFromAcronym(clientMetricType);
+            // Sanitized field names ('.' is not allowed) and types come from the ingest plan if any, in the iteration order of the metrics
+            Map<String, Object> metrics = new HashMap<>(kapuaMetrics.size() * 2);
+            int i = 0;
+            for (Map.Entry<String, Object> kapuaMetric : kapuaMetrics.entrySet()) {
+                Object metricValue = kapuaMetric.getValue();
+                String metricName;
+                String clientMetricTypeAcronym;
+                if (ingestPlan != null) {
+                    metricName = ingestPlan.getNormalizedName(i);
+                    clientMetricTypeAcronym = ingestPlan.getTypeAcronym(i);
+                } else {
+                    metricName = datastoreUtils.normalizeMetricName(kapuaMetric.getKey());
+                    clientMetricTypeAcronym = datastoreUtils.getClientMetricFromAcronym(datastoreUtils.getClientMetricFromType(metricValue.getClass()));
+                }
                 Map<String, Object> field = new HashMap<>();
                 if (datastoreUtils.isDateMetric(clientMetricTypeAcronym) && metricValue instanceof Date) {
                     field.put(clientMetricTypeAcronym, KapuaDateUtils.formatDate((Date) metricValue));
@@ -371,6 +603,7 @@ public class ModelContextImpl implements ModelContext {
                     field.put(clientMetricTypeAcronym, metricValue);
                 }
                 metrics.put(metricName, field);
+                i++;
             }
             unmarshalledMessage.put(MessageSchema.MESSAGE_METRICS, metrics);
         }
@@ -416,7 +649,10 @@ public class ModelContextImpl implements ModelContext {
     }
 
     private StorableFetchStyle getStorableFetchStyle(Map<String, Object> objectMap) {
-        Object storableFetchStyle = objectMap.get(QueryConverter.QUERY_FETCH_STYLE_KEY);
+        return toStorableFetchStyle(objectMap.get(QueryConverter.QUERY_FETCH_STYLE_KEY));
+    }
+
+    private StorableFetchStyle toStorableFetchStyle(Object storableFetchStyle) {
         if (storableFetchStyle instanceof StorableFetchStyle) {
             return (StorableFetchStyle) storableFetchStyle;
         } else {
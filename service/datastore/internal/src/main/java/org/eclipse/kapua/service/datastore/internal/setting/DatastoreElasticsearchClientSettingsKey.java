@@ -81,6 +81,12 @@ public enum DatastoreElasticsearchClientSettingsKey implements SettingKey {
      * @since 1.3.0
      */
     REQUEST_RETRY_WAIT("datastore.elasticsearch.request.retry.wait"),
+    /**
+     * Elasticsearch max number of asynchronous requests in flight for each node
+     *
+     * @since 2.1.0
+     */
+    REQUEST_ASYNC_MAX_IN_FLIGHT_PER_NODE("datastore.elasticsearch.request.async.max_in_flight_per_node"),
     /**
      * Enable Elasticsearch client ssl connection (at the present only the rest client supports it)
      *
@@ -70,6 +70,22 @@ public enum DatastoreSettingsKey implements SettingKey {
      * Metadata cache maximum size (default value is no specific cache value is defined)
      */
     CONFIG_CACHE_METADATA_LOCAL_SIZE_MAXIMUM("datastore.cache.metadata.local.size.maximum"),
+    /**
+     * Ingest plans cache maximum size. Can be omitted to use the value of CONFIG_CACHE_METADATA_LOCAL_SIZE_MAXIMUM.
+     */
+    CONFIG_CACHE_INGEST_PLAN_LOCAL_SIZE_MAXIMUM("datastore.cache.ingestPlan.local.size.maximum"),
+    /**
+     * Accounts Local cache maximum size. Overrides the default value if specified, can be omitted to use the value of CONFIG_CACHE_LOCAL_SIZE_MAXIMUM.
+     */
+    CONFIG_ACCOUNTS_CACHE_LOCAL_SIZE_MAXIMUM("datastore.cache.accounts.local.size.maximum"),
+    /**
+     * Accounts Local cache expire time. Overrides the default value if specified, can be omitted to use the value of CONFIG_CACHE_LOCAL_EXPIRE_AFTER.
+     */
+    CONFIG_ACCOUNTS_CACHE_LOCAL_EXPIRE_AFTER("datastore.cache.accounts.local.expire.after"),
+    /**
+     * Address where the account service events are published, used to invalidate the accounts Local cache.
+     */
+    CONFIG_ACCOUNTS_EVENT_ADDRESS("datastore.cache.accounts.eventAddress"),
     /**
      * Enable datastore timing profile
      */
@@ -109,7 +125,11 @@ public enum DatastoreSettingsKey implements SettingKey {
     /**
      * Elasticsearch limit+offset maximum value
      */
-    MAX_RESULT_WINDOW_VALUE("datastore.max_result_window");
+    MAX_RESULT_WINDOW_VALUE("datastore.max_result_window"),
+    /**
+     * Number of messages read from Elasticsearch with each request when iterating over the results of a query
+     */
+    ITERATE_PAGE_SIZE("datastore.iterate.page_size");
 
     private String key;
 
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.test.junit.utils;
+
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.message.internal.device.data.KapuaDataChannelImpl;
+import org.eclipse.kapua.message.internal.device.data.KapuaDataMessageImpl;
+import org.eclipse.kapua.message.internal.device.data.KapuaDataPayloadImpl;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.datastore.internal.DatastoreCacheManager;
+import org.eclipse.kapua.service.datastore.internal.MessageIngestPlan;
+import org.eclipse.kapua.service.datastore.internal.MessageIngestPlanner;
+import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreUtils;
+import org.eclipse.kapua.service.datastore.internal.mediator.Metric;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(JUnitTests.class)
+public class MessageIngestPlannerTest {
+
+    private static final KapuaId ONE = new KapuaEid(BigInteger.ONE);
+
+    private final DatastoreSettings datastoreSettings = new DatastoreSettings();
+    private final DatastoreUtils datastoreUtils = new DatastoreUtils(datastoreSettings);
+    private final MessageIngestPlanner messageIngestPlanner = new MessageIngestPlanner(datastoreUtils, new DatastoreCacheManager(datastoreSettings));
+
+    @Test
+    public void testPlanMetrics() {
+        final Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("temperature.celsius", 21.5d);
+        metrics.put("status", "ok");
+
+        final MessageIngestPlan plan = messageIngestPlanner.getPlan(newMessage("telemetry/room", metrics));
+
+        Assert.assertEquals(2, plan.size());
+        Assert.assertEquals(datastoreUtils.normalizeMetricName("temperature.celsius"), plan.getNormalizedName(0));
+        Assert.assertEquals(DatastoreUtils.CLIENT_METRIC_TYPE_DOUBLE_ACRONYM, plan.getTypeAcronym(0));
+        Assert.assertEquals("status", plan.getNormalizedName(1));
+        Assert.assertEquals(DatastoreUtils.CLIENT_METRIC_TYPE_STRING_ACRONYM, plan.getTypeAcronym(1));
+
+        final Metric metric = plan.getMetrics().get(datastoreUtils.getMetricValueQualifier("status", DatastoreUtils.CLIENT_METRIC_TYPE_STRING));
+        Assert.assertNotNull(metric);
+        Assert.assertEquals("status", metric.getName());
+        Assert.assertEquals(DatastoreUtils.CLIENT_METRIC_TYPE_STRING, metric.getType());
+    }
+
+    @Test
+    public void testPlanReuse() {
+        final Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("temperature", 21.5d);
+        final MessageIngestPlan plan = messageIngestPlanner.getPlan(newMessage("telemetry/room", metrics));
+
+        // Same metric set with other values
+        final Map<String, Object> sameMetrics = new LinkedHashMap<>();
+        sameMetrics.put("temperature", 18.0d);
+        Assert.assertSame(plan, messageIngestPlanner.getPlan(newMessage("telemetry/room", sameMetrics)));
+
+        // Other metric type
+        final Map<String, Object> otherTypes = new LinkedHashMap<>();
+        otherTypes.put("temperature", 18L);
+        Assert.assertNotSame(plan, messageIngestPlanner.getPlan(newMessage("telemetry/room", otherTypes)));
+
+        // Other channel
+        Assert.assertNotSame(plan, messageIngestPlanner.getPlan(newMessage("telemetry/kitchen", sameMetrics)));
+
+        messageIngestPlanner.invalidateAll();
+        Assert.assertNotSame(plan, messageIngestPlanner.getPlan(newMessage("telemetry/room", sameMetrics)));
+    }
+
+    @Test
+    public void testDataIndexName() {
+        final MessageIngestPlan plan = messageIngestPlanner.getPlan(newMessage("telemetry/room", new LinkedHashMap<>()));
+
+        final long[] timestamps = new long[]{
+                ZonedDateTime.of(2017, 1, 1, 23, 59, 59, 0, ZoneOffset.UTC).toInstant().toEpochMilli(),
+                ZonedDateTime.of(2017, 1, 2, 0, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli(),
+                ZonedDateTime.of(2017, 1, 2, 0, 30, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli(),
+                ZonedDateTime.of(2017, 1, 8, 12, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli(),
+                Instant.EPOCH.minusMillis(1).toEpochMilli()
+        };
+        for (String indexingWindowOption : Arrays.asList(DatastoreUtils.INDEXING_WINDOW_OPTION_WEEK, DatastoreUtils.INDEXING_WINDOW_OPTION_DAY, DatastoreUtils.INDEXING_WINDOW_OPTION_HOUR)) {
+            for (long timestamp : timestamps) {
+                Assert.assertEquals(datastoreUtils.getDataIndexName(ONE, timestamp, indexingWindowOption), plan.getDataIndexName(timestamp, indexingWindowOption));
+            }
+        }
+    }
+
+    private KapuaDataMessageImpl newMessage(String channel, Map<String, Object> metrics) {
+        final KapuaDataPayloadImpl payload = new KapuaDataPayloadImpl();
+        payload.setMetrics(metrics);
+
+        final KapuaDataChannelImpl dataChannel = new KapuaDataChannelImpl();
+        dataChannel.setSemanticParts(Arrays.asList(channel.split("/")));
+
+        final KapuaDataMessageImpl message = new KapuaDataMessageImpl();
+        message.setScopeId(ONE);
+        message.setChannel(dataChannel);
+        message.setPayload(payload);
+        return message;
+    }
+}
@@ -13,6 +13,7 @@
 package org.eclipse.kapua.service.device.call;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.eclipse.kapua.service.device.call.exception.DeviceCallException;
 import org.eclipse.kapua.service.device.call.exception.DeviceCallSendException;
 import org.eclipse.kapua.service.device.call.exception.DeviceCallTimeoutException;
 import org.eclipse.kapua.service.device.call.message.DeviceMessage;
@@ -21,6 +22,8 @@ import org.eclipse.kapua.service.device.call.message.app.response.DeviceResponse
 import org.eclipse.kapua.transport.exception.TransportException;
 
 import javax.validation.constraints.NotNull;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * {@link DeviceCall} definition.
@@ -159,6 +162,29 @@ public interface DeviceCall<RQ extends DeviceRequestMessage<?, ?>, RS extends De
      */
     RS send(@NotNull RQ requestMessage, @Nullable Long timeout) throws DeviceCallTimeoutException, DeviceCallSendException, TransportException;
 
+    /**
+     * Sends the request message and returns the {@link DeviceResponseMessage} as a {@link CompletionStage}.
+     * <p>
+     * Implementations that can wait for the response without blocking the calling thread should override this method.
+     * The default implementation invokes {@link #send(DeviceRequestMessage, Long)} and returns an already completed {@link CompletionStage}.
+     * <p>
+     * The {@link CompletionStage} completes exceptionally with the same exceptions thrown by {@link #send(DeviceRequestMessage, Long)}.
+     *
+     * @param requestMessage The {@link DeviceRequestMessage} to send.
+     * @param timeout        The timeout of the request.
+     * @return The {@link CompletionStage} of the {@link DeviceResponseMessage}.
+     * @since 2.1.0
+     */
+    default CompletionStage<RS> sendAsync(@NotNull RQ requestMessage, @Nullable Long timeout) {
+        CompletableFuture<RS> response = new CompletableFuture<>();
+        try {
+            response.complete(send(requestMessage, timeout));
+        } catch (DeviceCallException | TransportException | RuntimeException e) {
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
     /**
      * Get the {@link DeviceMessage} type.
      *
@@ -50,6 +50,9 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 /**
  * {@link DeviceCall} {@link Kura} implementation.
@@ -129,6 +132,53 @@ public class KuraDeviceCallImpl implements DeviceCall<KuraRequestMessage, KuraRe
         return sendInternal(requestMessage, timeout);
     }
 
+    /**
+     * Sends the {@link KuraRequestMessage} without blocking the calling thread while waiting for the {@link KuraResponseMessage}.
+     * <p>
+     * The {@link TransportFacade} is closed when the {@link KuraResponseMessage} is received or the {@code timeout} expires.
+     *
+     * @since 2.1.0
+     */
+    @Override
+    public CompletionStage<KuraResponseMessage> sendAsync(@NotNull KuraRequestMessage requestMessage, @Nullable Long timeout) {
+        CompletableFuture<KuraResponseMessage> response = new CompletableFuture<>();
+
+        TransportFacade transportFacade = null;
+        try {
+            transportFacade = borrowClient(requestMessage);
+
+            Translator<KuraRequestMessage, TransportMessage<?, ?>> translatorKuraTransport = getTranslator(requestMessage.getClass(), transportFacade.getMessageClass());
+            Translator<TransportMessage<?, ?>, KuraResponseMessage> translatorTransportKura = getTranslator(transportFacade.getMessageClass(), KuraResponseMessage.class);
+
+            TransportMessage<?, ?> transportRequestMessage = prepareRequest(requestMessage, transportFacade.getClientId(), timeout, translatorKuraTransport);
+
+            final TransportFacade usedTransportFacade = transportFacade;
+            CompletionStage<TransportMessage<?, ?>> transportResponse = transportFacade.sendAndReceiveAsync(transportRequestMessage, timeout);
+            transportResponse.whenComplete((transportResponseMessage, throwable) -> {
+                usedTransportFacade.close();
+
+                if (throwable != null) {
+                    response.completeExceptionally(mapAsyncException(throwable, requestMessage, timeout));
+                } else if (timeout == null) {
+                    response.complete(null);
+                } else {
+                    try {
+                        response.complete(translatorTransportKura.translate(transportResponseMessage));
+                    } catch (Exception e) {
+                        response.completeExceptionally(new DeviceCallSendException(e, requestMessage));
+                    }
+                }
+            });
+        } catch (Exception e) {
+            if (transportFacade != null) {
+                transportFacade.close();
+            }
+            response.completeExceptionally(mapAsyncException(e, requestMessage, timeout));
+        }
+
+        return response;
+    }
+
     @Override
     public Class<KuraMessage> getBaseMessageClass() {
         return KuraMessage.class;
@@ -155,25 +205,9 @@ public class KuraDeviceCallImpl implements DeviceCall<KuraRequestMessage, KuraRe
                 Translator<KuraRequestMessage, TransportMessage<?, ?>> translatorKuraTransport = getTranslator(requestMessage.getClass(), transportFacade.getMessageClass());
                 Translator<TransportMessage<?, ?>, KuraResponseMessage> translatorTransportKura = getTranslator(transportFacade.getMessageClass(), KuraResponseMessage.class);
                 // Make the request
-                // Add requestId and requesterClientId to both payload and channel if response is expected
-                // Note: Adding to both payload and channel to let the translator choose what to do base on the transport used.
-                KuraRequestChannel requestChannel = requestMessage.getChannel();
-                KuraRequestPayload requestPayload = requestMessage.getPayload();
-                requestPayload.setRequesterClientId(transportFacade.getClientId());
-
-                if (timeout != null) {
-                    String requestId = String.valueOf(RANDOM.nextLong());
-                    requestChannel.setRequestId(requestId);
-                    requestChannel.setRequesterClientId(transportFacade.getClientId());
-
-                    requestPayload.setRequestId(requestId);
-                }
-                // Do send
-                // Set current timestamp
-                requestMessage.setTimestamp(new Date());
+                TransportMessage<?, ?> transportRequestMessage = prepareRequest(requestMessage, transportFacade.getClientId(), timeout, translatorKuraTransport);
 
                 // Send
-                TransportMessage<?, ?> transportRequestMessage = translatorKuraTransport.translate(requestMessage);
                 TransportMessage<?, ?> transportResponseMessage = transportFacade.sendSync(transportRequestMessage, timeout);
 
                 // Translate response
@@ -193,6 +227,58 @@ public class KuraDeviceCallImpl implements DeviceCall<KuraRequestMessage, KuraRe
     }
 
 
+    /**
+     * Sets the request id and the requester client id to the {@link KuraRequestMessage} and translates it to the {@link TransportMessage} to send.
+     *
+     * @param requestMessage          The {@link KuraRequestMessage} to send.
+     * @param requesterClientId       The {@link TransportFacade#getClientId()} which sends the request.
+     * @param timeout                 The timeout of waiting the {@link KuraResponseMessage}. If {@code null} no request id is set.
+     * @param translatorKuraTransport The {@link Translator} from the {@link KuraRequestMessage} to the {@link TransportMessage}.
+     * @return The {@link TransportMessage} to send.
+     * @throws KapuaException if translation fails.
+     * @since 2.1.0
+     */
+    protected TransportMessage<?, ?> prepareRequest(KuraRequestMessage requestMessage, String requesterClientId, @Nullable Long timeout, Translator<KuraRequestMessage, TransportMessage<?, ?>> translatorKuraTransport) throws KapuaException {
+        // Add requestId and requesterClientId to both payload and channel if response is expected
+        // Note: Adding to both payload and channel to let the translator choose what to do base on the transport used.
+        KuraRequestChannel requestChannel = requestMessage.getChannel();
+        KuraRequestPayload requestPayload = requestMessage.getPayload();
+        requestPayload.setRequesterClientId(requesterClientId);
+
+        if (timeout != null) {
+            String requestId = String.valueOf(RANDOM.nextLong());
+            requestChannel.setRequestId(requestId);
+            requestChannel.setRequesterClientId(requesterClientId);
+
+            requestPayload.setRequestId(requestId);
+        }
+        // Set current timestamp
+        requestMessage.setTimestamp(new Date());
+
+        return translatorKuraTransport.translate(requestMessage);
+    }
+
+    /**
+     * Maps the failure of {@link #sendAsync(KuraRequestMessage, Long)} to the same {@link Exception}s thrown by {@link #sendInternal(KuraRequestMessage, Long)}.
+     *
+     * @param throwable      The failure.
+     * @param requestMessage The {@link KuraRequestMessage} sent.
+     * @param timeout        The timeout of waiting the {@link KuraResponseMessage}.
+     * @return The mapped {@link Throwable}.
+     * @since 2.1.0
+     */
+    private Throwable mapAsyncException(Throwable throwable, KuraRequestMessage requestMessage, @Nullable Long timeout) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+
+        if (cause instanceof TransportTimeoutException) {
+            return new DeviceCallTimeoutException((TransportTimeoutException) cause, timeout);
+        } else if (cause instanceof TransportException || !(cause instanceof KapuaException)) {
+            return cause;
+        } else {
+            return new DeviceCallSendException((KapuaException) cause, requestMessage);
+        }
+    }
+
     /**
      * Picks a {@link TransportFacade} to send the {@link KuraResponseMessage}.
      *
@@ -61,13 +61,13 @@ public class GZIPUtils {
             return new byte[0];
         }
 
-        try (
-                ByteArrayOutputStream result = new ByteArrayOutputStream();
-                OutputStream out = new GZIPOutputStream(result)
-        ) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(result)) {
             ByteSource.wrap(source).copyTo(out);
-            return result.toByteArray();
         }
+
+        // The GZIP trailer is written when the stream is closed
+        return result.toByteArray();
     }
 
     /**
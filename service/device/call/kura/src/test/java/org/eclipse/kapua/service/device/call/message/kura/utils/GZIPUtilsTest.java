@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.call.message.kura.utils;
+
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+@Category(JUnitTests.class)
+public class GZIPUtilsTest {
+
+    @Test
+    public void compressDecompressTest() throws IOException {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            source.append("metric-").append(i).append(';');
+        }
+        byte[] sourceBytes = source.toString().getBytes(StandardCharsets.UTF_8);
+
+        byte[] compressed = GZIPUtils.compress(sourceBytes);
+
+        Assert.assertTrue("The compressed data should be recognized as compressed!", GZIPUtils.isCompressed(compressed));
+        Assert.assertTrue("The compressed data should be smaller than the source!", compressed.length < sourceBytes.length);
+        Assert.assertArrayEquals("Expected and actual values should be the same!", sourceBytes, GZIPUtils.decompress(compressed));
+    }
+
+    @Test
+    public void compressDecompressRandomTest() throws IOException {
+        byte[] sourceBytes = new byte[64 * 1024];
+        new Random(42).nextBytes(sourceBytes);
+
+        Assert.assertArrayEquals("Expected and actual values should be the same!", sourceBytes, GZIPUtils.decompress(GZIPUtils.compress(sourceBytes)));
+    }
+
+    @Test
+    public void compressDecompressEmptyTest() throws IOException {
+        byte[] compressed = GZIPUtils.compress(new byte[0]);
+
+        Assert.assertTrue("The compressed data should be recognized as compressed!", GZIPUtils.isCompressed(compressed));
+        Assert.assertArrayEquals("Expected and actual values should be the same!", new byte[0], GZIPUtils.decompress(compressed));
+    }
+
+    @Test
+    public void compressDecompressNullTest() throws IOException {
+        Assert.assertArrayEquals("Expected and actual values should be the same!", new byte[0], GZIPUtils.compress(null));
+        Assert.assertArrayEquals("Expected and actual values should be the same!", new byte[0], GZIPUtils.decompress(null));
+    }
+
+    @Test
+    public void isCompressedTest() {
+        Assert.assertFalse("Plain data should not be recognized as compressed!", GZIPUtils.isCompressed("plain".getBytes(StandardCharsets.UTF_8)));
+        Assert.assertFalse("Short data should not be recognized as compressed!", GZIPUtils.isCompressed(new byte[] { 0x1f }));
+        Assert.assertFalse("Null data should not be recognized as compressed!", GZIPUtils.isCompressed(null));
+    }
+}
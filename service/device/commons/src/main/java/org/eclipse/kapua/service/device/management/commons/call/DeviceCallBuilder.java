@@ -16,6 +16,8 @@ import org.eclipse.kapua.KapuaEntityNotFoundException;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.KapuaIllegalArgumentException;
 import org.eclipse.kapua.KapuaIllegalNullArgumentException;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.commons.security.KapuaSession;
 import org.eclipse.kapua.commons.util.ArgumentValidator;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.service.device.call.DeviceCall;
@@ -42,6 +44,18 @@ import org.eclipse.kapua.translator.TranslatorHub;
 import org.eclipse.kapua.transport.exception.TransportException;
 
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * {@link DeviceCallBuilder} definition.
@@ -162,6 +176,76 @@ public class DeviceCallBuilder<C extends KapuaRequestChannel, P extends KapuaReq
         }
     }
 
+    /**
+     * Performs the {@link DeviceCall} without blocking the caller while waiting for the {@link KapuaResponseMessage}.
+     * <p>
+     * The checks on the {@link Device} and the translation of the {@link KapuaRequestMessage} are performed before returning,
+     * so their errors are thrown by this method as in {@link #send()}.
+     * The {@link KapuaRequestMessage} is sent and the {@link KapuaResponseMessage} is translated on the device management executor (see {@link DeviceManagementSettingKey#REQUEST_ASYNC_THREADS}),
+     * with the {@link KapuaSession} of the caller, which is also available to the dependent stages attached with the non-async methods.
+     * When the transport cannot wait for the {@link KapuaResponseMessage} without blocking, it is waited by a thread of the executor instead of the caller.
+     * The returned {@link CompletionStage} completes exceptionally with the same exceptions thrown by {@link #send()}, or with a {@link DeviceManagementSendException}
+     * if the queue of the executor is full (see {@link DeviceManagementSettingKey#REQUEST_ASYNC_QUEUE_SIZE}).
+     *
+     * @return The {@link CompletionStage} of the {@link KapuaResponseMessage}.
+     * @throws KapuaEntityNotFoundException  If the {@link Device} is not found.
+     * @throws KapuaIllegalArgumentException If {@link KapuaRequestMessage} has not been set.
+     * @throws DeviceNotConnectedException   If the {@link Device} is not {@link DeviceConnectionStatus#CONNECTED}.
+     * @throws DeviceManagementSendException If translating the {@link KapuaRequestMessage} goes on error.
+     * @since 2.1.0
+     */
+    public CompletionStage<RS> sendAsync() throws KapuaEntityNotFoundException, KapuaIllegalArgumentException, DeviceNotConnectedException, DeviceManagementSendException {
+
+        deviceCallPreChecks();
+        // Translate the request from Kapua to Device
+        DeviceCall<DeviceRequestMessage<?, ?>, DeviceResponseMessage<?, ?>> deviceCall;
+        DeviceRequestMessage<?, ?> deviceRequestMessage;
+        try {
+            requestMessage.setSentOn(new Date());
+
+            deviceCall = deviceCallFactory.newDeviceCall();
+            Translator<RQ, DeviceRequestMessage<?, ?>> tKapuaToClient = translatorHub.getTranslatorFor(requestMessage.getRequestClass(), deviceCall.getBaseMessageClass());
+            deviceRequestMessage = tKapuaToClient.translate(requestMessage);
+        } catch (Exception e) {
+            throw new DeviceManagementSendException(e, requestMessage);
+        }
+
+        // Send the request
+        KapuaSession kapuaSession = KapuaSecurityUtils.getSession();
+        CompletableFuture<RS> response = new CompletableFuture<>();
+        sendOnExecutor(AsyncExecutorHolder.EXECUTOR, () -> {
+            KapuaSecurityUtils.setSession(kapuaSession);
+            try {
+                return deviceCall.sendAsync(deviceRequestMessage, timeout);
+            } finally {
+                KapuaSecurityUtils.clearSession();
+            }
+        }, (responseMessage, throwable) -> {
+            KapuaSecurityUtils.setSession(kapuaSession);
+            try {
+                if (throwable != null) {
+                    response.completeExceptionally(mapAsyncException(throwable));
+                    return;
+                }
+
+                // Translate the response from Device to Kapua
+                RS kapuaResponseMessage;
+                try {
+                    Translator<DeviceResponseMessage<?, ?>, RS> tClientToKapua = translatorHub.getTranslatorFor(deviceCall.getBaseMessageClass(), requestMessage.getResponseClass());
+                    kapuaResponseMessage = tClientToKapua.translate(responseMessage);
+                } catch (Exception e) {
+                    response.completeExceptionally(mapAsyncException(e));
+                    return;
+                }
+                response.complete(kapuaResponseMessage);
+            } finally {
+                KapuaSecurityUtils.clearSession();
+            }
+        }, response, ree -> new DeviceManagementSendException(ree, requestMessage));
+
+        return response;
+    }
+
     /**
      * Performs the {@link DeviceCall}.
      *
@@ -197,6 +281,124 @@ public class DeviceCallBuilder<C extends KapuaRequestChannel, P extends KapuaReq
     // Private methods
     //
 
+    /**
+     * Maps the failure of the asynchronous {@link DeviceCall} like {@link #send()} does.
+     *
+     * @param throwable The failure of the {@link DeviceCall}.
+     * @return The mapped {@link Throwable}.
+     * @since 2.1.0
+     */
+    private Throwable mapAsyncException(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+
+        if (cause instanceof DeviceCallTimeoutException) {
+            return new DeviceManagementTimeoutException(cause, timeout);
+        } else if (cause instanceof TransportException) {
+            return cause;
+        } else {
+            return new DeviceManagementSendException(cause, requestMessage);
+        }
+    }
+
+    /**
+     * Runs the given task on the given {@link Executor}, or completes exceptionally the given {@link CompletableFuture} if the {@link Executor} rejects the task.
+     * <p>
+     * The task is never run by the calling thread, which is the transport thread completing the request.
+     *
+     * @param executor         The {@link Executor} to run the task on.
+     * @param task             The task which completes the {@link CompletableFuture}.
+     * @param future           The {@link CompletableFuture} completed by the task.
+     * @param rejectionMapping Maps the {@link RejectedExecutionException} to the failure of the {@link CompletableFuture}.
+     * @since 2.1.0
+     */
+    static void executeOrFail(Executor executor, Runnable task, CompletableFuture<?> future, Function<RejectedExecutionException, Throwable> rejectionMapping) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ree) {
+            future.completeExceptionally(rejectionMapping.apply(ree));
+        }
+    }
+
+    /**
+     * Sends a request on the given {@link Executor} and handles its response on the given {@link Executor}, so that neither the calling thread nor the transport thread are blocked.
+     * <p>
+     * When the transport waits for the response while sending (e.g. the pooled MQTT clients), the request holds a thread of the {@link Executor} until the response is received,
+     * and the response is handled by the same thread.
+     * Otherwise the thread is released once the request is sent and the response is handled by another task.
+     *
+     * @param executor         The {@link Executor} to send the request and to handle the response on.
+     * @param sender           Sends the request, returning the {@link CompletionStage} of the response.
+     * @param responseHandler  Handles the response or the failure of the request, completing the given {@link CompletableFuture}.
+     * @param future           The {@link CompletableFuture} completed by the response handler.
+     * @param rejectionMapping Maps the {@link RejectedExecutionException} to the failure of the {@link CompletableFuture}.
+     * @param <R>              The type of the response.
+     * @since 2.1.0
+     */
+    static <R> void sendOnExecutor(Executor executor, Supplier<CompletionStage<R>> sender, BiConsumer<R, Throwable> responseHandler, CompletableFuture<?> future, Function<RejectedExecutionException, Throwable> rejectionMapping) {
+        executeOrFail(executor, () -> {
+            CompletableFuture<R> sent;
+            try {
+                sent = sender.get().toCompletableFuture();
+            } catch (RuntimeException e) {
+                responseHandler.accept(null, e);
+                return;
+            }
+
+            if (sent.isDone()) {
+                // The response has already been waited by this thread
+                sent.whenComplete(responseHandler);
+            } else {
+                sent.whenComplete((r, t) -> executeOrFail(executor, () -> responseHandler.accept(r, t), future, rejectionMapping));
+            }
+        }, future, rejectionMapping);
+    }
+
+    /**
+     * Instantiates the {@link ThreadPoolExecutor} which sends the requests and processes the responses of {@link #sendAsync()}.
+     * <p>
+     * Both the threads and the queue are bounded and the tasks exceeding them are rejected with a {@link RejectedExecutionException}.
+     *
+     * @param threads   The maximum number of threads.
+     * @param queueSize The maximum number of tasks waiting for a thread.
+     * @return The newly instantiated {@link ThreadPoolExecutor}.
+     * @since 2.1.0
+     */
+    static ThreadPoolExecutor newAsyncExecutor(int threads, int queueSize) {
+        AtomicInteger threadCount = new AtomicInteger();
+
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "DeviceManagementAsync-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+
+    /**
+     * Lazy holder of the {@link Executor} which sends the requests and processes the responses of {@link #sendAsync()}.
+     * <p>
+     * The pool is bounded by {@link DeviceManagementSettingKey#REQUEST_ASYNC_THREADS} and {@link DeviceManagementSettingKey#REQUEST_ASYNC_QUEUE_SIZE},
+     * so that neither the callers nor the transport threads which complete the requests are used to send the requests, to translate the responses or to run the dependent stages,
+     * and a burst of requests or responses cannot queue up without limits.
+     *
+     * @since 2.1.0
+     */
+    private static class AsyncExecutorHolder {
+
+        private static final Executor EXECUTOR;
+
+        static {
+            DeviceManagementSetting deviceManagementSetting = KapuaLocator.getInstance().getComponent(DeviceManagementSetting.class);
+            EXECUTOR = newAsyncExecutor(
+                    deviceManagementSetting.getInt(DeviceManagementSettingKey.REQUEST_ASYNC_THREADS, 16),
+                    deviceManagementSetting.getInt(DeviceManagementSettingKey.REQUEST_ASYNC_QUEUE_SIZE, 1000));
+        }
+
+        private AsyncExecutorHolder() {
+        }
+    }
+
     private void deviceCallPreChecks() throws DeviceManagementSendException, KapuaEntityNotFoundException, DeviceNotConnectedException, KapuaIllegalNullArgumentException {
         // Validate arguments
         ArgumentValidator.notNull(requestMessage, "requestMessage");
@@ -41,6 +41,20 @@ public enum DeviceManagementSettingKey implements SettingKey {
      * @since 1.0.0
      */
     SHOW_STACKTRACE("device.management.response.stacktrace.show"),
+
+    /**
+     * Number of threads which process the responses of the asynchronous requests.
+     *
+     * @since 2.1.0
+     */
+    REQUEST_ASYNC_THREADS("device.management.request.async.threads"),
+
+    /**
+     * Maximum number of responses of the asynchronous requests waiting for a thread. The requests completing when the queue is full fail.
+     *
+     * @since 2.1.0
+     */
+    REQUEST_ASYNC_QUEUE_SIZE("device.management.request.async.queue.size"),
     ;
 
     private final String key;
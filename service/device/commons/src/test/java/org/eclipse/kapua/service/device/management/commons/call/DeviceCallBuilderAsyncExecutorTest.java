@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.management.commons.call;
+
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Category(JUnitTests.class)
+public class DeviceCallBuilderAsyncExecutorTest {
+
+    @Test
+    public void executeOrFailRunsTaskTest() throws Exception {
+        ThreadPoolExecutor executor = DeviceCallBuilder.newAsyncExecutor(1, 1);
+        try {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            DeviceCallBuilder.executeOrFail(executor, () -> future.complete(Thread.currentThread().getName()), future, IllegalStateException::new);
+
+            Assert.assertEquals("Expected and actual values should be the same!", "DeviceManagementAsync-1", future.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void executeOrFailRejectedWhenQueueFullTest() throws Exception {
+        ThreadPoolExecutor executor = DeviceCallBuilder.newAsyncExecutor(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // One task running and one queued fill the executor
+            CompletableFuture<Void> running = new CompletableFuture<>();
+            DeviceCallBuilder.executeOrFail(executor, () -> {
+                started.countDown();
+                awaitQuietly(release);
+                running.complete(null);
+            }, running, IllegalStateException::new);
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            CompletableFuture<Void> queued = new CompletableFuture<>();
+            DeviceCallBuilder.executeOrFail(executor, () -> queued.complete(null), queued, IllegalStateException::new);
+
+            CompletableFuture<Void> rejected = new CompletableFuture<>();
+            DeviceCallBuilder.executeOrFail(executor, () -> rejected.complete(null), rejected, IllegalStateException::new);
+
+            Assert.assertTrue(rejected.isCompletedExceptionally());
+            try {
+                rejected.get();
+                Assert.fail("ExecutionException expected");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+                Assert.assertTrue(e.getCause().getCause() instanceof RejectedExecutionException);
+            }
+            Assert.assertFalse(queued.isDone());
+
+            release.countDown();
+            running.get(5, TimeUnit.SECONDS);
+            queued.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void sendOnExecutorBlockingTransportTest() throws Exception {
+        ThreadPoolExecutor executor = DeviceCallBuilder.newAsyncExecutor(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // The pooled transport waits for the response while sending
+            CompletableFuture<String> sendingThread = new CompletableFuture<>();
+            CompletableFuture<String> response = new CompletableFuture<>();
+            DeviceCallBuilder.sendOnExecutor(executor, () -> {
+                sendingThread.complete(Thread.currentThread().getName());
+                awaitQuietly(release);
+                return CompletableFuture.completedFuture("response");
+            }, (r, t) -> response.complete(r + "@" + Thread.currentThread().getName()), response, IllegalStateException::new);
+
+            // The caller is not blocked while the response is waited
+            Assert.assertEquals("Expected and actual values should be the same!", "DeviceManagementAsync-1", sendingThread.get(5, TimeUnit.SECONDS));
+            Assert.assertFalse(response.isDone());
+
+            release.countDown();
+            Assert.assertEquals("Expected and actual values should be the same!", "response@DeviceManagementAsync-1", response.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void sendOnExecutorNonBlockingTransportTest() throws Exception {
+        ThreadPoolExecutor executor = DeviceCallBuilder.newAsyncExecutor(1, 1);
+        try {
+            // The multiplexed transport completes the response later on its own thread
+            CompletableFuture<String> transportResponse = new CompletableFuture<>();
+            CompletableFuture<String> response = new CompletableFuture<>();
+            DeviceCallBuilder.sendOnExecutor(executor, () -> transportResponse, (r, t) -> response.complete(r + "@" + Thread.currentThread().getName()), response, IllegalStateException::new);
+
+            Thread transportThread = new Thread(() -> transportResponse.complete("response"), "transport");
+            transportThread.start();
+
+            // The response is not handled by the transport thread
+            Assert.assertEquals("Expected and actual values should be the same!", "response@DeviceManagementAsync-1", response.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void sendOnExecutorSendFailureTest() throws Exception {
+        ThreadPoolExecutor executor = DeviceCallBuilder.newAsyncExecutor(1, 1);
+        try {
+            CompletableFuture<String> response = new CompletableFuture<>();
+            DeviceCallBuilder.<String>sendOnExecutor(executor, () -> {
+                throw new IllegalArgumentException("send");
+            }, (r, t) -> response.completeExceptionally(t), response, IllegalStateException::new);
+
+            try {
+                response.get(5, TimeUnit.SECONDS);
+                Assert.fail("ExecutionException expected");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void newAsyncExecutorBoundsTest() {
+        ThreadPoolExecutor executor = DeviceCallBuilder.newAsyncExecutor(4, 10);
+        try {
+            Assert.assertEquals("Expected and actual values should be the same!", 4, executor.getMaximumPoolSize());
+            Assert.assertEquals("Expected and actual values should be the same!", 10, executor.getQueue().remainingCapacity());
+            Assert.assertTrue(executor.getRejectedExecutionHandler() instanceof ThreadPoolExecutor.AbortPolicy);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
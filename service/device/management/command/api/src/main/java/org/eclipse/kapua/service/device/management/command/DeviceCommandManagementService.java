@@ -18,6 +18,8 @@ import org.eclipse.kapua.service.KapuaService;
 import org.eclipse.kapua.service.device.management.DeviceManagementService;
 import org.eclipse.kapua.service.device.registry.Device;
 
+import java.util.concurrent.CompletionStage;
+
 /**
  * {@link DeviceCommand} {@link KapuaService} definition.
  *
@@ -37,4 +39,20 @@ public interface DeviceCommandManagementService extends DeviceManagementService
      * @since 1.0.0
      */
     DeviceCommandOutput exec(KapuaId scopeId, KapuaId deviceId, DeviceCommandInput commandInput, Long timeout) throws KapuaException;
+
+    /**
+     * Executes the given {@link DeviceCommandInput} on the target {@link Device} without waiting for the {@link Device} response.
+     * <p>
+     * Arguments, permissions and {@link Device} connection are checked before returning.
+     * The returned {@link CompletionStage} completes with the same result, or the same exception, of {@link #exec(KapuaId, KapuaId, DeviceCommandInput, Long)}.
+     *
+     * @param scopeId      The {@link Device#getScopeId()}.
+     * @param deviceId     The {@link Device#getId()}.
+     * @param commandInput The {@link DeviceCommandInput} to be executed.
+     * @param timeout      The time to wait the {@link Device} response.
+     * @return The {@link CompletionStage} of the {@link DeviceCommandOutput} containing the execution result.
+     * @throws KapuaException
+     * @since 2.1.0
+     */
+    CompletionStage<DeviceCommandOutput> execAsync(KapuaId scopeId, KapuaId deviceId, DeviceCommandInput commandInput, Long timeout) throws KapuaException;
 }
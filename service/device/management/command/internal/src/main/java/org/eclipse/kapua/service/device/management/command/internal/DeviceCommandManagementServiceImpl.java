@@ -39,6 +39,8 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Singleton;
 import java.util.Date;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 /**
  * {@link DeviceCommandManagementService} implementation.
@@ -68,13 +70,86 @@ public class DeviceCommandManagementServiceImpl extends AbstractDeviceManagement
     public DeviceCommandOutput exec(KapuaId scopeId, KapuaId deviceId, DeviceCommandInput commandInput, Long timeout)
             throws KapuaException {
         // Argument Validation
+        validateExec(scopeId, deviceId, commandInput);
+        // Check Access
+        authorizationService.checkPermission(permissionFactory.newPermission(Domains.DEVICE_MANAGEMENT, Actions.execute, scopeId));
+        // Prepare the request
+        CommandRequestMessage commandRequestMessage = prepareRequestMessage(scopeId, deviceId, commandInput);
+
+        // Build request
+        DeviceCallBuilder<CommandRequestChannel, CommandRequestPayload, CommandRequestMessage, CommandResponseMessage> commandDeviceCallBuilder =
+                DeviceCallBuilder
+                        .newBuilder()
+                        .withRequestMessage(commandRequestMessage)
+                        .withTimeoutOrDefault(timeout);
+
+        // Do exec
+        CommandResponseMessage responseMessage;
+
+        try {
+            responseMessage = commandDeviceCallBuilder.send();
+        } catch (Exception e) {
+            logExecError(deviceId, commandInput, e);
+            throw e;
+        }
+
+        return processResponse(scopeId, deviceId, commandRequestMessage, responseMessage);
+    }
+
+    @Override
+    public CompletionStage<DeviceCommandOutput> execAsync(KapuaId scopeId, KapuaId deviceId, DeviceCommandInput commandInput, Long timeout)
+            throws KapuaException {
+        // Argument Validation
+        validateExec(scopeId, deviceId, commandInput);
+        // Check Access
+        authorizationService.checkPermission(permissionFactory.newPermission(Domains.DEVICE_MANAGEMENT, Actions.execute, scopeId));
+        // Prepare the request
+        CommandRequestMessage commandRequestMessage = prepareRequestMessage(scopeId, deviceId, commandInput);
+
+        // Build request
+        DeviceCallBuilder<CommandRequestChannel, CommandRequestPayload, CommandRequestMessage, CommandResponseMessage> commandDeviceCallBuilder =
+                DeviceCallBuilder
+                        .newBuilder()
+                        .withRequestMessage(commandRequestMessage)
+                        .withTimeoutOrDefault(timeout);
+
+        // Do exec
+        CompletionStage<CommandResponseMessage> responseMessageStage;
+        try {
+            responseMessageStage = commandDeviceCallBuilder.sendAsync();
+        } catch (Exception e) {
+            logExecError(deviceId, commandInput, e);
+            throw e;
+        }
+
+        // The stage completes on the device management executor with the KapuaSession of the caller.
+        return responseMessageStage
+                .whenComplete((responseMessage, throwable) -> {
+                    if (throwable != null) {
+                        logExecError(deviceId, commandInput, throwable);
+                    }
+                })
+                .thenApply(responseMessage -> {
+                    try {
+                        return processResponse(scopeId, deviceId, commandRequestMessage, responseMessage);
+                    } catch (KapuaException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    //
+    // Private methods
+    //
+
+    private void validateExec(KapuaId scopeId, KapuaId deviceId, DeviceCommandInput commandInput) throws KapuaException {
         ArgumentValidator.notNull(scopeId, "scopeId");
         ArgumentValidator.notNull(deviceId, "deviceId");
         ArgumentValidator.notNull(commandInput, "commandInput");
         ArgumentValidator.notNull(commandInput.getTimeout(), "commandInput.timeout");
-        // Check Access
-        authorizationService.checkPermission(permissionFactory.newPermission(Domains.DEVICE_MANAGEMENT, Actions.execute, scopeId));
-        // Prepare the request
+    }
+
+    private CommandRequestMessage prepareRequestMessage(KapuaId scopeId, KapuaId deviceId, DeviceCommandInput commandInput) {
         CommandRequestChannel commandRequestChannel = new CommandRequestChannel();
         commandRequestChannel.setAppName(CommandAppProperties.APP_NAME);
         commandRequestChannel.setVersion(CommandAppProperties.APP_VERSION);
@@ -97,28 +172,10 @@ public class DeviceCommandManagementServiceImpl extends AbstractDeviceManagement
         commandRequestMessage.setCapturedOn(new Date());
         commandRequestMessage.setPayload(commandRequestPayload);
         commandRequestMessage.setChannel(commandRequestChannel);
+        return commandRequestMessage;
+    }
 
-        // Build request
-        DeviceCallBuilder<CommandRequestChannel, CommandRequestPayload, CommandRequestMessage, CommandResponseMessage> commandDeviceCallBuilder =
-                DeviceCallBuilder
-                        .newBuilder()
-                        .withRequestMessage(commandRequestMessage)
-                        .withTimeoutOrDefault(timeout);
-
-        // Do exec
-        CommandResponseMessage responseMessage;
-
-        try {
-            responseMessage = commandDeviceCallBuilder.send();
-        } catch (Exception e) {
-            if (commandInput.getArguments() != null) {
-                LOG.error("Error while executing DeviceCommand {} with arguments {} for Device {}. Error: {}", commandInput.getCommand(), String.join(" ", commandInput.getArguments()), deviceId, e.getMessage(), e);
-            } else {
-                LOG.error("Error while executing DeviceCommand {} for Device {}. Error: {}", commandInput.getCommand(), deviceId, e.getMessage(), e);
-            }
-            throw e;
-        }
-
+    private DeviceCommandOutput processResponse(KapuaId scopeId, KapuaId deviceId, CommandRequestMessage commandRequestMessage, CommandResponseMessage responseMessage) throws KapuaException {
         // Create event
         createDeviceEvent(scopeId, deviceId, commandRequestMessage, responseMessage);
         // Check response
@@ -136,4 +193,13 @@ public class DeviceCommandManagementServiceImpl extends AbstractDeviceManagement
             return deviceCommandOutput;
         });
     }
+
+    private void logExecError(KapuaId deviceId, DeviceCommandInput commandInput, Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        if (commandInput.getArguments() != null) {
+            LOG.error("Error while executing DeviceCommand {} with arguments {} for Device {}. Error: {}", commandInput.getCommand(), String.join(" ", commandInput.getArguments()), deviceId, cause.getMessage(), cause);
+        } else {
+            LOG.error("Error while executing DeviceCommand {} for Device {}. Error: {}", commandInput.getCommand(), deviceId, cause.getMessage(), cause);
+        }
+    }
 }
@@ -16,6 +16,8 @@ import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.device.management.DeviceManagementService;
 
+import java.util.concurrent.CompletionStage;
+
 /**
  * Device configuration service definition.
  *
@@ -40,6 +42,27 @@ public interface DeviceConfigurationManagementService extends DeviceManagementSe
                             Long timeout)
             throws KapuaException;
 
+    /**
+     * Get the device configuration for the given device identifier and configuration identifier without waiting for the device response.
+     * <p>
+     * Arguments, permissions and device connection are checked before returning. If the device is not connected the stored configuration is returned as a completed {@link CompletionStage}.
+     * The returned {@link CompletionStage} completes with the same result, or the same exception, of {@link #get(KapuaId, KapuaId, String, String, Long)}.
+     *
+     * @param scopeId
+     * @param deviceId
+     * @param configurationId
+     * @param configurationComponentPid
+     * @param timeout                   timeout waiting for the device response
+     * @return The {@link CompletionStage} of the {@link DeviceConfiguration}
+     * @throws KapuaException
+     * @since 2.1.0
+     */
+    CompletionStage<DeviceConfiguration> getAsync(KapuaId scopeId, KapuaId deviceId,
+                                                  String configurationId,
+                                                  String configurationComponentPid,
+                                                  Long timeout)
+            throws KapuaException;
+
     /**
      * Put the provided configuration to the device identified by the provided device identifier
      *
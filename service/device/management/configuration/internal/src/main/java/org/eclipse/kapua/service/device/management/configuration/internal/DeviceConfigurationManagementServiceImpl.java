@@ -13,6 +13,9 @@
 package org.eclipse.kapua.service.device.management.configuration.internal;
 
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 import javax.inject.Singleton;
 import javax.xml.bind.JAXBException;
@@ -97,21 +100,7 @@ public class DeviceConfigurationManagementServiceImpl extends AbstractDeviceMana
         // Check Access
         authorizationService.checkPermission(permissionFactory.newPermission(Domains.DEVICE_MANAGEMENT, Actions.read, scopeId));
         // Prepare the request
-        ConfigurationRequestChannel configurationRequestChannel = new ConfigurationRequestChannel();
-        configurationRequestChannel.setAppName(DeviceConfigurationAppProperties.APP_NAME);
-        configurationRequestChannel.setVersion(DeviceConfigurationAppProperties.APP_VERSION);
-        configurationRequestChannel.setMethod(KapuaMethod.READ);
-        configurationRequestChannel.setConfigurationId(configurationId);
-        configurationRequestChannel.setComponentId(configurationComponentPid);
-
-        ConfigurationRequestPayload configurationRequestPayload = new ConfigurationRequestPayload();
-
-        ConfigurationRequestMessage configurationRequestMessage = new ConfigurationRequestMessage();
-        configurationRequestMessage.setScopeId(scopeId);
-        configurationRequestMessage.setDeviceId(deviceId);
-        configurationRequestMessage.setCapturedOn(new Date());
-        configurationRequestMessage.setPayload(configurationRequestPayload);
-        configurationRequestMessage.setChannel(configurationRequestChannel);
+        ConfigurationRequestMessage configurationRequestMessage = prepareGetRequestMessage(scopeId, deviceId, configurationId, configurationComponentPid);
 
         // Build request
         DeviceCallBuilder<ConfigurationRequestChannel, ConfigurationRequestPayload, ConfigurationRequestMessage, ConfigurationResponseMessage> configurationDeviceCallBuilder =
@@ -131,41 +120,62 @@ public class DeviceConfigurationManagementServiceImpl extends AbstractDeviceMana
                 throw e;
             }
 
-            // Create event
-            createDeviceEvent(scopeId, deviceId, configurationRequestMessage, responseMessage);
-            // Check response
-            DeviceConfiguration onlineDeviceConfiguration = checkResponseAcceptedOrThrowError(responseMessage,
-                    () -> responseMessage.getPayload().getDeviceConfigurations().orElse(deviceConfigurationFactory.newConfigurationInstance()));
-            // Store config and return
-            if (deviceConfigurationStoreService.isServiceEnabled(scopeId) &&
-                    deviceConfigurationStoreService.isApplicationEnabled(scopeId, deviceId)) {
-                if (Strings.isNullOrEmpty(configurationComponentPid)) {
-                    // If all DeviceConfiguration has been requested, store it overriding any previous value
-                    deviceConfigurationStoreService.storeConfigurations(scopeId, deviceId, onlineDeviceConfiguration);
-                } else {
-                    // If only one DeviceComponentConfiguration has been requested, store it overriding only the selected DeviceComponentConfiguration
-                    deviceConfigurationStoreService.storeConfigurations(scopeId, deviceId, onlineDeviceConfiguration.getComponentConfigurations().get(0));
-                }
-            }
-
-            return onlineDeviceConfiguration;
+            return processGetResponse(scopeId, deviceId, configurationComponentPid, configurationRequestMessage, responseMessage);
         } else {
-            if (deviceConfigurationStoreService.isServiceEnabled(scopeId) &&
-                    deviceConfigurationStoreService.isApplicationEnabled(scopeId, deviceId)) {
-                if (configurationComponentPid == null) {
-                    return deviceConfigurationStoreService.getConfigurations(scopeId, deviceId);
-                } else {
-                    DeviceConfiguration deviceConfigurationReturned = deviceConfigurationFactory.newConfigurationInstance();
-                    DeviceComponentConfiguration componentConfiguration = deviceConfigurationStoreService.getConfigurations(scopeId, deviceId, configurationComponentPid);
-                    deviceConfigurationReturned.addComponentConfiguration(componentConfiguration);
-                    return deviceConfigurationReturned;
-                }
-            } else {
-                throw new DeviceNeverConnectedException(deviceId);
-            }
+            return getStoredConfiguration(scopeId, deviceId, configurationComponentPid);
         }
     }
 
+    @Override
+    public CompletionStage<DeviceConfiguration> getAsync(KapuaId scopeId, KapuaId deviceId, String configurationId, String configurationComponentPid, Long timeout)
+            throws KapuaException {
+        // Argument Validation
+        ArgumentValidator.notNull(scopeId, SCOPE_ID);
+        ArgumentValidator.notNull(deviceId, DEVICE_ID);
+        // Check Access
+        authorizationService.checkPermission(permissionFactory.newPermission(Domains.DEVICE_MANAGEMENT, Actions.read, scopeId));
+        // Prepare the request
+        ConfigurationRequestMessage configurationRequestMessage = prepareGetRequestMessage(scopeId, deviceId, configurationId, configurationComponentPid);
+
+        // Build request
+        DeviceCallBuilder<ConfigurationRequestChannel, ConfigurationRequestPayload, ConfigurationRequestMessage, ConfigurationResponseMessage> configurationDeviceCallBuilder =
+                DeviceCallBuilder
+                        .newBuilder()
+                        .withRequestMessage(configurationRequestMessage)
+                        .withTimeoutOrDefault(timeout);
+
+        // Do get
+        if (!isDeviceConnected(scopeId, deviceId)) {
+            // The stored configuration does not wait for the device
+            return CompletableFuture.completedFuture(getStoredConfiguration(scopeId, deviceId, configurationComponentPid));
+        }
+
+        CompletionStage<ConfigurationResponseMessage> responseMessageStage;
+        try {
+            responseMessageStage = configurationDeviceCallBuilder.sendAsync();
+        } catch (Exception e) {
+            LOG.error("Error while getting DeviceConfiguration with id {} and DeviceComponentConfiguration id {} for Device {}. Error: {}", configurationId, configurationComponentPid, deviceId,
+                    e.getMessage(), e);
+            throw e;
+        }
+
+        // The stage completes on the device management executor with the KapuaSession of the caller.
+        return responseMessageStage
+                .whenComplete((responseMessage, throwable) -> {
+                    if (throwable != null) {
+                        LOG.error("Error while getting DeviceConfiguration with id {} and DeviceComponentConfiguration id {} for Device {}. Error: {}", configurationId, configurationComponentPid,
+                                deviceId, throwable.getMessage(), throwable);
+                    }
+                })
+                .thenApply(responseMessage -> {
+                    try {
+                        return processGetResponse(scopeId, deviceId, configurationComponentPid, configurationRequestMessage, responseMessage);
+                    } catch (KapuaException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
     @Override
     public void put(KapuaId scopeId, KapuaId deviceId, DeviceComponentConfiguration deviceComponentConfiguration, Long timeout)
             throws KapuaException {
@@ -287,4 +297,61 @@ public class DeviceConfigurationManagementServiceImpl extends AbstractDeviceMana
         // Check response
         checkResponseAcceptedOrThrowError(responseMessage);
     }
+
+    private ConfigurationRequestMessage prepareGetRequestMessage(KapuaId scopeId, KapuaId deviceId, String configurationId, String configurationComponentPid) {
+        ConfigurationRequestChannel configurationRequestChannel = new ConfigurationRequestChannel();
+        configurationRequestChannel.setAppName(DeviceConfigurationAppProperties.APP_NAME);
+        configurationRequestChannel.setVersion(DeviceConfigurationAppProperties.APP_VERSION);
+        configurationRequestChannel.setMethod(KapuaMethod.READ);
+        configurationRequestChannel.setConfigurationId(configurationId);
+        configurationRequestChannel.setComponentId(configurationComponentPid);
+
+        ConfigurationRequestPayload configurationRequestPayload = new ConfigurationRequestPayload();
+
+        ConfigurationRequestMessage configurationRequestMessage = new ConfigurationRequestMessage();
+        configurationRequestMessage.setScopeId(scopeId);
+        configurationRequestMessage.setDeviceId(deviceId);
+        configurationRequestMessage.setCapturedOn(new Date());
+        configurationRequestMessage.setPayload(configurationRequestPayload);
+        configurationRequestMessage.setChannel(configurationRequestChannel);
+        return configurationRequestMessage;
+    }
+
+    private DeviceConfiguration processGetResponse(KapuaId scopeId, KapuaId deviceId, String configurationComponentPid, ConfigurationRequestMessage configurationRequestMessage,
+            ConfigurationResponseMessage responseMessage) throws KapuaException {
+        // Create event
+        createDeviceEvent(scopeId, deviceId, configurationRequestMessage, responseMessage);
+        // Check response
+        DeviceConfiguration onlineDeviceConfiguration = checkResponseAcceptedOrThrowError(responseMessage,
+                () -> responseMessage.getPayload().getDeviceConfigurations().orElse(deviceConfigurationFactory.newConfigurationInstance()));
+        // Store config and return
+        if (deviceConfigurationStoreService.isServiceEnabled(scopeId) &&
+                deviceConfigurationStoreService.isApplicationEnabled(scopeId, deviceId)) {
+            if (Strings.isNullOrEmpty(configurationComponentPid)) {
+                // If all DeviceConfiguration has been requested, store it overriding any previous value
+                deviceConfigurationStoreService.storeConfigurations(scopeId, deviceId, onlineDeviceConfiguration);
+            } else {
+                // If only one DeviceComponentConfiguration has been requested, store it overriding only the selected DeviceComponentConfiguration
+                deviceConfigurationStoreService.storeConfigurations(scopeId, deviceId, onlineDeviceConfiguration.getComponentConfigurations().get(0));
+            }
+        }
+
+        return onlineDeviceConfiguration;
+    }
+
+    private DeviceConfiguration getStoredConfiguration(KapuaId scopeId, KapuaId deviceId, String configurationComponentPid) throws KapuaException {
+        if (deviceConfigurationStoreService.isServiceEnabled(scopeId) &&
+                deviceConfigurationStoreService.isApplicationEnabled(scopeId, deviceId)) {
+            if (configurationComponentPid == null) {
+                return deviceConfigurationStoreService.getConfigurations(scopeId, deviceId);
+            } else {
+                DeviceConfiguration deviceConfigurationReturned = deviceConfigurationFactory.newConfigurationInstance();
+                DeviceComponentConfiguration componentConfiguration = deviceConfigurationStoreService.getConfigurations(scopeId, deviceId, configurationComponentPid);
+                deviceConfigurationReturned.addComponentConfiguration(componentConfiguration);
+                return deviceConfigurationReturned;
+            }
+        } else {
+            throw new DeviceNeverConnectedException(deviceId);
+        }
+    }
 }
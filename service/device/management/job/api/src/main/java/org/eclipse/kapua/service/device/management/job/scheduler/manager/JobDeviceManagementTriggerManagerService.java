@@ -16,6 +16,8 @@ import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.KapuaService;
 import org.eclipse.kapua.service.device.management.job.scheduler.manager.exception.ProcessOnConnectException;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Manager service that handles interactions between Device, {@link org.eclipse.kapua.service.job.Job} and {@link org.eclipse.kapua.service.scheduler.trigger.Trigger}s
  *
@@ -25,6 +27,9 @@ public interface JobDeviceManagementTriggerManagerService extends KapuaService {
 
     /**
      * Starts the processing of a {@link org.eclipse.kapua.service.job.Job} for the given Device id, if there are any.
+     * <p>
+     * Implementations may wait to start the processing together with other Devices connecting shortly after,
+     * but the processing has been started when this method returns.
      *
      * @param scopeId  The scope {@link KapuaId} of the Device.
      * @param deviceId The KapuaId of the Device.
@@ -32,4 +37,18 @@ public interface JobDeviceManagementTriggerManagerService extends KapuaService {
      * @since 1.1.0
      */
     void processOnConnect(KapuaId scopeId, KapuaId deviceId) throws ProcessOnConnectException;
+
+    /**
+     * Starts the processing of a {@link org.eclipse.kapua.service.job.Job} for the given Device id, if there are any, without waiting for it.
+     * <p>
+     * Implementations may wait to start the processing together with other Devices connecting shortly after:
+     * the processing has been started when the returned {@link CompletableFuture} completes.
+     *
+     * @param scopeId  The scope {@link KapuaId} of the Device.
+     * @param deviceId The KapuaId of the Device.
+     * @return The {@link CompletableFuture} completed when the processing has been started, or completed exceptionally if it cannot be started.
+     * @throws ProcessOnConnectException when some errors occurs while looking for the {@link org.eclipse.kapua.service.job.Job}s to process.
+     * @since 2.1.0
+     */
+    CompletableFuture<Void> processOnConnectAsync(KapuaId scopeId, KapuaId deviceId) throws ProcessOnConnectException;
 }
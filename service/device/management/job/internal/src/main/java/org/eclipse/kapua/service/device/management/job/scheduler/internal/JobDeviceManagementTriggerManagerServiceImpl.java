@@ -13,12 +13,14 @@
 package org.eclipse.kapua.service.device.management.job.scheduler.internal;
 
 import org.eclipse.kapua.KapuaEntityNotFoundException;
+import org.eclipse.kapua.commons.cache.LocalCache;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.job.engine.JobEngineFactory;
 import org.eclipse.kapua.job.engine.JobEngineService;
 import org.eclipse.kapua.job.engine.JobStartOptions;
 import org.eclipse.kapua.model.id.KapuaId;
-import org.eclipse.kapua.model.query.predicate.AttributePredicate;
+import org.eclipse.kapua.service.device.management.job.scheduler.internal.settings.JobDeviceManagementTriggerSettingKeys;
+import org.eclipse.kapua.service.device.management.job.scheduler.internal.settings.JobDeviceManagementTriggerSettings;
 import org.eclipse.kapua.service.device.management.job.scheduler.manager.JobDeviceManagementTriggerManagerService;
 import org.eclipse.kapua.service.device.management.job.scheduler.manager.exception.ProcessOnConnectException;
 import org.eclipse.kapua.service.job.step.JobStepAttributes;
@@ -35,7 +37,6 @@ import org.eclipse.kapua.service.job.targets.JobTargetStatus;
 import org.eclipse.kapua.service.scheduler.trigger.Trigger;
 import org.eclipse.kapua.service.scheduler.trigger.TriggerAttributes;
 import org.eclipse.kapua.service.scheduler.trigger.TriggerFactory;
-import org.eclipse.kapua.service.scheduler.trigger.TriggerListResult;
 import org.eclipse.kapua.service.scheduler.trigger.TriggerQuery;
 import org.eclipse.kapua.service.scheduler.trigger.TriggerService;
 import org.eclipse.kapua.service.scheduler.trigger.definition.TriggerDefinition;
@@ -45,18 +46,45 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * {@link JobDeviceManagementTriggerManagerService} implementation.
+ * <p>
+ * On device connection only the {@link JobTarget}s of the jobs with an active "Device Connect" {@link Trigger}, which are not at the end of the job step processing, are considered.
+ * The number of {@link org.eclipse.kapua.service.job.step.JobStep}s and the "Device Connect" {@link Trigger}s of each job are kept in a local cache for
+ * {@link JobDeviceManagementTriggerSettingKeys#ON_CONNECT_JOB_CACHE_EXPIRE_AFTER}, so they are not queried on each device connection.
+ * <p>
+ * These {@link JobTarget}s are buffered for the {@link JobDeviceManagementTriggerSettingKeys#ON_CONNECT_COALESCE_WINDOW} and grouped per {@link JobTarget#getJobId()} and {@link JobTarget#getStepIndex()}.
+ * When the window of a group elapses the job is started once, with all the {@link JobTarget}s of the group in the {@link JobStartOptions#getTargetIdSublist()}.
+ * Job starts are enqueued, so if the job is already running the targets are processed by the next execution.
+ * <p>
+ * {@link #processOnConnectAsync(KapuaId, KapuaId)} does not wait for the window: the returned {@link CompletableFuture} completes once the groups of the device have been started,
+ * so that the device connection can be acknowledged only afterwards and the pending starts are never lost. Pending groups are started when the service is {@link #close()}d.
+ * <p>
+ * This avoids that a reconnection of many devices, i.e. after an outage, results in one job execution for each device.
  *
  * @since 1.1.0
  */
 @Singleton
-public class JobDeviceManagementTriggerManagerServiceImpl implements JobDeviceManagementTriggerManagerService {
+public class JobDeviceManagementTriggerManagerServiceImpl implements JobDeviceManagementTriggerManagerService, AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(JobDeviceManagementTriggerManagerServiceImpl.class);
 
+    private static final long SHUTDOWN_TIMEOUT = 30;
+
     private final JobEngineService jobEngineService;
     private final JobEngineFactory jobEngineFactory;
     private final JobStepService jobStepService;
@@ -67,6 +95,27 @@ public class JobDeviceManagementTriggerManagerServiceImpl implements JobDeviceMa
     private final TriggerService triggerService;
     private final TriggerFactory triggerFactory;
 
+    private final long coalesceWindow;
+    private final int targetSublistSizeMax;
+
+    /**
+     * The {@link DeviceConnectJobDetails} of the jobs, by {@link JobTarget#getJobId()}.
+     *
+     * @since 2.1.0
+     */
+    private final LocalCache<KapuaId, DeviceConnectJobDetails> jobDetailsCache;
+
+    /**
+     * The {@link JobTarget}s waiting for their window to elapse, grouped by {@link DeviceConnectJob}.
+     *
+     * @since 2.1.0
+     */
+    private final Map<DeviceConnectJob, PendingStart> pendingStarts = new HashMap<>();
+    private final ScheduledThreadPoolExecutor coalesceExecutor;
+    private boolean closed;
+
+    private volatile KapuaId deviceConnectTriggerDefinitionId;
+
     @Inject
     public JobDeviceManagementTriggerManagerServiceImpl(
             JobEngineService jobEngineService,
@@ -87,14 +136,42 @@ public class JobDeviceManagementTriggerManagerServiceImpl implements JobDeviceMa
         this.triggerDefinitionService = triggerDefinitionService;
         this.triggerService = triggerService;
         this.triggerFactory = triggerFactory;
-    }
 
+        JobDeviceManagementTriggerSettings jobDeviceManagementTriggerSettings = new JobDeviceManagementTriggerSettings();
+        this.coalesceWindow = jobDeviceManagementTriggerSettings.getLong(JobDeviceManagementTriggerSettingKeys.ON_CONNECT_COALESCE_WINDOW, 1000L);
+        this.targetSublistSizeMax = Math.max(1, jobDeviceManagementTriggerSettings.getInt(JobDeviceManagementTriggerSettingKeys.ON_CONNECT_TARGET_SUBLIST_SIZE_MAX, 500));
+        this.jobDetailsCache = new LocalCache<>(
+                jobDeviceManagementTriggerSettings.getInt(JobDeviceManagementTriggerSettingKeys.ON_CONNECT_JOB_CACHE_SIZE_MAX, 10000),
+                jobDeviceManagementTriggerSettings.getInt(JobDeviceManagementTriggerSettingKeys.ON_CONNECT_JOB_CACHE_EXPIRE_AFTER, 30),
+                null);
+        if (coalesceWindow > 0) {
+            this.coalesceExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "job-device-connect-trigger");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // On close the pending groups are started by the closing thread
+            this.coalesceExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        } else {
+            this.coalesceExecutor = null;
+        }
+    }
 
     @Override
     public void processOnConnect(KapuaId scopeId, KapuaId deviceId) throws ProcessOnConnectException {
+        try {
+            processOnConnectAsync(scopeId, deviceId).get();
+        } catch (ExecutionException e) {
+            throw new ProcessOnConnectException(e.getCause(), scopeId, deviceId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessOnConnectException(e, scopeId, deviceId);
+        }
+    }
 
-        Date now = new Date();
-
+    @Override
+    public CompletableFuture<Void> processOnConnectAsync(KapuaId scopeId, KapuaId deviceId) throws ProcessOnConnectException {
+        List<CompletableFuture<Void>> starts = new ArrayList<>();
         try {
             JobTargetQuery jobTargetQuery = jobTargetFactory.newQuery(scopeId);
 
@@ -104,51 +181,208 @@ public class JobDeviceManagementTriggerManagerServiceImpl implements JobDeviceMa
 
             JobTargetListResult jobTargetListResult = KapuaSecurityUtils.doPrivileged(() -> jobTargetService.query(jobTargetQuery));
 
+            Date now = new Date();
             for (JobTarget jt : jobTargetListResult.getItems()) {
-                JobStepQuery jobStepQuery = jobStepFactory.newQuery(jt.getScopeId());
-
-                jobStepQuery.setPredicate(
-                        jobStepQuery.attributePredicate(JobStepAttributes.JOB_ID, jt.getJobId())
-                );
+                DeviceConnectJobDetails jobDetails = getDeviceConnectJobDetails(jt.getScopeId(), jt.getJobId());
+                if (!jobDetails.hasActiveTrigger(now) || jobDetails.isProcessed(jt)) {
+                    continue;
+                }
 
-                long jobStepCount = jobStepService.count(jobStepQuery);
+                DeviceConnectJob deviceConnectJob = new DeviceConnectJob(jt.getScopeId(), jt.getJobId(), jt.getStepIndex());
 
-                if (JobTargetStatus.PROCESS_OK.equals(jt.getStatus()) && jobStepCount <= jt.getStepIndex() + 1) {
-                    // The target is at the end of the job step processing
-                    continue;
+                PendingStart pendingStart = coalesceExecutor != null ? addPendingJobTarget(deviceConnectJob, jt) : null;
+                if (pendingStart != null) {
+                    starts.add(pendingStart.started);
+                } else {
+                    startDeviceConnectJob(deviceConnectJob, Collections.singletonList(jt.getId()));
                 }
+            }
+        } catch (Exception e) {
+            throw new ProcessOnConnectException(e, scopeId, deviceId);
+        }
 
-                TriggerQuery triggerQuery = triggerFactory.newQuery(scopeId);
+        return CompletableFuture.allOf(starts.toArray(new CompletableFuture[0]));
+    }
 
-                triggerQuery.setPredicate(
-                        triggerQuery.andPredicate(
-                                triggerQuery.attributePredicate(TriggerAttributes.TRIGGER_DEFINITION_ID, getTriggerDefinition().getId()),
-                                triggerQuery.attributePredicate(TriggerAttributes.TRIGGER_PROPERTIES_TYPE, KapuaId.class.getName()),
-                                triggerQuery.attributePredicate(TriggerAttributes.TRIGGER_PROPERTIES_VALUE, jt.getJobId().toCompactId()),
-                                triggerQuery.attributePredicate(TriggerAttributes.STARTS_ON, now, AttributePredicate.Operator.LESS_THAN),
-                                triggerQuery.orPredicate(
-                                        triggerQuery.attributePredicate(TriggerAttributes.ENDS_ON, null),
-                                        triggerQuery.attributePredicate(TriggerAttributes.ENDS_ON, now, AttributePredicate.Operator.GREATER_THAN)
-                                )
-                        )
-                );
+    /**
+     * Adds the {@link JobTarget} to the pending group of its {@link DeviceConnectJob}, scheduling the start of the group if it is new.
+     *
+     * @param deviceConnectJob The {@link DeviceConnectJob} of the {@link JobTarget}.
+     * @param jobTarget        The {@link JobTarget} to add.
+     * @return The {@link PendingStart} of the group, or {@code null} if the service has been closed and the {@link JobTarget} must be started straight away.
+     * @since 2.1.0
+     */
+    private PendingStart addPendingJobTarget(DeviceConnectJob deviceConnectJob, JobTarget jobTarget) {
+        synchronized (pendingStarts) {
+            if (closed) {
+                return null;
+            }
 
-                TriggerListResult jobTriggers = KapuaSecurityUtils.doPrivileged(() -> triggerService.query(triggerQuery));
+            PendingStart pendingStart = pendingStarts.get(deviceConnectJob);
+            if (pendingStart == null) {
+                pendingStart = new PendingStart();
+                pendingStarts.put(deviceConnectJob, pendingStart);
+                coalesceExecutor.schedule(() -> flush(deviceConnectJob), coalesceWindow, TimeUnit.MILLISECONDS);
+            }
+            pendingStart.jobTargetIds.add(jobTarget.getId());
+            return pendingStart;
+        }
+    }
 
-                for (Trigger t : jobTriggers.getItems()) {
-                    JobStartOptions jobStartOptions = jobEngineFactory.newJobStartOptions();
+    /**
+     * Starts the pending groups and stops the coalescing.
+     * <p>
+     * The {@link JobTarget}s of device connections processed afterwards are started straight away.
+     *
+     * @since 2.1.0
+     */
+    @Override
+    public void close() {
+        if (coalesceExecutor == null) {
+            return;
+        }
 
-                    jobStartOptions.addTargetIdToSublist(jt.getId());
-                    jobStartOptions.setFromStepIndex(jt.getStepIndex());
-                    jobStartOptions.setEnqueue(true);
+        List<DeviceConnectJob> deviceConnectJobs;
+        synchronized (pendingStarts) {
+            closed = true;
+            deviceConnectJobs = new ArrayList<>(pendingStarts.keySet());
+        }
 
-                    KapuaSecurityUtils.doPrivileged(() -> jobEngineService.startJob(jt.getScopeId(), jt.getJobId(), jobStartOptions));
-                }
+        coalesceExecutor.shutdown();
+        LOG.info("Starting {} pending jobs on device connect before shutdown", deviceConnectJobs.size());
+        deviceConnectJobs.forEach(this::flush);
+
+        // Wait for the start which may be in progress on the coalescing thread
+        try {
+            if (!coalesceExecutor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                LOG.warn("Timed out while waiting the start of the jobs on device connect");
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Starts the {@link DeviceConnectJob} for the {@link JobTarget}s buffered during its window.
+     *
+     * @param deviceConnectJob The {@link DeviceConnectJob} whose window has elapsed.
+     * @since 2.1.0
+     */
+    private void flush(DeviceConnectJob deviceConnectJob) {
+        PendingStart pendingStart;
+        synchronized (pendingStarts) {
+            pendingStart = pendingStarts.remove(deviceConnectJob);
+        }
+        if (pendingStart == null) {
+            // Already started on close
+            return;
+        }
 
+        try {
+            startDeviceConnectJob(deviceConnectJob, new ArrayList<>(pendingStart.jobTargetIds));
+            pendingStart.started.complete(null);
         } catch (Exception e) {
-            throw new ProcessOnConnectException(e, scopeId, deviceId);
+            LOG.error("Error while starting job {} on connect of {} targets", deviceConnectJob.jobId, pendingStart.jobTargetIds.size(), e);
+            pendingStart.started.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Starts the {@link DeviceConnectJob} for the given {@link JobTarget}s,
+     * in sublists of at most {@link JobDeviceManagementTriggerSettingKeys#ON_CONNECT_TARGET_SUBLIST_SIZE_MAX} {@link JobTarget}s.
+     *
+     * @param deviceConnectJob The {@link DeviceConnectJob} to start.
+     * @param targetIds        The {@link JobTarget#getId()}s to start.
+     * @throws Exception if starting the job fails.
+     * @since 2.1.0
+     */
+    private void startDeviceConnectJob(DeviceConnectJob deviceConnectJob, List<KapuaId> targetIds) throws Exception {
+        for (int from = 0; from < targetIds.size(); from += targetSublistSizeMax) {
+            JobStartOptions jobStartOptions = jobEngineFactory.newJobStartOptions();
+
+            targetIds.subList(from, Math.min(from + targetSublistSizeMax, targetIds.size())).forEach(jobStartOptions::addTargetIdToSublist);
+            jobStartOptions.setFromStepIndex(deviceConnectJob.stepIndex);
+            jobStartOptions.setEnqueue(true);
+
+            KapuaSecurityUtils.doPrivileged(() -> jobEngineService.startJob(deviceConnectJob.scopeId, deviceConnectJob.jobId, jobStartOptions));
+        }
+    }
+
+    /**
+     * Gets the {@link DeviceConnectJobDetails} of the job, from the cache if present.
+     *
+     * @param scopeId The scope {@link KapuaId} of the job.
+     * @param jobId   The {@link KapuaId} of the job.
+     * @return The {@link DeviceConnectJobDetails} of the job.
+     * @throws Exception if querying the {@link org.eclipse.kapua.service.job.step.JobStep}s or the {@link Trigger}s fails.
+     * @since 2.1.0
+     */
+    private DeviceConnectJobDetails getDeviceConnectJobDetails(KapuaId scopeId, KapuaId jobId) throws Exception {
+        DeviceConnectJobDetails jobDetails = jobDetailsCache.get(jobId);
+        if (jobDetails == null) {
+            jobDetails = new DeviceConnectJobDetails(countJobSteps(scopeId, jobId), findDeviceConnectTriggers(scopeId, jobId));
+            jobDetailsCache.put(jobId, jobDetails);
+        }
+        return jobDetails;
+    }
+
+    /**
+     * Counts the {@link org.eclipse.kapua.service.job.step.JobStep}s of the job.
+     *
+     * @param scopeId The scope {@link KapuaId} of the job.
+     * @param jobId   The {@link KapuaId} of the job.
+     * @return The number of {@link org.eclipse.kapua.service.job.step.JobStep}s of the job.
+     * @throws Exception if querying the {@link org.eclipse.kapua.service.job.step.JobStep}s fails.
+     * @since 2.1.0
+     */
+    private long countJobSteps(KapuaId scopeId, KapuaId jobId) throws Exception {
+        JobStepQuery jobStepQuery = jobStepFactory.newQuery(scopeId);
+
+        jobStepQuery.setPredicate(
+                jobStepQuery.attributePredicate(JobStepAttributes.JOB_ID, jobId)
+        );
+
+        return KapuaSecurityUtils.doPrivileged(() -> jobStepService.count(jobStepQuery));
+    }
+
+    /**
+     * Finds the "Device Connect" {@link Trigger}s of the job.
+     * <p>
+     * Whether they are active is checked on each device connection against {@link Trigger#getStartsOn()} and {@link Trigger#getEndsOn()}.
+     *
+     * @param scopeId The scope {@link KapuaId} of the job.
+     * @param jobId   The {@link KapuaId} of the job.
+     * @return The "Device Connect" {@link Trigger}s of the job.
+     * @throws Exception if querying the {@link Trigger}s fails.
+     * @since 2.1.0
+     */
+    private List<Trigger> findDeviceConnectTriggers(KapuaId scopeId, KapuaId jobId) throws Exception {
+        TriggerQuery triggerQuery = triggerFactory.newQuery(scopeId);
+
+        triggerQuery.setPredicate(
+                triggerQuery.andPredicate(
+                        triggerQuery.attributePredicate(TriggerAttributes.TRIGGER_DEFINITION_ID, getDeviceConnectTriggerDefinitionId()),
+                        triggerQuery.attributePredicate(TriggerAttributes.TRIGGER_PROPERTIES_TYPE, KapuaId.class.getName()),
+                        triggerQuery.attributePredicate(TriggerAttributes.TRIGGER_PROPERTIES_VALUE, jobId.toCompactId())
+                )
+        );
+
+        return KapuaSecurityUtils.doPrivileged(() -> triggerService.query(triggerQuery)).getItems();
+    }
+
+    /**
+     * Gets the {@link TriggerDefinition#getId()} of the "Device Connect" {@link TriggerDefinition}.
+     * <p>
+     * The "Device Connect" {@link TriggerDefinition} is a built-in one, so its {@link TriggerDefinition#getId()} is looked up only once and kept.
+     *
+     * @return The {@link TriggerDefinition#getId()} of the "Device Connect" {@link TriggerDefinition}.
+     * @since 2.1.0
+     */
+    private KapuaId getDeviceConnectTriggerDefinitionId() {
+        if (deviceConnectTriggerDefinitionId == null) {
+            deviceConnectTriggerDefinitionId = getTriggerDefinition().getId();
         }
+        return deviceConnectTriggerDefinitionId;
     }
 
     private TriggerDefinition getTriggerDefinition() {
@@ -169,4 +403,94 @@ public class JobDeviceManagementTriggerManagerServiceImpl implements JobDeviceMa
         }
         return deviceConnectTrigger;
     }
+
+    /**
+     * The {@link JobTarget}s of a pending group, with the completion of their start.
+     * <p>
+     * The {@link JobTarget}s are accessed only while holding the lock of {@link #pendingStarts} until the group is removed from it.
+     *
+     * @since 2.1.0
+     */
+    private static final class PendingStart {
+
+        private final Set<KapuaId> jobTargetIds = new LinkedHashSet<>();
+        private final CompletableFuture<Void> started = new CompletableFuture<>();
+    }
+
+    /**
+     * The details of a job needed to decide whether its {@link JobTarget}s are started on device connect.
+     *
+     * @since 2.1.0
+     */
+    private static final class DeviceConnectJobDetails {
+
+        private final long jobStepCount;
+        private final List<Trigger> deviceConnectTriggers;
+
+        private DeviceConnectJobDetails(long jobStepCount, List<Trigger> deviceConnectTriggers) {
+            this.jobStepCount = jobStepCount;
+            this.deviceConnectTriggers = deviceConnectTriggers;
+        }
+
+        /**
+         * Checks whether the job has a "Device Connect" {@link Trigger} which is active at the given time.
+         *
+         * @param now The time of the device connection.
+         * @return {@code true} if the job has an active "Device Connect" {@link Trigger}, {@code false} otherwise.
+         * @since 2.1.0
+         */
+        private boolean hasActiveTrigger(Date now) {
+            return deviceConnectTriggers.stream().anyMatch(trigger ->
+                    trigger.getStartsOn() != null && trigger.getStartsOn().before(now) &&
+                            (trigger.getEndsOn() == null || trigger.getEndsOn().after(now)));
+        }
+
+        /**
+         * Checks whether the {@link JobTarget} is at the end of the job step processing.
+         *
+         * @param jobTarget The {@link JobTarget} to check.
+         * @return {@code true} if the {@link JobTarget} has been processed by all the steps of the job, {@code false} otherwise.
+         * @since 2.1.0
+         */
+        private boolean isProcessed(JobTarget jobTarget) {
+            return JobTargetStatus.PROCESS_OK.equals(jobTarget.getStatus()) && jobStepCount <= jobTarget.getStepIndex() + 1;
+        }
+    }
+
+    /**
+     * A job to start on device connect: the {@link JobTarget}s of the same job and at the same step index are started together.
+     *
+     * @since 2.1.0
+     */
+    private static final class DeviceConnectJob {
+
+        private final KapuaId scopeId;
+        private final KapuaId jobId;
+        private final int stepIndex;
+
+        private DeviceConnectJob(KapuaId scopeId, KapuaId jobId, int stepIndex) {
+            this.scopeId = scopeId;
+            this.jobId = jobId;
+            this.stepIndex = stepIndex;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            DeviceConnectJob that = (DeviceConnectJob) o;
+            return stepIndex == that.stepIndex &&
+                    scopeId.equals(that.scopeId) &&
+                    jobId.equals(that.jobId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scopeId, jobId, stepIndex);
+        }
+    }
 }
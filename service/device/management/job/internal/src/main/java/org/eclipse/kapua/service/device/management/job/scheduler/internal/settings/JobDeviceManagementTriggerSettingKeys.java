@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.management.job.scheduler.internal.settings;
+
+import org.eclipse.kapua.commons.setting.SettingKey;
+import org.eclipse.kapua.job.engine.JobStartOptions;
+
+/**
+ * {@link SettingKey}s for {@link JobDeviceManagementTriggerSettings}.
+ *
+ * @since 2.1.0
+ */
+public enum JobDeviceManagementTriggerSettingKeys implements SettingKey {
+
+    /**
+     * The window, in milliseconds, for which device connections are buffered before the triggered jobs are started.
+     * <p>
+     * Device connections received within the window which trigger the same job are coalesced into a single job start,
+     * and their processing completes once the job has been started, so the window is added to the processing time of these device connections.
+     * If lower or equal to 0, jobs are started as soon as the device connection is processed.
+     *
+     * @since 2.1.0
+     */
+    ON_CONNECT_COALESCE_WINDOW("job.device.management.trigger.on.connect.coalesce.window"),
+
+    /**
+     * Max number of targets in the {@link JobStartOptions#getTargetIdSublist()} of a single job start.
+     *
+     * @since 2.1.0
+     */
+    ON_CONNECT_TARGET_SUBLIST_SIZE_MAX("job.device.management.trigger.on.connect.target.sublist.size.max"),
+
+    /**
+     * Max number of jobs whose steps and "Device Connect" triggers are kept in the local cache.
+     *
+     * @since 2.1.0
+     */
+    ON_CONNECT_JOB_CACHE_SIZE_MAX("job.device.management.trigger.on.connect.job.cache.size.max"),
+
+    /**
+     * The time, in seconds, for which the steps and "Device Connect" triggers of a job are kept in the local cache.
+     * <p>
+     * Changes to the steps or the triggers of a job are applied to the device connections after at most this time.
+     *
+     * @since 2.1.0
+     */
+    ON_CONNECT_JOB_CACHE_EXPIRE_AFTER("job.device.management.trigger.on.connect.job.cache.expire.after");
+
+    /**
+     * The key value of the {@link SettingKey}.
+     *
+     * @since 2.1.0
+     */
+    private final String key;
+
+    /**
+     * Constructor.
+     *
+     * @param key The key value of the {@link SettingKey}.
+     * @since 2.1.0
+     */
+    private JobDeviceManagementTriggerSettingKeys(String key) {
+        this.key = key;
+    }
+
+    @Override
+    public String key() {
+        return key;
+    }
+}
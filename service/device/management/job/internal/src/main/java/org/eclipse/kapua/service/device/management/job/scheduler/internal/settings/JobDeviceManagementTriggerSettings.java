@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.management.job.scheduler.internal.settings;
+
+import org.eclipse.kapua.commons.setting.AbstractKapuaSetting;
+import org.eclipse.kapua.service.device.management.job.scheduler.manager.JobDeviceManagementTriggerManagerService;
+
+/**
+ * {@link JobDeviceManagementTriggerManagerService} settings.
+ *
+ * @since 2.1.0
+ */
+public class JobDeviceManagementTriggerSettings extends AbstractKapuaSetting<JobDeviceManagementTriggerSettingKeys> {
+
+    /**
+     * Setting filename.
+     *
+     * @since 2.1.0
+     */
+    private static final String JOB_DEVICE_MANAGEMENT_TRIGGER_SETTING_RESOURCE = "job-device-management-trigger-settings.properties";
+
+    /**
+     * Constructor.
+     *
+     * @since 2.1.0
+     */
+    public JobDeviceManagementTriggerSettings() {
+        super(JOB_DEVICE_MANAGEMENT_TRIGGER_SETTING_RESOURCE);
+    }
+
+}
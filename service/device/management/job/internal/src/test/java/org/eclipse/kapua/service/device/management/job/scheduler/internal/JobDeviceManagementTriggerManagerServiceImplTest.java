@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.management.job.scheduler.internal;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.job.engine.JobEngineFactory;
+import org.eclipse.kapua.job.engine.JobEngineService;
+import org.eclipse.kapua.job.engine.JobStartOptions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.device.management.job.scheduler.manager.exception.ProcessOnConnectException;
+import org.eclipse.kapua.service.job.step.JobStepFactory;
+import org.eclipse.kapua.service.job.step.JobStepQuery;
+import org.eclipse.kapua.service.job.step.JobStepService;
+import org.eclipse.kapua.service.job.targets.JobTarget;
+import org.eclipse.kapua.service.job.targets.JobTargetFactory;
+import org.eclipse.kapua.service.job.targets.JobTargetListResult;
+import org.eclipse.kapua.service.job.targets.JobTargetQuery;
+import org.eclipse.kapua.service.job.targets.JobTargetService;
+import org.eclipse.kapua.service.job.targets.JobTargetStatus;
+import org.eclipse.kapua.service.scheduler.trigger.Trigger;
+import org.eclipse.kapua.service.scheduler.trigger.TriggerFactory;
+import org.eclipse.kapua.service.scheduler.trigger.TriggerListResult;
+import org.eclipse.kapua.service.scheduler.trigger.TriggerQuery;
+import org.eclipse.kapua.service.scheduler.trigger.TriggerService;
+import org.eclipse.kapua.service.scheduler.trigger.definition.TriggerDefinition;
+import org.eclipse.kapua.service.scheduler.trigger.definition.TriggerDefinitionService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Category(JUnitTests.class)
+public class JobDeviceManagementTriggerManagerServiceImplTest {
+
+    private static final String COALESCE_WINDOW = "job.device.management.trigger.on.connect.coalesce.window";
+    private static final String TARGET_SUBLIST_SIZE_MAX = "job.device.management.trigger.on.connect.target.sublist.size.max";
+
+    private static final KapuaId SCOPE_ID = KapuaId.ONE;
+    private static final KapuaId JOB_ID = new KapuaEid(BigInteger.valueOf(10));
+
+    private JobEngineService jobEngineService;
+    private JobStepService jobStepService;
+    private JobTargetService jobTargetService;
+    private TriggerService triggerService;
+    private Trigger trigger;
+
+    /**
+     * The {@link JobTarget}s of each device.
+     */
+    private final Map<KapuaId, List<JobTarget>> deviceJobTargets = new ConcurrentHashMap<>();
+
+    private JobDeviceManagementTriggerManagerServiceImpl jobDeviceManagementTriggerManagerService;
+
+    @Before
+    public void initialize() throws KapuaException {
+        jobEngineService = Mockito.mock(JobEngineService.class);
+        JobEngineFactory jobEngineFactory = Mockito.mock(JobEngineFactory.class);
+        Mockito.when(jobEngineFactory.newJobStartOptions()).thenAnswer(invocation -> Mockito.mock(JobStartOptions.class));
+
+        jobStepService = Mockito.mock(JobStepService.class);
+        JobStepFactory jobStepFactory = Mockito.mock(JobStepFactory.class);
+        Mockito.when(jobStepFactory.newQuery(Mockito.any(KapuaId.class))).thenReturn(Mockito.mock(JobStepQuery.class));
+        Mockito.when(jobStepService.count(Mockito.any(JobStepQuery.class))).thenReturn(2L);
+
+        jobTargetService = Mockito.mock(JobTargetService.class);
+        JobTargetFactory jobTargetFactory = Mockito.mock(JobTargetFactory.class);
+        // each device connection queries the job targets of its device
+        Map<JobTargetQuery, KapuaId> queriedDevices = new ConcurrentHashMap<>();
+        Mockito.when(jobTargetFactory.newQuery(Mockito.any(KapuaId.class))).thenAnswer(invocation -> {
+            JobTargetQuery jobTargetQuery = Mockito.mock(JobTargetQuery.class);
+            Mockito.when(jobTargetQuery.attributePredicate(Mockito.anyString(), Mockito.any(KapuaId.class))).thenAnswer(predicateInvocation -> {
+                queriedDevices.put(jobTargetQuery, (KapuaId) predicateInvocation.getArguments()[1]);
+                return null;
+            });
+            return jobTargetQuery;
+        });
+        Mockito.when(jobTargetService.query(Mockito.any(JobTargetQuery.class))).thenAnswer(invocation -> {
+            JobTargetListResult jobTargetListResult = Mockito.mock(JobTargetListResult.class);
+            Mockito.when(jobTargetListResult.getItems()).thenReturn(deviceJobTargets.getOrDefault(queriedDevices.get(invocation.getArguments()[0]), Collections.emptyList()));
+            return jobTargetListResult;
+        });
+
+        TriggerDefinitionService triggerDefinitionService = Mockito.mock(TriggerDefinitionService.class);
+        TriggerDefinition triggerDefinition = Mockito.mock(TriggerDefinition.class);
+        Mockito.when(triggerDefinition.getId()).thenReturn(new KapuaEid(BigInteger.valueOf(3)));
+        Mockito.when(triggerDefinitionService.findByName("Device Connect")).thenReturn(triggerDefinition);
+
+        triggerService = Mockito.mock(TriggerService.class);
+        TriggerFactory triggerFactory = Mockito.mock(TriggerFactory.class);
+        Mockito.when(triggerFactory.newQuery(Mockito.any(KapuaId.class))).thenReturn(Mockito.mock(TriggerQuery.class));
+        trigger = Mockito.mock(Trigger.class);
+        Mockito.when(trigger.getStartsOn()).thenReturn(new Date(System.currentTimeMillis() - 60000));
+        Mockito.when(triggerService.query(Mockito.any(TriggerQuery.class))).thenAnswer(invocation -> {
+            TriggerListResult triggerListResult = Mockito.mock(TriggerListResult.class);
+            Mockito.when(triggerListResult.getItems()).thenReturn(Collections.singletonList(trigger));
+            return triggerListResult;
+        });
+
+        System.setProperty(COALESCE_WINDOW, "200");
+        jobDeviceManagementTriggerManagerService = newService(jobEngineFactory, jobStepFactory, jobTargetFactory, triggerDefinitionService, triggerFactory);
+    }
+
+    private JobDeviceManagementTriggerManagerServiceImpl newService(JobEngineFactory jobEngineFactory, JobStepFactory jobStepFactory, JobTargetFactory jobTargetFactory,
+            TriggerDefinitionService triggerDefinitionService, TriggerFactory triggerFactory) {
+        return new JobDeviceManagementTriggerManagerServiceImpl(jobEngineService, jobEngineFactory, jobStepService, jobStepFactory, jobTargetService, jobTargetFactory,
+                triggerDefinitionService, triggerService, triggerFactory);
+    }
+
+    @After
+    public void tearDown() {
+        jobDeviceManagementTriggerManagerService.close();
+        System.clearProperty(COALESCE_WINDOW);
+        System.clearProperty(TARGET_SUBLIST_SIZE_MAX);
+    }
+
+    @Test
+    public void processOnConnectCoalescedTest() throws Exception {
+        KapuaId firstTargetId = addJobTarget(1, 0);
+        KapuaId secondTargetId = addJobTarget(2, 0);
+
+        CompletableFuture<Void> first = processOnConnectAsync(1);
+        CompletableFuture<Void> second = processOnConnectAsync(2);
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+
+        List<JobStartOptions> jobStartOptions = verifyStartJob(1);
+        Mockito.verify(jobStartOptions.get(0)).addTargetIdToSublist(firstTargetId);
+        Mockito.verify(jobStartOptions.get(0)).addTargetIdToSublist(secondTargetId);
+        Mockito.verify(jobStartOptions.get(0)).setEnqueue(true);
+        Mockito.verify(triggerService, Mockito.times(1)).query(Mockito.any(TriggerQuery.class));
+    }
+
+    @Test
+    public void processOnConnectAsyncNotWaitingTest() throws Exception {
+        addJobTarget(1, 0);
+
+        CompletableFuture<Void> started = processOnConnectAsync(1);
+
+        // the window has not elapsed yet
+        Assert.assertFalse("The job should not be started before the window elapses!", started.isDone());
+        started.get(10, TimeUnit.SECONDS);
+        verifyStartJob(1);
+    }
+
+    @Test
+    public void processOnConnectJobDetailsCachedTest() throws Exception {
+        addJobTarget(1, 0);
+        addJobTarget(2, 0);
+
+        jobDeviceManagementTriggerManagerService.processOnConnect(SCOPE_ID, deviceId(1));
+        jobDeviceManagementTriggerManagerService.processOnConnect(SCOPE_ID, deviceId(2));
+
+        // two windows, the steps and the triggers of the job are queried once
+        verifyStartJob(2);
+        Mockito.verify(jobStepService, Mockito.times(1)).count(Mockito.any(JobStepQuery.class));
+        Mockito.verify(triggerService, Mockito.times(1)).query(Mockito.any(TriggerQuery.class));
+    }
+
+    @Test
+    public void processOnConnectStartedOnReturnTest() throws Exception {
+        addJobTarget(1, 0);
+
+        jobDeviceManagementTriggerManagerService.processOnConnect(SCOPE_ID, deviceId(1));
+
+        verifyStartJob(1);
+    }
+
+    @Test
+    public void processOnConnectDifferentStepIndexTest() throws Exception {
+        addJobTarget(1, 0);
+        addJobTarget(2, 1);
+
+        CompletableFuture<Void> first = processOnConnectAsync(1);
+        CompletableFuture<Void> second = processOnConnectAsync(2);
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+
+        verifyStartJob(2);
+    }
+
+    @Test
+    public void processOnConnectSublistSplitTest() throws Exception {
+        jobDeviceManagementTriggerManagerService.close();
+        System.setProperty(TARGET_SUBLIST_SIZE_MAX, "1");
+        initialize();
+
+        addJobTarget(1, 0);
+        addJobTarget(2, 0);
+
+        CompletableFuture<Void> first = processOnConnectAsync(1);
+        CompletableFuture<Void> second = processOnConnectAsync(2);
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+
+        verifyStartJob(2);
+    }
+
+    @Test
+    public void processOnConnectNoActiveTriggerTest() throws Exception {
+        Mockito.when(trigger.getEndsOn()).thenReturn(new Date(System.currentTimeMillis() - 1000));
+        addJobTarget(1, 0);
+
+        // not buffered, so there is nothing to wait for
+        Assert.assertTrue("The processing should be completed straight away!", processOnConnectAsync(1).isDone());
+
+        Mockito.verify(jobEngineService, Mockito.never()).startJob(Mockito.any(KapuaId.class), Mockito.any(KapuaId.class), Mockito.any(JobStartOptions.class));
+    }
+
+    @Test
+    public void processOnConnectTriggerNotStartedTest() throws Exception {
+        Mockito.when(trigger.getStartsOn()).thenReturn(new Date(System.currentTimeMillis() + 60000));
+        addJobTarget(1, 0);
+
+        Assert.assertTrue("The processing should be completed straight away!", processOnConnectAsync(1).isDone());
+
+        Mockito.verify(jobEngineService, Mockito.never()).startJob(Mockito.any(KapuaId.class), Mockito.any(KapuaId.class), Mockito.any(JobStartOptions.class));
+    }
+
+    @Test
+    public void processOnConnectTargetCompletedTest() throws Exception {
+        addJobTarget(1, 1, JobTargetStatus.PROCESS_OK);
+
+        Assert.assertTrue("The processing should be completed straight away!", processOnConnectAsync(1).isDone());
+
+        Mockito.verify(jobEngineService, Mockito.never()).startJob(Mockito.any(KapuaId.class), Mockito.any(KapuaId.class), Mockito.any(JobStartOptions.class));
+    }
+
+    @Test
+    public void processOnConnectStartFailureTest() throws Exception {
+        KapuaException failure = KapuaException.internalError("start failure");
+        Mockito.doThrow(failure).when(jobEngineService).startJob(Mockito.any(KapuaId.class), Mockito.any(KapuaId.class), Mockito.any(JobStartOptions.class));
+        addJobTarget(1, 0);
+
+        try {
+            jobDeviceManagementTriggerManagerService.processOnConnect(SCOPE_ID, deviceId(1));
+            Assert.fail("ProcessOnConnectException expected");
+        } catch (ProcessOnConnectException e) {
+            Assert.assertEquals("Expected and actual values should be the same!", failure, e.getCause());
+        }
+    }
+
+    @Test
+    public void closeStartsPendingTest() throws Exception {
+        jobDeviceManagementTriggerManagerService.close();
+        System.setProperty(COALESCE_WINDOW, "3600000");
+        initialize();
+        addJobTarget(1, 0);
+
+        CompletableFuture<Void> pending = processOnConnectAsync(1);
+
+        // the window never elapses, the job is started by the close
+        Thread.sleep(100);
+        Assert.assertFalse("The job should not be started before the window elapses!", pending.isDone());
+        jobDeviceManagementTriggerManagerService.close();
+
+        pending.get(10, TimeUnit.SECONDS);
+        verifyStartJob(1);
+
+        // after the close the jobs are started straight away
+        addJobTarget(2, 0);
+        jobDeviceManagementTriggerManagerService.processOnConnect(SCOPE_ID, deviceId(2));
+        verifyStartJob(2);
+    }
+
+    @Test
+    public void processOnConnectWithoutCoalescingTest() throws Exception {
+        jobDeviceManagementTriggerManagerService.close();
+        System.setProperty(COALESCE_WINDOW, "0");
+        initialize();
+        addJobTarget(1, 0);
+        addJobTarget(2, 0);
+
+        jobDeviceManagementTriggerManagerService.processOnConnect(SCOPE_ID, deviceId(1));
+        jobDeviceManagementTriggerManagerService.processOnConnect(SCOPE_ID, deviceId(2));
+
+        verifyStartJob(2);
+    }
+
+    private CompletableFuture<Void> processOnConnectAsync(int device) throws ProcessOnConnectException {
+        return jobDeviceManagementTriggerManagerService.processOnConnectAsync(SCOPE_ID, deviceId(device));
+    }
+
+    private List<JobStartOptions> verifyStartJob(int times) throws KapuaException {
+        ArgumentCaptor<JobStartOptions> jobStartOptions = ArgumentCaptor.forClass(JobStartOptions.class);
+        Mockito.verify(jobEngineService, Mockito.times(times)).startJob(Mockito.eq(SCOPE_ID), Mockito.eq(JOB_ID), jobStartOptions.capture());
+        return jobStartOptions.getAllValues();
+    }
+
+    private KapuaId addJobTarget(int device, int stepIndex) {
+        return addJobTarget(device, stepIndex, JobTargetStatus.PROCESS_AWAITING);
+    }
+
+    private KapuaId addJobTarget(int device, int stepIndex, JobTargetStatus status) {
+        KapuaId jobTargetId = new KapuaEid(BigInteger.valueOf(100 + device));
+
+        JobTarget jobTarget = Mockito.mock(JobTarget.class);
+        Mockito.when(jobTarget.getId()).thenReturn(jobTargetId);
+        Mockito.when(jobTarget.getScopeId()).thenReturn(SCOPE_ID);
+        Mockito.when(jobTarget.getJobId()).thenReturn(JOB_ID);
+        Mockito.when(jobTarget.getStepIndex()).thenReturn(stepIndex);
+        Mockito.when(jobTarget.getStatus()).thenReturn(status);
+        deviceJobTargets.computeIfAbsent(deviceId(device), id -> new ArrayList<>()).add(jobTarget);
+        return jobTargetId;
+    }
+
+    private static KapuaId deviceId(int device) {
+        return new KapuaEid(BigInteger.valueOf(device));
+    }
+}
@@ -28,6 +28,8 @@ import org.eclipse.kapua.service.device.management.packages.model.uninstall.Devi
 import org.eclipse.kapua.service.device.management.registry.operation.DeviceManagementOperation;
 import org.eclipse.kapua.service.device.registry.Device;
 
+import java.util.concurrent.CompletionStage;
+
 /**
  * {@link DevicePackageManagementService} definition.
  * <p>
@@ -48,6 +50,22 @@ public interface DevicePackageManagementService extends DeviceManagementService
      * @since 1.0.0
      */
     DevicePackages getInstalled(KapuaId scopeId, KapuaId deviceId, Long timeout) throws KapuaException;
+
+    /**
+     * Gets the installed {@link DevicePackages}s without waiting for the {@link Device} response.
+     * <p>
+     * Arguments, permissions and {@link Device} connection are checked before returning.
+     * The returned {@link CompletionStage} completes with the same result, or the same exception, of {@link #getInstalled(KapuaId, KapuaId, Long)}.
+     *
+     * @param scopeId  The scope {@link KapuaId} of the target {@link Device}
+     * @param deviceId The {@link KapuaId} of the target {@link Device}
+     * @param timeout  The timeout in milliseconds for the request to complete
+     * @return The {@link CompletionStage} of the {@link DevicePackages}
+     * @throws KapuaException if error occurs during processing
+     * @since 2.1.0
+     */
+    CompletionStage<DevicePackages> getInstalledAsync(KapuaId scopeId, KapuaId deviceId, Long timeout) throws KapuaException;
+
     // Download
 
     /**
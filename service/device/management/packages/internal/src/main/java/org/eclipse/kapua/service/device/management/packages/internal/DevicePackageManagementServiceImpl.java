@@ -74,6 +74,8 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 /**
  * {@link DevicePackageManagementService} implementation.
@@ -127,20 +129,7 @@ public class DevicePackageManagementServiceImpl extends AbstractDeviceManagement
         // Check Access
         authorizationService.checkPermission(permissionFactory.newPermission(Domains.DEVICE_MANAGEMENT, Actions.read, scopeId));
         // Prepare the request
-        PackageRequestChannel packageRequestChannel = new PackageRequestChannel();
-        packageRequestChannel.setAppName(PackageAppProperties.APP_NAME);
-        packageRequestChannel.setVersion(PackageAppProperties.APP_VERSION);
-        packageRequestChannel.setMethod(KapuaMethod.READ);
-        packageRequestChannel.setPackageResource(null);
-
-        PackageRequestPayload packageRequestPayload = new PackageRequestPayload();
-
-        PackageRequestMessage packageRequestMessage = new PackageRequestMessage();
-        packageRequestMessage.setScopeId(scopeId);
-        packageRequestMessage.setDeviceId(deviceId);
-        packageRequestMessage.setCapturedOn(new Date());
-        packageRequestMessage.setPayload(packageRequestPayload);
-        packageRequestMessage.setChannel(packageRequestChannel);
+        PackageRequestMessage packageRequestMessage = prepareGetInstalledRequestMessage(scopeId, deviceId);
 
         // Build request
         DeviceCallBuilder<PackageRequestChannel, PackageRequestPayload, PackageRequestMessage, PackageResponseMessage> packageDeviceCallBuilder =
@@ -158,6 +147,70 @@ public class DevicePackageManagementServiceImpl extends AbstractDeviceManagement
             throw e;
         }
 
+        return processGetInstalledResponse(scopeId, deviceId, packageRequestMessage, responseMessage);
+    }
+
+    @Override
+    public CompletionStage<DevicePackages> getInstalledAsync(KapuaId scopeId, KapuaId deviceId, Long timeout) throws KapuaException {
+        // Argument Validation
+        ArgumentValidator.notNull(scopeId, SCOPE_ID);
+        ArgumentValidator.notNull(deviceId, DEVICE_ID);
+        // Check Access
+        authorizationService.checkPermission(permissionFactory.newPermission(Domains.DEVICE_MANAGEMENT, Actions.read, scopeId));
+        // Prepare the request
+        PackageRequestMessage packageRequestMessage = prepareGetInstalledRequestMessage(scopeId, deviceId);
+
+        // Build request
+        DeviceCallBuilder<PackageRequestChannel, PackageRequestPayload, PackageRequestMessage, PackageResponseMessage> packageDeviceCallBuilder =
+                DeviceCallBuilder
+                        .newBuilder()
+                        .withRequestMessage(packageRequestMessage)
+                        .withTimeoutOrDefault(timeout);
+
+        // Do get
+        CompletionStage<PackageResponseMessage> responseMessageStage;
+        try {
+            responseMessageStage = packageDeviceCallBuilder.sendAsync();
+        } catch (Exception e) {
+            LOG.error("Error while getting DevicePackages {} for Device {}. Error: {}", deviceId, e.getMessage(), e);
+            throw e;
+        }
+
+        // The stage completes on the device management executor with the KapuaSession of the caller.
+        return responseMessageStage
+                .whenComplete((responseMessage, throwable) -> {
+                    if (throwable != null) {
+                        LOG.error("Error while getting DevicePackages {} for Device {}. Error: {}", deviceId, throwable.getMessage(), throwable);
+                    }
+                })
+                .thenApply(responseMessage -> {
+                    try {
+                        return processGetInstalledResponse(scopeId, deviceId, packageRequestMessage, responseMessage);
+                    } catch (KapuaException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    private PackageRequestMessage prepareGetInstalledRequestMessage(KapuaId scopeId, KapuaId deviceId) {
+        PackageRequestChannel packageRequestChannel = new PackageRequestChannel();
+        packageRequestChannel.setAppName(PackageAppProperties.APP_NAME);
+        packageRequestChannel.setVersion(PackageAppProperties.APP_VERSION);
+        packageRequestChannel.setMethod(KapuaMethod.READ);
+        packageRequestChannel.setPackageResource(null);
+
+        PackageRequestPayload packageRequestPayload = new PackageRequestPayload();
+
+        PackageRequestMessage packageRequestMessage = new PackageRequestMessage();
+        packageRequestMessage.setScopeId(scopeId);
+        packageRequestMessage.setDeviceId(deviceId);
+        packageRequestMessage.setCapturedOn(new Date());
+        packageRequestMessage.setPayload(packageRequestPayload);
+        packageRequestMessage.setChannel(packageRequestChannel);
+        return packageRequestMessage;
+    }
+
+    private DevicePackages processGetInstalledResponse(KapuaId scopeId, KapuaId deviceId, PackageRequestMessage packageRequestMessage, PackageResponseMessage responseMessage) throws KapuaException {
         // Create event
         createDeviceEvent(scopeId, deviceId, packageRequestMessage, responseMessage);
         // Check response
@@ -17,6 +17,9 @@ import org.eclipse.kapua.model.query.KapuaQuery;
 import org.eclipse.kapua.service.KapuaEntityService;
 import org.eclipse.kapua.service.KapuaUpdatableEntityService;
 
+import java.util.function.Function;
+import java.util.stream.Stream;
+
 /**
  * {@link JobTargetService} exposes APIs to manage JobTarget objects.<br>
  * It includes APIs to create, update, find, list and delete Jobs.<br>
@@ -37,4 +40,18 @@ public interface JobTargetService extends KapuaEntityService<JobTarget, JobTarge
      */
     @Override
     JobTargetListResult query(KapuaQuery query) throws KapuaException;
+
+    /**
+     * Reads the {@link JobTarget}s matching the provided query incrementally, without loading all of them at once.
+     * <p>
+     * The {@link Stream} of {@link JobTarget}s is available only to the given function, which runs within a read-only transaction.
+     *
+     * @param query          The {@link JobTargetQuery} used to filter results.
+     * @param streamFunction The function which consumes the {@link Stream} of {@link JobTarget}s.
+     * @param <R>            The type of the value returned by the function.
+     * @return The value returned by the function.
+     * @throws KapuaException
+     * @since 2.1.0
+     */
+    <R> R stream(KapuaQuery query, Function<Stream<JobTarget>, R> streamFunction) throws KapuaException;
 }
@@ -40,6 +40,8 @@ import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * {@link JobTargetService} implementation.
@@ -134,6 +136,21 @@ public class JobTargetServiceImpl implements JobTargetService {
         return txManager.execute(tx -> jobTargetRepository.query(tx, query));
     }
 
+    @Override
+    public <R> R stream(KapuaQuery query, Function<Stream<JobTarget>, R> streamFunction) throws KapuaException {
+        // Argument Validation
+        ArgumentValidator.notNull(query, "query");
+        ArgumentValidator.notNull(streamFunction, "streamFunction");
+        // Check Access
+        authorizationService.checkPermission(permissionFactory.newPermission(Domains.JOB, Actions.read, query.getScopeId()));
+        // Do stream
+        return txManager.executeReadOnly(tx -> {
+            try (Stream<JobTarget> jobTargets = jobTargetRepository.stream(tx, query)) {
+                return streamFunction.apply(jobTargets);
+            }
+        });
+    }
+
     @Override
     public long count(KapuaQuery query) throws KapuaException {
         // Argument Validation
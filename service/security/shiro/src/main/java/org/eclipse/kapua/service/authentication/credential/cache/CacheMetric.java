@@ -13,6 +13,7 @@
 package org.eclipse.kapua.service.authentication.credential.cache;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.commons.metric.MetricsLabel;
 import org.eclipse.kapua.commons.metric.MetricsService;
@@ -29,12 +30,18 @@ public class CacheMetric {
     private static final Logger logger = LoggerFactory.getLogger(CacheMetric.class);
 
     private static final String AUTH_CACHE = "authentication_cache";
+    private static final String CREDENTIAL_CHECK = "credential_check";
 
     private Counter cacheMiss;
     private Counter cacheHit;
     private Counter cachePutError;
     private Counter passwordEncryptionError;
 
+    private Counter credentialCheckWaiting;
+    private Timer credentialCheckWaitTime;
+    private Counter credentialCheckRejected;
+    private Counter credentialCheckDeduplicated;
+
     @Inject
     public CacheMetric(MetricsService metricsService,
                        @Named("metricModuleName")
@@ -43,6 +50,11 @@ public class CacheMetric {
         cacheHit = metricsService.getCounter(metricModuleName, AUTH_CACHE, "hit");
         cachePutError = metricsService.getCounter(metricModuleName, AUTH_CACHE, "put", MetricsLabel.ERROR);
         passwordEncryptionError = metricsService.getCounter(metricModuleName, AUTH_CACHE, "encryption", MetricsLabel.ERROR);
+
+        credentialCheckWaiting = metricsService.getCounter(metricModuleName, CREDENTIAL_CHECK, "waiting");
+        credentialCheckWaitTime = metricsService.getTimer(metricModuleName, CREDENTIAL_CHECK, "wait", MetricsLabel.TIME);
+        credentialCheckRejected = metricsService.getCounter(metricModuleName, CREDENTIAL_CHECK, "rejected");
+        credentialCheckDeduplicated = metricsService.getCounter(metricModuleName, CREDENTIAL_CHECK, "deduplicated");
     }
 
     public Counter getCacheHit() {
@@ -61,4 +73,20 @@ public class CacheMetric {
         return passwordEncryptionError;
     }
 
+    public Counter getCredentialCheckWaiting() {
+        return credentialCheckWaiting;
+    }
+
+    public Timer getCredentialCheckWaitTime() {
+        return credentialCheckWaitTime;
+    }
+
+    public Counter getCredentialCheckRejected() {
+        return credentialCheckRejected;
+    }
+
+    public Counter getCredentialCheckDeduplicated() {
+        return credentialCheckDeduplicated;
+    }
+
 }
@@ -49,6 +49,7 @@ public class CachedPasswordMatcher implements PasswordMatcher {
     protected static final Logger logger = LoggerFactory.getLogger(CachedPasswordMatcher.class);
 
     private final Cache<String, CachedCredential> cachedCredentials;
+    private final CredentialCheckAdmission credentialCheckAdmission;
 
     private CacheMetric cacheMetric;
     private SecretKey secret;
@@ -63,6 +64,11 @@ public class CachedPasswordMatcher implements PasswordMatcher {
                 kapuaAuthenticationSetting.getInt(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_CACHE_SIZE, 1000),
                 kapuaAuthenticationSetting.getInt(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_CACHE_TTL, 60),
                 null);
+        int checkMaxConcurrent = kapuaAuthenticationSetting.getInt(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_CHECK_MAX_CONCURRENT, 0);
+        this.credentialCheckAdmission = new CredentialCheckAdmission(
+                cacheMetric,
+                checkMaxConcurrent > 0 ? checkMaxConcurrent : Runtime.getRuntime().availableProcessors(),
+                kapuaAuthenticationSetting.getLong(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_CHECK_MAX_WAIT, 10000L));
         SecureRandom random = SecureRandom.getInstance("SHA1PRNG");
         byte[] passwordBytes = new byte[64];
         random.nextBytes(passwordBytes);
@@ -82,17 +88,19 @@ public class CachedPasswordMatcher implements PasswordMatcher {
 
     public boolean checkPassword(String tokenUsername, String tokenPassword, Credential infoCredential) {
         CachedCredential cachedCredential = cachedCredentials.get(tokenUsername);
+        String encodedTokenPassword = null;
         try {
-            checkFromCache(cachedCredential, infoCredential, tokenPassword);
+            encodedTokenPassword = encodeText(tokenPassword.getBytes());
+            checkFromCache(cachedCredential, infoCredential, encodedTokenPassword);
             cacheMetric.getCacheHit().inc();
             return true;
         } catch (Exception e) {
-            if (BCrypt.checkpw(tokenPassword, infoCredential.getCredentialKey())) {
+            if (checkPasswordHash(tokenUsername, tokenPassword, encodedTokenPassword, infoCredential)) {
                 //should be synchronized?
                 try {
                     cachedCredentials.put(tokenUsername, new CachedCredential(
                             infoCredential.getModifiedOn(),
-                            encodeText(tokenPassword.getBytes()),
+                            encodedTokenPassword != null ? encodedTokenPassword : encodeText(tokenPassword.getBytes()),
                             infoCredential.getCredentialKey()));
                 } catch (KapuaException ke) {
                     //cannot cache password so no problem, we can return true (since password is matching) and ignore the error
@@ -106,10 +114,26 @@ public class CachedPasswordMatcher implements PasswordMatcher {
         return false;
     }
 
-    private void checkFromCache(CachedCredential cachedCredential, Credential infoCredential, String tokenPassword) throws KapuaException {
+    /**
+     * Checks the password against the hash of the {@link Credential} through the {@link CredentialCheckAdmission}.
+     * <p>
+     * Concurrent checks of the same password for the same {@link Credential} (i.e. devices reconnecting all together) share a single hash check.
+     *
+     * @param tokenUsername        The username of the token.
+     * @param tokenPassword        The password of the token.
+     * @param encodedTokenPassword The encoded password of the token, or {@code null} if it could not be encoded.
+     * @param infoCredential       The {@link Credential} to check against.
+     * @return {@code true} if the password matches, {@code false} otherwise.
+     */
+    private boolean checkPasswordHash(String tokenUsername, String tokenPassword, String encodedTokenPassword, Credential infoCredential) {
+        String checkKey = encodedTokenPassword != null ? tokenUsername + '\n' + infoCredential.getCredentialKey() + '\n' + encodedTokenPassword : null;
+        return credentialCheckAdmission.check(checkKey, () -> BCrypt.checkpw(tokenPassword, infoCredential.getCredentialKey()));
+    }
+
+    private void checkFromCache(CachedCredential cachedCredential, Credential infoCredential, String encodedTokenPassword) throws KapuaException {
         if (cachedCredential == null ||
                 !cachedCredential.isStillValid(infoCredential.getModifiedOn()) ||
-                !cachedCredential.isTokenMatches(encodeText(tokenPassword.getBytes()), infoCredential.getCredentialKey())) {
+                !cachedCredential.isTokenMatches(encodedTokenPassword, infoCredential.getCredentialKey())) {
             //not the proper exception btw
             throw new KapuaAuthenticationException(KapuaAuthenticationErrorCodes.AUTHENTICATION_ERROR);
         }
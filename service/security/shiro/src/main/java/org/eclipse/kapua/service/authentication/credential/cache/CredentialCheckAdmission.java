@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authentication.credential.cache;
+
+import com.codahale.metrics.Timer;
+import org.apache.shiro.ShiroException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Admission control of the expensive credential checks.
+ * <p>
+ * At most the configured number of checks run at the same time; other checks wait up to the maximum wait time
+ * and are then rejected with a {@link ShiroException}, which is not an {@link org.apache.shiro.authc.AuthenticationException}
+ * so it does not count as a failed login for the lockout policy.
+ * Concurrent checks with the same key are run only once, and all the callers get the same outcome, or are rejected if it is not available within the maximum wait time.
+ * <p>
+ * Checks which are cheap (i.e. served by the cache) must not go through the admission control, so that they are never queued behind the expensive ones.
+ *
+ * @since 2.1.0
+ */
+public class CredentialCheckAdmission {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CredentialCheckAdmission.class);
+
+    private final CacheMetric cacheMetric;
+    private final Semaphore permits;
+    private final long maxWait;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Boolean>> inFlightChecks = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param cacheMetric   The {@link CacheMetric}.
+     * @param maxConcurrent The maximum number of checks running at the same time.
+     * @param maxWait       The maximum time in milliseconds a check waits to be run.
+     * @since 2.1.0
+     */
+    public CredentialCheckAdmission(CacheMetric cacheMetric, int maxConcurrent, long maxWait) {
+        this.cacheMetric = cacheMetric;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Runs the check, or waits for the outcome of the check with the same key already running.
+     *
+     * @param key   The key which identifies the check, or {@code null} if the check cannot be shared.
+     *              It must identify the checked credential <b>and</b> the presented secret.
+     * @param check The check to run.
+     * @return The outcome of the check.
+     * @throws ShiroException if the check could not be run, or its outcome was not available, within the maximum wait time.
+     * @since 2.1.0
+     */
+    public boolean check(String key, BooleanSupplier check) {
+        CompletableFuture<Boolean> outcome = new CompletableFuture<>();
+        if (key != null) {
+            CompletableFuture<Boolean> inFlightOutcome = inFlightChecks.putIfAbsent(key, outcome);
+            if (inFlightOutcome != null) {
+                cacheMetric.getCredentialCheckDeduplicated().inc();
+                return await(inFlightOutcome);
+            }
+        }
+
+        try {
+            acquire();
+            try {
+                boolean matches = check.getAsBoolean();
+                outcome.complete(matches);
+                return matches;
+            } finally {
+                permits.release();
+            }
+        } catch (Throwable t) {
+            // Any failure, errors included, must reach the waiting callers
+            outcome.completeExceptionally(t);
+            throw t;
+        } finally {
+            if (key != null) {
+                inFlightChecks.remove(key, outcome);
+            }
+        }
+    }
+
+    private void acquire() {
+        cacheMetric.getCredentialCheckWaiting().inc();
+        Timer.Context waitTimeContext = cacheMetric.getCredentialCheckWaitTime().time();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ShiroException("Interrupted while waiting to check the credentials", e);
+        } finally {
+            waitTimeContext.stop();
+            cacheMetric.getCredentialCheckWaiting().dec();
+        }
+
+        if (!acquired) {
+            cacheMetric.getCredentialCheckRejected().inc();
+            LOG.warn("Too many concurrent credential checks. Rejecting check after waiting {}ms", maxWait);
+            throw new ShiroException("Too many concurrent credential checks");
+        }
+    }
+
+    private boolean await(CompletableFuture<Boolean> inFlightOutcome) {
+        try {
+            return inFlightOutcome.get(maxWait, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new ShiroException(e.getCause());
+        } catch (TimeoutException e) {
+            cacheMetric.getCredentialCheckRejected().inc();
+            LOG.warn("Too many concurrent credential checks. Rejecting check after waiting {}ms for the same check", maxWait);
+            throw new ShiroException("Too many concurrent credential checks");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ShiroException("Interrupted while waiting to check the credentials", e);
+        }
+    }
+}
@@ -35,6 +35,8 @@ public enum KapuaAuthenticationSettingKeys implements SettingKey {
     AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_ENABLE("authentication.credential.userpass.cache.enabled"), //
     AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_CACHE_TTL("authentication.credential.userpass.cache.ttl"), //
     AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_CACHE_SIZE("authentication.credential.userpass.cache.size"), //
+    AUTHENTICATION_CREDENTIAL_USERPASS_CHECK_MAX_CONCURRENT("authentication.credential.userpass.check.max_concurrent"), //
+    AUTHENTICATION_CREDENTIAL_USERPASS_CHECK_MAX_WAIT("authentication.credential.userpass.check.max_wait"), //
     AUTHENTICATION_CREDENTIAL_USERPASS_PASSWORD_MINLENGTH("authentication.credential.userpass.password.minlength"), //
 
     AUTHENTICATION_CREDENTIAL_AUDIENCE_ALLOWED("authentication.credential.jwt.audience.allowed"), //
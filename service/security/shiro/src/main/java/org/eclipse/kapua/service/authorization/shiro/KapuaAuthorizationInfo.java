@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.authz.Permission;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link AuthorizationInfo} that indexes the {@link PermissionMapperImpl.KapuaPermission}s by domain and action.
+ * <p>
+ * When checking a {@link org.eclipse.kapua.service.authorization.permission.Permission} only the {@link PermissionMapperImpl.KapuaPermission}s
+ * with the same domain and action, or with wildcard domain and action, are evaluated instead of all the {@link PermissionMapperImpl.KapuaPermission}s of the user.
+ * <p>
+ * The target scope id and the group id are not indexed, since {@link PermissionMapperImpl.KapuaPermission#implies(Permission)} promotes them while checking,
+ * and forwardable {@link PermissionMapperImpl.KapuaPermission}s match target scope ids other than their own.
+ *
+ * @since 2.1.0
+ */
+public class KapuaAuthorizationInfo implements AuthorizationInfo {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String WILDCARD = org.eclipse.kapua.service.authorization.permission.Permission.WILDCARD;
+
+    private final Set<String> roles;
+    private final Set<Permission> objectPermissions;
+    private final Map<String, Map<String, List<Permission>>> permissionIndex = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param roles             The names of the {@link org.eclipse.kapua.service.authorization.role.Role}s of the user.
+     * @param objectPermissions The {@link Permission}s of the user.
+     * @since 2.1.0
+     */
+    public KapuaAuthorizationInfo(Collection<String> roles, Collection<Permission> objectPermissions) {
+        this.roles = Collections.unmodifiableSet(new LinkedHashSet<>(roles));
+        this.objectPermissions = Collections.unmodifiableSet(new LinkedHashSet<>(objectPermissions));
+
+        for (Permission permission : this.objectPermissions) {
+            String domainKey = WILDCARD;
+            String actionKey = WILDCARD;
+            if (permission instanceof org.eclipse.kapua.service.authorization.permission.Permission) {
+                org.eclipse.kapua.service.authorization.permission.Permission kapuaPermission = (org.eclipse.kapua.service.authorization.permission.Permission) permission;
+                domainKey = domainKey(kapuaPermission);
+                actionKey = actionKey(kapuaPermission);
+            }
+
+            permissionIndex.computeIfAbsent(domainKey, k -> new HashMap<>())
+                    .computeIfAbsent(actionKey, k -> new ArrayList<>())
+                    .add(permission);
+        }
+    }
+
+    /**
+     * Checks whether the given {@link Permission} is implied by one of the {@link #getObjectPermissions()}.
+     * <p>
+     * Only the {@link Permission}s that can match the domain and the action of the given {@link Permission} are evaluated.
+     *
+     * @param permission The {@link Permission} to check.
+     * @return {@code true} if the given {@link Permission} is implied, {@code false} otherwise.
+     * @since 2.1.0
+     */
+    public boolean implies(Permission permission) {
+        if (!(permission instanceof org.eclipse.kapua.service.authorization.permission.Permission)) {
+            return objectPermissions.stream().anyMatch(p -> p.implies(permission));
+        }
+
+        org.eclipse.kapua.service.authorization.permission.Permission kapuaPermission = (org.eclipse.kapua.service.authorization.permission.Permission) permission;
+        String domainKey = domainKey(kapuaPermission);
+        String actionKey = actionKey(kapuaPermission);
+
+        return implies(permission, permissionIndex.get(domainKey), actionKey) ||
+                (!WILDCARD.equals(domainKey) && implies(permission, permissionIndex.get(WILDCARD), actionKey));
+    }
+
+    private static boolean implies(Permission permission, Map<String, List<Permission>> domainPermissions, String actionKey) {
+        if (domainPermissions == null) {
+            return false;
+        }
+
+        return implies(permission, domainPermissions.get(actionKey)) ||
+                (!WILDCARD.equals(actionKey) && implies(permission, domainPermissions.get(WILDCARD)));
+    }
+
+    private static boolean implies(Permission permission, List<Permission> candidatePermissions) {
+        if (candidatePermissions == null) {
+            return false;
+        }
+
+        for (Permission candidatePermission : candidatePermissions) {
+            if (candidatePermission.implies(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String domainKey(org.eclipse.kapua.service.authorization.permission.Permission permission) {
+        // Shiro WildcardPermission parts are case-insensitive
+        return permission.getDomain() != null ? permission.getDomain().toLowerCase(Locale.ROOT) : WILDCARD;
+    }
+
+    private static String actionKey(org.eclipse.kapua.service.authorization.permission.Permission permission) {
+        return permission.getAction() != null ? permission.getAction().name().toLowerCase(Locale.ROOT) : WILDCARD;
+    }
+
+    @Override
+    public Collection<String> getRoles() {
+        return roles;
+    }
+
+    @Override
+    public Collection<String> getStringPermissions() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Collection<Permission> getObjectPermissions() {
+        return objectPermissions;
+    }
+}
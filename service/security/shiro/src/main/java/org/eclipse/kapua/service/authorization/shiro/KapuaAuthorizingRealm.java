@@ -19,7 +19,7 @@ import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.AuthenticationToken;
 import org.apache.shiro.authc.UnknownAccountException;
 import org.apache.shiro.authz.AuthorizationInfo;
-import org.apache.shiro.authz.SimpleAuthorizationInfo;
+import org.apache.shiro.authz.Permission;
 import org.apache.shiro.realm.AuthorizingRealm;
 import org.apache.shiro.subject.PrincipalCollection;
 import org.eclipse.kapua.KapuaException;
@@ -33,22 +33,42 @@ import org.eclipse.kapua.service.authorization.access.AccessInfoFactory;
 import org.eclipse.kapua.service.authorization.access.AccessInfoQuery;
 import org.eclipse.kapua.service.authorization.access.AccessInfoService;
 import org.eclipse.kapua.service.authorization.access.AccessPermission;
+import org.eclipse.kapua.service.authorization.access.AccessPermissionAttributes;
+import org.eclipse.kapua.service.authorization.access.AccessPermissionFactory;
 import org.eclipse.kapua.service.authorization.access.AccessPermissionListResult;
+import org.eclipse.kapua.service.authorization.access.AccessPermissionQuery;
 import org.eclipse.kapua.service.authorization.access.AccessPermissionService;
 import org.eclipse.kapua.service.authorization.access.AccessRole;
+import org.eclipse.kapua.service.authorization.access.AccessRoleAttributes;
+import org.eclipse.kapua.service.authorization.access.AccessRoleFactory;
 import org.eclipse.kapua.service.authorization.access.AccessRoleListResult;
+import org.eclipse.kapua.service.authorization.access.AccessRoleQuery;
 import org.eclipse.kapua.service.authorization.access.AccessRoleService;
 import org.eclipse.kapua.service.authorization.permission.shiro.PermissionImpl;
 import org.eclipse.kapua.service.authorization.role.Role;
+import org.eclipse.kapua.service.authorization.role.RoleAttributes;
+import org.eclipse.kapua.service.authorization.role.RoleFactory;
+import org.eclipse.kapua.service.authorization.role.RoleListResult;
 import org.eclipse.kapua.service.authorization.role.RolePermission;
+import org.eclipse.kapua.service.authorization.role.RolePermissionAttributes;
+import org.eclipse.kapua.service.authorization.role.RolePermissionFactory;
 import org.eclipse.kapua.service.authorization.role.RolePermissionListResult;
+import org.eclipse.kapua.service.authorization.role.RolePermissionQuery;
 import org.eclipse.kapua.service.authorization.role.RolePermissionService;
+import org.eclipse.kapua.service.authorization.role.RoleQuery;
 import org.eclipse.kapua.service.authorization.role.RoleService;
 import org.eclipse.kapua.service.user.User;
 import org.eclipse.kapua.service.user.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
  * The JPA-based application's one and only configured Apache Shiro Realm.
  */
@@ -68,6 +88,8 @@ public class KapuaAuthorizingRealm extends AuthorizingRealm {
 
     /**
      * Authorization.
+     * <p>
+     * The permissions of the user are loaded with a fixed number of queries, regardless of the number of access infos and roles of the user.
      */
     @Override
     protected AuthorizationInfo doGetAuthorizationInfo(PrincipalCollection principals)
@@ -112,17 +134,25 @@ public class KapuaAuthorizingRealm extends AuthorizingRealm {
         if (accessInfos == null) {
             throw new UnknownAccountException();
         }
-        // Create SimpleAuthorizationInfo with principals permissions
-        SimpleAuthorizationInfo info = new SimpleAuthorizationInfo();
-
-        // Get user roles set and related permissions
-        for (AccessInfo accessInfo : accessInfos.getItems()) {
+        // Nothing else to load if the user has no access info
+        List<KapuaId> accessInfoIds = accessInfos.getItems()
+                .stream()
+                .map(AccessInfo::getId)
+                .collect(Collectors.toList());
 
-            // Access Permissions
+        Set<String> roles = new LinkedHashSet<>();
+        Set<Permission> permissions = new LinkedHashSet<>();
+        if (!accessInfoIds.isEmpty()) {
+            // Access Permissions of all the access infos
             AccessPermissionService accessPermissionService = locator.getService(AccessPermissionService.class);
-            AccessPermissionListResult accessPermissions;
+            AccessPermissionFactory accessPermissionFactory = locator.getFactory(AccessPermissionFactory.class);
+
+            AccessPermissionQuery accessPermissionQuery = accessPermissionFactory.newQuery(user.getScopeId());
+            accessPermissionQuery.setPredicate(accessPermissionQuery.attributePredicate(AccessPermissionAttributes.ACCESS_INFO_ID, accessInfoIds));
+
+            final AccessPermissionListResult accessPermissions;
             try {
-                accessPermissions = KapuaSecurityUtils.doPrivileged(() -> accessPermissionService.findByAccessInfoId(accessInfo.getScopeId(), accessInfo.getId()));
+                accessPermissions = KapuaSecurityUtils.doPrivileged(() -> accessPermissionService.query(accessPermissionQuery));
             } catch (AuthenticationException e) {
                 throw e;
             } catch (Exception e) {
@@ -132,53 +162,93 @@ public class KapuaAuthorizingRealm extends AuthorizingRealm {
             for (AccessPermission accessPermission : accessPermissions.getItems()) {
                 PermissionImpl p = accessPermission.getPermission();
                 logger.trace("User: {} has permission: {}", username, p);
-                info.addObjectPermission(permissionMapper.mapPermission(p));
+                permissions.add(permissionMapper.mapPermission(p));
             }
 
-            // Access Role Id
+            // Access Roles of all the access infos
             AccessRoleService accessRoleService = locator.getService(AccessRoleService.class);
-            AccessRoleListResult accessRoles;
+            AccessRoleFactory accessRoleFactory = locator.getFactory(AccessRoleFactory.class);
+
+            AccessRoleQuery accessRoleQuery = accessRoleFactory.newQuery(user.getScopeId());
+            accessRoleQuery.setPredicate(accessRoleQuery.attributePredicate(AccessRoleAttributes.ACCESS_INFO_ID, accessInfoIds));
+
+            final AccessRoleListResult accessRoles;
             try {
-                accessRoles = KapuaSecurityUtils.doPrivileged(() -> accessRoleService.findByAccessInfoId(accessInfo.getScopeId(), accessInfo.getId()));
+                accessRoles = KapuaSecurityUtils.doPrivileged(() -> accessRoleService.query(accessRoleQuery));
             } catch (AuthenticationException e) {
                 throw e;
             } catch (Exception e) {
                 throw new ShiroException("Error while find access role ids!", e);
             }
 
-            RoleService roleService = locator.getService(RoleService.class);
-            RolePermissionService rolePermissionService = locator.getService(RolePermissionService.class);
-            for (AccessRole accessRole : accessRoles.getItems()) {
+            List<KapuaId> roleIds = accessRoles.getItems()
+                    .stream()
+                    .map(AccessRole::getRoleId)
+                    .distinct()
+                    .collect(Collectors.toList());
+
+            if (!roleIds.isEmpty()) {
+                // Roles
+                RoleService roleService = locator.getService(RoleService.class);
+                RoleFactory roleFactory = locator.getFactory(RoleFactory.class);
 
-                KapuaId roleId = accessRole.getRoleId();
+                RoleQuery roleQuery = roleFactory.newQuery(user.getScopeId());
+                roleQuery.setPredicate(roleQuery.attributePredicate(RoleAttributes.ENTITY_ID, roleIds));
 
-                Role role;
+                final RoleListResult roleListResult;
                 try {
-                    role = KapuaSecurityUtils.doPrivileged(() -> roleService.find(accessRole.getScopeId(), roleId));
+                    roleListResult = KapuaSecurityUtils.doPrivileged(() -> roleService.query(roleQuery));
                 } catch (AuthenticationException e) {
                     throw e;
                 } catch (Exception e) {
                     throw new ShiroException("Error while find role ids!", e);
                 }
 
-                info.addRole(role.getName());
+                Map<KapuaId, Role> rolesById = new HashMap<>();
+                for (Role role : roleListResult.getItems()) {
+                    roles.add(role.getName());
+                    rolesById.put(role.getId(), role);
+                }
+
+                // Role Permissions of all the roles
+                RolePermissionService rolePermissionService = locator.getService(RolePermissionService.class);
+                RolePermissionFactory rolePermissionFactory = locator.getFactory(RolePermissionFactory.class);
+
+                RolePermissionQuery rolePermissionQuery = rolePermissionFactory.newQuery(user.getScopeId());
+                rolePermissionQuery.setPredicate(rolePermissionQuery.attributePredicate(RolePermissionAttributes.ROLE_ID, roleIds));
+
                 final RolePermissionListResult rolePermissions;
                 try {
-                    rolePermissions = KapuaSecurityUtils.doPrivileged(() -> rolePermissionService.findByRoleId(role.getScopeId(), role.getId()));
+                    rolePermissions = KapuaSecurityUtils.doPrivileged(() -> rolePermissionService.query(rolePermissionQuery));
                 } catch (Exception e) {
                     throw new ShiroException("Error while find role permission!", e);
                 }
 
                 for (RolePermission rolePermission : rolePermissions.getItems()) {
-
                     PermissionImpl p = rolePermission.getPermission();
-                    logger.trace("Role: {} has permission: {}", role, p);
-                    info.addObjectPermission(permissionMapper.mapPermission(p));
+                    logger.trace("Role: {} has permission: {}", rolesById.get(rolePermission.getRoleId()), p);
+                    permissions.add(permissionMapper.mapPermission(p));
                 }
             }
         }
-        // Return authorization info
-        return info;
+        // Return authorization info indexed by domain and action
+        return new KapuaAuthorizationInfo(roles, permissions);
+    }
+
+    /**
+     * Checks the given {@link Permission} against the {@link AuthorizationInfo}.
+     * <p>
+     * When the {@link AuthorizationInfo} is a {@link KapuaAuthorizationInfo} only the indexed {@link Permission}s
+     * that can match the domain and the action of the given {@link Permission} are evaluated.
+     *
+     * @since 2.1.0
+     */
+    @Override
+    protected boolean isPermitted(Permission permission, AuthorizationInfo info) {
+        if (info instanceof KapuaAuthorizationInfo) {
+            return ((KapuaAuthorizationInfo) info).implies(permission);
+        }
+        return super.isPermitted(permission, info);
     }
 
     /**
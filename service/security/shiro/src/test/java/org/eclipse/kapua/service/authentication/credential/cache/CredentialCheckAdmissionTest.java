@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authentication.credential.cache;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import org.apache.shiro.ShiroException;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Category(JUnitTests.class)
+public class CredentialCheckAdmissionTest {
+
+    private static final long TIMEOUT_SECS = 5;
+
+    private CacheMetric cacheMetric;
+
+    @Before
+    public void setUp() {
+        cacheMetric = Mockito.mock(CacheMetric.class);
+        Mockito.when(cacheMetric.getCredentialCheckWaiting()).thenReturn(new Counter());
+        Mockito.when(cacheMetric.getCredentialCheckWaitTime()).thenReturn(new Timer());
+        Mockito.when(cacheMetric.getCredentialCheckRejected()).thenReturn(new Counter());
+        Mockito.when(cacheMetric.getCredentialCheckDeduplicated()).thenReturn(new Counter());
+    }
+
+    /**
+     * Runs the check on another thread, blocking it until the given latch is released.
+     */
+    private CompletableFuture<Boolean> checkAsync(CredentialCheckAdmission admission, String key, CountDownLatch started, CountDownLatch release, AtomicInteger runs) {
+        return CompletableFuture.supplyAsync(() -> admission.check(key, () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            try {
+                return release.await(TIMEOUT_SECS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+    }
+
+    @Test
+    public void checkTest() {
+        CredentialCheckAdmission admission = new CredentialCheckAdmission(cacheMetric, 1, 1000);
+
+        Assert.assertTrue("True expected.", admission.check("key", () -> true));
+        Assert.assertFalse("False expected.", admission.check("key", () -> false));
+        Assert.assertFalse("False expected.", admission.check(null, () -> false));
+        Assert.assertEquals("Expected and actual values should be the same.", 0, cacheMetric.getCredentialCheckWaiting().getCount());
+    }
+
+    @Test
+    public void deduplicateTest() throws Exception {
+        CredentialCheckAdmission admission = new CredentialCheckAdmission(cacheMetric, 2, 1000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<Boolean> first = checkAsync(admission, "key", started, release, runs);
+        Assert.assertTrue("True expected.", started.await(TIMEOUT_SECS, TimeUnit.SECONDS));
+
+        // Same key while the first check is running: it waits for its outcome
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> admission.check("key", () -> {
+            runs.incrementAndGet();
+            return false;
+        }));
+        while (cacheMetric.getCredentialCheckDeduplicated().getCount() == 0) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        Assert.assertTrue("True expected.", first.get(TIMEOUT_SECS, TimeUnit.SECONDS));
+        Assert.assertTrue("True expected.", second.get(TIMEOUT_SECS, TimeUnit.SECONDS));
+        Assert.assertEquals("Expected and actual values should be the same.", 1, runs.get());
+    }
+
+    @Test
+    public void maxConcurrentTest() throws Exception {
+        CredentialCheckAdmission admission = new CredentialCheckAdmission(cacheMetric, 1, TimeUnit.SECONDS.toMillis(TIMEOUT_SECS));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<Boolean> first = checkAsync(admission, "first", started, release, runs);
+        Assert.assertTrue("True expected.", started.await(TIMEOUT_SECS, TimeUnit.SECONDS));
+
+        // Different key: it waits for the permit of the first check
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> admission.check("second", () -> {
+            runs.incrementAndGet();
+            return true;
+        }));
+        while (cacheMetric.getCredentialCheckWaiting().getCount() == 0) {
+            Thread.sleep(10);
+        }
+        Assert.assertFalse("False expected.", second.isDone());
+
+        release.countDown();
+        Assert.assertTrue("True expected.", first.get(TIMEOUT_SECS, TimeUnit.SECONDS));
+        Assert.assertTrue("True expected.", second.get(TIMEOUT_SECS, TimeUnit.SECONDS));
+        Assert.assertEquals("Expected and actual values should be the same.", 2, runs.get());
+        Assert.assertEquals("Expected and actual values should be the same.", 0, cacheMetric.getCredentialCheckWaiting().getCount());
+    }
+
+    @Test
+    public void rejectTest() throws Exception {
+        CredentialCheckAdmission admission = new CredentialCheckAdmission(cacheMetric, 1, 50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<Boolean> first = checkAsync(admission, "first", started, release, runs);
+        Assert.assertTrue("True expected.", started.await(TIMEOUT_SECS, TimeUnit.SECONDS));
+
+        try {
+            admission.check("second", () -> true);
+            Assert.fail("ShiroException expected.");
+        } catch (ShiroException e) {
+            Assert.assertEquals("Expected and actual values should be the same.", 1, cacheMetric.getCredentialCheckRejected().getCount());
+        }
+
+        release.countDown();
+        Assert.assertTrue("True expected.", first.get(TIMEOUT_SECS, TimeUnit.SECONDS));
+
+        // The permit is available again
+        Assert.assertTrue("True expected.", admission.check("second", () -> true));
+    }
+
+    @Test
+    public void checkErrorTest() {
+        CredentialCheckAdmission admission = new CredentialCheckAdmission(cacheMetric, 1, 1000);
+        IllegalArgumentException checkError = new IllegalArgumentException("Invalid hash");
+
+        try {
+            admission.check("key", () -> {
+                throw checkError;
+            });
+            Assert.fail("IllegalArgumentException expected.");
+        } catch (IllegalArgumentException e) {
+            Assert.assertSame("Expected and actual values should be the same.", checkError, e);
+        }
+
+        // Neither the permit nor the key are held by the failed check
+        Assert.assertTrue("True expected.", admission.check("key", () -> true));
+    }
+
+    @Test
+    public void checkErrorDeduplicatedTest() throws Exception {
+        CredentialCheckAdmission admission = new CredentialCheckAdmission(cacheMetric, 2, TimeUnit.SECONDS.toMillis(TIMEOUT_SECS));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AssertionError checkError = new AssertionError("Check error");
+
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> admission.check("key", () -> {
+            started.countDown();
+            try {
+                release.await(TIMEOUT_SECS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            throw checkError;
+        }));
+        Assert.assertTrue("True expected.", started.await(TIMEOUT_SECS, TimeUnit.SECONDS));
+
+        // The error of the check, which is not a RuntimeException, reaches the caller waiting for its outcome
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> admission.check("key", () -> true));
+        while (cacheMetric.getCredentialCheckDeduplicated().getCount() == 0) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        for (CompletableFuture<Boolean> outcome : Arrays.asList(first, second)) {
+            try {
+                outcome.get(TIMEOUT_SECS, TimeUnit.SECONDS);
+                Assert.fail("ExecutionException expected.");
+            } catch (ExecutionException e) {
+                Assert.assertSame("Expected and actual values should be the same.", checkError, e.getCause());
+            }
+        }
+    }
+
+    @Test
+    public void deduplicateRejectTest() throws Exception {
+        CredentialCheckAdmission admission = new CredentialCheckAdmission(cacheMetric, 2, 50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<Boolean> first = checkAsync(admission, "key", started, release, runs);
+        Assert.assertTrue("True expected.", started.await(TIMEOUT_SECS, TimeUnit.SECONDS));
+
+        // The running check takes longer than the maximum wait time
+        try {
+            admission.check("key", () -> true);
+            Assert.fail("ShiroException expected.");
+        } catch (ShiroException e) {
+            Assert.assertEquals("Expected and actual values should be the same.", 1, cacheMetric.getCredentialCheckRejected().getCount());
+        }
+
+        release.countDown();
+        Assert.assertTrue("True expected.", first.get(TIMEOUT_SECS, TimeUnit.SECONDS));
+        Assert.assertEquals("Expected and actual values should be the same.", 1, runs.get());
+    }
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.apache.shiro.authz.Permission;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.account.AccountService;
+import org.eclipse.kapua.service.authorization.domain.DomainRegistryService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+
+@Category(JUnitTests.class)
+public class KapuaAuthorizationInfoTest {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.TEN);
+    private static final KapuaId OTHER_SCOPE_ID = new KapuaEid(BigInteger.valueOf(20));
+
+    private PermissionMapperImpl permissionMapper;
+
+    @Before
+    public void initialize() {
+        permissionMapper = new PermissionMapperImpl(Mockito.mock(DomainRegistryService.class), Mockito.mock(AccountService.class));
+    }
+
+    private Permission permission(String domain, Actions action, KapuaId targetScopeId) {
+        return permissionMapper.new KapuaPermission(domain, action, targetScopeId, null, false);
+    }
+
+    @Test
+    public void impliesSameDomainAndActionTest() {
+        KapuaAuthorizationInfo authorizationInfo = new KapuaAuthorizationInfo(
+                Collections.singleton("role"),
+                Arrays.asList(permission("device", Actions.read, SCOPE_ID), permission("user", Actions.write, SCOPE_ID)));
+
+        Assert.assertTrue("True expected.", authorizationInfo.implies(permission("device", Actions.read, SCOPE_ID)));
+        Assert.assertTrue("True expected.", authorizationInfo.implies(permission("user", Actions.write, SCOPE_ID)));
+        Assert.assertFalse("False expected.", authorizationInfo.implies(permission("device", Actions.write, SCOPE_ID)));
+        Assert.assertFalse("False expected.", authorizationInfo.implies(permission("device", Actions.read, OTHER_SCOPE_ID)));
+        Assert.assertFalse("False expected.", authorizationInfo.implies(permission("job", Actions.read, SCOPE_ID)));
+    }
+
+    @Test
+    public void impliesWildcardDomainTest() {
+        KapuaAuthorizationInfo authorizationInfo = new KapuaAuthorizationInfo(
+                Collections.emptySet(),
+                Collections.singletonList(permission(null, Actions.read, SCOPE_ID)));
+
+        Assert.assertTrue("True expected.", authorizationInfo.implies(permission("device", Actions.read, SCOPE_ID)));
+        Assert.assertTrue("True expected.", authorizationInfo.implies(permission("user", Actions.read, SCOPE_ID)));
+        Assert.assertFalse("False expected.", authorizationInfo.implies(permission("device", Actions.delete, SCOPE_ID)));
+    }
+
+    @Test
+    public void impliesWildcardActionTest() {
+        KapuaAuthorizationInfo authorizationInfo = new KapuaAuthorizationInfo(
+                Collections.emptySet(),
+                Collections.singletonList(permission("device", null, SCOPE_ID)));
+
+        Assert.assertTrue("True expected.", authorizationInfo.implies(permission("device", Actions.read, SCOPE_ID)));
+        Assert.assertTrue("True expected.", authorizationInfo.implies(permission("device", Actions.delete, SCOPE_ID)));
+        Assert.assertFalse("False expected.", authorizationInfo.implies(permission("user", Actions.read, SCOPE_ID)));
+    }
+
+    @Test
+    public void impliesAllTest() {
+        KapuaAuthorizationInfo authorizationInfo = new KapuaAuthorizationInfo(
+                Collections.emptySet(),
+                Collections.singletonList(permission(null, null, null)));
+
+        Assert.assertTrue("True expected.", authorizationInfo.implies(permission("device", Actions.read, SCOPE_ID)));
+        Assert.assertTrue("True expected.", authorizationInfo.implies(permission(null, null, OTHER_SCOPE_ID)));
+    }
+
+    @Test
+    public void impliesDomainCaseInsensitiveTest() {
+        KapuaAuthorizationInfo authorizationInfo = new KapuaAuthorizationInfo(
+                Collections.emptySet(),
+                Collections.singletonList(permission("Device", Actions.read, SCOPE_ID)));
+
+        Assert.assertTrue("True expected.", authorizationInfo.implies(permission("device", Actions.read, SCOPE_ID)));
+    }
+
+    @Test
+    public void getRolesAndPermissionsTest() {
+        KapuaAuthorizationInfo authorizationInfo = new KapuaAuthorizationInfo(
+                Arrays.asList("role", "role"),
+                Arrays.asList(permission("device", Actions.read, SCOPE_ID), permission("device", Actions.read, SCOPE_ID)));
+
+        Assert.assertEquals("Expected and actual values should be the same.", Collections.singleton("role"), authorizationInfo.getRoles());
+        Assert.assertEquals("Expected and actual values should be the same.", 1, authorizationInfo.getObjectPermissions().size());
+        Assert.assertTrue("True expected.", authorizationInfo.getStringPermissions().isEmpty());
+    }
+}
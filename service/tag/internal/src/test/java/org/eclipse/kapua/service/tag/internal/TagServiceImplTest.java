@@ -67,6 +67,11 @@ public class TagServiceImplTest {
                 return null;
             }
 
+            @Override
+            public <R> R executeReadOnly(TxConsumer<R> transactionConsumer) throws KapuaException {
+                return null;
+            }
+
             @Override
             public TxContext getTxContext() {
                 return null;
@@ -0,0 +1,573 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.kura.simulator;
+
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import javax.net.ssl.SSLException;
+
+import org.apache.http.client.utils.URIBuilder;
+import org.eclipse.kapua.kura.simulator.payload.Message;
+import org.eclipse.kapua.kura.simulator.topic.Topic;
+import org.eclipse.kapua.kura.simulator.util.Hex;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoop;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.mqtt.MqttConnAckMessage;
+import io.netty.handler.codec.mqtt.MqttConnectReturnCode;
+import io.netty.handler.codec.mqtt.MqttDecoder;
+import io.netty.handler.codec.mqtt.MqttEncoder;
+import io.netty.handler.codec.mqtt.MqttFixedHeader;
+import io.netty.handler.codec.mqtt.MqttMessage;
+import io.netty.handler.codec.mqtt.MqttMessageBuilders;
+import io.netty.handler.codec.mqtt.MqttMessageIdVariableHeader;
+import io.netty.handler.codec.mqtt.MqttMessageType;
+import io.netty.handler.codec.mqtt.MqttPublishMessage;
+import io.netty.handler.codec.mqtt.MqttQoS;
+import io.netty.handler.codec.mqtt.MqttVersion;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+
+/**
+ * A transport implementation based on MQTT, running on a shared Netty event loop group
+ * <p>
+ * Other than the {@link MqttAsyncTransport}, which starts the threads of its own Paho client, any number of
+ * instances of this transport share the threads of one {@link NioEventLoopGroup}. This allows to simulate
+ * a large number of gateways from a single process.
+ * </p>
+ * <p>
+ * Each instance is bound to one event loop of the group, all the state of the connection is only accessed from there.
+ * A connection which is lost, or could not be established, is re-established after the reconnect delay, until
+ * {@link #disconnect()} or {@link #close()} is called.
+ * </p>
+ */
+public class NettyMqttTransport extends AbstractMqttTransport implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(NettyMqttTransport.class);
+
+    /**
+     * The keep alive interval, the same as the Paho default
+     */
+    private static final int KEEP_ALIVE_SECONDS = 60;
+
+    private static final int MAX_MESSAGE_SIZE = 10 * 1024 * 1024;
+
+    private static final int MAX_MESSAGE_ID = 65_535;
+
+    private final EventLoop eventLoop;
+
+    private final Bootstrap bootstrap;
+
+    private final String clientId;
+
+    private final String userName;
+
+    private final byte[] password;
+
+    private final LongSupplier reconnectDelay;
+
+    private final Map<String, Consumer<Message>> subscriptions = new LinkedHashMap<>();
+
+    private final Map<Integer, CompletableFuture<Void>> inFlight = new HashMap<>();
+
+    private volatile Runnable onConnected;
+
+    private volatile Runnable onDisconnected;
+
+    private volatile Consumer<Throwable> onConnectFailed;
+
+    private Channel channel;
+
+    private boolean connected;
+
+    private boolean enabled;
+
+    private boolean closed;
+
+    private int lastMessageId;
+
+    /**
+     * Create a new transport
+     *
+     * @param configuration
+     *            the configuration of the gateway
+     * @param eventLoopGroup
+     *            the event loop group shared with other instances
+     * @param reconnectDelay
+     *            the supplier of the delay, in milliseconds, before a lost connection is re-established
+     */
+    public NettyMqttTransport(final GatewayConfiguration configuration, final NioEventLoopGroup eventLoopGroup,
+            final LongSupplier reconnectDelay) {
+        super(configuration);
+
+        Objects.requireNonNull(eventLoopGroup);
+        Objects.requireNonNull(reconnectDelay);
+
+        final MqttConnectOptions connectOptions = createConnectOptions(configuration.getBrokerUrl());
+
+        this.eventLoop = eventLoopGroup.next();
+        this.clientId = configuration.getClientId();
+        this.userName = connectOptions.getUserName();
+        this.password = connectOptions.getPassword() != null ? new String(connectOptions.getPassword()).getBytes(StandardCharsets.UTF_8) : null;
+        this.reconnectDelay = reconnectDelay;
+        this.bootstrap = createBootstrap(configuration.getBrokerUrl());
+    }
+
+    private Bootstrap createBootstrap(final String brokerUrl) {
+        final URIBuilder u;
+        try {
+            u = new URIBuilder(brokerUrl);
+        } catch (final URISyntaxException e) {
+            throw new RuntimeException("Failed to parse broker URL", e);
+        }
+
+        final boolean secure = "ssl".equals(u.getScheme()) || "mqtts".equals(u.getScheme());
+        final String host = u.getHost();
+        final int port = u.getPort() > 0 ? u.getPort() : secure ? 8883 : 1883;
+
+        final SslContext sslContext;
+        try {
+            sslContext = secure ? SslContextBuilder.forClient().build() : null;
+        } catch (final SSLException e) {
+            throw new RuntimeException("Failed to create SSL context", e);
+        }
+
+        return new Bootstrap()
+                .group(this.eventLoop)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .remoteAddress(host, port)
+                .handler(new ChannelInitializer<SocketChannel>() {
+
+                    @Override
+                    protected void initChannel(final SocketChannel ch) {
+                        final ChannelPipeline pipeline = ch.pipeline();
+                        if (sslContext != null) {
+                            pipeline.addLast(sslContext.newHandler(ch.alloc(), host, port));
+                        }
+                        pipeline.addLast(new IdleStateHandler(0, KEEP_ALIVE_SECONDS, 0));
+                        pipeline.addLast(new MqttDecoder(MAX_MESSAGE_SIZE));
+                        pipeline.addLast(MqttEncoder.INSTANCE);
+                        pipeline.addLast(new Handler());
+                    }
+                });
+    }
+
+    /**
+     * Get the event loop this transport is bound to
+     * <p>
+     * Tasks scheduled on this event loop don't race with the callbacks of this transport.
+     * </p>
+     *
+     * @return the event loop, never returns {@code null}
+     */
+    public EventLoop getEventLoop() {
+        return this.eventLoop;
+    }
+
+    @Override
+    public void connect() {
+        execute(() -> {
+            this.enabled = true;
+            doConnect();
+        });
+    }
+
+    @Override
+    public void disconnect() {
+        execute(() -> {
+            this.enabled = false;
+            doDisconnect();
+        });
+    }
+
+    /**
+     * Drop the connection without disconnecting gracefully
+     * <p>
+     * This behaves like a lost network connection, the broker only notices when the socket is closed and the
+     * connection is re-established after the reconnect delay.
+     * </p>
+     */
+    public void drop() {
+        execute(() -> {
+            if (this.channel != null) {
+                this.channel.close();
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        execute(() -> {
+            this.closed = true;
+            this.enabled = false;
+            doDisconnect();
+        });
+    }
+
+    @Override
+    public void subscribe(final Topic topic, final Consumer<Message> consumer) {
+        Objects.requireNonNull(consumer);
+
+        final String topicFilter = topic.render(this.topicContext);
+        execute(() -> {
+            this.subscriptions.put(topicFilter, consumer);
+            if (this.connected) {
+                this.channel.writeAndFlush(MqttMessageBuilders.subscribe()
+                        .messageId(nextMessageId())
+                        .addSubscription(MqttQoS.AT_MOST_ONCE, topicFilter)
+                        .build());
+            }
+        });
+    }
+
+    @Override
+    public void unsubscribe(final Topic topic) {
+        final String topicFilter = topic.render(this.topicContext);
+        execute(() -> {
+            this.subscriptions.remove(topicFilter);
+            if (this.connected) {
+                this.channel.writeAndFlush(MqttMessageBuilders.unsubscribe()
+                        .messageId(nextMessageId())
+                        .addTopicFilter(topicFilter)
+                        .build());
+            }
+        });
+    }
+
+    @Override
+    public void whenConnected(final Runnable runnable) {
+        this.onConnected = runnable;
+    }
+
+    @Override
+    public void whenDisconnected(final Runnable runnable) {
+        this.onDisconnected = runnable;
+    }
+
+    /**
+     * Set the consumer which will be called when a connection attempt failed
+     */
+    public void whenConnectFailed(final Consumer<Throwable> consumer) {
+        this.onConnectFailed = consumer;
+    }
+
+    @Override
+    public void sendMessage(final Topic topic, final byte[] payload) {
+        publish(topic, payload, MqttQoS.AT_MOST_ONCE);
+    }
+
+    /**
+     * Publish a message to a topic
+     *
+     * @param topic
+     *            the topic to send the message to
+     * @param payload
+     *            the payload to send
+     * @param qos
+     *            the quality of service, only {@link MqttQoS#AT_MOST_ONCE} and {@link MqttQoS#AT_LEAST_ONCE} are
+     *            supported
+     * @return a future which completes when the broker acknowledged the message, or when the message was written
+     *         for {@link MqttQoS#AT_MOST_ONCE}
+     */
+    public CompletableFuture<Void> publish(final Topic topic, final byte[] payload, final MqttQoS qos) {
+        if (qos == MqttQoS.EXACTLY_ONCE) {
+            throw new IllegalArgumentException("QoS 2 is not supported");
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Sending message - topic: {}, payload: {}", topic, Hex.toHex(payload, 256));
+        }
+
+        final String fullTopic = topic.render(this.topicContext);
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        execute(() -> doPublish(fullTopic, payload, qos, result));
+        return result;
+    }
+
+    private void doPublish(final String fullTopic, final byte[] payload, final MqttQoS qos, final CompletableFuture<Void> result) {
+        if (!this.connected) {
+            result.completeExceptionally(new IllegalStateException("Client is not connected"));
+            return;
+        }
+
+        final int messageId;
+        if (qos == MqttQoS.AT_LEAST_ONCE) {
+            messageId = nextMessageId();
+            this.inFlight.put(messageId, result);
+        } else {
+            messageId = 0;
+        }
+
+        final MqttPublishMessage message = MqttMessageBuilders.publish()
+                .topicName(fullTopic)
+                .qos(qos)
+                .retained(false)
+                .messageId(messageId)
+                .payload(payload != null ? Unpooled.wrappedBuffer(payload) : Unpooled.EMPTY_BUFFER)
+                .build();
+
+        this.channel.writeAndFlush(message).addListener(future -> {
+            if (!future.isSuccess()) {
+                this.inFlight.remove(messageId);
+                result.completeExceptionally(future.cause());
+            } else if (qos == MqttQoS.AT_MOST_ONCE) {
+                result.complete(null);
+            }
+        });
+    }
+
+    private void doConnect() {
+        if (!this.enabled || this.closed || this.channel != null) {
+            return;
+        }
+
+        final ChannelFuture future = this.bootstrap.connect();
+        final Channel newChannel = future.channel();
+        this.channel = newChannel;
+
+        newChannel.closeFuture().addListener(f -> handleClosed(newChannel));
+        future.addListener(f -> {
+            if (!f.isSuccess()) {
+                handleConnectFailed(f.cause());
+            }
+        });
+    }
+
+    private void doDisconnect() {
+        if (this.channel == null) {
+            return;
+        }
+
+        if (this.connected) {
+            final Channel current = this.channel;
+            current.writeAndFlush(new MqttMessage(new MqttFixedHeader(MqttMessageType.DISCONNECT, false, MqttQoS.AT_MOST_ONCE, false, 0)))
+                    .addListener(f -> current.close());
+        } else {
+            this.channel.close();
+        }
+    }
+
+    private void handleConnAck(final MqttConnAckMessage message) {
+        final MqttConnectReturnCode returnCode = message.variableHeader().connectReturnCode();
+        if (returnCode != MqttConnectReturnCode.CONNECTION_ACCEPTED) {
+            handleConnectFailed(new IllegalStateException("Connection refused: " + returnCode));
+            this.channel.close();
+            return;
+        }
+
+        this.connected = true;
+
+        final Runnable runnable = this.onConnected;
+        if (runnable != null) {
+            runnable.run();
+        }
+    }
+
+    private void handleConnectFailed(final Throwable cause) {
+        logger.debug("Failed to connect", cause);
+
+        final Consumer<Throwable> consumer = this.onConnectFailed;
+        if (consumer != null) {
+            consumer.accept(cause);
+        }
+    }
+
+    private void handleClosed(final Channel closedChannel) {
+        if (this.channel != closedChannel) {
+            return;
+        }
+
+        this.channel = null;
+
+        if (!this.inFlight.isEmpty()) {
+            final IllegalStateException cause = new IllegalStateException("Connection lost");
+            final List<CompletableFuture<Void>> failed = new ArrayList<>(this.inFlight.values());
+            this.inFlight.clear();
+            failed.forEach(future -> future.completeExceptionally(cause));
+        }
+
+        if (this.connected) {
+            this.connected = false;
+
+            final Runnable runnable = this.onDisconnected;
+            if (runnable != null) {
+                runnable.run();
+            }
+        }
+
+        if (this.enabled && !this.closed) {
+            this.eventLoop.schedule(this::doConnect, this.reconnectDelay.getAsLong(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void handlePublish(final ChannelHandlerContext ctx, final MqttPublishMessage message) {
+        final String topicName = message.variableHeader().topicName();
+        logger.debug("Received MQTT message from {}", topicName);
+
+        if (message.fixedHeader().qosLevel() == MqttQoS.AT_LEAST_ONCE) {
+            ctx.writeAndFlush(MqttMessageBuilders.pubAck().packetId(message.variableHeader().packetId()).build());
+        }
+
+        final byte[] payload = ByteBufUtil.getBytes(message.payload());
+
+        for (final Map.Entry<String, Consumer<Message>> subscription : new ArrayList<>(this.subscriptions.entrySet())) {
+            if (matches(subscription.getKey(), topicName)) {
+                try {
+                    subscription.getValue().accept(new Message(Topic.fromString(topicName), payload, this.topicContext));
+                } catch (final Exception e) {
+                    logger.warn("Failed to process message from: {}", topicName, e);
+                }
+            }
+        }
+    }
+
+    private void handlePubAck(final MqttMessageIdVariableHeader variableHeader) {
+        final CompletableFuture<Void> future = this.inFlight.remove(variableHeader.messageId());
+        if (future != null) {
+            future.complete(null);
+        }
+    }
+
+    private int nextMessageId() {
+        do {
+            this.lastMessageId = this.lastMessageId % MAX_MESSAGE_ID + 1;
+        } while (this.inFlight.containsKey(this.lastMessageId));
+
+        return this.lastMessageId;
+    }
+
+    private void execute(final Runnable task) {
+        if (this.eventLoop.inEventLoop()) {
+            task.run();
+        } else {
+            this.eventLoop.execute(task);
+        }
+    }
+
+    /**
+     * Test if a topic matches an MQTT topic filter
+     *
+     * @param topicFilter
+     *            the topic filter, which may contain the {@code +} and {@code #} wildcards
+     * @param topicName
+     *            the topic to test
+     * @return {@code true} if the topic matches the filter, {@code false} otherwise
+     */
+    static boolean matches(final String topicFilter, final String topicName) {
+        final String[] filterLevels = topicFilter.split("/", -1);
+        final String[] topicLevels = topicName.split("/", -1);
+
+        for (int i = 0; i < filterLevels.length; i++) {
+            if (filterLevels[i].equals("#")) {
+                return true;
+            }
+            if (i >= topicLevels.length) {
+                return false;
+            }
+            if (!filterLevels[i].equals("+") && !filterLevels[i].equals(topicLevels[i])) {
+                return false;
+            }
+        }
+
+        return filterLevels.length == topicLevels.length;
+    }
+
+    private class Handler extends SimpleChannelInboundHandler<MqttMessage> {
+
+        @Override
+        public void channelActive(final ChannelHandlerContext ctx) {
+            final MqttMessageBuilders.ConnectBuilder connect = MqttMessageBuilders.connect()
+                    .protocolVersion(MqttVersion.MQTT_3_1_1)
+                    .clientId(NettyMqttTransport.this.clientId)
+                    .cleanSession(true)
+                    .keepAlive(KEEP_ALIVE_SECONDS);
+
+            if (NettyMqttTransport.this.userName != null) {
+                connect.hasUser(true).username(NettyMqttTransport.this.userName);
+            }
+            if (NettyMqttTransport.this.password != null) {
+                connect.hasPassword(true).password(NettyMqttTransport.this.password);
+            }
+
+            ctx.writeAndFlush(connect.build());
+        }
+
+        @Override
+        protected void channelRead0(final ChannelHandlerContext ctx, final MqttMessage message) {
+            if (message.decoderResult().isFailure()) {
+                logger.warn("Failed to decode MQTT message", message.decoderResult().cause());
+                ctx.close();
+                return;
+            }
+
+            switch (message.fixedHeader().messageType()) {
+            case CONNACK:
+                handleConnAck((MqttConnAckMessage) message);
+                break;
+            case PUBLISH:
+                handlePublish(ctx, (MqttPublishMessage) message);
+                break;
+            case PUBACK:
+                handlePubAck((MqttMessageIdVariableHeader) message.variableHeader());
+                break;
+            default:
+                // SUBACK, UNSUBACK and PINGRESP need no handling
+                break;
+            }
+        }
+
+        @Override
+        public void userEventTriggered(final ChannelHandlerContext ctx, final Object event) throws Exception {
+            if (event instanceof IdleStateEvent) {
+                ctx.writeAndFlush(new MqttMessage(new MqttFixedHeader(MqttMessageType.PINGREQ, false, MqttQoS.AT_MOST_ONCE, false, 0)));
+            } else {
+                super.userEventTriggered(ctx, event);
+            }
+        }
+
+        @Override
+        public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) {
+            logger.debug("Connection failed", cause);
+            ctx.close();
+        }
+    }
+}
@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.eclipse.kapua.kura.simulator;
 
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -35,6 +36,18 @@ public class Simulator implements AutoCloseable {
 
     public Simulator(final GatewayConfiguration configuration, final Transport transport,
             final Set<Application> applications) {
+        this(configuration, transport, applications, Collections.emptyList());
+    }
+
+    /**
+     * Create a new simulator with additional modules
+     * <p>
+     * The additional modules are called after the default modules, which
+     * send the birth certificate and dispatch requests to the applications.
+     * </p>
+     */
+    public Simulator(final GatewayConfiguration configuration, final Transport transport,
+            final Set<Application> applications, final List<Module> additionalModules) {
 
         this.transport = transport;
 
@@ -52,6 +65,8 @@ public class Simulator implements AutoCloseable {
 
         modules.add(new BirthCertificateModule(configuration, applicationController::getApplicationIds));
 
+        modules.addAll(additionalModules);
+
         // finally connect
 
         this.transport.connect();
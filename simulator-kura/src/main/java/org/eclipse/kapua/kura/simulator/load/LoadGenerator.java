@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.kura.simulator.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.eclipse.kapua.kura.simulator.GatewayConfiguration;
+import org.eclipse.kapua.kura.simulator.NettyMqttTransport;
+import org.eclipse.kapua.kura.simulator.Simulator;
+import org.eclipse.kapua.kura.simulator.app.Application;
+import org.eclipse.kapua.kura.simulator.app.annotated.AnnotatedApplication;
+import org.eclipse.kapua.kura.simulator.app.command.SimpleCommandApplication;
+import org.eclipse.kapua.kura.simulator.app.deploy.SimpleDeployApplication;
+import org.eclipse.scada.utils.concurrent.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.nio.NioEventLoopGroup;
+
+/**
+ * A load generator simulating a large fleet of gateways from a single process
+ * <p>
+ * All gateways share the threads of one event loop group, each gateway runs a default {@link Simulator} on top of a
+ * {@link NettyMqttTransport}: it sends its birth certificate on connect, answers the command and deploy management
+ * requests and publishes telemetry of the configured shape.
+ * </p>
+ * <p>
+ * The gateways are started at the configured connect rate, which simulates a birth storm when unthrottled. Reconnect
+ * storms are simulated by dropping the connections of a fraction of the fleet at once, which then reconnect after the
+ * reconnect delay plus a random jitter.
+ * </p>
+ */
+public class LoadGenerator implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final long RAMP_UP_PERIOD_MILLIS = 100;
+
+    private final LoadConfiguration configuration;
+    private final IntFunction<String> nameFactory;
+
+    private final LoadStatistics statistics = new LoadStatistics();
+    private final TelemetryPayloadFactory payloadFactory;
+
+    private final NioEventLoopGroup eventLoopGroup;
+    private final ScheduledExecutorService executor;
+    private final ScheduledExecutorService downloadExecutor;
+
+    private final List<NettyMqttTransport> transports = new ArrayList<>();
+
+    private ScheduledFuture<?> rampUp;
+    private long rampUpStarted;
+
+    /**
+     * Create a new load generator
+     *
+     * @param configuration
+     *            the configuration
+     * @param nameFactory
+     *            the factory of the client IDs, called with the instance number starting at {@code 1}
+     */
+    public LoadGenerator(final LoadConfiguration configuration, final IntFunction<String> nameFactory) {
+        this.configuration = configuration;
+        this.nameFactory = nameFactory;
+        this.payloadFactory = new TelemetryPayloadFactory(configuration.getMetricCount(), configuration.getMetricTypes(), configuration.isGzip());
+
+        this.eventLoopGroup = new NioEventLoopGroup(configuration.getIoThreads(), new NamedThreadFactory("LoadGeneratorIO"));
+        this.executor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("LoadGenerator"));
+        this.downloadExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("DownloadSimulator"));
+    }
+
+    /**
+     * Start the gateways, the reconnect storms and the reports
+     */
+    public void start() {
+        this.executor.execute(() -> {
+            this.rampUpStarted = System.nanoTime();
+            this.rampUp = this.executor.scheduleAtFixedRate(this::rampUp, 0, RAMP_UP_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+        });
+
+        final long stormIntervalMillis = this.configuration.getStormInterval().toMillis();
+        if (stormIntervalMillis > 0) {
+            this.executor.scheduleAtFixedRate(this::storm, stormIntervalMillis, stormIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        final long reportIntervalMillis = this.configuration.getReportInterval().toMillis();
+        if (reportIntervalMillis > 0) {
+            this.executor.scheduleAtFixedRate(this.statistics::report, reportIntervalMillis, reportIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        this.executor.shutdownNow();
+        this.executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        this.transports.forEach(NettyMqttTransport::close);
+        this.eventLoopGroup.shutdownGracefully().await(1, TimeUnit.MINUTES);
+        this.downloadExecutor.shutdown();
+
+        this.statistics.reportTotal();
+    }
+
+    public LoadStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    private void rampUp() {
+        final int count = this.configuration.getCount();
+        final int connectRate = this.configuration.getConnectRate();
+
+        final long due;
+        if (connectRate > 0) {
+            final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.rampUpStarted);
+            due = Math.min(count, elapsedMillis * connectRate / 1_000L + 1);
+        } else {
+            due = count;
+        }
+
+        try {
+            while (this.transports.size() < due) {
+                startGateway(this.transports.size() + 1);
+            }
+        } catch (final Exception e) {
+            logger.warn("Failed to start gateway #{}, no more gateways are started", this.transports.size() + 1, e);
+            this.rampUp.cancel(false);
+            return;
+        }
+
+        if (this.transports.size() >= count) {
+            logger.info("Started {} gateways", count);
+            this.rampUp.cancel(false);
+        }
+    }
+
+    private void startGateway(final int instanceNumber) throws Exception {
+        final GatewayConfiguration gatewayConfiguration = new GatewayConfiguration(this.configuration.getBrokerUrl(),
+                this.configuration.getAccountName(), this.nameFactory.apply(instanceNumber));
+
+        final NettyMqttTransport transport = new NettyMqttTransport(gatewayConfiguration, this.eventLoopGroup, this::nextReconnectDelay);
+        transport.whenConnectFailed(e -> this.statistics.connectFailed());
+        this.transports.add(transport);
+
+        final Set<Application> apps = new HashSet<>();
+        apps.add(new SimpleCommandApplication(s -> String.format("Command '%s' not found", s)));
+        apps.add(AnnotatedApplication.build(new SimpleDeployApplication(this.downloadExecutor)));
+
+        final TelemetryModule telemetry = new TelemetryModule(transport, this.configuration.getTelemetryTopic(),
+                this.configuration.getTelemetryInterval(), this.payloadFactory, this.configuration.getQos(), this.statistics);
+
+        new Simulator(gatewayConfiguration, new RequestTimingTransport(transport, this.configuration.getQos(), this.statistics), apps,
+                Collections.singletonList(telemetry));
+    }
+
+    private void storm() {
+        final double fraction = this.configuration.getStormFraction();
+
+        int dropped = 0;
+        for (final NettyMqttTransport transport : this.transports) {
+            if (ThreadLocalRandom.current().nextDouble() < fraction) {
+                transport.drop();
+                dropped++;
+            }
+        }
+
+        logger.info("Reconnect storm - dropped {} connections", dropped);
+    }
+
+    private long nextReconnectDelay() {
+        final long jitterMillis = this.configuration.getReconnectJitter().toMillis();
+        return this.configuration.getReconnectDelay().toMillis() + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis) : 0);
+    }
+}
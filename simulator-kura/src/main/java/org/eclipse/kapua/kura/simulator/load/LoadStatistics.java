@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.kura.simulator.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The statistics of a {@link LoadGenerator}
+ * <p>
+ * Latencies are recorded into HdrHistogram recorders, which can be written to by all event loop threads without
+ * locking. Each call to {@link #report()} logs the throughput and the latency percentiles since the previous report,
+ * {@link #reportTotal()} logs them since the start.
+ * </p>
+ */
+public class LoadStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadStatistics.class);
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private static class Counter {
+
+        private final LongAdder total = new LongAdder();
+        private long reported;
+
+        public void increment() {
+            this.total.increment();
+        }
+
+        public long sum() {
+            return this.total.sum();
+        }
+
+        public long sinceReported() {
+            final long sum = this.total.sum();
+            final long result = sum - this.reported;
+            this.reported = sum;
+            return result;
+        }
+    }
+
+    private static class Latency {
+
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private Histogram interval;
+
+        public void record(final long nanos) {
+            this.recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+        }
+
+        public Histogram nextInterval() {
+            this.interval = this.recorder.getIntervalHistogram(this.interval);
+            this.total.add(this.interval);
+            return this.interval;
+        }
+
+        public Histogram getTotal() {
+            return this.total;
+        }
+    }
+
+    private final AtomicInteger connected = new AtomicInteger();
+    private final Counter connects = new Counter();
+    private final Counter connectFailures = new Counter();
+    private final Counter disconnects = new Counter();
+
+    private final Counter published = new Counter();
+    private final Counter acknowledged = new Counter();
+    private final Counter publishFailures = new Counter();
+    private final Latency publishToAck = new Latency();
+
+    private final Counter requests = new Counter();
+    private final Counter responses = new Counter();
+    private final Latency requestToResponse = new Latency();
+
+    private final long started = System.nanoTime();
+    private long lastReport = this.started;
+
+    public void connected() {
+        this.connected.incrementAndGet();
+        this.connects.increment();
+    }
+
+    public void connectFailed() {
+        this.connectFailures.increment();
+    }
+
+    public void disconnected() {
+        this.connected.decrementAndGet();
+        this.disconnects.increment();
+    }
+
+    public void published() {
+        this.published.increment();
+    }
+
+    public void acknowledged(final long publishToAckNanos) {
+        this.acknowledged.increment();
+        this.publishToAck.record(publishToAckNanos);
+    }
+
+    public void publishFailed() {
+        this.publishFailures.increment();
+    }
+
+    public void requested() {
+        this.requests.increment();
+    }
+
+    public void responded(final long requestToResponseNanos) {
+        this.responses.increment();
+        this.requestToResponse.record(requestToResponseNanos);
+    }
+
+    /**
+     * Log the statistics since the previous report
+     */
+    public synchronized void report() {
+        final long now = System.nanoTime();
+        final double seconds = Math.max(now - this.lastReport, 1L) / 1_000_000_000.0;
+        this.lastReport = now;
+
+        logger.info("connected: {} (connects: {}, failed: {}, disconnects: {})",
+                this.connected.get(), this.connects.sinceReported(), this.connectFailures.sinceReported(), this.disconnects.sinceReported());
+        logger.info("published: {} msg/s, acknowledged: {} msg/s, failed: {}, publish-to-ack ms {}",
+                rate(this.published.sinceReported(), seconds), rate(this.acknowledged.sinceReported(), seconds), this.publishFailures.sinceReported(),
+                percentiles(this.publishToAck.nextInterval()));
+        logger.info("requests: {}, responses: {}, request-to-response ms {}",
+                this.requests.sinceReported(), this.responses.sinceReported(), percentiles(this.requestToResponse.nextInterval()));
+    }
+
+    /**
+     * Log the statistics since the start
+     */
+    public synchronized void reportTotal() {
+        this.publishToAck.nextInterval();
+        this.requestToResponse.nextInterval();
+
+        final double seconds = Math.max(System.nanoTime() - this.started, 1L) / 1_000_000_000.0;
+
+        logger.info("Total after {} s", Math.round(seconds));
+        logger.info("connects: {}, failed: {}, disconnects: {}",
+                this.connects.sum(), this.connectFailures.sum(), this.disconnects.sum());
+        logger.info("published: {} ({} msg/s), acknowledged: {}, failed: {}, publish-to-ack ms {}",
+                this.published.sum(), rate(this.published.sum(), seconds), this.acknowledged.sum(), this.publishFailures.sum(),
+                percentiles(this.publishToAck.getTotal()));
+        logger.info("requests: {}, responses: {}, request-to-response ms {}",
+                this.requests.sum(), this.responses.sum(), percentiles(this.requestToResponse.getTotal()));
+    }
+
+    private static long rate(final long count, final double seconds) {
+        return Math.round(count / seconds);
+    }
+
+    private static String percentiles(final Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return "p50/p90/p99/p99.9/max: -";
+        }
+
+        return String.format("p50/p90/p99/p99.9/max: %.1f/%.1f/%.1f/%.1f/%.1f",
+                histogram.getValueAtPercentile(50.0) / 1_000.0,
+                histogram.getValueAtPercentile(90.0) / 1_000.0,
+                histogram.getValueAtPercentile(99.0) / 1_000.0,
+                histogram.getValueAtPercentile(99.9) / 1_000.0,
+                histogram.getMaxValue() / 1_000.0);
+    }
+}
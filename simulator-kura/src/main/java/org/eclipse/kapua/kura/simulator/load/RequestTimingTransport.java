@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.kura.simulator.load;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.eclipse.kapua.kura.simulator.NettyMqttTransport;
+import org.eclipse.kapua.kura.simulator.Transport;
+import org.eclipse.kapua.kura.simulator.payload.Message;
+import org.eclipse.kapua.kura.simulator.payload.Metrics;
+import org.eclipse.kapua.kura.simulator.proto.KuraPayloadProto.KuraPayload;
+import org.eclipse.kapua.kura.simulator.proto.KuraPayloadProto.KuraPayload.KuraMetric;
+import org.eclipse.kapua.kura.simulator.topic.Topic;
+import org.eclipse.kapua.kura.simulator.topic.Topic.Segment;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import io.netty.handler.codec.mqtt.MqttQoS;
+
+/**
+ * A transport recording the request-to-response latency of the management requests
+ * <p>
+ * The latency is measured from the arrival of a request at the gateway until the broker acknowledged the reply, or
+ * until the reply was written for {@link MqttQoS#AT_MOST_ONCE}. All other calls are delegated as they are.
+ * </p>
+ */
+public class RequestTimingTransport implements Transport {
+
+    private static final int METHOD_INDEX = 4;
+
+    private static final int REPLY_TOPIC_LENGTH = 6;
+
+    private final NettyMqttTransport transport;
+    private final MqttQoS qos;
+    private final LoadStatistics statistics;
+
+    private final Map<String, Long> pendingRequests = new ConcurrentHashMap<>();
+
+    public RequestTimingTransport(final NettyMqttTransport transport, final MqttQoS qos, final LoadStatistics statistics) {
+        this.transport = transport;
+        this.qos = qos;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void connect() {
+        this.transport.connect();
+    }
+
+    @Override
+    public void disconnect() {
+        this.transport.disconnect();
+    }
+
+    @Override
+    public void whenConnected(final Runnable runnable) {
+        this.transport.whenConnected(runnable);
+    }
+
+    @Override
+    public void whenDisconnected(final Runnable runnable) {
+        this.transport.whenDisconnected(() -> {
+            // replies to earlier requests won't be sent anymore
+            this.pendingRequests.clear();
+            runnable.run();
+        });
+    }
+
+    @Override
+    public void subscribe(final Topic topic, final Consumer<Message> consumer) {
+        this.transport.subscribe(topic, message -> {
+            requestArrived(message);
+            consumer.accept(message);
+        });
+    }
+
+    @Override
+    public void unsubscribe(final Topic topic) {
+        this.transport.unsubscribe(topic);
+    }
+
+    @Override
+    public void sendMessage(final Topic topic, final byte[] payload) {
+        final Long arrived = isReply(topic) ? this.pendingRequests.remove(render(topic, REPLY_TOPIC_LENGTH - 1)) : null;
+        if (arrived == null) {
+            this.transport.sendMessage(topic, payload);
+            return;
+        }
+
+        this.transport.publish(topic, payload, this.qos).whenComplete((v, e) -> {
+            if (e == null) {
+                this.statistics.responded(System.nanoTime() - arrived);
+            }
+        });
+    }
+
+    private void requestArrived(final Message message) {
+        final long arrived = System.nanoTime();
+
+        final List<Segment> segments = message.getTopic().getSegments();
+        if (segments.size() <= METHOD_INDEX || !isRequestMethod(segments.get(METHOD_INDEX).render())) {
+            return;
+        }
+
+        try {
+            for (final KuraMetric metric : KuraPayload.parseFrom(message.getPayload()).getMetricList()) {
+                if (metric.getName().equals(Metrics.KEY_REQUEST_ID)) {
+                    this.pendingRequests.put(metric.getStringValue(), arrived);
+                    this.statistics.requested();
+                    return;
+                }
+            }
+        } catch (final InvalidProtocolBufferException e) {
+            // not a request, the application will reject it
+        }
+    }
+
+    private static boolean isRequestMethod(final String method) {
+        switch (method) {
+        case "GET":
+        case "PUT":
+        case "POST":
+        case "DEL":
+        case "EXEC":
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static boolean isReply(final Topic topic) {
+        return topic.getSegments().size() == REPLY_TOPIC_LENGTH && "REPLY".equals(render(topic, METHOD_INDEX));
+    }
+
+    private static String render(final Topic topic, final int index) {
+        return topic.renderSegment(topic.getSegments().get(index), topic.getContext());
+    }
+}
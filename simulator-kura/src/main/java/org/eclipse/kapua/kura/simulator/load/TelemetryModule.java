@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.kura.simulator.load;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.kapua.kura.simulator.Module;
+import org.eclipse.kapua.kura.simulator.NettyMqttTransport;
+import org.eclipse.kapua.kura.simulator.Transport;
+import org.eclipse.kapua.kura.simulator.topic.Topic;
+
+import io.netty.handler.codec.mqtt.MqttQoS;
+
+/**
+ * A module publishing telemetry at a fixed interval while the gateway is connected
+ * <p>
+ * The first message is published after a random delay within the interval, so that the gateways of a fleet don't
+ * publish in lockstep. The publishing is scheduled on the event loop of the transport.
+ * </p>
+ * <p>
+ * The module also accounts the connects and disconnects of the gateway to the {@link LoadStatistics}.
+ * </p>
+ */
+public class TelemetryModule implements Module {
+
+    private static final String APPLICATION_ID = "LOAD";
+
+    private final NettyMqttTransport transport;
+    private final Topic topic;
+    private final long intervalMillis;
+    private final TelemetryPayloadFactory payloadFactory;
+    private final MqttQoS qos;
+    private final LoadStatistics statistics;
+
+    private ScheduledFuture<?> job;
+
+    public TelemetryModule(final NettyMqttTransport transport, final String dataTopic, final Duration interval,
+            final TelemetryPayloadFactory payloadFactory, final MqttQoS qos, final LoadStatistics statistics) {
+        this.transport = transport;
+        this.topic = Topic.data(dataTopic).attach("application-id", APPLICATION_ID);
+        this.intervalMillis = interval.toMillis();
+        this.payloadFactory = payloadFactory;
+        this.qos = qos;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void connected(final Transport transport) {
+        this.statistics.connected();
+
+        if (this.intervalMillis > 0) {
+            this.job = this.transport.getEventLoop().scheduleAtFixedRate(this::publish,
+                    ThreadLocalRandom.current().nextLong(this.intervalMillis), this.intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void disconnected(final Transport transport) {
+        this.statistics.disconnected();
+
+        if (this.job != null) {
+            this.job.cancel(false);
+            this.job = null;
+        }
+    }
+
+    private void publish() {
+        final long start = System.nanoTime();
+        this.statistics.published();
+
+        this.transport.publish(this.topic, this.payloadFactory.create(Instant.now()), this.qos).whenComplete((v, e) -> {
+            if (e != null) {
+                this.statistics.publishFailed();
+            } else {
+                this.statistics.acknowledged(System.nanoTime() - start);
+            }
+        });
+    }
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.kura.simulator.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.kapua.kura.simulator.payload.Metrics;
+import org.eclipse.kapua.kura.simulator.proto.KuraPayloadProto.KuraPayload;
+
+/**
+ * Creates the telemetry payloads of a given shape
+ * <p>
+ * The metrics are named {@code metric.<index>} and get random values of the configured types. The types are used
+ * in turns, so that e.g. {@code DOUBLE,STRING} creates alternating double and string metrics.
+ * </p>
+ */
+public class TelemetryPayloadFactory {
+
+    public enum MetricType {
+        DOUBLE,
+        FLOAT,
+        INT32,
+        INT64,
+        BOOL,
+        STRING,
+        BYTES;
+    }
+
+    private static final int BYTES_LENGTH = 16;
+
+    private final String[] metricNames;
+    private final MetricType[] metricTypes;
+    private final boolean gzip;
+
+    public TelemetryPayloadFactory(final int metricCount, final List<MetricType> types, final boolean gzip) {
+        Objects.requireNonNull(types);
+        if (metricCount < 0) {
+            throw new IllegalArgumentException("Metric count must not be negative");
+        }
+        if (types.isEmpty()) {
+            throw new IllegalArgumentException("At least one metric type is required");
+        }
+
+        this.metricNames = new String[metricCount];
+        this.metricTypes = new MetricType[metricCount];
+        for (int i = 0; i < metricCount; i++) {
+            this.metricNames[i] = "metric." + i;
+            this.metricTypes[i] = types.get(i % types.size());
+        }
+        this.gzip = gzip;
+    }
+
+    /**
+     * Create the encoded payload of a telemetry message
+     *
+     * @param timestamp
+     *            the timestamp of the message
+     * @return the encoded payload, gzip compressed if configured
+     */
+    public byte[] create(final Instant timestamp) {
+        final Random random = ThreadLocalRandom.current();
+
+        final KuraPayload.Builder builder = KuraPayload.newBuilder();
+        builder.setTimestamp(timestamp.toEpochMilli());
+        for (int i = 0; i < this.metricNames.length; i++) {
+            Metrics.addMetric(builder, this.metricNames[i], createValue(this.metricTypes[i], random));
+        }
+
+        final byte[] payload = builder.build().toByteArray();
+        return this.gzip ? compress(payload) : payload;
+    }
+
+    private static Object createValue(final MetricType type, final Random random) {
+        switch (type) {
+        case DOUBLE:
+            return random.nextDouble() * 100.0;
+        case FLOAT:
+            return random.nextFloat() * 100.0f;
+        case INT32:
+            return random.nextInt(1_000);
+        case INT64:
+            return random.nextLong();
+        case BOOL:
+            return random.nextBoolean();
+        case STRING:
+            return "value-" + random.nextInt(1_000);
+        case BYTES:
+            final byte[] bytes = new byte[BYTES_LENGTH];
+            random.nextBytes(bytes);
+            return bytes;
+        default:
+            throw new IllegalArgumentException(String.format("Unknown metric type: %s", type));
+        }
+    }
+
+    private static byte[] compress(final byte[] payload) {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(payload.length);
+        try (GZIPOutputStream out = new GZIPOutputStream(result)) {
+            out.write(payload);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result.toByteArray();
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Load generation, simulating large fleets of gateways from a single process
+ */
+package org.eclipse.kapua.kura.simulator.load;
@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.kura.simulator.main;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.OptionGroup;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.eclipse.kapua.kura.simulator.Simulator;
+import org.eclipse.kapua.kura.simulator.load.LoadConfiguration;
+import org.eclipse.kapua.kura.simulator.load.LoadGenerator;
+import org.eclipse.kapua.kura.simulator.load.TelemetryPayloadFactory.MetricType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.layout.TTLLLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.ConsoleAppender;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+import io.netty.handler.codec.mqtt.MqttQoS;
+
+/**
+ * This is a main class running a {@link LoadGenerator}, simulating a large fleet of gateways from a single process
+ */
+public class LoadGeneratorRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGeneratorRunner.class);
+
+    private LoadGeneratorRunner() {
+    }
+
+    public static void main(final String... args) throws Throwable {
+
+        final Options opts = new Options();
+
+        opts.addOption(Option.builder("b").longOpt("broker").hasArg().argName("URL")
+                .desc("The full URL to the broker, including the credentials").build());
+        opts.addOption(Option.builder("a").longOpt("account-name").hasArg().argName("NAME")
+                .desc("The name of the account (defaults to 'kapua-sys')").build());
+        opts.addOption(Option.builder("n").longOpt("basename").hasArg().argName("BASENAME")
+                .desc("The base name of the simulated gateways (defaults to 'load-')").build());
+        opts.addOption(Option.builder("c").longOpt("count").hasArg().argName("COUNT")
+                .desc("The number of gateways to simulate").build());
+        opts.addOption(Option.builder("s").longOpt("seconds").hasArg().argName("SECONDS")
+                .desc("Shutdown after <SECONDS> seconds").build());
+        opts.addOption(Option.builder().longOpt("io-threads").hasArg().argName("THREADS")
+                .desc("The number of I/O threads shared by all gateways (defaults to the number of processors)").build());
+
+        opts.addOption(Option.builder().longOpt("connect-rate").hasArg().argName("RATE")
+                .desc("The number of gateways started per second, 0 starts all at once (defaults to 500)").build());
+        opts.addOption(Option.builder().longOpt("reconnect-delay").hasArg().argName("MILLIS")
+                .desc("The delay before a lost connection is re-established (defaults to 1000)").build());
+        opts.addOption(Option.builder().longOpt("reconnect-jitter").hasArg().argName("MILLIS")
+                .desc("The upper bound of the random delay added to the reconnect delay (defaults to 5000)").build());
+        opts.addOption(Option.builder().longOpt("storm-interval").hasArg().argName("SECONDS")
+                .desc("The interval of the reconnect storms, 0 disables them (defaults to 0)").build());
+        opts.addOption(Option.builder().longOpt("storm-fraction").hasArg().argName("FRACTION")
+                .desc("The fraction of gateways dropping their connection in a reconnect storm (defaults to 0.5)").build());
+
+        opts.addOption(Option.builder().longOpt("telemetry-interval").hasArg().argName("MILLIS")
+                .desc("The interval between two telemetry messages of a gateway, 0 disables telemetry (defaults to 10000)").build());
+        opts.addOption(Option.builder().longOpt("telemetry-topic").hasArg().argName("TOPIC")
+                .desc("The data topic of the telemetry messages (defaults to 'telemetry')").build());
+        opts.addOption(Option.builder().longOpt("metric-count").hasArg().argName("COUNT")
+                .desc("The number of metrics per telemetry message (defaults to 10)").build());
+        opts.addOption(Option.builder().longOpt("metric-types").hasArg().argName("TYPES")
+                .desc("Comma separated metric types used in turns, out of " + Arrays.toString(MetricType.values()) + " (defaults to DOUBLE)").build());
+        opts.addOption(Option.builder().longOpt("gzip").desc("Compress the telemetry payloads").build());
+        opts.addOption(Option.builder().longOpt("qos").hasArg().argName("QOS")
+                .desc("The QoS, 0 or 1, of the telemetry messages and the replies (defaults to 1)").build());
+
+        opts.addOption(Option.builder().longOpt("report-interval").hasArg().argName("SECONDS")
+                .desc("The interval of the statistics reports (defaults to 10)").build());
+
+        opts.addOption("?", "help", false, null);
+
+        {
+            final OptionGroup logging = new OptionGroup();
+            logging.setRequired(false);
+
+            logging.addOption(Option.builder("q").longOpt("quiet").desc("Suppress output").build());
+            logging.addOption(Option.builder("v").longOpt("verbose").desc("Show more output").build());
+            logging.addOption(Option.builder("d").longOpt("debug").desc("Show debug output").build());
+
+            opts.addOptionGroup(logging);
+        }
+
+        final CommandLine cli;
+        try {
+            cli = new DefaultParser().parse(opts, args);
+        } catch (final ParseException e) {
+            System.err.println(e.getLocalizedMessage());
+            System.exit(-1);
+            return;
+        }
+
+        if (cli.hasOption('?')) {
+            showHelp(opts);
+            System.exit(0);
+        }
+
+        setupLogging(cli);
+
+        final LoadConfiguration configuration = new LoadConfiguration();
+        configuration.setBrokerUrl(cli.getOptionValue('b', env("KSIM_BROKER_URL", configuration.getBrokerUrl())));
+        configuration.setAccountName(cli.getOptionValue('a', env("KSIM_ACCOUNT_NAME", configuration.getAccountName())));
+        configuration.setCount(Integer.parseInt(cli.getOptionValue('c', env("KSIM_NUM_GATEWAYS", "1"))));
+        if (cli.hasOption("io-threads")) {
+            configuration.setIoThreads(Integer.parseInt(cli.getOptionValue("io-threads")));
+        }
+        if (cli.hasOption("connect-rate")) {
+            configuration.setConnectRate(Integer.parseInt(cli.getOptionValue("connect-rate")));
+        }
+        if (cli.hasOption("reconnect-delay")) {
+            configuration.setReconnectDelay(Duration.ofMillis(Long.parseLong(cli.getOptionValue("reconnect-delay"))));
+        }
+        if (cli.hasOption("reconnect-jitter")) {
+            configuration.setReconnectJitter(Duration.ofMillis(Long.parseLong(cli.getOptionValue("reconnect-jitter"))));
+        }
+        if (cli.hasOption("storm-interval")) {
+            configuration.setStormInterval(Duration.ofSeconds(Long.parseLong(cli.getOptionValue("storm-interval"))));
+        }
+        if (cli.hasOption("storm-fraction")) {
+            configuration.setStormFraction(Double.parseDouble(cli.getOptionValue("storm-fraction")));
+        }
+        if (cli.hasOption("telemetry-interval")) {
+            configuration.setTelemetryInterval(Duration.ofMillis(Long.parseLong(cli.getOptionValue("telemetry-interval"))));
+        }
+        if (cli.hasOption("telemetry-topic")) {
+            configuration.setTelemetryTopic(cli.getOptionValue("telemetry-topic"));
+        }
+        if (cli.hasOption("metric-count")) {
+            configuration.setMetricCount(Integer.parseInt(cli.getOptionValue("metric-count")));
+        }
+        if (cli.hasOption("metric-types")) {
+            configuration.setMetricTypes(parseMetricTypes(cli.getOptionValue("metric-types")));
+        }
+        configuration.setGzip(cli.hasOption("gzip"));
+        if (cli.hasOption("qos")) {
+            configuration.setQos(MqttQoS.valueOf(Integer.parseInt(cli.getOptionValue("qos"))));
+        }
+        if (cli.hasOption("report-interval")) {
+            configuration.setReportInterval(Duration.ofSeconds(Long.parseLong(cli.getOptionValue("report-interval"))));
+        }
+
+        final String basename = cli.getOptionValue('n', env("KSIM_BASE_NAME", "load-"));
+        final long shutdownAfter = Long.parseLong(cli.getOptionValue('s', Long.toString(Long.MAX_VALUE / 1_000L)));
+
+        logger.info("Starting load generator ...");
+        logger.info("\tbasename : {}", basename);
+        logger.info("\tcount: {}", configuration.getCount());
+        logger.info("\taccount-name: {}", configuration.getAccountName());
+        logger.info("\tconnect-rate: {}/s", configuration.getConnectRate());
+        logger.info("\ttelemetry: every {} ms, {} metrics of {}, gzip: {}, qos: {}", configuration.getTelemetryInterval().toMillis(),
+                configuration.getMetricCount(), configuration.getMetricTypes(), configuration.isGzip(), configuration.getQos().value());
+
+        final NameFactory nameFactory = NameFactories.prefixed(basename);
+
+        try (final LoadGenerator generator = new LoadGenerator(configuration, nameFactory::generateName)) {
+            generator.start();
+            Thread.sleep(TimeUnit.SECONDS.toMillis(shutdownAfter));
+            logger.info("Bye bye...");
+        }
+
+        logger.info("Exiting...");
+    }
+
+    private static List<MetricType> parseMetricTypes(final String metricTypes) {
+        return Arrays.stream(metricTypes.split(","))
+                .map(String::trim)
+                .filter(type -> !type.isEmpty())
+                .map(type -> MetricType.valueOf(type.toUpperCase(Locale.ROOT)))
+                .collect(Collectors.toList());
+    }
+
+    private static String env(final String envName, final String defaultValue) {
+        return System.getenv().getOrDefault(envName, defaultValue);
+    }
+
+    /**
+     * Show command line help
+     *
+     * @param opts
+     *            configured options
+     */
+    private static void showHelp(final Options opts) {
+        final HelpFormatter formatter = new HelpFormatter();
+        formatter.printHelp("LoadGeneratorRunner",
+                "Run a fleet of Kura gateway simulators on a shared event loop\n\n",
+                opts,
+                "\nEach gateway uses its own connection, simulating more than ~60k gateways towards a single broker address requires multiple local addresses.",
+                true);
+    }
+
+    private static void setupLogging(final CommandLine cli) {
+        final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        // reset first
+
+        context.reset();
+
+        // now configure
+
+        final ConsoleAppender<ILoggingEvent> consoleAdapter = new ConsoleAppender<>();
+        consoleAdapter.setContext(context);
+        consoleAdapter.setName("console");
+        final LayoutWrappingEncoder<ILoggingEvent> encoder = new LayoutWrappingEncoder<>();
+        encoder.setContext(context);
+
+        final TTLLLayout layout = new TTLLLayout();
+
+        layout.setContext(context);
+        layout.start();
+        encoder.setLayout(layout);
+
+        consoleAdapter.setEncoder(encoder);
+        consoleAdapter.start();
+
+        final ch.qos.logback.classic.Logger rootLogger = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        if (cli.hasOption("d")) {
+            rootLogger.setLevel(Level.ALL);
+        } else if (cli.hasOption("q")) {
+            rootLogger.setLevel(Level.WARN);
+        } else {
+            rootLogger.setLevel(Level.INFO);
+        }
+
+        if (!cli.hasOption("d") && !cli.hasOption("v")) {
+            // the per gateway output of the simulators would flood the reports
+            context.getLogger(Simulator.class.getPackage().getName()).setLevel(Level.WARN);
+            context.getLogger(LoadGenerator.class.getPackage().getName()).setLevel(rootLogger.getLevel());
+            context.getLogger(LoadGeneratorRunner.class.getPackage().getName()).setLevel(rootLogger.getLevel());
+        }
+        rootLogger.addAppender(consoleAdapter);
+    }
+}
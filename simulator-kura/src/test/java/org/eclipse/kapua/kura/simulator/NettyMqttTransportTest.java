@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.kura.simulator;
+
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(JUnitTests.class)
+public class NettyMqttTransportTest {
+
+    @Test
+    public void testMatchesPlain() {
+        Assert.assertTrue(NettyMqttTransport.matches("a/b/c", "a/b/c"));
+        Assert.assertFalse(NettyMqttTransport.matches("a/b/c", "a/b"));
+        Assert.assertFalse(NettyMqttTransport.matches("a/b", "a/b/c"));
+    }
+
+    @Test
+    public void testMatchesSingleLevelWildcard() {
+        Assert.assertTrue(NettyMqttTransport.matches("a/+/c", "a/b/c"));
+        Assert.assertFalse(NettyMqttTransport.matches("a/+/c", "a/b/d"));
+        Assert.assertFalse(NettyMqttTransport.matches("a/+", "a/b/c"));
+    }
+
+    @Test
+    public void testMatchesMultiLevelWildcard() {
+        Assert.assertTrue(NettyMqttTransport.matches("$EDC/account/client/CMD-V1/#", "$EDC/account/client/CMD-V1/EXEC/command"));
+        Assert.assertTrue(NettyMqttTransport.matches("a/#", "a"));
+        Assert.assertFalse(NettyMqttTransport.matches("$EDC/account/client/CMD-V1/#", "$EDC/account/other/CMD-V1/EXEC/command"));
+    }
+}
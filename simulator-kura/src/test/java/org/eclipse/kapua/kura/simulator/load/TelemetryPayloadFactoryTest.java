@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.kura.simulator.load;
+
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import org.eclipse.kapua.kura.simulator.load.TelemetryPayloadFactory.MetricType;
+import org.eclipse.kapua.kura.simulator.proto.KuraPayloadProto.KuraPayload;
+import org.eclipse.kapua.kura.simulator.proto.KuraPayloadProto.KuraPayload.KuraMetric.ValueType;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(JUnitTests.class)
+public class TelemetryPayloadFactoryTest {
+
+    @Test
+    public void testShape() throws Exception {
+        final Instant timestamp = Instant.ofEpochMilli(1_000L);
+        final TelemetryPayloadFactory factory = new TelemetryPayloadFactory(3, Arrays.asList(MetricType.DOUBLE, MetricType.STRING), false);
+
+        final KuraPayload payload = KuraPayload.parseFrom(factory.create(timestamp));
+
+        Assert.assertEquals(1_000L, payload.getTimestamp());
+        Assert.assertEquals(3, payload.getMetricCount());
+        Assert.assertEquals("metric.0", payload.getMetric(0).getName());
+        Assert.assertEquals(ValueType.DOUBLE, payload.getMetric(0).getType());
+        Assert.assertEquals(ValueType.STRING, payload.getMetric(1).getType());
+        Assert.assertEquals(ValueType.DOUBLE, payload.getMetric(2).getType());
+    }
+
+    @Test
+    public void testGzip() throws Exception {
+        final TelemetryPayloadFactory factory = new TelemetryPayloadFactory(5, Collections.singletonList(MetricType.INT64), true);
+
+        final KuraPayload payload;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(factory.create(Instant.now())))) {
+            payload = KuraPayload.parseFrom(in);
+        }
+
+        Assert.assertEquals(5, payload.getMetricCount());
+        Assert.assertEquals(ValueType.INT64, payload.getMetric(4).getType());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoTypes() {
+        new TelemetryPayloadFactory(1, Collections.emptyList(), false);
+    }
+}
@@ -16,12 +16,36 @@ package org.eclipse.kapua.translator;
 import com.google.inject.Inject;
 import org.eclipse.kapua.message.Message;
 import org.eclipse.kapua.translator.exception.TranslatorNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
+/**
+ * {@link TranslatorHub} implementation.
+ * <p>
+ * The available {@link Translator}s are indexed by their {@link Translator#getClassFrom()} and {@link Translator#getClassTo()} at construction time.
+ * Lookups with the exact classes are served by the index, while lookups with super types are resolved once and then memoized.
+ * When more than one {@link Translator} matches, the one with the exact classes is preferred, and otherwise the first by class name, so that the resolution does not depend on the iteration order of the injected {@link Set}.
+ */
 public class TranslatorHubImpl implements TranslatorHub {
-    private final Set<Translator> availableTranslators;
+
+    private static final Logger LOG = LoggerFactory.getLogger(TranslatorHubImpl.class);
+
+    private static final Comparator<Translator> TRANSLATOR_ORDER = Comparator.comparing(t -> t.getClass().getName());
+
+    private final List<Translator> availableTranslators;
+    private final Map<Map.Entry<Class<?>, Class<?>>, Translator> translatorsIndex = new HashMap<>();
+    private final Map<Map.Entry<Class<?>, Class<?>>, Optional<Translator>> resolvedTranslators = new ConcurrentHashMap<>();
 
     /**
      * Sometimes just translators-api is imported a dependency - with no implementation class. In such cases, there is not Translator implementation to inject.
@@ -36,19 +60,63 @@ public class TranslatorHubImpl implements TranslatorHub {
 
     @Inject
     public TranslatorHubImpl(TranslatorsHolder availableTranslators) {
-        this.availableTranslators = availableTranslators.value;
+        this.availableTranslators = availableTranslators.value
+                .stream()
+                .sorted(TRANSLATOR_ORDER)
+                .collect(Collectors.toList());
+
+        for (Translator translator : this.availableTranslators) {
+            Translator conflictingTranslator = translatorsIndex.putIfAbsent(new SimpleImmutableEntry<>(translator.getClassFrom(), translator.getClassTo()), translator);
+            if (conflictingTranslator != null) {
+                LOG.warn("Translators {} and {} both translate from {} to {}. Using {}",
+                        conflictingTranslator.getClass().getName(),
+                        translator.getClass().getName(),
+                        translator.getClassFrom().getName(),
+                        translator.getClassTo().getName(),
+                        conflictingTranslator.getClass().getName());
+            }
+        }
     }
 
     @Override
     public <FROM_MESSAGE extends Message, TO_MESSAGE extends Message, TRANSLATOR extends Translator<FROM_MESSAGE, TO_MESSAGE>> TRANSLATOR getTranslatorFor(Class<? extends FROM_MESSAGE> fromMessageClass, Class<? extends TO_MESSAGE> toMessageClass) {
-        return this.availableTranslators
+        if (fromMessageClass == null || toMessageClass == null) {
+            throw new TranslatorNotFoundException(fromMessageClass, toMessageClass);
+        }
+
+        Map.Entry<Class<?>, Class<?>> translatorKey = new SimpleImmutableEntry<>(fromMessageClass, toMessageClass);
+        Translator translator = translatorsIndex.get(translatorKey);
+        if (translator == null) {
+            translator = resolvedTranslators
+                    .computeIfAbsent(translatorKey, k -> resolveTranslator(fromMessageClass, toMessageClass))
+                    .orElseThrow(() -> new TranslatorNotFoundException(fromMessageClass, toMessageClass));
+        }
+
+        return (TRANSLATOR) translator;
+    }
+
+    /**
+     * Resolves the {@link Translator} for the given super types of {@link Translator#getClassFrom()} and {@link Translator#getClassTo()}.
+     *
+     * @param fromMessageClass The {@link Message} type to translate from.
+     * @param toMessageClass   The {@link Message} type to translate to.
+     * @return The resolved {@link Translator}, if any.
+     */
+    private Optional<Translator> resolveTranslator(Class<?> fromMessageClass, Class<?> toMessageClass) {
+        List<Translator> matchingTranslators = availableTranslators
                 .stream()
-                .filter(t -> fromMessageClass != null)
-                .filter(t -> toMessageClass != null)
                 .filter(t -> fromMessageClass.isAssignableFrom(t.getClassFrom()))
                 .filter(t -> toMessageClass.isAssignableFrom(t.getClassTo()))
-                .map(t -> (TRANSLATOR) t)
-                .findFirst()
-                .orElseThrow(() -> new TranslatorNotFoundException(fromMessageClass, toMessageClass));
+                .collect(Collectors.toList());
+
+        if (matchingTranslators.size() > 1) {
+            LOG.debug("Found {} translators from {} to {}. Using {}",
+                    matchingTranslators.size(),
+                    fromMessageClass.getName(),
+                    toMessageClass.getName(),
+                    matchingTranslators.get(0).getClass().getName());
+        }
+
+        return matchingTranslators.stream().findFirst();
     }
 }
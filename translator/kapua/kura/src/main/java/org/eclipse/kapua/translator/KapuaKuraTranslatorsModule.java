@@ -19,8 +19,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import com.google.inject.multibindings.Multibinder;
+import com.google.inject.multibindings.ProvidesIntoSet;
+import org.eclipse.kapua.commons.cache.ResolutionCacheInvalidator;
 import org.eclipse.kapua.commons.core.AbstractKapuaModule;
+import org.eclipse.kapua.commons.core.ServiceModule;
 import org.eclipse.kapua.commons.setting.system.SystemSetting;
+import org.eclipse.kapua.event.ServiceEventBus;
 import org.eclipse.kapua.message.KapuaMessageFactory;
 import org.eclipse.kapua.translator.kapua.kura.TranslatorAppAssetKapuaKura;
 import org.eclipse.kapua.translator.kapua.kura.TranslatorAppBundleKapuaKura;
@@ -46,6 +50,7 @@ import org.eclipse.kapua.translator.kura.kapua.TranslatorAppPackageKuraKapua;
 import org.eclipse.kapua.translator.kura.kapua.TranslatorAppResponseKuraKapua;
 import org.eclipse.kapua.translator.kura.kapua.TranslatorAppSnapshotKuraKapua;
 import org.eclipse.kapua.translator.kura.kapua.TranslatorDataKuraKapua;
+import org.eclipse.kapua.translator.kura.kapua.TranslatorKuraKapuaResolver;
 import org.eclipse.kapua.translator.kura.kapua.TranslatorKuraKapuaUtils;
 import org.eclipse.kapua.translator.kura.kapua.TranslatorKuraKapuaUtilsImpl;
 import org.eclipse.kapua.translator.kura.kapua.TranslatorLifeAppsKuraKapua;
@@ -64,6 +69,7 @@ import org.eclipse.kapua.translator.kura.kapua.keystore.TranslatorAppKeystoreIte
 import org.eclipse.kapua.translator.kura.kapua.keystore.TranslatorAppKeystoreItemsKuraKapua;
 import org.eclipse.kapua.translator.kura.kapua.keystore.TranslatorAppKeystoreNoContentKuraKapua;
 import org.eclipse.kapua.translator.kura.kapua.keystore.TranslatorAppKeystoresKuraKapua;
+import org.eclipse.kapua.translator.setting.TranslatorKapuaKuraSettingKeys;
 import org.eclipse.kapua.translator.setting.TranslatorKapuaKuraSettings;
 
 public class KapuaKuraTranslatorsModule extends AbstractKapuaModule {
@@ -124,6 +130,7 @@ public class KapuaKuraTranslatorsModule extends AbstractKapuaModule {
                 .setSerializationInclusion(JsonInclude.Include.NON_NULL));
 
         bind(TranslatorKapuaKuraSettings.class).in(Singleton.class);
+        bind(TranslatorKuraKapuaResolver.class).in(Singleton.class);
     }
 
     @Provides
@@ -131,4 +138,24 @@ public class KapuaKuraTranslatorsModule extends AbstractKapuaModule {
     public TranslatorKuraKapuaUtils translatorKuraKapuaUtils(KapuaMessageFactory kapuaMessageFactory) {
         return new TranslatorKuraKapuaUtilsImpl(kapuaMessageFactory, SystemSetting.getInstance().getMessageClassifier());
     }
+
+    @ProvidesIntoSet
+    ServiceModule translatorAccountResolutionCacheInvalidator(ServiceEventBus serviceEventBus,
+                                                              TranslatorKapuaKuraSettings translatorKapuaKuraSettings,
+                                                              TranslatorKuraKapuaResolver translatorKuraKapuaResolver) {
+        return new ResolutionCacheInvalidator(
+                serviceEventBus,
+                translatorKapuaKuraSettings.getString(TranslatorKapuaKuraSettingKeys.TRANSLATOR_KURA_KAPUA_RESOLUTION_ACCOUNT_EVENT_ADDRESS),
+                translatorKuraKapuaResolver.getAccountCache());
+    }
+
+    @ProvidesIntoSet
+    ServiceModule translatorDeviceResolutionCacheInvalidator(ServiceEventBus serviceEventBus,
+                                                             TranslatorKapuaKuraSettings translatorKapuaKuraSettings,
+                                                             TranslatorKuraKapuaResolver translatorKuraKapuaResolver) {
+        return new ResolutionCacheInvalidator(
+                serviceEventBus,
+                translatorKapuaKuraSettings.getString(TranslatorKapuaKuraSettingKeys.TRANSLATOR_KURA_KAPUA_RESOLUTION_DEVICE_EVENT_ADDRESS),
+                translatorKuraKapuaResolver.getDeviceCache());
+    }
 }
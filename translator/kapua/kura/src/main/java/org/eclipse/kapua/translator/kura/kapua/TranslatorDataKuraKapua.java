@@ -18,12 +18,10 @@ import org.eclipse.kapua.message.device.data.KapuaDataMessage;
 import org.eclipse.kapua.message.device.data.KapuaDataMessageFactory;
 import org.eclipse.kapua.message.device.data.KapuaDataPayload;
 import org.eclipse.kapua.service.account.Account;
-import org.eclipse.kapua.service.account.AccountService;
 import org.eclipse.kapua.service.device.call.message.kura.data.KuraDataChannel;
 import org.eclipse.kapua.service.device.call.message.kura.data.KuraDataMessage;
 import org.eclipse.kapua.service.device.call.message.kura.data.KuraDataPayload;
 import org.eclipse.kapua.service.device.registry.Device;
-import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
 import org.eclipse.kapua.translator.Translator;
 import org.eclipse.kapua.translator.exception.InvalidChannelException;
 import org.eclipse.kapua.translator.exception.InvalidMessageException;
@@ -42,9 +40,7 @@ import javax.inject.Inject;
 public class TranslatorDataKuraKapua extends Translator<KuraDataMessage, KapuaDataMessage> {
 
     @Inject
-    private AccountService accountService;
-    @Inject
-    private DeviceRegistryService deviceRegistryService;
+    private TranslatorKuraKapuaResolver translatorKuraKapuaResolver;
     @Inject
     private KapuaDataMessageFactory kapuaDataMessageFactory;
     @Inject
@@ -65,7 +61,7 @@ public class TranslatorDataKuraKapua extends Translator<KuraDataMessage, KapuaDa
             // Kapua payload
             KapuaDataPayload kapuaDataPayload = translate(kuraMessage.getPayload());
             // Kapua message
-            Account account = accountService.findByName(kuraMessage.getChannel().getScope());
+            Account account = translatorKuraKapuaResolver.findAccountByName(kuraMessage.getChannel().getScope());
 
             if (account == null) {
                 throw new KapuaEntityNotFoundException(Account.TYPE, kuraMessage.getChannel().getScope());
@@ -83,7 +79,7 @@ public class TranslatorDataKuraKapua extends Translator<KuraDataMessage, KapuaDa
 
             // Optionally resolve the KapuaDataChannel.clientId to improve performances
             if (resolveDeviceId) {
-                Device device = deviceRegistryService.findByClientId(account.getId(), kuraMessage.getChannel().getClientId());
+                Device device = translatorKuraKapuaResolver.findDeviceByClientId(account.getId(), kuraMessage.getChannel().getClientId());
                 kapuaDataMessage.setDeviceId(device != null ? device.getId() : null);
             }
 
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.translator.kura.kapua;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.cache.ResolutionCache;
+import org.eclipse.kapua.commons.metric.MetricsService;
+import org.eclipse.kapua.commons.model.domains.Domains;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.account.Account;
+import org.eclipse.kapua.service.account.AccountService;
+import org.eclipse.kapua.service.authorization.AuthorizationService;
+import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
+import org.eclipse.kapua.service.device.registry.Device;
+import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
+import org.eclipse.kapua.translator.setting.TranslatorKapuaKuraSettingKeys;
+import org.eclipse.kapua.translator.setting.TranslatorKapuaKuraSettings;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Map;
+
+/**
+ * Resolves the {@link Account}s and the {@link Device}s referenced by the incoming Kura messages, caching the results.
+ * <p>
+ * The caches are invalidated when the {@link Account} or the {@link Device} changes (see {@link org.eclipse.kapua.commons.cache.ResolutionCacheInvalidator})
+ * and the entries expire after {@link TranslatorKapuaKuraSettingKeys#TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_TTL} in any case.
+ * <p>
+ * The access to a cached {@link Account} is checked again for the current session, as {@link AccountService#findByName(String)} does.
+ * {@link DeviceRegistryService#findByClientId(KapuaId, String)} does not check the access, so neither do the cached {@link Device}s.
+ *
+ * @since 2.1.0
+ */
+@Singleton
+public class TranslatorKuraKapuaResolver {
+
+    private static final String TRANSLATOR = "translator";
+
+    private final AccountService accountService;
+    private final DeviceRegistryService deviceRegistryService;
+    private final AuthorizationService authorizationService;
+    private final PermissionFactory permissionFactory;
+
+    private final ResolutionCache<String, Account> accountByName;
+    private final ResolutionCache<Map.Entry<KapuaId, String>, Device> deviceByClientId;
+
+    @Inject
+    public TranslatorKuraKapuaResolver(
+            AccountService accountService,
+            DeviceRegistryService deviceRegistryService,
+            AuthorizationService authorizationService,
+            PermissionFactory permissionFactory,
+            TranslatorKapuaKuraSettings translatorKapuaKuraSettings,
+            MetricsService metricsService,
+            @Named("metricModuleName") String metricModuleName) {
+        this.accountService = accountService;
+        this.deviceRegistryService = deviceRegistryService;
+        this.authorizationService = authorizationService;
+        this.permissionFactory = permissionFactory;
+
+        int cacheSize = translatorKapuaKuraSettings.getInt(TranslatorKapuaKuraSettingKeys.TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_SIZE);
+        int cacheTtl = translatorKapuaKuraSettings.getInt(TranslatorKapuaKuraSettingKeys.TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_TTL);
+        this.accountByName = new ResolutionCache<>(cacheSize, cacheTtl, metricsService, metricModuleName, TRANSLATOR + "_account");
+        this.deviceByClientId = new ResolutionCache<>(cacheSize, cacheTtl, metricsService, metricModuleName, TRANSLATOR + "_device");
+    }
+
+    /**
+     * Finds the {@link Account} by its {@link Account#getName()}.
+     *
+     * @param accountName The {@link Account#getName()}.
+     * @return The {@link Account}, or {@code null} if not found.
+     * @throws KapuaException if the lookup fails.
+     * @since 2.1.0
+     */
+    public Account findAccountByName(String accountName) throws KapuaException {
+        return accountByName.get(accountName, () -> accountService.findByName(accountName), this::checkAccountAccess);
+    }
+
+    private void checkAccountAccess(Account account) throws KapuaException {
+        // Same check of AccountService.findByName: an account can be read on its own scope or on its parent scope
+        KapuaId permissionScopeId = account.getId().equals(KapuaSecurityUtils.getSession().getScopeId()) ? account.getId() : account.getScopeId();
+        authorizationService.checkPermission(permissionFactory.newPermission(Domains.ACCOUNT, Actions.read, permissionScopeId, null, false));
+    }
+
+    /**
+     * Finds the {@link Device} by its {@link Device#getScopeId()} and {@link Device#getClientId()}.
+     *
+     * @param scopeId  The {@link Device#getScopeId()}.
+     * @param clientId The {@link Device#getClientId()}.
+     * @return The {@link Device}, or {@code null} if not found.
+     * @throws KapuaException if the lookup fails.
+     * @since 2.1.0
+     */
+    public Device findDeviceByClientId(KapuaId scopeId, String clientId) throws KapuaException {
+        return deviceByClientId.get(new SimpleImmutableEntry<>(scopeId, clientId), () -> deviceRegistryService.findByClientId(scopeId, clientId));
+    }
+
+    /**
+     * Gets the {@link ResolutionCache} of the {@link Account}s.
+     *
+     * @return The {@link ResolutionCache} of the {@link Account}s.
+     * @since 2.1.0
+     */
+    public ResolutionCache<String, Account> getAccountCache() {
+        return accountByName;
+    }
+
+    /**
+     * Gets the {@link ResolutionCache} of the {@link Device}s.
+     *
+     * @return The {@link ResolutionCache} of the {@link Device}s.
+     * @since 2.1.0
+     */
+    public ResolutionCache<Map.Entry<KapuaId, String>, Device> getDeviceCache() {
+        return deviceByClientId;
+    }
+}
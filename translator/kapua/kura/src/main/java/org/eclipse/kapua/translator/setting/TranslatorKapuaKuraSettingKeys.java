@@ -14,6 +14,7 @@ package org.eclipse.kapua.translator.setting;
 
 import org.eclipse.kapua.commons.setting.SettingKey;
 import org.eclipse.kapua.message.device.data.KapuaDataMessage;
+import org.eclipse.kapua.service.account.Account;
 import org.eclipse.kapua.service.device.call.message.kura.KuraChannel;
 import org.eclipse.kapua.service.device.call.message.kura.data.KuraDataMessage;
 import org.eclipse.kapua.service.device.registry.Device;
@@ -30,7 +31,35 @@ public enum TranslatorKapuaKuraSettingKeys implements SettingKey {
      *
      * @since 2.1.0
      */
-    TRANSLATOR_KURA_KAPUA_DATA_DEVICE_ID_RESOLVE("translator.kura.kapua.data.deviceId.resolve");
+    TRANSLATOR_KURA_KAPUA_DATA_DEVICE_ID_RESOLVE("translator.kura.kapua.data.deviceId.resolve"),
+
+    /**
+     * The maximum number of {@link Account}s and {@link Device}s kept in the resolution caches when converting from {@link KuraDataMessage} to {@link KapuaDataMessage}.
+     *
+     * @since 2.1.0
+     */
+    TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_SIZE("translator.kura.kapua.resolution.cache.size"),
+
+    /**
+     * The ttl, in seconds, of the entries of the resolution caches.
+     *
+     * @since 2.1.0
+     */
+    TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_TTL("translator.kura.kapua.resolution.cache.ttl"),
+
+    /**
+     * The address where the {@link Account} service events are published, used to invalidate the resolution caches.
+     *
+     * @since 2.1.0
+     */
+    TRANSLATOR_KURA_KAPUA_RESOLUTION_ACCOUNT_EVENT_ADDRESS("translator.kura.kapua.resolution.account.eventAddress"),
+
+    /**
+     * The address where the {@link Device} service events are published, used to invalidate the resolution caches.
+     *
+     * @since 2.1.0
+     */
+    TRANSLATOR_KURA_KAPUA_RESOLUTION_DEVICE_EVENT_ADDRESS("translator.kura.kapua.resolution.device.eventAddress");
 
     /**
      * The key value of the {@link SettingKey}.
@@ -23,6 +23,7 @@ import org.eclipse.kapua.commons.metric.MetricsServiceImpl;
 import org.eclipse.kapua.commons.service.internal.cache.CacheManagerProvider;
 import org.eclipse.kapua.commons.setting.system.SystemSetting;
 import org.eclipse.kapua.commons.util.xml.JAXBContextProvider;
+import org.eclipse.kapua.event.ServiceEventBus;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.message.KapuaMessageFactory;
 import org.eclipse.kapua.message.device.data.KapuaDataMessageFactory;
@@ -104,6 +105,7 @@ public class TranslatorLocatorConfiguration {
                 bind(PermissionFactory.class).toInstance(Mockito.mock(PermissionFactory.class));
                 bind(AccountService.class).toInstance(Mockito.mock(AccountService.class));
                 bind(DeviceRegistryService.class).toInstance(Mockito.mock(DeviceRegistryService.class));
+                bind(ServiceEventBus.class).toInstance(Mockito.mock(ServiceEventBus.class));
                 bind(GenericRequestFactory.class).toInstance(Mockito.mock(GenericRequestFactory.class));
                 bind(DeviceAssetFactory.class).toInstance(Mockito.mock(DeviceAssetFactory.class));
                 bind(DeviceBundleFactory.class).toInstance(Mockito.mock(DeviceBundleFactory.class));
@@ -20,6 +20,8 @@ import org.eclipse.kapua.transport.message.TransportMessage;
 import org.eclipse.kapua.transport.message.TransportPayload;
 
 import javax.validation.constraints.NotNull;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * API to use the Transport layer for the device communication.
@@ -60,6 +62,30 @@ public interface TransportFacade<C extends TransportChannel, P extends Transport
      * @since 1.0.0
      */
     void sendAsync(@NotNull MQ message) throws TransportTimeoutException, TransportSendException;
+
+    /**
+     * Send a request message to a device and returns the response as a {@link CompletionStage}.
+     * <p>
+     * Implementations that can wait for the response without blocking the calling thread should override this method.
+     * The default implementation invokes {@link #sendSync(TransportMessage, Long)} and returns an already completed {@link CompletionStage}.
+     * <p>
+     * The {@link CompletionStage} completes exceptionally with a {@link TransportTimeoutException} if waiting of the response goes on timeout,
+     * or with a {@link TransportSendException} if sending the request produces any error.
+     *
+     * @param message The request message to send.
+     * @param timeout The timeout for the operation. If {@code null} the response is not waited and the {@link CompletionStage} completes with {@code null}.
+     * @return The {@link CompletionStage} of the response to the request message.
+     * @since 2.1.0
+     */
+    default CompletionStage<MS> sendAndReceiveAsync(@NotNull MQ message, @Nullable Long timeout) {
+        CompletableFuture<MS> response = new CompletableFuture<>();
+        try {
+            response.complete(sendSync(message, timeout));
+        } catch (TransportTimeoutException | TransportSendException | RuntimeException e) {
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
     // Utilities
 
     /**
@@ -26,6 +26,7 @@ import org.eclipse.kapua.transport.mqtt.exception.MqttClientPublishException;
 import org.eclipse.kapua.transport.mqtt.exception.MqttClientSubscribeException;
 import org.eclipse.kapua.transport.mqtt.exception.MqttClientTerminateException;
 import org.eclipse.kapua.transport.mqtt.exception.MqttClientUnsubscribeException;
+import org.eclipse.paho.client.mqttv3.MqttCallback;
 import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
 import org.eclipse.paho.client.mqttv3.MqttException;
 import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
@@ -194,7 +195,7 @@ public class MqttClient {
      * @throws MqttClientSubscribeException When subscribe fails.
      * @since 1.0.0
      */
-    public void subscribe(MqttTopic mqttTopic) throws MqttClientSubscribeException {
+    public synchronized void subscribe(MqttTopic mqttTopic) throws MqttClientSubscribeException {
         try {
             getPahoClient().subscribe(mqttTopic.getTopic());
             subscribedTopics.add(mqttTopic);
@@ -219,6 +220,18 @@ public class MqttClient {
 
     }
 
+    /**
+     * Unsubscribes this client from the given {@link MqttTopic} and removes it from the subscribed ones.
+     *
+     * @param mqttTopic The {@link MqttTopic} to unsubscribe to.
+     * @throws MqttClientUnsubscribeException When unsubscribe fails.
+     * @since 2.1.0
+     */
+    public synchronized void unsubscribeTopic(MqttTopic mqttTopic) throws MqttClientUnsubscribeException {
+        subscribedTopics.removeIf(subscribedTopic -> subscribedTopic.getTopic().equals(mqttTopic.getTopic()));
+        unsubscribe(mqttTopic);
+    }
+
     /**
      * Unsubscribes this {@link MqttClient} from all {@link MqttTopic} subscribed.
      *
@@ -252,6 +265,23 @@ public class MqttClient {
 
     }
 
+    /**
+     * Sets a generic {@link MqttCallback} to this client.
+     * <p>
+     * Used by the {@link MqttResponseMultiplexer} connections, which receive the responses of many requests through the same callback.
+     *
+     * @param mqttCallback The {@link MqttCallback} to use.
+     * @throws MqttClientCallbackSetException When set the callback fails.
+     * @since 2.1.0
+     */
+    public void setCallback(MqttCallback mqttCallback) throws MqttClientCallbackSetException {
+        try {
+            getPahoClient().setCallback(mqttCallback);
+        } catch (MqttClientNotConnectedException e) {
+            throw new MqttClientCallbackSetException(e, getClientId(), null);
+        }
+    }
+
     /**
      * Cleans this client from any callback set and unsubscribes from all {@link MqttTopic} subscribed.
      *
@@ -24,12 +24,19 @@ import org.eclipse.kapua.transport.message.mqtt.MqttTopic;
 import org.eclipse.kapua.transport.mqtt.exception.MqttClientCallbackSetException;
 import org.eclipse.kapua.transport.mqtt.exception.MqttClientSubscribeException;
 import org.eclipse.kapua.transport.mqtt.pooling.MqttClientPool;
+import org.eclipse.kapua.transport.mqtt.setting.MqttClientSetting;
+import org.eclipse.kapua.transport.mqtt.setting.MqttClientSettingKeys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.validation.constraints.NotNull;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Implementation of {@link TransportFacade} API for MQTT transport facade.
@@ -40,13 +47,26 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
 
     private static final Logger LOG = LoggerFactory.getLogger(MqttFacade.class);
 
+    private static final boolean MULTIPLEXER_ENABLED = MqttClientSetting.getInstance().getBoolean(MqttClientSettingKeys.TRANSPORT_MULTIPLEXER_ENABLED, false);
+
     /**
      * The {@link MqttClient} used to make requests.
+     * <p>
+     * Used only when the {@link MqttResponseMultiplexer} is disabled.
      *
      * @since 1.0.0
      */
     private MqttClient borrowedClient;
 
+    /**
+     * The {@link MqttResponseMultiplexer.Connection} used to make requests.
+     * <p>
+     * Used only when the {@link MqttResponseMultiplexer} is enabled.
+     *
+     * @since 2.1.0
+     */
+    private MqttResponseMultiplexer.Connection multiplexedConnection;
+
     /**
      * The host that this {@link MqttClient} connects to.
      */
@@ -60,6 +80,16 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
      */
     public MqttFacade(@NotNull String nodeUri) throws TransportException {
         this.nodeUri = nodeUri;
+
+        if (MULTIPLEXER_ENABLED) {
+            try {
+                multiplexedConnection = MqttResponseMultiplexer.getInstance(nodeUri).getConnection();
+            } catch (Exception e) {
+                throw new TransportClientGetException(e, nodeUri);
+            }
+            return;
+        }
+
         // Get the client form the pool
         try {
             MqttClientPool perBrokerMqttClientPool = MqttClientPool.getInstance(nodeUri);
@@ -102,6 +132,53 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
         }
     }
 
+    /**
+     * Sends the request without blocking the calling thread while waiting for the response, when the {@link MqttResponseMultiplexer} is enabled.
+     * <p>
+     * When the {@link MqttResponseMultiplexer} is disabled the response is waited by the calling thread, as {@link #sendSync(MqttMessage, Long)} does,
+     * so callers which must not block should invoke this method from their own bounded executor.
+     *
+     * @since 2.1.0
+     */
+    @Override
+    public CompletionStage<MqttMessage> sendAndReceiveAsync(@NotNull MqttMessage mqttMessage, @Nullable Long timeout) {
+        if (multiplexedConnection == null) {
+            return TransportFacade.super.sendAndReceiveAsync(mqttMessage, timeout);
+        }
+
+        CompletableFuture<MqttMessage> result = new CompletableFuture<>();
+        try {
+            // Expect the response before publishing, so that it cannot be missed.
+            CompletableFuture<MqttMessage> response = timeout != null && mqttMessage.expectResponse() ? multiplexedConnection.expectResponse(mqttMessage.getResponseTopic(), timeout) : null;
+
+            try {
+                multiplexedConnection.publish(mqttMessage);
+            } catch (Exception e) {
+                if (response != null) {
+                    response.cancel(false);
+                }
+                throw e;
+            }
+
+            if (response == null) {
+                result.complete(null);
+            } else {
+                response.whenComplete((r, t) -> {
+                    if (t == null) {
+                        result.complete(r);
+                    } else if (t instanceof TimeoutException) {
+                        result.completeExceptionally(new TransportTimeoutException(timeout));
+                    } else {
+                        result.completeExceptionally(new TransportSendException(t, mqttMessage));
+                    }
+                });
+            }
+        } catch (Exception e) {
+            result.completeExceptionally(new TransportSendException(e, mqttMessage));
+        }
+        return result;
+    }
+
     /**
      * Actual implementation of the send operations.
      * <p>
@@ -118,6 +195,11 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
      * @since 1.0.0
      */
     private void sendInternal(@NotNull MqttMessage mqttMessage, @NotNull List<MqttMessage> responses, @Nullable Long timeout) throws TransportSendException {
+        if (multiplexedConnection != null) {
+            sendMultiplexed(mqttMessage, responses, timeout);
+            return;
+        }
+
         try {
             // Subscribe if necessary
             MqttResponseCallback mqttClientCallback = mqttMessage.expectResponse() ? subscribeToResponse(mqttMessage.getResponseTopic(), responses) : null;
@@ -134,9 +216,37 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
         }
     }
 
+    /**
+     * Sends the request through the {@link MqttResponseMultiplexer.Connection} and waits for the response routed to it.
+     *
+     * @param mqttMessage The request to send.
+     * @param responses   The container in which load responses received from the device
+     * @param timeout     The timeout of waiting the response from the device.
+     * @throws TransportSendException if sending the request produces any error.
+     * @since 2.1.0
+     */
+    private void sendMultiplexed(@NotNull MqttMessage mqttMessage, @NotNull List<MqttMessage> responses, @Nullable Long timeout) throws TransportSendException {
+        try {
+            MqttMessage response = sendAndReceiveAsync(mqttMessage, timeout).toCompletableFuture().get();
+            if (response != null) {
+                responses.add(response);
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TransportSendException) {
+                throw (TransportSendException) e.getCause();
+            } else if (!(e.getCause() instanceof TransportTimeoutException)) {
+                throw new TransportSendException(e.getCause(), mqttMessage);
+            }
+            // Timeout. No response is added, and sendSync will throw the TransportTimeoutException.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransportSendException(e, mqttMessage);
+        }
+    }
+
     @Override
     public String getClientId() {
-        return borrowedClient.getClientId();
+        return multiplexedConnection != null ? multiplexedConnection.getClientId() : borrowedClient.getClientId();
     }
 
     @Override
@@ -151,6 +261,12 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
 
     @Override
     public void close() {
+        if (multiplexedConnection != null) {
+            // Multiplexed connections are shared and stay open.
+            multiplexedConnection = null;
+            return;
+        }
+
         try {
             MqttClientPool.getInstance(nodeUri).returnObject(borrowedClient);
         } finally {
@@ -201,7 +317,11 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
      */
     private void waitResponse(long timeout, MqttResponseCallback mqttClientCallback) {
 
-        MqttResponseTimeoutTimer responseTimeoutTimer = new MqttResponseTimeoutTimer(borrowedClient.getClientId(), mqttClientCallback, timeout);
+        ScheduledFuture<?> responseTimeout = MqttResponseTimeoutScheduler.schedule(() -> {
+            synchronized (mqttClientCallback) {
+                mqttClientCallback.notifyAll();
+            }
+        }, timeout);
 
         try {
             synchronized (mqttClientCallback) {
@@ -210,7 +330,7 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         } finally {
-            responseTimeoutTimer.cancel();
+            responseTimeout.cancel(false);
         }
     }
 }
@@ -0,0 +1,357 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.transport.mqtt;
+
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.transport.message.mqtt.MqttMessage;
+import org.eclipse.kapua.transport.message.mqtt.MqttPayload;
+import org.eclipse.kapua.transport.message.mqtt.MqttTopic;
+import org.eclipse.kapua.transport.mqtt.exception.MqttClientException;
+import org.eclipse.kapua.transport.mqtt.exception.MqttClientNotConnectedException;
+import org.eclipse.kapua.transport.mqtt.exception.MqttClientPublishException;
+import org.eclipse.kapua.transport.mqtt.exception.MqttClientSubscribeException;
+import org.eclipse.kapua.transport.mqtt.exception.MqttClientTerminateException;
+import org.eclipse.kapua.transport.mqtt.exception.MqttClientUnsubscribeException;
+import org.eclipse.kapua.transport.mqtt.setting.MqttClientSetting;
+import org.eclipse.kapua.transport.mqtt.setting.MqttClientSettingKeys;
+import org.eclipse.kapua.transport.utils.ClientIdGenerator;
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.validation.constraints.NotNull;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shares a small number of persistent {@link MqttClient} connections among all the requests sent to a broker node.
+ * <p>
+ * Each {@link Connection} subscribes once to the reply topics addressed to its client id and routes each response to the {@link CompletableFuture} registered for its response topic.
+ * Response timeouts are handled by the {@link MqttResponseTimeoutScheduler}, so no thread is parked or created for each in-flight request.
+ *
+ * @since 2.1.0
+ */
+public class MqttResponseMultiplexer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MqttResponseMultiplexer.class);
+
+    /**
+     * Singleton instances of {@link MqttResponseMultiplexer} by their host.
+     *
+     * @since 2.1.0
+     */
+    private static final Map<String, MqttResponseMultiplexer> MQTT_RESPONSE_MULTIPLEXER_BY_HOST = new ConcurrentHashMap<>();
+
+    private static final String TOPIC_SEPARATOR = MqttClientSetting.getInstance().getString(MqttClientSettingKeys.TRANSPORT_TOPIC_SEPARATOR, "/");
+    private static final String MULTI_LEVEL_WILDCARD = "#";
+
+    //TODO: Inject if possible
+    private final ClientIdGenerator clientIdGenerator = KapuaLocator.getInstance().getComponent(ClientIdGenerator.class);
+
+    private final String serverURI;
+    private final Connection[] connections;
+    private final AtomicInteger nextConnection = new AtomicInteger();
+
+    /**
+     * Constructor.
+     *
+     * @param serverURI The {@link java.net.URI} in {@link String} form of the broker node.
+     * @since 2.1.0
+     */
+    private MqttResponseMultiplexer(String serverURI) {
+        this.serverURI = serverURI;
+        this.connections = new Connection[Math.max(1, MqttClientSetting.getInstance().getInt(MqttClientSettingKeys.TRANSPORT_MULTIPLEXER_CONNECTIONS, 2))];
+    }
+
+    /**
+     * Gets the singleton instance of {@link MqttResponseMultiplexer} for the given broker node.
+     *
+     * @param serverURI The {@link java.net.URI} in {@link String} form for which get the {@link MqttResponseMultiplexer}.
+     * @return The singleton instance of {@link MqttResponseMultiplexer}.
+     * @since 2.1.0
+     */
+    public static MqttResponseMultiplexer getInstance(String serverURI) {
+        return MQTT_RESPONSE_MULTIPLEXER_BY_HOST.computeIfAbsent(serverURI, MqttResponseMultiplexer::new);
+    }
+
+    /**
+     * Gets one of the {@link Connection}s, in round-robin.
+     * <p>
+     * The {@link Connection} is connected on first usage.
+     *
+     * @return The {@link Connection} to use.
+     * @throws MqttClientException if the {@link Connection} cannot be connected.
+     * @since 2.1.0
+     */
+    public Connection getConnection() throws MqttClientException {
+        int index = Math.floorMod(nextConnection.getAndIncrement(), connections.length);
+
+        Connection connection = connections[index];
+        if (connection == null) {
+            synchronized (connections) {
+                connection = connections[index];
+                if (connection == null) {
+                    connection = connect();
+                    connections[index] = connection;
+                }
+            }
+        }
+        return connection;
+    }
+
+    /**
+     * Creates and connects a new {@link Connection}.
+     *
+     * @return The connected {@link Connection}.
+     * @throws MqttClientException if connection fails.
+     * @since 2.1.0
+     */
+    private Connection connect() throws MqttClientException {
+        MqttClientSetting mqttClientSettings = MqttClientSetting.getInstance();
+
+        MqttClientConnectionOptions connectionOptions = new MqttClientConnectionOptions();
+        connectionOptions.setClientId(clientIdGenerator.next(mqttClientSettings.getString(MqttClientSettingKeys.TRANSPORT_MULTIPLEXER_CLIENT_ID_PREFIX)));
+        connectionOptions.setUsername(mqttClientSettings.getString(MqttClientSettingKeys.TRANSPORT_CREDENTIAL_USERNAME));
+        connectionOptions.setPassword(mqttClientSettings.getString(MqttClientSettingKeys.TRANSPORT_CREDENTIAL_PASSWORD).toCharArray());
+        connectionOptions.setEndpointURI(URI.create(serverURI));
+
+        MqttClient mqttClient = new MqttClient();
+        try {
+            mqttClient.connectClient(connectionOptions);
+
+            Connection connection = new Connection(mqttClient);
+            mqttClient.setCallback(connection);
+            return connection;
+        } catch (MqttClientException mce) {
+            try {
+                mqttClient.terminateClient();
+            } catch (MqttClientTerminateException mcte) {
+                LOG.error("Unable to properly terminate MQTT client after failed connect attempt: {}", connectionOptions.getClientId(), mcte);
+            }
+            throw mce;
+        }
+    }
+
+    /**
+     * A persistent {@link MqttClient} connection shared among concurrent requests.
+     *
+     * @since 2.1.0
+     */
+    public static class Connection implements MqttCallbackExtended {
+
+        private final MqttClient mqttClient;
+
+        /**
+         * Pending responses by their response topic.
+         */
+        private final Map<String, CompletableFuture<MqttMessage>> pendingResponses = new ConcurrentHashMap<>();
+
+        /**
+         * Topic filters subscribed by this {@link Connection}.
+         * <p>
+         * The subscription is completed by the first thread requesting it, outside of any lock of the map, while the other ones wait for its outcome.
+         */
+        private final Map<String, CompletableFuture<MqttTopic>> subscribedFilters = new ConcurrentHashMap<>();
+
+        /**
+         * Constructor.
+         *
+         * @param mqttClient The connected {@link MqttClient}.
+         * @since 2.1.0
+         */
+        Connection(MqttClient mqttClient) {
+            this.mqttClient = mqttClient;
+        }
+
+        /**
+         * Gets the client id of this {@link Connection}, to be used as requester client id of the requests.
+         *
+         * @return The client id of this {@link Connection}.
+         * @since 2.1.0
+         */
+        public String getClientId() {
+            return mqttClient.getClientId();
+        }
+
+        /**
+         * Publishes the given {@link MqttMessage}.
+         *
+         * @param mqttMessage The {@link MqttMessage} to publish.
+         * @throws MqttClientPublishException if publish fails.
+         * @since 2.1.0
+         */
+        public void publish(@NotNull MqttMessage mqttMessage) throws MqttClientPublishException {
+            mqttClient.publish(mqttMessage);
+        }
+
+        /**
+         * Registers the expectation of a response on the given {@link MqttTopic}.
+         * <p>
+         * It must be invoked before publishing the request, so that the response cannot arrive before it is expected.
+         * The returned {@link CompletableFuture} completes with the response, or exceptionally with a {@link TimeoutException} when the timeout expires.
+         *
+         * @param responseTopic The response {@link MqttTopic}.
+         * @param timeout       The timeout of waiting the response, in milliseconds.
+         * @return The {@link CompletableFuture} of the response.
+         * @throws MqttClientSubscribeException if subscribing to the response topic fails.
+         * @since 2.1.0
+         */
+        public CompletableFuture<MqttMessage> expectResponse(@NotNull MqttTopic responseTopic, long timeout) throws MqttClientSubscribeException {
+            MqttTopic subscriptionFilter = subscriptionFilterFor(responseTopic);
+            subscribe(subscriptionFilter);
+
+            CompletableFuture<MqttMessage> response = new CompletableFuture<>();
+            pendingResponses.put(responseTopic.getTopic(), response);
+
+            ScheduledFuture<?> responseTimeout = MqttResponseTimeoutScheduler.schedule(() -> response.completeExceptionally(new TimeoutException()), timeout);
+            response.whenComplete((r, t) -> {
+                responseTimeout.cancel(false);
+                pendingResponses.remove(responseTopic.getTopic(), response);
+            });
+
+            // Blocking MQTT operations must not run on the Paho callback thread, which completes the responses.
+            if (subscriptionFilter.getTopic().equals(responseTopic.getTopic())) {
+                response.whenCompleteAsync((r, t) -> unsubscribe(subscriptionFilter));
+            }
+
+            return response;
+        }
+
+        /**
+         * Gets the topic filter to subscribe to receive the given response {@link MqttTopic}.
+         * <p>
+         * Response topics contain the requester client id (i.e. {@code $EDC/account/requesterClientId/app/REPLY/requestId}), so all the levels after it are replaced by a multi-level wildcard.
+         * This way, only one subscription for each account is made, instead of one for each request.
+         * If the client id is not found in the response topic, the response topic itself is subscribed and unsubscribed when the response arrives.
+         *
+         * @param responseTopic The response {@link MqttTopic}.
+         * @return The topic filter to subscribe to.
+         */
+        private MqttTopic subscriptionFilterFor(MqttTopic responseTopic) {
+            String[] topicTokens = responseTopic.getSplittedTopic();
+            int clientIdIndex = Arrays.asList(topicTokens).indexOf(getClientId());
+            if (clientIdIndex < 0) {
+                return responseTopic;
+            }
+
+            String[] filterTokens = Arrays.copyOf(topicTokens, clientIdIndex + 2);
+            filterTokens[clientIdIndex + 1] = MULTI_LEVEL_WILDCARD;
+            return new MqttTopic(String.join(TOPIC_SEPARATOR, filterTokens));
+        }
+
+        private void subscribe(MqttTopic topicFilter) throws MqttClientSubscribeException {
+            CompletableFuture<MqttTopic> subscription = new CompletableFuture<>();
+            CompletableFuture<MqttTopic> currentSubscription = subscribedFilters.putIfAbsent(topicFilter.getTopic(), subscription);
+            if (currentSubscription != null) {
+                waitSubscription(topicFilter, currentSubscription);
+                return;
+            }
+
+            try {
+                mqttClient.subscribe(topicFilter);
+                subscription.complete(topicFilter);
+            } catch (MqttClientSubscribeException mcse) {
+                subscribedFilters.remove(topicFilter.getTopic(), subscription);
+                subscription.completeExceptionally(mcse);
+                throw mcse;
+            }
+        }
+
+        private void waitSubscription(MqttTopic topicFilter, CompletableFuture<MqttTopic> subscription) throws MqttClientSubscribeException {
+            try {
+                subscription.get();
+            } catch (ExecutionException ee) {
+                if (ee.getCause() instanceof MqttClientSubscribeException) {
+                    throw (MqttClientSubscribeException) ee.getCause();
+                }
+                throw new MqttClientSubscribeException(ee.getCause(), getClientId(), topicFilter);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new MqttClientSubscribeException(ie, getClientId(), topicFilter);
+            }
+        }
+
+        private void unsubscribe(MqttTopic topicFilter) {
+            subscribedFilters.remove(topicFilter.getTopic());
+            try {
+                mqttClient.unsubscribeTopic(topicFilter);
+            } catch (MqttClientUnsubscribeException mcue) {
+                LOG.warn(mcue.getMessage());
+            }
+        }
+
+        @Override
+        public void messageArrived(String stringTopic, org.eclipse.paho.client.mqttv3.MqttMessage message) {
+            CompletableFuture<MqttMessage> response = pendingResponses.remove(stringTopic);
+            if (response == null) {
+                LOG.debug("Received response on topic {} with no pending request. Probably the request has timed out", stringTopic);
+                return;
+            }
+
+            response.complete(new MqttMessage(new MqttTopic(stringTopic), new Date(), new MqttPayload(message.getPayload())));
+        }
+
+        @Override
+        public void deliveryComplete(IMqttDeliveryToken token) {
+            LOG.debug("Message delivery completed for messageId: {}", token.getMessageId());
+        }
+
+        /**
+         * Fails all the pending responses, since responses sent while the connection is down are lost.
+         * <p>
+         * The subscriptions are restored on reconnect by {@link #connectComplete(boolean, String)}.
+         *
+         * @since 2.1.0
+         */
+        @Override
+        public void connectionLost(Throwable cause) {
+            LOG.warn("Connection lost detected for {}! Failing {} pending responses. {}", getClientId(), pendingResponses.size(), cause.getMessage());
+            pendingResponses.values().forEach(response -> response.completeExceptionally(new MqttClientNotConnectedException(getClientId())));
+        }
+
+        @Override
+        public void connectComplete(boolean reconnect, String serverURI) {
+            if (!reconnect) {
+                return;
+            }
+
+            LOG.info("Connection {} restored to {}. Restoring {} subscriptions", getClientId(), serverURI, subscribedFilters.size());
+            // Blocking MQTT operations must not run on the Paho callback thread.
+            CompletableFuture.runAsync(() -> {
+                for (Map.Entry<String, CompletableFuture<MqttTopic>> subscribedFilter : subscribedFilters.entrySet()) {
+                    MqttTopic topicFilter = subscribedFilter.getValue().getNow(null);
+                    if (topicFilter == null) {
+                        // Still being subscribed, or failed, by a request
+                        continue;
+                    }
+
+                    try {
+                        mqttClient.subscribe(topicFilter);
+                    } catch (MqttClientSubscribeException mcse) {
+                        LOG.error("Unable to restore subscription {} for {}", topicFilter, getClientId(), mcse);
+                        subscribedFilters.remove(subscribedFilter.getKey(), subscribedFilter.getValue());
+                    }
+                }
+            });
+        }
+    }
+}
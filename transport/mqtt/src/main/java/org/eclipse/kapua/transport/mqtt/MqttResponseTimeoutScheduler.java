@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.transport.mqtt;
+
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared scheduler for the timeouts of the requests waiting for a response.
+ * <p>
+ * A single daemon thread handles the timeouts of all the in-flight requests, instead of a {@link java.util.Timer} thread for each request.
+ * Cancelled timeouts are removed from the queue straight away, since most of the requests complete before their timeout.
+ *
+ * @since 2.1.0
+ */
+public final class MqttResponseTimeoutScheduler {
+
+    private static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, MqttResponseTimeoutScheduler.class.getSimpleName());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        SCHEDULER.setRemoveOnCancelPolicy(true);
+    }
+
+    private MqttResponseTimeoutScheduler() {
+    }
+
+    /**
+     * Schedules the given timeout task.
+     *
+     * @param timeoutTask The task to run when the timeout expires. It must be quick, since it runs on the shared scheduler thread.
+     * @param timeout     The timeout, in milliseconds.
+     * @return The {@link ScheduledFuture} to cancel the timeout when the response arrives.
+     * @since 2.1.0
+     */
+    public static ScheduledFuture<?> schedule(@NotNull Runnable timeoutTask, long timeout) {
+        return SCHEDULER.schedule(timeoutTask, timeout, TimeUnit.MILLISECONDS);
+    }
+}
@@ -20,7 +20,9 @@ import java.util.TimerTask;
  * The {@link Timer} to handle the timeout of {@link MqttResponseCallback}.
  *
  * @since 1.0.0
+ * @deprecated Since 2.1.0. It starts a new thread for each request. Please make use of {@link MqttResponseTimeoutScheduler}.
  */
+@Deprecated
 public class MqttResponseTimeoutTimer extends Timer {
 
     private static final String MQTT_RESPONSE_TIMEOUT_TIMER_NAME_FORMAT = MqttResponseTimeoutTimer.class.getSimpleName() + "-%s";
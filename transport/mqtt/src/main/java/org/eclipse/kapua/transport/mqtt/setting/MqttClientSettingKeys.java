@@ -65,6 +65,29 @@ public enum MqttClientSettingKeys implements SettingKey {
      */
     @Deprecated
     SEND_TIMEOUT_MAX("transport.send.timeout.max"),
+
+    /**
+     * Whether to send requests and receive responses through the shared {@link org.eclipse.kapua.transport.mqtt.MqttResponseMultiplexer}
+     * instead of borrowing a client from the {@link org.eclipse.kapua.transport.mqtt.pooling.MqttClientPool} for each request.
+     * Disabled by default.
+     *
+     * @since 2.1.0
+     */
+    TRANSPORT_MULTIPLEXER_ENABLED("transport.mqtt.multiplexer.enabled"),
+
+    /**
+     * The number of persistent MQTT connections opened by each {@link org.eclipse.kapua.transport.mqtt.MqttResponseMultiplexer}.
+     *
+     * @since 2.1.0
+     */
+    TRANSPORT_MULTIPLEXER_CONNECTIONS("transport.mqtt.multiplexer.connections"),
+
+    /**
+     * The client id prefix of the connections of the {@link org.eclipse.kapua.transport.mqtt.MqttResponseMultiplexer}.
+     *
+     * @since 2.1.0
+     */
+    TRANSPORT_MULTIPLEXER_CLIENT_ID_PREFIX("transport.mqtt.multiplexer.client.id.prefix"),
     ;
 
     /**
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.transport.mqtt;
+
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.transport.message.mqtt.MqttMessage;
+import org.eclipse.kapua.transport.message.mqtt.MqttTopic;
+import org.eclipse.kapua.transport.mqtt.exception.MqttClientNotConnectedException;
+import org.eclipse.kapua.transport.mqtt.exception.MqttClientSubscribeException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentMatcher;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Category(JUnitTests.class)
+public class MqttResponseMultiplexerTest {
+
+    private static final String CLIENT_ID = "KapuaMux-1";
+    private static final long TIMEOUT = 10000;
+
+    private MqttClient mqttClient;
+    private MqttResponseMultiplexer.Connection connection;
+
+    @Before
+    public void createInstanceOfClasses() {
+        mqttClient = Mockito.mock(MqttClient.class);
+        Mockito.when(mqttClient.getClientId()).thenReturn(CLIENT_ID);
+        connection = new MqttResponseMultiplexer.Connection(mqttClient);
+    }
+
+    private static MqttTopic responseTopic(String account, String requestId) {
+        return new MqttTopic("$EDC/" + account + "/" + CLIENT_ID + "/DEPLOY-V2/REPLY/" + requestId);
+    }
+
+    private static MqttTopic topicFilter(String account) {
+        String topicFilter = "$EDC/" + account + "/" + CLIENT_ID + "/#";
+        return Matchers.argThat(new ArgumentMatcher<MqttTopic>() {
+
+            @Override
+            public boolean matches(Object argument) {
+                return argument instanceof MqttTopic && topicFilter.equals(((MqttTopic) argument).getTopic());
+            }
+        });
+    }
+
+    private static org.eclipse.paho.client.mqttv3.MqttMessage pahoMessage(String payload) {
+        return new org.eclipse.paho.client.mqttv3.MqttMessage(payload.getBytes());
+    }
+
+    @Test
+    public void responseRoutingTest() throws Exception {
+        CompletableFuture<MqttMessage> first = connection.expectResponse(responseTopic("account", "1"), TIMEOUT);
+        CompletableFuture<MqttMessage> second = connection.expectResponse(responseTopic("account", "2"), TIMEOUT);
+
+        connection.messageArrived(responseTopic("account", "2").getTopic(), pahoMessage("second"));
+        Assert.assertFalse("Response should not be routed to another request", first.isDone());
+        Assert.assertEquals("Expected and actual values should be the same!", "second", new String(second.get(1, TimeUnit.SECONDS).getPayload().getBody()));
+
+        connection.messageArrived(responseTopic("account", "1").getTopic(), pahoMessage("first"));
+        Assert.assertEquals("Expected and actual values should be the same!", "first", new String(first.get(1, TimeUnit.SECONDS).getPayload().getBody()));
+    }
+
+    @Test
+    public void unexpectedResponseTest() throws Exception {
+        CompletableFuture<MqttMessage> response = connection.expectResponse(responseTopic("account", "1"), TIMEOUT);
+
+        connection.messageArrived(responseTopic("account", "unknown").getTopic(), pahoMessage("unknown"));
+        Assert.assertFalse("Response should not be routed to another request", response.isDone());
+    }
+
+    @Test
+    public void subscribeOncePerAccountTest() throws Exception {
+        connection.expectResponse(responseTopic("account", "1"), TIMEOUT);
+        connection.expectResponse(responseTopic("account", "2"), TIMEOUT);
+        connection.expectResponse(responseTopic("otherAccount", "3"), TIMEOUT);
+
+        Mockito.verify(mqttClient, Mockito.times(1)).subscribe(topicFilter("account"));
+        Mockito.verify(mqttClient, Mockito.times(1)).subscribe(topicFilter("otherAccount"));
+    }
+
+    @Test
+    public void subscribeFailureTest() throws Exception {
+        MqttTopic topicFilter = new MqttTopic("$EDC/account/" + CLIENT_ID + "/#");
+        Mockito.doThrow(new MqttClientSubscribeException(new Exception("subscribe failure"), CLIENT_ID, topicFilter))
+                .doNothing()
+                .when(mqttClient).subscribe(Matchers.any(MqttTopic.class));
+
+        try {
+            connection.expectResponse(responseTopic("account", "1"), TIMEOUT);
+            Assert.fail("MqttClientSubscribeException expected");
+        } catch (MqttClientSubscribeException mcse) {
+            // Expected
+        }
+
+        // A failed subscription is attempted again by the next request
+        connection.expectResponse(responseTopic("account", "2"), TIMEOUT);
+        Mockito.verify(mqttClient, Mockito.times(2)).subscribe(topicFilter("account"));
+    }
+
+    @Test
+    public void responseTimeoutTest() throws Exception {
+        CompletableFuture<MqttMessage> response = connection.expectResponse(responseTopic("account", "1"), 50);
+
+        try {
+            response.get(5, TimeUnit.SECONDS);
+            Assert.fail("TimeoutException expected");
+        } catch (ExecutionException ee) {
+            Assert.assertTrue("TimeoutException expected", ee.getCause() instanceof TimeoutException);
+        }
+
+        // A late response is discarded
+        connection.messageArrived(responseTopic("account", "1").getTopic(), pahoMessage("late"));
+    }
+
+    @Test
+    public void connectionLostTest() throws Exception {
+        CompletableFuture<MqttMessage> response = connection.expectResponse(responseTopic("account", "1"), TIMEOUT);
+
+        connection.connectionLost(new Exception("connection lost"));
+        try {
+            response.get(1, TimeUnit.SECONDS);
+            Assert.fail("MqttClientNotConnectedException expected");
+        } catch (ExecutionException ee) {
+            Assert.assertTrue("MqttClientNotConnectedException expected", ee.getCause() instanceof MqttClientNotConnectedException);
+        }
+    }
+
+    @Test
+    public void reconnectRestoresSubscriptionsTest() throws Exception {
+        connection.expectResponse(responseTopic("account", "1"), TIMEOUT);
+        connection.expectResponse(responseTopic("otherAccount", "2"), TIMEOUT);
+
+        connection.connectComplete(false, "tcp://broker:1883");
+        Mockito.verify(mqttClient, Mockito.times(2)).subscribe(Matchers.any(MqttTopic.class));
+
+        connection.connectComplete(true, "tcp://broker:1883");
+        Mockito.verify(mqttClient, Mockito.timeout(5000).times(2)).subscribe(topicFilter("account"));
+        Mockito.verify(mqttClient, Mockito.timeout(5000).times(2)).subscribe(topicFilter("otherAccount"));
+    }
+}